@@ -15,11 +15,13 @@ package io.orkes.conductor.client;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.net.URL;
 import java.net.URLConnection;
-import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.security.GeneralSecurityException;
@@ -32,7 +34,10 @@ import java.security.cert.X509Certificate;
 import java.text.DateFormat;
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -46,16 +51,22 @@ import org.threeten.bp.LocalDate;
 import org.threeten.bp.OffsetDateTime;
 import org.threeten.bp.format.DateTimeFormatter;
 
+import io.orkes.conductor.client.codec.GsonCodec;
+import io.orkes.conductor.client.codec.JsonCodec;
 import io.orkes.conductor.client.http.*;
+import io.orkes.conductor.client.http.api.AsyncApiCallback;
 import io.orkes.conductor.client.http.api.TokenResourceApi;
 import io.orkes.conductor.client.http.auth.ApiKeyAuth;
 import io.orkes.conductor.client.http.auth.Authentication;
 import io.orkes.conductor.client.http.auth.HttpBasicAuth;
 import io.orkes.conductor.client.http.auth.OAuth;
+import io.orkes.conductor.client.http.auth.TokenAuth;
+import io.orkes.conductor.client.http.auth.TokenManager;
+import io.orkes.conductor.client.http.auth.TokenRefreshInterceptor;
+import io.orkes.conductor.client.http.transport.HttpTransport;
+import io.orkes.conductor.client.http.transport.TransportInterceptor;
 import io.orkes.conductor.client.model.GenerateTokenRequest;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.squareup.okhttp.*;
 import com.squareup.okhttp.internal.http.HttpMethod;
 import okio.BufferedSink;
@@ -64,11 +75,11 @@ import okio.Okio;
 public class ApiClient {
     private static final Logger LOGGER = LoggerFactory.getLogger(ApiClient.class);
 
-    private static final String TOKEN_CACHE_KEY = "TOKEN";
-    private final Cache<String, String> tokenCache;
+    private static final int DEFAULT_MAX_ASYNC_IN_FLIGHT = 256;
+    private final TokenManager tokenManager;
 
     private final String basePath;
-    private final Map<String, String> defaultHeaderMap = new HashMap<String, String>();
+    private final Map<String, String> defaultHeaderMap;
 
     private String tempFolderPath;
 
@@ -79,7 +90,19 @@ public class ApiClient {
     private KeyManager[] keyManagers;
 
     private OkHttpClient httpClient;
+    private HttpTransport httpTransport;
+    private HttpClientMetrics httpClientMetrics;
+    private RequestCoalescer requestCoalescer;
+    private EndpointBalancer endpointBalancer;
+    private Interceptor endpointBalancerInterceptor;
+    private RetryInterceptor retryInterceptor;
+    private TokenRefreshInterceptor tokenRefreshInterceptor;
+    private RetryBudget retryBudget = new RetryBudget(100, 0.2, 10);
+    private Bulkheads bulkheads;
+    private CallOptions callOptions = CallOptions.DEFAULT;
+    private AsyncCallLimiter asyncCallLimiter = new AsyncCallLimiter(DEFAULT_MAX_ASYNC_IN_FLIGHT);
     private JSON json;
+    private JsonCodec codec;
 
     private String keyId;
     private String keySecret;
@@ -106,13 +129,15 @@ public class ApiClient {
     }
 
     public ApiClient(String basePath) {
-        this.tokenCache = CacheBuilder.newBuilder().expireAfterWrite(30, TimeUnit.MINUTES).build();
+        this.tokenManager = new TokenManager(this::refreshToken);
         this.basePath = basePath;
+        this.defaultHeaderMap = new HashMap<>();
         httpClient = new OkHttpClient();
         httpClient.setRetryOnConnectionFailure(true);
         verifyingSsl = true;
         json = new JSON();
-        authentications = new HashMap<>();
+        codec = new GsonCodec(json);
+        authentications = new ConcurrentHashMap<>();
     }
 
     public ApiClient(
@@ -121,6 +146,7 @@ public class ApiClient {
         this.secretsManager = secretsManager;
         this.ssmKeyPath = keyPath;
         this.ssmSecretPath = secretPath;
+        enableTokenAuth();
         try {
             getToken();
         } catch (Throwable t) {
@@ -132,6 +158,7 @@ public class ApiClient {
         this(basePath);
         this.keyId = keyId;
         this.keySecret = keySecret;
+        enableTokenAuth();
         try {
             getToken();
         } catch (Throwable t) {
@@ -143,6 +170,57 @@ public class ApiClient {
         this(basePath);
     }
 
+    private ApiClient(ApiClient parent, CallOptions callOptions) {
+        this.tokenManager = parent.tokenManager;
+        this.basePath = parent.basePath;
+        this.defaultHeaderMap = parent.defaultHeaderMap;
+        this.tempFolderPath = parent.tempFolderPath;
+        this.authentications = parent.authentications;
+        this.sslCaCert = parent.sslCaCert;
+        this.verifyingSsl = parent.verifyingSsl;
+        this.keyManagers = parent.keyManagers;
+        this.httpClient = parent.httpClient;
+        this.httpTransport = parent.httpTransport;
+        this.httpClientMetrics = parent.httpClientMetrics;
+        this.requestCoalescer = parent.requestCoalescer;
+        this.endpointBalancer = parent.endpointBalancer;
+        this.endpointBalancerInterceptor = parent.endpointBalancerInterceptor;
+        this.retryInterceptor = parent.retryInterceptor;
+        this.tokenRefreshInterceptor = parent.tokenRefreshInterceptor;
+        this.retryBudget = parent.retryBudget;
+        this.bulkheads = parent.bulkheads;
+        this.json = parent.json;
+        this.codec = parent.codec;
+        this.keyId = parent.keyId;
+        this.keySecret = parent.keySecret;
+        this.secretsManager = parent.secretsManager;
+        this.ssmKeyPath = parent.ssmKeyPath;
+        this.ssmSecretPath = parent.ssmSecretPath;
+        this.grpcHost = parent.grpcHost;
+        this.grpcPort = parent.grpcPort;
+        this.useSSL = parent.useSSL;
+        this.useGRPC = parent.useGRPC;
+        this.executorThreadCount = parent.executorThreadCount;
+        this.asyncCallLimiter = parent.asyncCallLimiter;
+        this.callOptions = callOptions;
+    }
+
+    /**
+     * Returns a client applying the given options to its calls. The returned client shares the
+     * HTTP client, credentials and default headers of this client, the options do not affect the
+     * calls made through this client.
+     *
+     * @param callOptions options for the calls of the returned client
+     * @return Api client
+     */
+    public ApiClient withCallOptions(CallOptions callOptions) {
+        return new ApiClient(this, callOptions);
+    }
+
+    public CallOptions getCallOptions() {
+        return callOptions;
+    }
+
     public boolean useSecurity() {
         return StringUtils.isNotBlank(keyId) && StringUtils.isNotBlank(keySecret);
     }
@@ -183,6 +261,17 @@ public class ApiClient {
         return executorThreadCount;
     }
 
+    /**
+     * Sets the maximum number of execute-and-wait calls of {@link
+     * io.orkes.conductor.client.http.OrkesWorkflowClient} in flight over HTTP, or the number of
+     * threads of the gRPC channel when gRPC is enabled. Over HTTP these calls hold the connection
+     * until the workflow reaches the task, so each workflow client runs them on a dispatcher of its
+     * own and they do not take the request slots of the shared dispatcher. Zero or less, the
+     * default, allows 64 calls in flight over HTTP and uses the default executor of gRPC. Takes
+     * effect for clients created afterwards.
+     *
+     * @param executorThreadCount maximum number of calls, zero or less for the default
+     */
     public void setExecutorThreadCount(int executorThreadCount) {
         this.executorThreadCount = executorThreadCount;
     }
@@ -204,11 +293,49 @@ public class ApiClient {
      */
     public ApiClient setHttpClient(OkHttpClient httpClient) {
         this.httpClient = httpClient;
+        if (httpTransport != null) {
+            setHttpTransport(httpTransport);
+        }
+        installInterceptors();
+        return this;
+    }
+
+    /**
+     * Get the transport used to send requests, null when requests are sent by OkHttp.
+     *
+     * @return The HTTP transport
+     */
+    public HttpTransport getHttpTransport() {
+        return httpTransport;
+    }
+
+    /**
+     * Set the transport used to send requests, e.g. {@link
+     * io.orkes.conductor.client.http.transport.JdkHttpTransport} for HTTP/2 multiplexing. Requests
+     * are still built and intercepted by the OkHttp client, the transport replaces its network
+     * layer. Interceptors added to the client after the transport is set are not invoked, and
+     * neither are network interceptors, see {@link HttpTransport}. The read timeout of the client,
+     * or of the call options of a call, is the timeout of the request.
+     *
+     * @param httpTransport The transport, or null to send requests with OkHttp
+     * @return Api Client
+     */
+    public ApiClient setHttpTransport(HttpTransport httpTransport) {
+        httpClient.interceptors().removeIf(interceptor -> interceptor instanceof TransportInterceptor);
+        this.httpTransport = httpTransport;
+        if (httpTransport != null) {
+            httpClient.interceptors().add(new TransportInterceptor(httpTransport, httpClient));
+        }
+        installInterceptors();
         return this;
     }
 
     public void shutdown() {
+        tokenManager.shutdown();
         this.httpClient.getDispatcher().getExecutorService().shutdown();
+        if (httpTransport != null) {
+            httpTransport.shutdown();
+        }
     }
 
     /**
@@ -228,6 +355,30 @@ public class ApiClient {
      */
     public ApiClient setJSON(JSON json) {
         this.json = json;
+        if (codec instanceof GsonCodec) {
+            this.codec = new GsonCodec(json);
+        }
+        return this;
+    }
+
+    /**
+     * Get the codec used for JSON request and response bodies
+     *
+     * @return JSON codec
+     */
+    public JsonCodec getJsonCodec() {
+        return codec;
+    }
+
+    /**
+     * Set the codec used for JSON request and response bodies. Defaults to a {@link GsonCodec}
+     * sharing the configuration of {@link #getJSON()}.
+     *
+     * @param codec JSON codec
+     * @return Api client
+     */
+    public ApiClient setJsonCodec(JsonCodec codec) {
+        this.codec = codec;
         return this;
     }
 
@@ -541,6 +692,214 @@ public class ApiClient {
         return this;
     }
 
+    /**
+     * Replaces the connection pool of the HTTP client. Connections held by the previous pool are
+     * not reused anymore.
+     *
+     * @param maxIdleConnections maximum number of idle connections kept per address
+     * @param keepAliveDuration time an idle connection is kept before being evicted
+     * @param unit unit of the keep alive duration
+     * @return Api client
+     */
+    public ApiClient setConnectionPool(int maxIdleConnections, long keepAliveDuration, TimeUnit unit) {
+        httpClient.setConnectionPool(
+                new ConnectionPool(maxIdleConnections, unit.toMillis(keepAliveDuration)));
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of asynchronous calls executed concurrently, further calls are
+     * queued by the dispatcher.
+     *
+     * @param maxRequests maximum number of concurrent calls
+     * @return Api client
+     */
+    public ApiClient setMaxRequests(int maxRequests) {
+        httpClient.getDispatcher().setMaxRequests(maxRequests);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of asynchronous calls executed concurrently against a single host,
+     * 5 by default as in OkHttp. Further calls are queued by the dispatcher. A client talking to a
+     * single server, e.g. to start workflows in bulk, usually needs more.
+     *
+     * @param maxRequestsPerHost maximum number of concurrent calls per host
+     * @return Api client
+     */
+    public ApiClient setMaxRequestsPerHost(int maxRequestsPerHost) {
+        httpClient.getDispatcher().setMaxRequestsPerHost(maxRequestsPerHost);
+        return this;
+    }
+
+    /**
+     * Sets the executor running asynchronous calls. The request limits of the current dispatcher
+     * are retained.
+     *
+     * @param executorService executor for asynchronous calls
+     * @return Api client
+     */
+    public ApiClient setDispatcherExecutor(ExecutorService executorService) {
+        Dispatcher current = httpClient.getDispatcher();
+        Dispatcher dispatcher = new Dispatcher(executorService);
+        dispatcher.setMaxRequests(current.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(current.getMaxRequestsPerHost());
+        httpClient.setDispatcher(dispatcher);
+        return this;
+    }
+
+    /**
+     * Registers gauges for the connection pool and dispatcher of the HTTP client, along with the
+     * connect time and reuse ratio of its connections. Call after {@link
+     * #setHttpClient(OkHttpClient)} when a custom client is used. The connection metrics stay at
+     * zero while an {@link HttpTransport} is set, the transport bypasses the connections of the
+     * client.
+     *
+     * @param name value of the client tag of the metrics
+     * @return the metrics of the HTTP client
+     */
+    public HttpClientMetrics enableHttpClientMetrics(String name) {
+        if (httpTransport != null) {
+            LOGGER.warn("Requests are sent by {}, the connection metrics of {} stay at zero",
+                    httpTransport.getClass().getSimpleName(), name);
+        }
+        if (httpClientMetrics == null) {
+            httpClientMetrics = HttpClientMetrics.attach(httpClient, name);
+        }
+        return httpClientMetrics;
+    }
+
+    public HttpClientMetrics getHttpClientMetrics() {
+        return httpClientMetrics;
+    }
+
+    /**
+     * Shares a single call between identical GET requests made concurrently to the given
+     * endpoints, e.g. {@code /workflow/{workflowId}} or {@code /metadata/taskdefs/{tasktype}}.
+     * Coalescing is the outermost interceptor, see {@link InterceptorOrder}.
+     *
+     * @param pathTemplates paths of the endpoints, relative to the base path
+     * @return Api client
+     */
+    public ApiClient enableRequestCoalescing(String... pathTemplates) {
+        if (requestCoalescer == null) {
+            requestCoalescer = new RequestCoalescer(this::getBasePath);
+            installInterceptors();
+        }
+        for (String pathTemplate : pathTemplates) {
+            requestCoalescer.enable(pathTemplate);
+        }
+        return this;
+    }
+
+    public ApiClient disableRequestCoalescing(String... pathTemplates) {
+        if (requestCoalescer != null) {
+            for (String pathTemplate : pathTemplates) {
+                requestCoalescer.disable(pathTemplate);
+            }
+        }
+        return this;
+    }
+
+    /** @return the request coalescer, or null if coalescing was never enabled */
+    public RequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
+    /**
+     * Spreads the HTTP calls over several servers. Requests are still built with the base path of
+     * this client and sent to the endpoint picked by the balancer, see {@link InterceptorOrder} for
+     * where the balancer runs. Failovers to another endpoint withdraw from the retry budget of the
+     * client.
+     *
+     * @param endpointBalancer the balancer, or null to send every request to the base path
+     * @return Api client
+     */
+    public ApiClient setEndpointBalancer(EndpointBalancer endpointBalancer) {
+        if (endpointBalancerInterceptor != null) {
+            httpClient.interceptors().remove(endpointBalancerInterceptor);
+            endpointBalancerInterceptor = null;
+        }
+        this.endpointBalancer = endpointBalancer;
+        if (endpointBalancer != null) {
+            endpointBalancerInterceptor = endpointBalancer.interceptor(basePath, retryBudget);
+        }
+        installInterceptors();
+        return this;
+    }
+
+    /**
+     * Balances the HTTP calls over the given base paths with the default settings of {@link
+     * EndpointBalancer}.
+     *
+     * @param basePaths base paths of the servers, e.g. http://conductor-1:8080/api
+     * @return Api client
+     */
+    public ApiClient setBasePaths(List<String> basePaths) {
+        return setEndpointBalancer(EndpointBalancer.builder(basePaths).build());
+    }
+
+    public EndpointBalancer getEndpointBalancer() {
+        return endpointBalancer;
+    }
+
+    /**
+     * Retries the failed calls of this client according to the policy, e.g. {@link
+     * RetryPolicy#DEFAULT}. Retries are bounded by the retry budget of the client. Every attempt
+     * goes through the token refresh and the endpoint balancer, see {@link InterceptorOrder}.
+     *
+     * @param retryPolicy the policy, or null to not retry calls
+     * @return Api client
+     */
+    public ApiClient setRetryPolicy(RetryPolicy retryPolicy) {
+        if (retryInterceptor != null) {
+            httpClient.interceptors().remove(retryInterceptor);
+            retryInterceptor = null;
+        }
+        if (retryPolicy != null) {
+            retryInterceptor = new RetryInterceptor(retryPolicy, retryBudget);
+        }
+        installInterceptors();
+        return this;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryInterceptor == null ? null : retryInterceptor.getRetryPolicy();
+    }
+
+    /**
+     * Sets the budget bounding the retries and the endpoint failovers of this client, shared by the
+     * clients derived with {@link #withCallOptions(CallOptions)}.
+     *
+     * @param retryBudget the budget, or null for no budget
+     * @return Api client
+     */
+    public ApiClient setRetryBudget(RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+        setEndpointBalancer(endpointBalancer);
+        return setRetryPolicy(getRetryPolicy());
+    }
+
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * Isolates classes of traffic, e.g. task polls, task updates and admin calls, in their own
+     * connection pools with their own concurrency limits, see {@link Bulkheads#defaults()}.
+     *
+     * @param bulkheads the bulkheads, or null to send every call through the shared client
+     * @return Api client
+     */
+    public ApiClient setBulkheads(Bulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+        return this;
+    }
+
+    public Bulkheads getBulkheads() {
+        return bulkheads;
+    }
+
     public SecretsManager getSecretsManager() {
         return secretsManager;
     }
@@ -667,8 +1026,7 @@ public class ApiClient {
      * @return True if the given MIME is JSON, false otherwise.
      */
     public boolean isJsonMime(String mime) {
-        String jsonMime = "(?i)^(application/json|[^;/ \t]+/[^;/ \t]+[+]json)[ \t]*(;.*)?$";
-        return mime != null && (mime.matches(jsonMime) || mime.equals("*/*"));
+        return StringUtil.isJsonMime(mime);
     }
 
     /**
@@ -718,11 +1076,7 @@ public class ApiClient {
      * @return Escaped string
      */
     public String escapeString(String str) {
-        try {
-            return URLEncoder.encode(str, "utf8").replaceAll("\\+", "%20");
-        } catch (UnsupportedEncodingException e) {
-            return str;
-        }
+        return StringUtil.urlEncode(str);
     }
 
     /**
@@ -754,6 +1108,40 @@ public class ApiClient {
             return (T) downloadFileFromResponse(response);
         }
 
+        if (returnType.equals(String.class)) {
+            return (T) deserializeString(response);
+        }
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            return null;
+        }
+        try {
+            if (body.source().exhausted()) {
+                return null;
+            }
+            String contentType = response.headers().get("Content-Type");
+            if (contentType == null) {
+                // ensuring a default content type
+                contentType = "application/json";
+            }
+            if (!isJsonMime(contentType)) {
+                throw new ApiException(
+                        "Content type \"" + contentType + "\" is not supported for type: " + returnType,
+                        response.code(),
+                        response.headers().toMultimap(),
+                        body.string());
+            }
+            // parse straight from the response source, the body is never held as a whole string
+            return codec.read(body.charStream(), returnType);
+        } catch (IOException e) {
+            throw new ApiException(e);
+        } finally {
+            closeQuietly(body);
+        }
+    }
+
+    private String deserializeString(Response response) throws ApiException {
         String respBody;
         try {
             if (response.body() != null) respBody = response.body().string();
@@ -772,16 +1160,17 @@ public class ApiClient {
             contentType = "application/json";
         }
         if (isJsonMime(contentType)) {
-            return json.deserialize(respBody, returnType);
-        } else if (returnType.equals(String.class)) {
-            // Expecting string, return the raw response body.
-            return (T) respBody;
-        } else {
-            throw new ApiException(
-                    "Content type \"" + contentType + "\" is not supported for type: " + returnType,
-                    response.code(),
-                    response.headers().toMultimap(),
-                    respBody);
+            return json.deserialize(respBody, String.class);
+        }
+        // Expecting string, return the raw response body.
+        return respBody;
+    }
+
+    private static void closeQuietly(ResponseBody body) {
+        try {
+            body.close();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to close response body", e);
         }
     }
 
@@ -802,15 +1191,10 @@ public class ApiClient {
             // File body parameter support.
             return RequestBody.create(MediaType.parse(contentType), (File) obj);
         } else if (isJsonMime(contentType)) {
-            String content = null;
-            if (obj != null) {
-                if (obj instanceof String) {
-                    content = (String) obj;
-                } else {
-                    content = json.serialize(obj);
-                }
+            if (obj == null || obj instanceof String) {
+                return RequestBody.create(MediaType.parse(contentType), (String) obj);
             }
-            return RequestBody.create(MediaType.parse(contentType), content);
+            return new JsonRequestBody(MediaType.parse(contentType), obj);
         } else {
             throw new ApiException("Content type \"" + contentType + "\" is not supported");
         }
@@ -998,6 +1382,51 @@ public class ApiClient {
                 });
     }
 
+    /**
+     * Execute HTTP call asynchronously and return a future of the deserialized response. At most
+     * {@link #getMaxAsyncInFlight()} calls are enqueued on the HTTP client at a time, further calls
+     * wait without holding a thread. Cancelling the future cancels the call.
+     *
+     * @see #execute(Call, Type)
+     * @param <T> Type
+     * @param call The call to execute
+     * @param returnType Return type
+     * @return future of the response data
+     */
+    public <T> CompletableFuture<T> executeAsync(Call call, Type returnType) {
+        CompletableFuture<T> future =
+                asyncCallLimiter.submit(
+                        () -> {
+                            CompletableFuture<T> response = new CompletableFuture<>();
+                            executeAsync(call, returnType, new AsyncApiCallback<>(response));
+                            return response;
+                        });
+        future.whenComplete(
+                (result, error) -> {
+                    if (error instanceof CancellationException) {
+                        call.cancel();
+                    }
+                });
+        return future;
+    }
+
+    public int getMaxAsyncInFlight() {
+        return asyncCallLimiter.getMaxInFlight();
+    }
+
+    /**
+     * Sets the maximum number of calls made with {@link #executeAsync(Call, Type)} in flight at a
+     * time. Calls in flight are also subject to the request limits of the dispatcher, see {@link
+     * #setMaxRequestsPerHost(int)}.
+     *
+     * @param maxAsyncInFlight maximum number of asynchronous calls in flight
+     * @return Api client
+     */
+    public ApiClient setMaxAsyncInFlight(int maxAsyncInFlight) {
+        this.asyncCallLimiter = new AsyncCallLimiter(maxAsyncInFlight);
+        return this;
+    }
+
     /**
      * Build HTTP call with the given options.
      *
@@ -1025,6 +1454,49 @@ public class ApiClient {
             String[] authNames,
             ProgressRequestBody.ProgressRequestListener progressRequestListener)
             throws ApiException {
+        return buildCall(
+                path,
+                method,
+                queryParams,
+                collectionQueryParams,
+                body,
+                headerParams,
+                formParams,
+                authNames,
+                null,
+                progressRequestListener);
+    }
+
+    /**
+     * Build HTTP call with the given options. The call options of this client and the progress
+     * listener are applied to a copy of the HTTP client, the shared client is never modified.
+     *
+     * @param path The sub-path of the HTTP URL
+     * @param method The request method, one of "GET", "HEAD", "OPTIONS", "POST", "PUT", "PATCH" and
+     *     "DELETE"
+     * @param queryParams The query parameters
+     * @param collectionQueryParams The collection query parameters
+     * @param body The request body object
+     * @param headerParams The header parameters
+     * @param formParams The form parameters
+     * @param authNames The authentications to apply
+     * @param progressListener Progress response listener
+     * @param progressRequestListener Progress request listener
+     * @return The HTTP call
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public Call buildCall(
+            String path,
+            String method,
+            List<Pair> queryParams,
+            List<Pair> collectionQueryParams,
+            Object body,
+            Map<String, String> headerParams,
+            Map<String, Object> formParams,
+            String[] authNames,
+            ProgressResponseBody.ProgressListener progressListener,
+            ProgressRequestBody.ProgressRequestListener progressRequestListener)
+            throws ApiException {
         Request request =
                 buildRequest(
                         path,
@@ -1036,7 +1508,94 @@ public class ApiClient {
                         formParams,
                         authNames,
                         progressRequestListener);
-        return httpClient.newCall(request);
+        OkHttpClient client = clientFor(method, path, progressListener);
+        CallContext context = new CallContext(client.getReadTimeout());
+        Call call = client.newCall(request.newBuilder().tag(context).build());
+        context.bind(call);
+        return call;
+    }
+
+    /**
+     * Build HTTP call for a precompiled endpoint. The media types and authentications of the
+     * endpoint are resolved once when the descriptor is created instead of on every call.
+     *
+     * @param endpoint The endpoint descriptor
+     * @param path The sub-path of the HTTP URL, expanded from the path template of the endpoint
+     * @param queryParams The query parameters
+     * @param body The request body object
+     * @param progressListener Progress response listener
+     * @param progressRequestListener Progress request listener
+     * @return The HTTP call
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public Call buildCall(
+            EndpointDescriptor endpoint,
+            String path,
+            List<Pair> queryParams,
+            Object body,
+            ProgressResponseBody.ProgressListener progressListener,
+            ProgressRequestBody.ProgressRequestListener progressRequestListener)
+            throws ApiException {
+        Map<String, String> headerParams = new HashMap<>(4);
+        if (endpoint.getAccept() != null) {
+            headerParams.put("Accept", endpoint.getAccept());
+        }
+        headerParams.put("Content-Type", endpoint.getContentType());
+        return buildCall(
+                path,
+                endpoint.getMethod(),
+                queryParams,
+                Collections.emptyList(),
+                body,
+                headerParams,
+                Collections.emptyMap(),
+                endpoint.getAuthNames(),
+                progressListener,
+                progressRequestListener);
+    }
+
+    private OkHttpClient clientFor(
+            String method, String path, ProgressResponseBody.ProgressListener progressListener) {
+        if (progressListener == null) {
+            progressListener = callOptions.getProgressListener();
+        }
+        OkHttpClient base = bulkheads == null ? httpClient : bulkheads.clientFor(httpClient, method, path);
+        if (progressListener == null && !callOptions.overridesClient()) {
+            return base;
+        }
+        // the copy shares the connection pool and, unless the options set one, the dispatcher of
+        // the shared or bulkhead client, the bulkhead client itself is cached and must not be modified
+        OkHttpClient client = base.clone();
+        if (callOptions.getDispatcher() != null) {
+            client.setDispatcher(callOptions.getDispatcher());
+        }
+        if (callOptions.getConnectTimeout() != null) {
+            client.setConnectTimeout(callOptions.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (callOptions.getReadTimeout() != null) {
+            client.setReadTimeout(callOptions.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (callOptions.getWriteTimeout() != null) {
+            client.setWriteTimeout(callOptions.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (callOptions.getRetryPolicy() != null) {
+            // replaces the policy of the client rather than retrying the retries
+            client.interceptors().removeIf(interceptor -> interceptor instanceof RetryInterceptor);
+            client.interceptors().add(new RetryInterceptor(callOptions.getRetryPolicy(), retryBudget));
+            InterceptorOrder.sort(client.interceptors());
+        }
+        if (progressListener != null) {
+            client.networkInterceptors().add(new ProgressResponseInterceptor(progressListener));
+        }
+        if (httpTransport != null) {
+            // the transport reads the timeouts of the copy
+            client.interceptors().replaceAll(
+                    interceptor ->
+                            interceptor instanceof TransportInterceptor
+                                    ? ((TransportInterceptor) interceptor).withClient(client)
+                                    : interceptor);
+        }
+        return client;
     }
 
     /**
@@ -1071,6 +1630,12 @@ public class ApiClient {
         final String url = buildUrl(path, queryParams, collectionQueryParams);
         final Request.Builder reqBuilder = new Request.Builder().url(url);
         processHeaderParams(headerParams, reqBuilder);
+        for (Entry<String, String> header : callOptions.getHeaders().entrySet()) {
+            reqBuilder.header(header.getKey(), header.getValue());
+        }
+        if (progressRequestListener == null) {
+            progressRequestListener = callOptions.getProgressRequestListener();
+        }
 
         String contentType = (String) headerParams.get("Content-Type");
         // ensuring a default content type
@@ -1335,14 +1900,43 @@ public class ApiClient {
         }
     }
 
+    /**
+     * Get the authentication token. The token is refreshed in the background before it expires,
+     * this only waits for the token service when there is no valid token.
+     *
+     * @return the current token, or null if there is no valid token and fetching one failed
+     */
     public String getToken() {
         try {
-            return tokenCache.get(TOKEN_CACHE_KEY, () -> refreshToken());
-        } catch (ExecutionException e) {
+            return tokenManager.getToken();
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to get a token - {}", e.getMessage(), e);
             return null;
         }
     }
 
+    public TokenManager getTokenManager() {
+        return tokenManager;
+    }
+
+    private void enableTokenAuth() {
+        authentications.put("api_key", new TokenAuth(tokenManager));
+        tokenRefreshInterceptor = new TokenRefreshInterceptor(tokenManager);
+        installInterceptors();
+    }
+
+    /** Adds the interceptors of the enabled features to the HTTP client, in the order of {@link InterceptorOrder} */
+    private void installInterceptors() {
+        List<Interceptor> interceptors = httpClient.interceptors();
+        for (Interceptor interceptor :
+                Arrays.asList(requestCoalescer, retryInterceptor, tokenRefreshInterceptor, endpointBalancerInterceptor)) {
+            if (interceptor != null && !interceptors.contains(interceptor)) {
+                interceptors.add(interceptor);
+            }
+        }
+        InterceptorOrder.sort(interceptors);
+    }
+
     private String refreshToken() {
 
         if (secretsManager != null) {
@@ -1357,14 +1951,41 @@ public class ApiClient {
                 new GenerateTokenRequest().keyId(this.keyId).keySecret(this.keySecret);
         Map<String, String> response =
                 TokenResourceApi.generateTokenWithHttpInfo(this, generateTokenRequest).getData();
-        String token = response.get("token");
-        this.setApiKeyHeader(token);
-        return token;
+        return response.get("token");
     }
 
-    private synchronized void setApiKeyHeader(String token) {
-        ApiKeyAuth apiKeyAuth = new ApiKeyAuth("header", "X-Authorization");
-        apiKeyAuth.setApiKey(token);
-        authentications.put("api_key", apiKeyAuth);
+    /**
+     * Request body writing the JSON of an object straight to the request sink. The body can be
+     * written more than once, so that the request can be retried.
+     */
+    private class JsonRequestBody extends RequestBody {
+
+        private final MediaType contentType;
+
+        private final Object value;
+
+        JsonRequestBody(MediaType contentType, Object value) {
+            Charset charset = contentType.charset();
+            if (charset == null) {
+                this.contentType = MediaType.parse(contentType + "; charset=utf-8");
+            } else {
+                this.contentType = contentType;
+            }
+            this.value = value;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return contentType;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            Writer writer =
+                    new OutputStreamWriter(
+                            sink.outputStream(), contentType.charset(StandardCharsets.UTF_8));
+            codec.write(value, writer);
+            writer.flush();
+        }
     }
 }
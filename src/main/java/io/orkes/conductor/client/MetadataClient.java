@@ -13,7 +13,9 @@
 package io.orkes.conductor.client;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
 
 import io.orkes.conductor.client.model.TagObject;
@@ -25,6 +27,30 @@ public abstract class MetadataClient extends com.netflix.conductor.client.http.M
 
     public abstract void updateWorkflowDefs(List<WorkflowDef> workflowDefs, boolean overwrite);
 
+    /**
+     * Asynchronous variant of {@link #getWorkflowDef(String, Integer)}. The default
+     * implementation makes the blocking call on the caller thread.
+     */
+    public CompletableFuture<WorkflowDef> getWorkflowDefAsync(String name, Integer version) {
+        try {
+            return CompletableFuture.completedFuture(getWorkflowDef(name, version));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #getTaskDef(String)}. The default implementation makes the
+     * blocking call on the caller thread.
+     */
+    public CompletableFuture<TaskDef> getTaskDefAsync(String taskType) {
+        try {
+            return CompletableFuture.completedFuture(getTaskDef(taskType));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     public abstract void addTaskTag(TagObject tagObject, String taskName);
 
     public abstract void addWorkflowTag(TagObject tagObject, String name);
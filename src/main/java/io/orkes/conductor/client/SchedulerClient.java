@@ -13,10 +13,14 @@
 package io.orkes.conductor.client;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
+import io.orkes.conductor.client.http.SearchPager;
 import io.orkes.conductor.client.model.SaveScheduleRequest;
 import io.orkes.conductor.client.model.SearchResultWorkflowScheduleExecutionModel;
 import io.orkes.conductor.client.model.WorkflowSchedule;
+import io.orkes.conductor.client.model.WorkflowScheduleExecutionModel;
 
 public interface SchedulerClient {
     void deleteSchedule(String name);
@@ -42,4 +46,40 @@ public interface SchedulerClient {
 
     SearchResultWorkflowScheduleExecutionModel searchV22(
             Integer start, Integer size, String sort, String freeText, String query);
+
+    /**
+     * Iterates over all the schedule executions matching the search, fetching the next page in
+     * the background while the current one is consumed.
+     *
+     * @param pageSize number of executions fetched per request
+     * @param sort sort order e.g. scheduledTime:DESC
+     * @param freeText free text search
+     * @param query search query
+     * @return iterator over the matching executions, close it to stop prefetching early
+     */
+    default SearchPager<WorkflowScheduleExecutionModel> searchV22Iterator(
+            int pageSize, String sort, String freeText, String query) {
+        return new SearchPager<>(searchV22Fetcher(sort, freeText, query), pageSize);
+    }
+
+    /** Streaming variant of {@link #searchV22Iterator(int, String, String, String)}. */
+    default Stream<WorkflowScheduleExecutionModel> searchV22Stream(
+            int pageSize, String sort, String freeText, String query) {
+        return SearchPager.stream(searchV22Fetcher(sort, freeText, query), pageSize);
+    }
+
+    /**
+     * Fetches the pages with {@link #searchV22(Integer, Integer, String, String, String)}, on the
+     * caller thread and without prefetching. Implementations with an asynchronous search override
+     * the iterator and stream methods.
+     */
+    private SearchPager.PageFetcher<WorkflowScheduleExecutionModel> searchV22Fetcher(
+            String sort, String freeText, String query) {
+        return (queryId, start, size) -> {
+            SearchResultWorkflowScheduleExecutionModel result =
+                    searchV22(start, size, sort, freeText, query);
+            return CompletableFuture.completedFuture(
+                    new SearchPager.Page<>(result.getResults(), result.getTotalHits()));
+        };
+    }
 }
@@ -13,23 +13,88 @@
 package io.orkes.conductor.client;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import com.netflix.conductor.common.metadata.workflow.StartWorkflowRequest;
 import com.netflix.conductor.common.model.BulkResponse;
+import com.netflix.conductor.common.run.SearchResult;
+import com.netflix.conductor.common.run.Workflow;
+import com.netflix.conductor.common.run.WorkflowSummary;
 
+import io.orkes.conductor.client.grpc.workflow.WorkflowProgressPublisher;
 import io.orkes.conductor.client.http.ApiException;
+import io.orkes.conductor.client.http.SearchPager;
+import io.orkes.conductor.client.model.StartWorkflowResult;
 import io.orkes.conductor.client.model.WorkflowStatus;
 import io.orkes.conductor.common.model.WorkflowRun;
 
 public abstract class WorkflowClient extends com.netflix.conductor.client.http.WorkflowClient {
+
+    /**
+     * Starts a batch of workflows, pipelining the start requests instead of sending them one at a
+     * time.
+     *
+     * @param startWorkflowRequests workflows to start
+     * @return the workflow id or the error for every request, in the same order as the requests
+     */
+    public List<StartWorkflowResult> startWorkflows(List<StartWorkflowRequest> startWorkflowRequests) {
+        List<StartWorkflowResult> results = new ArrayList<>(startWorkflowRequests.size());
+        startWorkflows(startWorkflowRequests.iterator(), results::add);
+        return results;
+    }
+
+    /**
+     * Starts the workflows returned by the iterator without materializing them in memory. Returns
+     * once the result of every request has been handed to the consumer, in input order.
+     *
+     * @param startWorkflowRequests workflows to start
+     * @param resultConsumer receives the result of every request
+     */
+    public void startWorkflows(Iterator<StartWorkflowRequest> startWorkflowRequests, Consumer<StartWorkflowResult> resultConsumer) {
+        // one request at a time, implementations override this to pipeline the requests
+        int index = 0;
+        while (startWorkflowRequests.hasNext()) {
+            StartWorkflowRequest request = startWorkflowRequests.next();
+            StartWorkflowResult result;
+            try {
+                result = StartWorkflowResult.success(index, startWorkflow(request));
+            } catch (RuntimeException e) {
+                result = StartWorkflowResult.failure(index, e);
+            }
+            resultConsumer.accept(result);
+            index++;
+        }
+    }
+
     public abstract CompletableFuture<WorkflowRun> executeWorkflow(StartWorkflowRequest request, String waitUntilTask);
 
     public abstract WorkflowRun executeWorkflow(StartWorkflowRequest request, String waitUntilTask, Duration waitTimeout) throws ExecutionException, InterruptedException, TimeoutException;
 
+    /**
+     * Starts the workflow when subscribed to and publishes its snapshots while it runs,
+     * followed by the terminal snapshot. The publisher fails with a TimeoutException if the
+     * workflow does not complete within the timeout.
+     *
+     * @param request workflow to start
+     * @param timeout maximum time to follow the workflow
+     * @return publisher of the workflow snapshots
+     */
+    public Flow.Publisher<WorkflowRun> executeWorkflowWithProgress(StartWorkflowRequest request, Duration timeout) {
+        // publishes the terminal snapshot only, implementations override this to follow the workflow
+        return new WorkflowProgressPublisher(
+                listener -> executeWorkflow(request, null).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
     public abstract BulkResponse pauseWorkflow(List<String> workflowIds) throws ApiException;
 
     public abstract BulkResponse restartWorkflow(List<String> workflowIds, Boolean useLatestDefinitions)
@@ -44,5 +109,85 @@ public abstract class WorkflowClient extends com.netflix.conductor.client.http.W
 
     public abstract WorkflowStatus getWorkflowStatusSummary(String workflowId, Boolean includeOutput, Boolean includeVariables);
 
+    /*
+     * The default implementations of the asynchronous methods make the blocking call on the caller
+     * thread, so that existing subclasses keep compiling.
+     */
+
+    public CompletableFuture<String> startWorkflowAsync(StartWorkflowRequest startWorkflowRequest) {
+        return completed(() -> startWorkflow(startWorkflowRequest));
+    }
+
+    public CompletableFuture<Workflow> getWorkflowAsync(String workflowId, boolean includeTasks) {
+        return completed(() -> getWorkflow(workflowId, includeTasks));
+    }
+
+    public CompletableFuture<WorkflowStatus> getWorkflowStatusSummaryAsync(String workflowId, Boolean includeOutput, Boolean includeVariables) {
+        return completed(() -> getWorkflowStatusSummary(workflowId, includeOutput, includeVariables));
+    }
+
+    public CompletableFuture<Void> terminateWorkflowAsync(String workflowId, String reason) {
+        return completed(
+                () -> {
+                    terminateWorkflow(workflowId, reason);
+                    return null;
+                });
+    }
+
+    /**
+     * Iterates over all the workflows matching the search, fetching the next page in the
+     * background while the current one is consumed.
+     *
+     * @param pageSize number of workflows fetched per request
+     * @param sort sort order e.g. workflowId:DESC
+     * @param freeText free text search
+     * @param query search query
+     * @return iterator over the matching workflows, close it to stop prefetching early
+     */
+    public SearchPager<WorkflowSummary> searchIterator(int pageSize, String sort, String freeText, String query) {
+        return new SearchPager<>(searchFetcher(sort, freeText, query), pageSize);
+    }
+
+    /**
+     * Streaming variant of {@link #searchIterator(int, String, String, String)}.
+     */
+    public Stream<WorkflowSummary> searchStream(int pageSize, String sort, String freeText, String query) {
+        return SearchPager.stream(searchFetcher(sort, freeText, query), pageSize);
+    }
+
+    /**
+     * Iterates over all the workflows having tasks that match the search. There is no default
+     * implementation: the base client has no search by tasks to page over.
+     *
+     * @see #searchIterator(int, String, String, String)
+     */
+    public abstract SearchPager<WorkflowSummary> searchWorkflowsByTasksIterator(int pageSize, String sort, String freeText, String query);
+
+    /**
+     * Streaming variant of {@link #searchWorkflowsByTasksIterator(int, String, String, String)}.
+     */
+    public abstract Stream<WorkflowSummary> searchWorkflowsByTasksStream(int pageSize, String sort, String freeText, String query);
+
     public abstract void shutdown();
+
+    /**
+     * Fetches the pages with {@link #search(Integer, Integer, String, String, String)}, on the
+     * caller thread and without prefetching.
+     */
+    private SearchPager.PageFetcher<WorkflowSummary> searchFetcher(String sort, String freeText, String query) {
+        return (queryId, start, size) ->
+                completed(
+                        () -> {
+                            SearchResult<WorkflowSummary> result = search(start, size, sort, freeText, query);
+                            return new SearchPager.Page<>(result.getResults(), result.getTotalHits());
+                        });
+    }
+
+    private static <T> CompletableFuture<T> completed(Supplier<T> call) {
+        try {
+            return CompletableFuture.completedFuture(call.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
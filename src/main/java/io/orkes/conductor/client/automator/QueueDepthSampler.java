@@ -0,0 +1,135 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.automator;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Spectator;
+import com.netflix.spectator.api.patterns.PolledMeter;
+
+import io.orkes.conductor.client.http.OrkesTaskClient;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Samples the depth of all the task queues with a single call on a schedule and publishes them as
+ * the {@code task_queue_depth} gauge, tagged with the queue name.
+ */
+public class QueueDepthSampler implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueueDepthSampler.class);
+
+    private static final Registry REGISTRY = Spectator.globalRegistry();
+
+    private final Supplier<Map<String, Long>> queueSizes;
+
+    private final Map<String, Long> depths = new ConcurrentHashMap<>();
+
+    private final Set<String> monitored = ConcurrentHashMap.newKeySet();
+
+    private final List<Consumer<QueueDepthSampler>> listeners = new CopyOnWriteArrayList<>();
+
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("queue-depth-sampler")
+                            .setDaemon(true)
+                            .build());
+
+    public QueueDepthSampler(OrkesTaskClient taskClient) {
+        this(taskClient::getQueueSizes);
+    }
+
+    /** @param queueSizes returns the size of every queue, keyed by queue name */
+    public QueueDepthSampler(Supplier<Map<String, Long>> queueSizes) {
+        this.queueSizes = queueSizes;
+    }
+
+    /** Samples the queues now and then at the given interval. */
+    public QueueDepthSampler start(Duration interval) {
+        scheduler.scheduleWithFixedDelay(this::sample, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /** Called on the sampler thread after every successful sample. */
+    public void addListener(Consumer<QueueDepthSampler> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param taskType type of the tasks
+     * @param domain domain the tasks are polled from, null for none
+     * @return number of tasks waiting in the queue at the last sample, 0 if unknown
+     */
+    public long getDepth(String taskType, String domain) {
+        String queueName = domain == null || domain.isEmpty() ? taskType : domain + ":" + taskType;
+        return depths.getOrDefault(queueName, 0L);
+    }
+
+    /** @return depth of every queue at the last sample */
+    public Map<String, Long> getDepths() {
+        return Collections.unmodifiableMap(depths);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    void sample() {
+        Map<String, Long> sizes;
+        try {
+            sizes = queueSizes.get();
+        } catch (Throwable t) {
+            LOGGER.warn("Unable to sample the queue depths - {}", t.getMessage());
+            return;
+        }
+        if (sizes == null) {
+            return;
+        }
+        // queues missing from the sample are empty or gone
+        depths.keySet().retainAll(sizes.keySet());
+        for (Map.Entry<String, Long> entry : sizes.entrySet()) {
+            String queueName = entry.getKey();
+            depths.put(queueName, entry.getValue() == null ? 0L : entry.getValue());
+            if (monitored.add(queueName)) {
+                PolledMeter.using(REGISTRY)
+                        .withName("task_queue_depth")
+                        .withTag("queue", queueName)
+                        .monitorValue(depths, d -> d.getOrDefault(queueName, 0L));
+            }
+        }
+        for (Consumer<QueueDepthSampler> listener : listeners) {
+            try {
+                listener.accept(this);
+            } catch (Throwable t) {
+                LOGGER.error("Error handling the queue depths", t);
+            }
+        }
+    }
+}
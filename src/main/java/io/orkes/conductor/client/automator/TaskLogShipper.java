@@ -0,0 +1,179 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.automator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Spectator;
+import com.netflix.spectator.api.patterns.PolledMeter;
+
+import io.orkes.conductor.client.TaskClient;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Buffers the log lines of the tasks being executed, see {@link TaskLogger}.
+ *
+ * <p>The lines of a task are attached to its result on completion. The lines of a task running for
+ * longer than the flush interval are sent in a single log message per interval. Every task keeps at
+ * most {@code maxLinesPerTask} lines of at most {@code maxLineLength} characters, and all the tasks
+ * together at most {@code maxBufferedChars} characters; the lines beyond are dropped and counted.
+ */
+class TaskLogShipper implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskLogShipper.class);
+
+    private static final Registry REGISTRY = Spectator.globalRegistry();
+
+    static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(30);
+
+    static final int DEFAULT_MAX_LINES_PER_TASK = 1000;
+
+    static final long DEFAULT_MAX_BUFFERED_CHARS = 8L * 1024 * 1024;
+
+    private static final int MAX_LINE_LENGTH = 4096;
+
+    private final TaskClient taskClient;
+
+    private final long flushIntervalMillis;
+
+    private final int maxLinesPerTask;
+
+    private final long maxBufferedChars;
+
+    private final AtomicLong bufferedChars = new AtomicLong();
+
+    private final Map<String, TaskLogger> loggers = new ConcurrentHashMap<>();
+
+    private final Counter droppedLines;
+
+    private final ScheduledExecutorService scheduler;
+
+    TaskLogShipper(TaskClient taskClient, Duration flushInterval, int maxLinesPerTask, long maxBufferedChars) {
+        Preconditions.checkArgument(flushInterval.toMillis() > 0, "flushInterval must be positive");
+        Preconditions.checkArgument(maxLinesPerTask > 0, "maxLinesPerTask must be positive");
+        Preconditions.checkArgument(maxBufferedChars > 0, "maxBufferedChars must be positive");
+        this.taskClient = taskClient;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.maxLinesPerTask = maxLinesPerTask;
+        this.maxBufferedChars = maxBufferedChars;
+        this.droppedLines = REGISTRY.counter("task_log_dropped_lines");
+        PolledMeter.using(REGISTRY)
+                .withName("task_log_buffered_chars")
+                .monitorValue(bufferedChars);
+        this.scheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("task-log-shipper")
+                                .setDaemon(true)
+                                .build());
+        long period = Math.max(1, flushIntervalMillis / 2);
+        scheduler.scheduleWithFixedDelay(this::flushLongRunning, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Creates the logger of the task and binds it to the current thread. */
+    TaskLogger open(String taskId) {
+        TaskLogger logger = new TaskLogger(taskId, this);
+        loggers.put(taskId, logger);
+        TaskLogger.bind(logger);
+        return logger;
+    }
+
+    /** Unbinds the logger from the current thread, its lines stay buffered until completion. */
+    void unbind() {
+        TaskLogger.unbind();
+    }
+
+    /** Moves the remaining lines of the task to its result, which is about to be sent. */
+    void complete(String taskId, TaskResult result) {
+        TaskLogger logger = loggers.remove(taskId);
+        if (logger == null) {
+            return;
+        }
+        for (String line : release(logger.close())) {
+            result.log(line);
+        }
+        int dropped = logger.getDroppedCount();
+        if (dropped > 0) {
+            result.log(dropped + " log lines were dropped");
+        }
+    }
+
+    long getBufferedChars() {
+        return bufferedChars.get();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    void append(TaskLogger logger, String line) {
+        if (line.length() > MAX_LINE_LENGTH) {
+            line = line.substring(0, MAX_LINE_LENGTH);
+        }
+        if (bufferedChars.addAndGet(line.length()) > maxBufferedChars) {
+            bufferedChars.addAndGet(-line.length());
+            logger.dropped();
+            droppedLines.increment();
+            return;
+        }
+        if (!logger.add(line, maxLinesPerTask)) {
+            bufferedChars.addAndGet(-line.length());
+            droppedLines.increment();
+        }
+    }
+
+    void flushLongRunning() {
+        long now = System.currentTimeMillis();
+        for (TaskLogger logger : loggers.values()) {
+            if (logger.getBufferedChars() == 0 || now - logger.getLastShippedAt() < flushIntervalMillis) {
+                continue;
+            }
+            List<String> lines = release(logger.drain());
+            if (lines.isEmpty()) {
+                continue;
+            }
+            try {
+                taskClient.logMessageForTask(logger.getTaskId(), String.join("\n", lines));
+            } catch (Throwable t) {
+                droppedLines.increment(lines.size());
+                LOGGER.warn("Unable to ship {} log lines of task {} - {}", lines.size(), logger.getTaskId(), t.getMessage());
+            }
+        }
+    }
+
+    /** Gives the budget of the lines drained from a logger back */
+    private List<String> release(List<String> lines) {
+        long chars = 0;
+        for (String line : lines) {
+            chars += line.length();
+        }
+        bufferedChars.addAndGet(-chars);
+        return lines;
+    }
+}
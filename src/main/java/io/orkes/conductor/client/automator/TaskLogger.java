@@ -0,0 +1,141 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.automator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers the log lines of the task executing on the current thread. The lines are attached to
+ * the result of the task when it completes, and shipped in batches while a long task runs, instead
+ * of one call per line.
+ *
+ * <p>From a worker:
+ *
+ * <pre>
+ * public TaskResult execute(Task task) {
+ *     TaskLogger.current().log("Processing %d items", items.size());
+ *     ...
+ * }
+ * </pre>
+ *
+ * Lines beyond the limits of the task, or of the memory budget shared by all the tasks, are dropped
+ * and counted.
+ */
+public class TaskLogger {
+
+    private static final ThreadLocal<TaskLogger> CURRENT = new ThreadLocal<>();
+
+    /** Logger used outside of a task, dropping the lines */
+    private static final TaskLogger DISABLED = new TaskLogger(null, null);
+
+    private final String taskId;
+
+    private final TaskLogShipper shipper;
+
+    private List<String> lines = new ArrayList<>();
+
+    private int bufferedChars;
+
+    private int totalLines;
+
+    private int dropped;
+
+    private long lastShippedAt = System.currentTimeMillis();
+
+    /** Set once the task completed, later lines have nowhere to go */
+    private boolean closed;
+
+    TaskLogger(String taskId, TaskLogShipper shipper) {
+        this.taskId = taskId;
+        this.shipper = shipper;
+    }
+
+    /**
+     * @return the logger of the task executing on this thread, or a logger dropping the lines when
+     *     no task is executing
+     */
+    public static TaskLogger current() {
+        TaskLogger logger = CURRENT.get();
+        return logger == null ? DISABLED : logger;
+    }
+
+    static void bind(TaskLogger logger) {
+        CURRENT.set(logger);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public void log(String line) {
+        if (shipper == null || line == null) {
+            return;
+        }
+        shipper.append(this, line);
+    }
+
+    public void log(String format, Object... args) {
+        if (shipper == null) {
+            return;
+        }
+        log(String.format(format, args));
+    }
+
+    /** @return lines dropped so far because of the limits */
+    public synchronized int getDroppedCount() {
+        return dropped;
+    }
+
+    synchronized boolean add(String line, int maxLines) {
+        if (closed || totalLines >= maxLines) {
+            dropped++;
+            return false;
+        }
+        lines.add(line);
+        bufferedChars += line.length();
+        totalLines++;
+        return true;
+    }
+
+    synchronized void dropped() {
+        dropped++;
+    }
+
+    /** Removes and returns the buffered lines */
+    synchronized List<String> drain() {
+        List<String> drained = lines;
+        lines = new ArrayList<>();
+        bufferedChars = 0;
+        lastShippedAt = System.currentTimeMillis();
+        return drained;
+    }
+
+    /** Removes and returns the buffered lines, the lines logged after are dropped */
+    synchronized List<String> close() {
+        closed = true;
+        return drain();
+    }
+
+    synchronized int getBufferedChars() {
+        return bufferedChars;
+    }
+
+    synchronized long getLastShippedAt() {
+        return lastShippedAt;
+    }
+}
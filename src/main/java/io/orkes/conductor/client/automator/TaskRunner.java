@@ -19,6 +19,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
@@ -35,6 +36,7 @@ import com.netflix.conductor.common.metadata.tasks.TaskResult;
 import com.netflix.discovery.EurekaClient;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.Spectator;
+import com.netflix.spectator.api.patterns.PolledMeter;
 import com.netflix.spectator.api.patterns.ThreadPoolMonitor;
 
 import io.orkes.conductor.client.TaskClient;
@@ -52,17 +54,25 @@ class TaskRunner {
     private final int updateRetryCount;
     private final ThreadPoolExecutor executorService;
     private final Map<String /* taskType */, String /* domain */> taskToDomain;
-    private final int threadCount;
+    private volatile int threadCount;
     private final int taskPollTimeout;
 
     public static final String DOMAIN = "domain";
     private static final String OVERRIDE_DISCOVERY = "pollOutOfDiscovery";
     public static final String ALL_WORKERS = "all";
 
-    private final Semaphore permits;
+    private final ResizableSemaphore permits;
 
     private final Worker worker;
 
+    private final TaskLogShipper logShipper;
+
+    private final LongAdder executionMillis = new LongAdder();
+
+    private final LongAdder executions = new LongAdder();
+
+    private double averageExecutionMillis;
+
     TaskRunner(
             Worker worker,
             EurekaClient eurekaClient,
@@ -72,15 +82,17 @@ class TaskRunner {
             Map<String, String> taskToDomain,
             String workerNamePrefix,
             int threadCount,
-            int taskPollTimeout) {
+            int taskPollTimeout,
+            TaskLogShipper logShipper) {
         this.worker = worker;
+        this.logShipper = logShipper;
         this.eurekaClient = eurekaClient;
         this.taskClient = taskClient;
         this.updateRetryCount = updateRetryCount;
         this.taskToDomain = taskToDomain;
         this.threadCount = threadCount;
         this.taskPollTimeout = taskPollTimeout;
-        this.permits = new Semaphore(threadCount);
+        this.permits = new ResizableSemaphore(threadCount);
         this.executorService =
                 (ThreadPoolExecutor)
                         Executors.newFixedThreadPool(
@@ -90,6 +102,10 @@ class TaskRunner {
                                         .uncaughtExceptionHandler(uncaughtExceptionHandler)
                                         .build());
         ThreadPoolMonitor.attach(REGISTRY, (ThreadPoolExecutor) executorService, workerNamePrefix);
+        PolledMeter.using(REGISTRY)
+                .withName("task_runner_threads")
+                .withTag("taskType", worker.getTaskDefName())
+                .monitorValue(this, TaskRunner::getThreadCount);
         LOGGER.info(
                 "Initialized the TaskPollExecutor for {} with {} threads and threadPrefix {}",
                 threadCount,
@@ -121,6 +137,54 @@ class TaskRunner {
         }
     }
 
+    String getTaskType() {
+        return worker.getTaskDefName();
+    }
+
+    String getDomain() {
+        String taskType = worker.getTaskDefName();
+        return Optional.ofNullable(PropertyFactory.getString(taskType, DOMAIN, null)).orElseGet(() -> Optional.ofNullable(PropertyFactory.getString(ALL_WORKERS, DOMAIN, null)).orElse(taskToDomain.get(taskType)));
+    }
+
+    int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * Changes the number of threads executing tasks. When shrinking, the tasks running keep their
+     * thread and no new task is polled until enough of them completed.
+     */
+    synchronized void setThreadCount(int threads) {
+        int delta = threads - threadCount;
+        if (delta == 0 || threads < 1) {
+            return;
+        }
+        if (delta > 0) {
+            executorService.setMaximumPoolSize(threads);
+            executorService.setCorePoolSize(threads);
+            permits.release(delta);
+        } else {
+            permits.reducePermits(-delta);
+            executorService.setCorePoolSize(threads);
+            executorService.setMaximumPoolSize(threads);
+        }
+        LOGGER.info("Resized the threads of {} from {} to {}", worker.getTaskDefName(), threadCount, threads);
+        threadCount = threads;
+    }
+
+    /**
+     * @return average execution time of the tasks executed since the previous call, or of the
+     *     tasks before if none was executed since, 0 if no task was ever executed
+     */
+    synchronized double sampleAverageExecutionMillis() {
+        long count = executions.sumThenReset();
+        long millis = executionMillis.sumThenReset();
+        if (count > 0) {
+            averageExecutionMillis = (double) millis / count;
+        }
+        return averageExecutionMillis;
+    }
+
     public void shutdown(int timeout) {
         try {
             this.executorService.shutdown();
@@ -170,7 +234,7 @@ class TaskRunner {
 
         try {
 
-            String domain = Optional.ofNullable(PropertyFactory.getString(taskType, DOMAIN, null)).orElseGet(() -> Optional.ofNullable(PropertyFactory.getString(ALL_WORKERS, DOMAIN, null)).orElse(taskToDomain.get(taskType)));
+            String domain = getDomain();
             LOGGER.trace("Polling task of type: {} in domain: '{}' with size {}", taskType, domain, pollCount);
             Stopwatch stopwatch = Stopwatch.createStarted();
             long now = System.currentTimeMillis();
@@ -217,6 +281,8 @@ class TaskRunner {
             Stopwatch stopwatch = Stopwatch.createStarted();
             executeTask(worker, task);
             stopwatch.stop();
+            executionMillis.add(stopwatch.elapsed(TimeUnit.MILLISECONDS));
+            executions.increment();
             LOGGER.trace(
                     "Took {} ms to execute and update task with id {}",
                     stopwatch.elapsed(TimeUnit.MILLISECONDS),
@@ -243,7 +309,12 @@ class TaskRunner {
                     task.getTaskId(),
                     worker.getClass().getSimpleName(),
                     worker.getIdentity());
-            result = worker.execute(task);
+            logShipper.open(task.getTaskId());
+            try {
+                result = worker.execute(task);
+            } finally {
+                logShipper.unbind();
+            }
             result.setWorkflowInstanceId(task.getWorkflowInstanceId());
             result.setTaskId(task.getTaskId());
             result.setWorkerId(worker.getIdentity());
@@ -280,6 +351,7 @@ class TaskRunner {
     }
 
     private void updateTaskResult(int count, Task task, TaskResult result, Worker worker) {
+        logShipper.complete(task.getTaskId(), result);
         try {
             // upload if necessary
             Optional<String> optionalExternalStorageLocation =
@@ -345,4 +417,17 @@ class TaskRunner {
         result.log(stringWriter.toString());
         updateTaskResult(updateRetryCount, task, result, worker);
     }
+
+    /** Semaphore whose number of permits can also be reduced */
+    private static class ResizableSemaphore extends Semaphore {
+
+        ResizableSemaphore(int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
 }
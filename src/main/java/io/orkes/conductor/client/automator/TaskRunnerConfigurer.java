@@ -12,6 +12,7 @@
  */
 package io.orkes.conductor.client.automator;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.stream.Collectors;
@@ -61,8 +62,23 @@ public class TaskRunnerConfigurer {
 
     private final List<TaskRunner> taskRunners;
 
+    private final Duration queueSampleInterval;
+
+    private final WorkerAutoscaler autoscaler;
+
     private ScheduledExecutorService scheduledExecutorService;
 
+    private QueueDepthSampler queueDepthSampler;
+
+    private final Duration taskLogFlushInterval;
+
+    private final int maxTaskLogLines;
+
+    private final long maxBufferedTaskLogChars;
+
+    /** Created by {@link #init()} for the HTTP workers, its flush thread is not needed before */
+    private TaskLogShipper taskLogShipper;
+
     /**
      * @see TaskRunnerConfigurer.Builder
      * @see TaskRunnerConfigurer#init()
@@ -85,7 +101,15 @@ public class TaskRunnerConfigurer {
         this.workers = new LinkedList<>();
         this.threadCount = builder.threadCount;
         builder.workers.forEach(this.workers::add);
-        taskRunners = new LinkedList<>();
+        this.queueSampleInterval = builder.queueSampleInterval;
+        this.autoscaler =
+                builder.targetDrainTime == null
+                        ? null
+                        : new WorkerAutoscaler(builder.targetDrainTime, builder.minThreads, builder.maxThreads);
+        this.taskLogFlushInterval = builder.taskLogFlushInterval;
+        this.maxTaskLogLines = builder.maxTaskLogLines;
+        this.maxBufferedTaskLogChars = builder.maxBufferedTaskLogChars;
+        taskRunners = new CopyOnWriteArrayList<>();
     }
 
     /** Builder used to create the instances of TaskRunnerConfigurer */
@@ -111,6 +135,20 @@ public class TaskRunnerConfigurer {
         private ConductorClientConfiguration conductorClientConfiguration =
                 new DefaultConductorClientConfiguration();
 
+        private Duration queueSampleInterval;
+
+        private Duration targetDrainTime;
+
+        private int minThreads;
+
+        private int maxThreads;
+
+        private Duration taskLogFlushInterval = TaskLogShipper.DEFAULT_FLUSH_INTERVAL;
+
+        private int maxTaskLogLines = TaskLogShipper.DEFAULT_MAX_LINES_PER_TASK;
+
+        private long maxBufferedTaskLogChars = TaskLogShipper.DEFAULT_MAX_BUFFERED_CHARS;
+
         public Builder(TaskClient taskClient, Iterable<Worker> workers) {
             Preconditions.checkNotNull(taskClient, "TaskClient cannot be null");
             Preconditions.checkNotNull(workers, "Workers cannot be null");
@@ -221,6 +259,63 @@ public class TaskRunnerConfigurer {
             return this;
         }
 
+        /**
+         * Samples the depth of all the task queues in a single call at the given interval and
+         * publishes them as the task_queue_depth gauge.
+         *
+         * @param queueSampleInterval interval between two samples
+         * @return Builder instance
+         */
+        public TaskRunnerConfigurer.Builder withQueueSampling(Duration queueSampleInterval) {
+            Preconditions.checkArgument(
+                    queueSampleInterval.toMillis() > 0, "queueSampleInterval must be positive");
+            this.queueSampleInterval = queueSampleInterval;
+            return this;
+        }
+
+        /**
+         * Resizes the threads of every task type after each queue sample so that its backlog
+         * drains within the target time, given the recent execution time of its tasks. The thread
+         * counts configured are the initial sizes. Samples the queues every 10 seconds unless
+         * {@link #withQueueSampling(Duration)} is set. Only applies to the HTTP workers.
+         *
+         * @param targetDrainTime time within which the backlog of a task type should be executed
+         * @param minThreads minimum number of threads of a task type
+         * @param maxThreads maximum number of threads of a task type
+         * @return Builder instance
+         */
+        public TaskRunnerConfigurer.Builder withAutoScaling(
+                Duration targetDrainTime, int minThreads, int maxThreads) {
+            Preconditions.checkArgument(targetDrainTime.toMillis() > 0, "targetDrainTime must be positive");
+            Preconditions.checkArgument(minThreads > 0, "minThreads must be positive");
+            Preconditions.checkArgument(maxThreads >= minThreads, "maxThreads cannot be less than minThreads");
+            this.targetDrainTime = targetDrainTime;
+            this.minThreads = minThreads;
+            this.maxThreads = maxThreads;
+            return this;
+        }
+
+        /**
+         * Limits of the lines logged by the workers with {@link TaskLogger}. The lines are attached
+         * to the result of the task, or sent in batches while the task runs longer than the flush
+         * interval.
+         *
+         * @param flushInterval interval between two batches of lines of a long running task
+         * @param maxLinesPerTask lines kept per task, the following ones are dropped
+         * @param maxBufferedChars characters buffered for all the tasks together
+         * @return Builder instance
+         */
+        public TaskRunnerConfigurer.Builder withTaskLogBuffer(
+                Duration flushInterval, int maxLinesPerTask, long maxBufferedChars) {
+            Preconditions.checkArgument(flushInterval.toMillis() > 0, "flushInterval must be positive");
+            Preconditions.checkArgument(maxLinesPerTask > 0, "maxLinesPerTask must be positive");
+            Preconditions.checkArgument(maxBufferedChars > 0, "maxBufferedChars must be positive");
+            this.taskLogFlushInterval = flushInterval;
+            this.maxTaskLogLines = maxLinesPerTask;
+            this.maxBufferedTaskLogChars = maxBufferedChars;
+            return this;
+        }
+
         /**
          * Builds an instance of the TaskRunnerConfigurer.
          *
@@ -286,8 +381,43 @@ public class TaskRunnerConfigurer {
             LOGGER.info("Using gRPC for task poll/update for ", workers.stream().map(worker -> worker.getTaskDefName()).collect(Collectors.toList()));
             workers.forEach(worker -> scheduledExecutorService.submit(() -> this.startPooledGRPCWorker(worker)));
         } else {
+            taskLogShipper =
+                    new TaskLogShipper(
+                            taskClient, taskLogFlushInterval, maxTaskLogLines, maxBufferedTaskLogChars);
             workers.forEach(worker -> scheduledExecutorService.submit(() -> this.startWorker(worker)));
         }
+        Duration sampleInterval = queueSampleInterval;
+        if (sampleInterval == null && autoscaler != null) {
+            sampleInterval = Duration.ofSeconds(10);
+        }
+        if (sampleInterval != null) {
+            queueDepthSampler = new QueueDepthSampler((OrkesTaskClient) taskClient);
+            if (autoscaler != null) {
+                queueDepthSampler.addListener(this::autoscale);
+            }
+            queueDepthSampler.start(sampleInterval);
+        }
+    }
+
+    /**
+     * @return the sampler of the queue depths, null unless queue sampling or autoscaling is enabled
+     */
+    public QueueDepthSampler getQueueDepthSampler() {
+        return queueDepthSampler;
+    }
+
+    private void autoscale(QueueDepthSampler sampler) {
+        for (TaskRunner taskRunner : taskRunners) {
+            int current = taskRunner.getThreadCount();
+            int target =
+                    autoscaler.targetThreads(
+                            current,
+                            sampler.getDepth(taskRunner.getTaskType(), taskRunner.getDomain()),
+                            taskRunner.sampleAverageExecutionMillis());
+            if (target != current) {
+                taskRunner.setThreadCount(target);
+            }
+        }
     }
 
     private ThreadPoolExecutor getExecutor(int threadPoolSize) {
@@ -314,6 +444,12 @@ public class TaskRunnerConfigurer {
      * shutdown of your worker, during process termination.
      */
     public void shutdown() {
+        if (queueDepthSampler != null) {
+            queueDepthSampler.close();
+        }
+        if (taskLogShipper != null) {
+            taskLogShipper.close();
+        }
         this.taskRunners.forEach(taskRunner -> taskRunner.shutdown(shutdownGracePeriodSeconds));
         this.scheduledExecutorService.shutdown();
     }
@@ -334,7 +470,8 @@ public class TaskRunnerConfigurer {
                         taskToDomain,
                         workerNamePrefix,
                         threadCountForTask,
-                        taskPollTimeout);
+                        taskPollTimeout,
+                        taskLogShipper);
         this.taskRunners.add(taskRunner);
         taskRunner.pollAndExecute();
     }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.automator;
+
+import java.time.Duration;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Sizes the threads of a task type so that its backlog drains within a target time. A backlog of
+ * {@code depth} tasks taking {@code executionMillis} each needs {@code depth * executionMillis /
+ * drainMillis} threads. Scaling up is immediate, scaling down at most halves the threads at a time
+ * so that a short lull does not drop the capacity a recurring burst needs.
+ */
+class WorkerAutoscaler {
+
+    private final long targetDrainMillis;
+
+    private final int minThreads;
+
+    private final int maxThreads;
+
+    WorkerAutoscaler(Duration targetDrainTime, int minThreads, int maxThreads) {
+        Preconditions.checkArgument(targetDrainTime.toMillis() > 0, "targetDrainTime must be positive");
+        Preconditions.checkArgument(minThreads > 0, "minThreads must be positive");
+        Preconditions.checkArgument(maxThreads >= minThreads, "maxThreads cannot be less than minThreads");
+        this.targetDrainMillis = targetDrainTime.toMillis();
+        this.minThreads = minThreads;
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * @param currentThreads threads of the task type now
+     * @param depth tasks waiting in the queue
+     * @param executionMillis average execution time of a task, 0 or less if unknown
+     * @return threads the task type should have
+     */
+    int targetThreads(int currentThreads, long depth, double executionMillis) {
+        int target;
+        if (executionMillis <= 0) {
+            // nothing executed recently, only scale down once the queue is empty
+            target = depth > 0 ? currentThreads : minThreads;
+        } else {
+            target = (int) Math.min(maxThreads, Math.ceil(depth * executionMillis / targetDrainMillis));
+        }
+        target = Math.max(target, (currentThreads + 1) / 2);
+        return Math.max(minThreads, Math.min(maxThreads, target));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.codec;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+
+import io.orkes.conductor.client.http.JSON;
+
+import com.google.gson.JsonParseException;
+
+/**
+ * Codec backed by the Gson configuration of {@link JSON}, used by default for compatibility with
+ * the generated HTTP models.
+ */
+public class GsonCodec implements JsonCodec {
+
+    private final JSON json;
+
+    public GsonCodec() {
+        this(new JSON());
+    }
+
+    public GsonCodec(JSON json) {
+        this.json = json;
+    }
+
+    public JSON getJSON() {
+        return json;
+    }
+
+    @Override
+    public void write(Object value, Writer writer) throws IOException {
+        try {
+            json.serialize(value, writer);
+        } catch (JsonParseException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public <T> T read(Reader reader, Type type) throws IOException {
+        try {
+            return json.deserialize(reader, type);
+        } catch (JsonParseException e) {
+            throw new IOException(e);
+        }
+    }
+}
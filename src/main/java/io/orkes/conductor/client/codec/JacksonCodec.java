@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.codec;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.netflix.conductor.common.config.ObjectMapperProvider;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+
+/**
+ * Codec backed by Jackson, configured like the Conductor server. Readers and writers are built once
+ * per type and reused, so the per-call cost is limited to the actual (de)serialization. The
+ * streams passed to the codec are never closed by it.
+ *
+ * <p>The shared mapper registers the Afterburner module, which replaces reflective property access
+ * with generated bytecode once a type has been seen.
+ */
+public class JacksonCodec implements JsonCodec {
+
+    private static final ObjectMapper SHARED_OBJECT_MAPPER =
+            new ObjectMapperProvider().getObjectMapper().registerModule(new AfterburnerModule());
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public JacksonCodec() {
+        this(SHARED_OBJECT_MAPPER);
+    }
+
+    public JacksonCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the process wide object mapper configured for the Conductor models. Building an
+     * {@link ObjectMapper} is expensive and each instance warms up its own serializer caches, so
+     * the mapper should be shared rather than created per use.
+     *
+     * @return the shared object mapper
+     */
+    public static ObjectMapper sharedObjectMapper() {
+        return SHARED_OBJECT_MAPPER;
+    }
+
+    /**
+     * Returns the object mapper to use where an API requires Jackson rather than a {@link
+     * JsonCodec}, such as the gRPC proto mappers. That is the mapper of the codec when it is a
+     * {@link JacksonCodec}. Other codecs cannot be used there, so they fall back to {@link
+     * #sharedObjectMapper()}.
+     *
+     * @param codec the configured codec, may be null
+     * @return the object mapper
+     */
+    public static ObjectMapper objectMapperOf(JsonCodec codec) {
+        if (codec instanceof JacksonCodec) {
+            return ((JacksonCodec) codec).getObjectMapper();
+        }
+        return SHARED_OBJECT_MAPPER;
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    @Override
+    public void write(Object value, Writer writer) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writers.computeIfAbsent(
+                        value.getClass(),
+                        c -> objectMapper.writerFor(c).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET))
+                .writeValue(writer, value);
+    }
+
+    @Override
+    public <T> T read(Reader reader, Type type) throws IOException {
+        return readers.computeIfAbsent(
+                        type,
+                        t ->
+                                objectMapper
+                                        .readerFor(objectMapper.getTypeFactory().constructType(t))
+                                        .without(JsonParser.Feature.AUTO_CLOSE_SOURCE))
+                .readValue(reader);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.codec;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Type;
+
+/**
+ * Converts objects to and from JSON. Implementations must be thread safe, a single instance is
+ * shared by all the calls of a client.
+ *
+ * @see GsonCodec
+ * @see JacksonCodec
+ */
+public interface JsonCodec {
+
+    /**
+     * Writes the JSON of the value to the writer. The writer is neither flushed nor closed.
+     *
+     * @param value object to serialize, may be null
+     * @param writer destination of the JSON
+     * @throws IOException if writing fails
+     */
+    void write(Object value, Writer writer) throws IOException;
+
+    /**
+     * Reads a value of the given type from the reader. The reader is not closed.
+     *
+     * @param <T> type of the value
+     * @param reader source of the JSON
+     * @param type type of the value
+     * @return the value read
+     * @throws IOException if reading or parsing fails
+     */
+    <T> T read(Reader reader, Type type) throws IOException;
+
+    default String toJson(Object value) throws IOException {
+        StringWriter writer = new StringWriter();
+        write(value, writer);
+        return writer.toString();
+    }
+
+    default <T> T fromJson(String json, Type type) throws IOException {
+        return read(new StringReader(json), type);
+    }
+}
@@ -12,39 +12,69 @@
  */
 package io.orkes.conductor.client.grpc;
 
-import java.net.InetAddress;
-import java.net.UnknownHostException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
 import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.http.auth.TokenManager;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.grpc.CallCredentials;
 import io.grpc.Metadata;
 import io.grpc.Status;
 
+/**
+ * Call credentials sending the token and the identity of the client.
+ *
+ * <p>The metadata is built when the token changes and shared by all the calls, so a call made with
+ * a valid token applies it inline without any work. Only when there is no valid token is the token
+ * fetched, on the executor supplied by gRPC, away from the event loop.
+ */
 public class AuthToken extends CallCredentials {
 
-    private final ApiClient apiClient;
+    static final Metadata.Key<String> AUTH_HEADER =
+            Metadata.Key.of("X-AUTHORIZATION", Metadata.ASCII_STRING_MARSHALLER);
+
+    static final Metadata.Key<String> CLIENT_ID_HEADER =
+            Metadata.Key.of("X-Client-Id", Metadata.ASCII_STRING_MARSHALLER);
+
+    /** Credentials by token manager, so that all the stubs of a client share their metadata */
+    private static final Cache<TokenManager, AuthToken> CREDENTIALS =
+            CacheBuilder.newBuilder().weakKeys().weakValues().build();
+
+    private final TokenManager tokenManager;
+
+    private final AtomicReference<SignedMetadata> current = new AtomicReference<>();
 
     public AuthToken(ApiClient apiClient) {
-        this.apiClient = apiClient;
+        this(apiClient.getTokenManager());
+    }
+
+    AuthToken(TokenManager tokenManager) {
+        this.tokenManager = tokenManager;
+        tokenManager.addListener(this::update);
+    }
+
+    /**
+     * @return the credentials shared by all the calls authenticated by the given client
+     */
+    public static AuthToken forClient(ApiClient apiClient) {
+        return CREDENTIALS.asMap().computeIfAbsent(apiClient.getTokenManager(), AuthToken::new);
     }
 
     @Override
     public void applyRequestMetadata(
             RequestInfo requestInfo, Executor executor, MetadataApplier metadataApplier) {
+        SignedMetadata signed = current.get();
+        if (signed != null && System.currentTimeMillis() < signed.expiresAt) {
+            metadataApplier.apply(signed.metadata);
+            return;
+        }
         executor.execute(
                 () -> {
                     try {
-
-                        Metadata headers = new Metadata();
-                        headers.put(
-                                Metadata.Key.of("X-Client-Id", Metadata.ASCII_STRING_MARSHALLER),
-                                getIdentity());
-
-                        if (apiClient.useSecurity()) {}
-
-                        metadataApplier.apply(headers);
+                        metadataApplier.apply(update(tokenManager.getToken()).metadata);
                     } catch (Throwable e) {
                         metadataApplier.fail(Status.UNAUTHENTICATED.withCause(e));
                     }
@@ -54,16 +84,32 @@ public class AuthToken extends CallCredentials {
     @Override
     public void thisUsesUnstableApi() {}
 
-    private String getIdentity() {
-        String serverId;
-        try {
-            serverId = InetAddress.getLocalHost().getHostName();
-        } catch (UnknownHostException e) {
-            serverId = System.getenv("HOSTNAME");
+    private SignedMetadata update(String token) {
+        SignedMetadata signed = current.get();
+        if (signed != null && signed.token.equals(token)) {
+            return signed;
         }
-        if (serverId == null) {
-            serverId = System.getProperty("user.name");
+        Metadata metadata = new Metadata();
+        metadata.put(AUTH_HEADER, token);
+        metadata.put(CLIENT_ID_HEADER, ClientIdentity.get());
+        signed = new SignedMetadata(token, tokenManager.getExpiresAt(), metadata);
+        current.set(signed);
+        return signed;
+    }
+
+    private static class SignedMetadata {
+
+        private final String token;
+
+        private final long expiresAt;
+
+        /** Never modified once published, gRPC only merges it into the headers of the call */
+        private final Metadata metadata;
+
+        SignedMetadata(String token, long expiresAt, Metadata metadata) {
+            this.token = token;
+            this.expiresAt = expiresAt;
+            this.metadata = metadata;
         }
-        return serverId;
     }
 }
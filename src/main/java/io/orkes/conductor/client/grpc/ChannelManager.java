@@ -17,9 +17,8 @@ import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
-import com.netflix.conductor.common.config.ObjectMapperProvider;
-
 import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.codec.JacksonCodec;
 
 import io.grpc.ManagedChannel;
 import io.grpc.netty.NettyChannelBuilder;
@@ -37,7 +36,7 @@ public abstract class ChannelManager {
         boolean useSSL = apiClient.useSSL();
         Map<String, Object> serviceConfig = new HashMap<>();
         try {
-            serviceConfig = new ObjectMapperProvider().getObjectMapper().readValue(ChannelManager.class.getResourceAsStream("/service_config.json"), Map.class);
+            serviceConfig = JacksonCodec.sharedObjectMapper().readValue(ChannelManager.class.getResourceAsStream("/service_config.json"), Map.class);
         } catch (Exception e) {
             throw new RuntimeException("Unable to find the service config", e);
         }
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.grpc;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Identity of this client sent to the server with every call. Resolving the local address can
+ * block on DNS, so it is resolved once, the first time it is needed.
+ */
+public final class ClientIdentity {
+
+    private ClientIdentity() {}
+
+    public static String get() {
+        return Holder.IDENTITY;
+    }
+
+    private static class Holder {
+        private static final String IDENTITY = resolve();
+    }
+
+    private static String resolve() {
+        String serverId = System.getenv("LOCAL_HOST_IP");
+        if (StringUtils.isBlank(serverId)) {
+            try {
+                serverId = InetAddress.getLocalHost().getHostAddress();
+            } catch (UnknownHostException e) {
+            }
+        }
+
+        if (StringUtils.isBlank(serverId)) {
+            serverId = System.getenv("HOSTNAME");
+        }
+        if (StringUtils.isBlank(serverId)) {
+            serverId = System.getProperty("user.name");
+        }
+        return serverId;
+    }
+}
@@ -12,31 +12,28 @@
  */
 package io.orkes.conductor.client.grpc;
 
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-
-import org.apache.commons.lang3.StringUtils;
-
 import io.orkes.conductor.client.ApiClient;
 
 import io.grpc.*;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Identifies the client on every call, and authenticates it with the shared {@link AuthToken}
+ * credentials when security is enabled. Nothing is resolved or built per call.
+ */
 @Slf4j
 public class HeaderClientInterceptor implements ClientInterceptor {
 
-    private static final Metadata.Key<String> AUTH_HEADER =
-            Metadata.Key.of("X-AUTHORIZATION", Metadata.ASCII_STRING_MARSHALLER);
-
-    private static final Metadata.Key<String> CLIENT_ID_HEADER =
-            Metadata.Key.of("X-Client-Id", Metadata.ASCII_STRING_MARSHALLER);
-
-    private final String clientId;
+    private final Metadata clientIdHeaders;
 
     private final ApiClient apiClient;
 
+    private volatile AuthToken credentials;
+
     public HeaderClientInterceptor(ApiClient apiClient) {
-        this.clientId = getIdentity();
+        String clientId = ClientIdentity.get();
+        this.clientIdHeaders = new Metadata();
+        this.clientIdHeaders.put(AuthToken.CLIENT_ID_HEADER, clientId);
         this.apiClient = apiClient;
         log.info("Setting client id to {}", clientId);
     }
@@ -44,38 +41,27 @@ public class HeaderClientInterceptor implements ClientInterceptor {
     @Override
     public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
             MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+        if (apiClient.useSecurity()) {
+            // the credentials add the client id along with the token
+            return next.newCall(method, callOptions.withCallCredentials(credentials()));
+        }
         return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(
                 next.newCall(method, callOptions)) {
 
             @Override
             public void start(Listener<RespT> responseListener, Metadata headers) {
-                try {
-                    if (apiClient.useSecurity()) {
-                        headers.put(AUTH_HEADER, apiClient.getToken());
-                    }
-                    headers.put(CLIENT_ID_HEADER, clientId);
-                } catch (Throwable t) {
-                }
-                super.start(
-                        new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(
-                                responseListener) {},
-                        headers);
+                headers.merge(clientIdHeaders);
+                super.start(responseListener, headers);
             }
         };
     }
 
-    private String getIdentity() {
-        String serverId = System.getenv("LOCAL_HOST_IP");
-        if (StringUtils.isBlank(serverId)) {
-            try {
-                serverId = InetAddress.getLocalHost().getHostAddress();
-            } catch (UnknownHostException e) {
-            }
-        }
-
-        if (StringUtils.isBlank(serverId)) {
-            serverId = System.getenv("HOSTNAME");
+    private AuthToken credentials() {
+        AuthToken authToken = credentials;
+        if (authToken == null) {
+            authToken = AuthToken.forClient(apiClient);
+            credentials = authToken;
         }
-        return serverId;
+        return authToken;
     }
 }
@@ -12,97 +12,79 @@
  */
 package io.orkes.conductor.client.grpc.workflow;
 
+import java.time.Duration;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 
 import com.netflix.conductor.common.metadata.workflow.StartWorkflowRequest;
 
 import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.codec.JacksonCodec;
 import io.orkes.conductor.client.grpc.HeaderClientInterceptor;
 import io.orkes.conductor.common.model.WorkflowRun;
 import io.orkes.conductor.proto.ProtoMappingHelper;
+import io.orkes.conductor.proto.WorkflowRunProtoMapper;
 import io.orkes.grpc.service.OrkesWorkflowService;
 import io.orkes.grpc.service.WorkflowServiceStreamGrpc;
 
-import com.google.common.util.concurrent.Uninterruptibles;
 import io.grpc.ManagedChannel;
-import io.grpc.stub.StreamObserver;
-import lombok.extern.slf4j.Slf4j;
 
 import static io.orkes.conductor.client.grpc.ChannelManager.getChannel;
 
-@Slf4j
 public class GrpcWorkflowClient {
 
-    private WorkflowServiceStreamGrpc.WorkflowServiceStreamStub stub;
-
-    private StreamObserver<OrkesWorkflowService.StartWorkflowRequest> requestStream;
-
-    private StartWorkflowResponseStream responseStream;
-
     private final ProtoMappingHelper protoMappingHelper = ProtoMappingHelper.INSTANCE;
 
     private final WorkflowExecutionMonitor executionMonitor;
 
+    private final WorkflowStreamSupervisor supervisor;
+
     private final ManagedChannel channel;
 
     public GrpcWorkflowClient(ApiClient apiClient) {
         this.executionMonitor = new WorkflowExecutionMonitor();
         this.channel = getChannel(apiClient);
 
-        stub =
+        WorkflowServiceStreamGrpc.WorkflowServiceStreamStub stub =
                 WorkflowServiceStreamGrpc.newStub(channel)
                         .withInterceptors(new HeaderClientInterceptor(apiClient));
-        this.responseStream = new StartWorkflowResponseStream(executionMonitor);
-        requestStream = stub.startWorkflow(responseStream);
+        WorkflowRunProtoMapper protoMapper =
+                new WorkflowRunProtoMapper(JacksonCodec.objectMapperOf(apiClient.getJsonCodec()));
+        this.supervisor = new WorkflowStreamSupervisor(stub, executionMonitor, protoMapper);
+        this.supervisor.start();
     }
 
-    private synchronized boolean reConnect() {
-        try {
-            requestStream = stub.startWorkflow(this.responseStream);
-            return true;
-        } catch (Exception connectException) {
-            log.error("Server not ready {}", connectException.getMessage(), connectException);
-            return false;
-        }
+    public CompletableFuture<WorkflowRun> executeWorkflow(StartWorkflowRequest startWorkflowRequest, String waitUntilTask) {
+        return executeWorkflow(startWorkflowRequest, waitUntilTask, WorkflowExecutionMonitor.DEFAULT_DEADLINE);
     }
 
-    public CompletableFuture<WorkflowRun> executeWorkflow(StartWorkflowRequest startWorkflowRequest, String waitUntilTask) {
-        if (!responseStream.isReady()) {
-            int connectAttempts = 3;
-            int sleepTime = 200;
-
-            while (connectAttempts > 0) {
-                reConnect();
-                log.info("Connection attempt {} backoff for {} millis", connectAttempts, sleepTime);
-                Uninterruptibles.sleepUninterruptibly(sleepTime, TimeUnit.MILLISECONDS);
-                if(responseStream.isReady()) {
-                    break;
-                }
-                connectAttempts--;
-                sleepTime = sleepTime * 2;
-            }
-            if(!responseStream.isReady()) {
-                throw new RuntimeException("Server is not yet ready to accept the requests");
-            }
-        }
+    /**
+     * Starts the workflow over the stream and waits for the response until the deadline. If the
+     * stream is not connected the request is sent, or replayed, once the supervisor reconnects.
+     *
+     * @param startWorkflowRequest workflow to start
+     * @param waitUntilTask reference name of the task to wait for, null to wait for the workflow
+     * @param deadline time after which the returned future fails with a TimeoutException
+     * @return future completed with the workflow run
+     */
+    public CompletableFuture<WorkflowRun> executeWorkflow(StartWorkflowRequest startWorkflowRequest, String waitUntilTask, Duration deadline) {
         String requestId = UUID.randomUUID().toString();
+        return supervisor.submit(requestId, buildRequest(requestId, startWorkflowRequest, waitUntilTask), deadline);
+    }
 
+    private OrkesWorkflowService.StartWorkflowRequest buildRequest(String requestId, StartWorkflowRequest startWorkflowRequest, String waitUntilTask) {
         OrkesWorkflowService.StartWorkflowRequest.Builder requestBuilder = OrkesWorkflowService.StartWorkflowRequest.newBuilder();
         requestBuilder.setRequestId(requestId).setIdempotencyKey(requestId).setMonitor(true);
         if (waitUntilTask != null) {
             requestBuilder.setWaitUntilTask(waitUntilTask);
         }
         requestBuilder.setRequest(protoMappingHelper.toProto(startWorkflowRequest));
-        CompletableFuture future = executionMonitor.monitorRequest(requestId);
-        synchronized (requestStream) {
-            requestStream.onNext(requestBuilder.build());
-        }
-        return future;
+        return requestBuilder.build();
     }
 
     public void shutdown() {
+        supervisor.shutdown();
         channel.shutdown();
+        executionMonitor.shutdown();
     }
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.grpc.workflow;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Spectator;
+import com.netflix.spectator.api.patterns.PolledMeter;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Table of in-flight requests keyed by request id.
+ *
+ * <p>Entries are removed as soon as they are completed, timed out or failed, so the size of the
+ * table is bounded by the number of requests actually waiting on the server. Deadlines are tracked
+ * on a hashed timer wheel, which keeps the per-request cost constant regardless of the number of
+ * pending requests.
+ *
+ * @param <T> type of the response the caller is waiting for
+ */
+@Slf4j
+public class PendingRequestTable<T> {
+
+    private static final Registry REGISTRY = Spectator.globalRegistry();
+
+    private final Map<String, PendingRequest<T>> pending = new ConcurrentHashMap<>();
+
+    private final HashedWheelTimer timer;
+
+    private final Counter timeouts;
+
+    private final Counter failures;
+
+    public PendingRequestTable(String name) {
+        this.timer = new HashedWheelTimer(r -> {
+            Thread thread = new Thread(r, name + "-deadline-timer");
+            thread.setDaemon(true);
+            return thread;
+        }, 10, TimeUnit.MILLISECONDS, 512);
+        this.timeouts = REGISTRY.counter("pending_request_timeouts", "table", name);
+        this.failures = REGISTRY.counter("pending_request_failures", "table", name);
+        PolledMeter.using(REGISTRY)
+                .withName("pending_request_count")
+                .withTag("table", name)
+                .monitorValue(this, PendingRequestTable::size);
+        PolledMeter.using(REGISTRY)
+                .withName("pending_request_oldest_age_ms")
+                .withTag("table", name)
+                .monitorValue(this, PendingRequestTable::oldestAgeMillis);
+    }
+
+    /**
+     * Registers a new request and arms its deadline. The returned future is completed
+     * exceptionally with a {@link TimeoutException} if no response arrives before the deadline.
+     *
+     * @param requestId unique id of the request
+     * @param deadline maximum time to wait for the response
+     * @return future completed when the response arrives
+     */
+    public CompletableFuture<T> register(String requestId, Duration deadline) {
+        PendingRequest<T> request = new PendingRequest<>(System.currentTimeMillis());
+        PendingRequest<T> existing = pending.putIfAbsent(requestId, request);
+        if (existing != null) {
+            throw new IllegalStateException("Request " + requestId + " is already pending");
+        }
+        request.timeout =
+                timer.newTimeout(
+                        t -> expire(requestId, deadline),
+                        deadline.toMillis(),
+                        TimeUnit.MILLISECONDS);
+        return request.future;
+    }
+
+    /**
+     * Removes the request from the table and returns its future, or null if the request is not
+     * pending anymore (completed, timed out or never registered).
+     *
+     * @param requestId id of the request
+     * @return the future waiting for the response or null
+     */
+    public CompletableFuture<T> remove(String requestId) {
+        PendingRequest<T> request = pending.remove(requestId);
+        if (request == null) {
+            return null;
+        }
+        Timeout timeout = request.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        return request.future;
+    }
+
+    /**
+     * Fails all the pending requests, used when the underlying stream is closed and no responses
+     * can be received anymore.
+     *
+     * @param cause reason for failing the requests
+     * @return number of requests that were failed
+     */
+    public int failAll(Throwable cause) {
+        List<String> requestIds = new ArrayList<>(pending.keySet());
+        int failed = 0;
+        for (String requestId : requestIds) {
+            CompletableFuture<T> future = remove(requestId);
+            if (future != null && future.completeExceptionally(cause)) {
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            failures.increment(failed);
+            log.warn("Failed {} pending requests - {}", failed, cause.getMessage());
+        }
+        return failed;
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    public long oldestAgeMillis() {
+        long now = System.currentTimeMillis();
+        long oldest = now;
+        for (PendingRequest<T> request : pending.values()) {
+            oldest = Math.min(oldest, request.createdAt);
+        }
+        return now - oldest;
+    }
+
+    public void shutdown() {
+        timer.stop();
+    }
+
+    private void expire(String requestId, Duration deadline) {
+        PendingRequest<T> request = pending.remove(requestId);
+        if (request == null) {
+            return;
+        }
+        timeouts.increment();
+        request.future.completeExceptionally(
+                new TimeoutException(
+                        "No response for request " + requestId + " within " + deadline.toMillis() + " ms"));
+    }
+
+    private static class PendingRequest<T> {
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long createdAt;
+        private volatile Timeout timeout;
+
+        PendingRequest(long createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+}
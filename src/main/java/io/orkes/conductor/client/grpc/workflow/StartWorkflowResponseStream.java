@@ -14,8 +14,6 @@ package io.orkes.conductor.client.grpc.workflow;
 
 import java.util.concurrent.CompletableFuture;
 
-import com.netflix.conductor.common.config.ObjectMapperProvider;
-
 import io.orkes.conductor.client.http.ApiException;
 import io.orkes.conductor.common.model.WorkflowRun;
 import io.orkes.conductor.proto.WorkflowRunProtoMapper;
@@ -33,11 +31,15 @@ public class StartWorkflowResponseStream  implements ClientResponseObserver<Orke
 
     private final WorkflowRunProtoMapper protoMapper;
 
-    private ClientCallStreamObserver<OrkesWorkflowService.StartWorkflowRequest> requestStream;
+    private final WorkflowStreamSupervisor supervisor;
 
-    public StartWorkflowResponseStream(WorkflowExecutionMonitor executionMonitor) {
+    StartWorkflowResponseStream(
+            WorkflowExecutionMonitor executionMonitor,
+            WorkflowStreamSupervisor supervisor,
+            WorkflowRunProtoMapper protoMapper) {
         this.executionMonitor = executionMonitor;
-        this.protoMapper = new WorkflowRunProtoMapper(new ObjectMapperProvider().getObjectMapper());
+        this.supervisor = supervisor;
+        this.protoMapper = protoMapper;
     }
 
     @Override
@@ -46,7 +48,7 @@ public class StartWorkflowResponseStream  implements ClientResponseObserver<Orke
         try {
 
             CompletableFuture<WorkflowRun> future =
-                    this.executionMonitor.getFuture(response.getRequestId());
+                    this.executionMonitor.complete(response.getRequestId());
             if (future == null) {
                 log.warn("No waiting client for the request {}", response.getRequestId());
                 return;
@@ -81,19 +83,18 @@ public class StartWorkflowResponseStream  implements ClientResponseObserver<Orke
             default:
                 log.warn("Server Error {} - {}", code, t.getMessage(), t);
         }
-    }
-
-    public boolean isReady() {
-        return requestStream.isReady();
+        // requests that are still waiting are replayed once the supervisor reconnects
+        supervisor.onStreamClosed(this, t);
     }
 
     @Override
     public void onCompleted() {
         log.info("Completed....");
+        supervisor.onStreamClosed(this, null);
     }
 
     @Override
     public void beforeStart(ClientCallStreamObserver<OrkesWorkflowService.StartWorkflowRequest> requestStream) {
-        this.requestStream = requestStream;
+        requestStream.setOnReadyHandler(() -> supervisor.onStreamReady(this));
     }
 }
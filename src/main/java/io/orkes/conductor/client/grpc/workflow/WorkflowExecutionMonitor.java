@@ -12,33 +12,48 @@
  */
 package io.orkes.conductor.client.grpc.workflow;
 
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 
 import io.orkes.conductor.common.model.WorkflowRun;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-
 public class WorkflowExecutionMonitor {
 
-    private final Cache<String, CompletableFuture<WorkflowRun>> pendingExecutions;
+    static final Duration DEFAULT_DEADLINE = Duration.ofMinutes(5);
+
+    private final PendingRequestTable<WorkflowRun> pendingExecutions;
 
     public WorkflowExecutionMonitor() {
-        this.pendingExecutions =
-                CacheBuilder.newBuilder()
-                        .expireAfterWrite(5, TimeUnit.MINUTES)
-                        .concurrencyLevel(100)
-                        .build();
+        this.pendingExecutions = new PendingRequestTable<>("workflow_execution");
     }
 
     CompletableFuture<WorkflowRun> monitorRequest(String requestId) {
-        CompletableFuture<WorkflowRun> future = new CompletableFuture<>();
-        pendingExecutions.put(requestId, future);
-        return future;
+        return monitorRequest(requestId, DEFAULT_DEADLINE);
+    }
+
+    CompletableFuture<WorkflowRun> monitorRequest(String requestId, Duration deadline) {
+        return pendingExecutions.register(requestId, deadline);
+    }
+
+    /**
+     * Removes the request from the monitor and returns the future waiting for its response.
+     *
+     * @param requestId id of the request
+     * @return future for the request, null if no caller is waiting for it anymore
+     */
+    CompletableFuture<WorkflowRun> complete(String requestId) {
+        return pendingExecutions.remove(requestId);
+    }
+
+    void failAll(Throwable cause) {
+        pendingExecutions.failAll(cause);
+    }
+
+    int getPendingCount() {
+        return pendingExecutions.size();
     }
 
-    CompletableFuture<WorkflowRun> getFuture(String requestId) {
-        return pendingExecutions.getIfPresent(requestId);
+    void shutdown() {
+        pendingExecutions.shutdown();
     }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.grpc.workflow;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import io.orkes.conductor.common.model.WorkflowRun;
+
+/**
+ * Publishes the snapshots of a single workflow execution handed to the progress listener, followed
+ * by the terminal snapshot.
+ *
+ * <p>The publisher is cold: the workflow is started when the subscriber subscribes, and only one
+ * subscriber is supported. Snapshots are offered without ever blocking the thread delivering them:
+ * intermediate snapshots are dropped when the subscriber falls behind by a full buffer, minus one
+ * slot kept for the terminal snapshot, which is therefore always delivered.
+ */
+public class WorkflowProgressPublisher implements Flow.Publisher<WorkflowRun> {
+
+    private final Function<Consumer<WorkflowRun>, CompletableFuture<WorkflowRun>> execution;
+
+    private final Executor executor;
+
+    private final int bufferSize;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean(false);
+
+    /**
+     * @param execution starts the workflow with the given progress listener and returns the
+     *     future completed with the terminal snapshot
+     */
+    public WorkflowProgressPublisher(
+            Function<Consumer<WorkflowRun>, CompletableFuture<WorkflowRun>> execution) {
+        this(
+                execution,
+                ForkJoinPool.getCommonPoolParallelism() > 1
+                        ? ForkJoinPool.commonPool()
+                        : task -> new Thread(task).start(),
+                Flow.defaultBufferSize());
+    }
+
+    /**
+     * @param execution starts the workflow with the given progress listener and returns the
+     *     future completed with the terminal snapshot
+     * @param executor delivers the snapshots to the subscriber
+     * @param bufferSize snapshots buffered for the subscriber, at least 2
+     */
+    public WorkflowProgressPublisher(
+            Function<Consumer<WorkflowRun>, CompletableFuture<WorkflowRun>> execution,
+            Executor executor,
+            int bufferSize) {
+        if (bufferSize < 2) {
+            throw new IllegalArgumentException("bufferSize cannot be less than 2");
+        }
+        this.execution = execution;
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super WorkflowRun> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber cannot be null");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(
+                    new Flow.Subscription() {
+                        @Override
+                        public void request(long n) {}
+
+                        @Override
+                        public void cancel() {}
+                    });
+            subscriber.onError(new IllegalStateException("Only one subscriber is supported"));
+            return;
+        }
+        SubmissionPublisher<WorkflowRun> publisher = new SubmissionPublisher<>(executor, bufferSize);
+        publisher.subscribe(subscriber);
+        // the buffer is rounded up to a power of two
+        int capacity = publisher.getMaxBufferCapacity();
+        CompletableFuture<WorkflowRun> future;
+        try {
+            future =
+                    execution.apply(
+                            run -> {
+                                if (publisher.estimateMaximumLag() < capacity - 1) {
+                                    publisher.offer(run, (s, dropped) -> false);
+                                }
+                            });
+        } catch (Throwable t) {
+            publisher.closeExceptionally(t);
+            return;
+        }
+        future.whenComplete(
+                (run, error) -> {
+                    if (error != null) {
+                        publisher.closeExceptionally(
+                                error instanceof CompletionException && error.getCause() != null
+                                        ? error.getCause()
+                                        : error);
+                    } else if (publisher.offer(run, (s, dropped) -> false) < 0) {
+                        publisher.closeExceptionally(
+                                new IllegalStateException("The subscriber is too slow to receive the terminal snapshot"));
+                    } else {
+                        publisher.close();
+                    }
+                });
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.grpc.workflow;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import io.orkes.conductor.client.codec.JacksonCodec;
+import io.orkes.conductor.client.http.ApiException;
+import io.orkes.conductor.common.model.WorkflowRun;
+import io.orkes.conductor.proto.WorkflowRunProtoMapper;
+import io.orkes.grpc.service.OrkesWorkflowService;
+import io.orkes.grpc.service.WorkflowServiceStreamGrpc;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Owns the lifecycle of the bidirectional workflow stream.
+ *
+ * <p>All the state transitions happen on a single supervisor thread: the stream is opened, marked
+ * ready when gRPC signals it can accept messages, and re-opened with exponential backoff when it
+ * fails. Requests that have not been answered yet are replayed on every new stream with the same
+ * idempotency key, so callers never reconnect themselves and only ever wait on their own future.
+ *
+ * <p>Reconnecting is bounded by a budget of consecutive attempts that do not reach the ready state.
+ * Once the budget is spent, the outstanding requests are failed instead of waiting for their
+ * deadline, and new requests fail immediately until a stream becomes ready again. The supervisor
+ * keeps reconnecting in the background at the maximum backoff.
+ */
+@Slf4j
+class WorkflowStreamSupervisor {
+
+    enum State {
+        CONNECTING,
+        READY,
+        BACKOFF,
+        SHUTDOWN
+    }
+
+    /** Opens a new bidirectional stream, see {@code WorkflowServiceStreamStub#startWorkflow} */
+    interface StreamOpener {
+        StreamObserver<OrkesWorkflowService.StartWorkflowRequest> open(
+                StreamObserver<OrkesWorkflowService.StartWorkflowResponse> responseObserver);
+    }
+
+    static final int DEFAULT_MAX_RECONNECT_ATTEMPTS = 6;
+
+    private static final long INITIAL_BACKOFF_MILLIS = 100;
+
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final StreamOpener opener;
+
+    private final int maxReconnectAttempts;
+
+    private final long initialBackoffMillis;
+
+    private final WorkflowExecutionMonitor executionMonitor;
+
+    private final WorkflowRunProtoMapper protoMapper;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<String, OutstandingRequest> outstanding = new ConcurrentHashMap<>();
+
+    private final Object sendLock = new Object();
+
+    private volatile State state = State.CONNECTING;
+
+    // guarded by sendLock
+    private StartWorkflowResponseStream responseStream;
+
+    // guarded by sendLock
+    private StreamObserver<OrkesWorkflowService.StartWorkflowRequest> requestStream;
+
+    // guarded by sendLock, incremented for every new stream
+    private int generation;
+
+    // only accessed from the supervisor thread
+    private long backoffMillis;
+
+    // attempts since the last ready stream, only accessed from the supervisor thread
+    private int failedAttempts;
+
+    // set once the reconnect budget is spent, cleared when a stream becomes ready
+    private volatile boolean unavailable;
+
+    WorkflowStreamSupervisor(
+            WorkflowServiceStreamGrpc.WorkflowServiceStreamStub stub,
+            WorkflowExecutionMonitor executionMonitor,
+            WorkflowRunProtoMapper protoMapper) {
+        this(
+                stub::startWorkflow,
+                executionMonitor,
+                protoMapper,
+                DEFAULT_MAX_RECONNECT_ATTEMPTS,
+                INITIAL_BACKOFF_MILLIS);
+    }
+
+    WorkflowStreamSupervisor(
+            StreamOpener opener,
+            WorkflowExecutionMonitor executionMonitor,
+            int maxReconnectAttempts,
+            long initialBackoffMillis) {
+        this(
+                opener,
+                executionMonitor,
+                new WorkflowRunProtoMapper(JacksonCodec.sharedObjectMapper()),
+                maxReconnectAttempts,
+                initialBackoffMillis);
+    }
+
+    WorkflowStreamSupervisor(
+            StreamOpener opener,
+            WorkflowExecutionMonitor executionMonitor,
+            WorkflowRunProtoMapper protoMapper,
+            int maxReconnectAttempts,
+            long initialBackoffMillis) {
+        this.opener = opener;
+        this.executionMonitor = executionMonitor;
+        this.protoMapper = protoMapper;
+        this.maxReconnectAttempts = maxReconnectAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.backoffMillis = initialBackoffMillis;
+        this.scheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("workflow-stream-supervisor-%d")
+                                .setDaemon(true)
+                                .build());
+    }
+
+    void start() {
+        scheduler.execute(this::connect);
+    }
+
+    State getState() {
+        return state;
+    }
+
+    /**
+     * Registers the request and sends it if the stream is ready. Otherwise the request is sent as
+     * soon as the stream becomes ready, unless its deadline expires or the reconnect budget is
+     * spent first.
+     */
+    CompletableFuture<WorkflowRun> submit(
+            String requestId, OrkesWorkflowService.StartWorkflowRequest request, Duration deadline) {
+        if (state == State.SHUTDOWN) {
+            CompletableFuture<WorkflowRun> future = new CompletableFuture<>();
+            future.completeExceptionally(new ApiException("Workflow client has been shut down"));
+            return future;
+        }
+        if (unavailable) {
+            CompletableFuture<WorkflowRun> future = new CompletableFuture<>();
+            future.completeExceptionally(
+                    new ApiException("Workflow stream is unavailable after " + maxReconnectAttempts + " attempts"));
+            return future;
+        }
+        CompletableFuture<WorkflowRun> future = executionMonitor.monitorRequest(requestId, deadline);
+        return track(requestId, request, future);
+    }
+
+    private CompletableFuture<WorkflowRun> track(
+            String requestId,
+            OrkesWorkflowService.StartWorkflowRequest request,
+            CompletableFuture<WorkflowRun> future) {
+        OutstandingRequest outstandingRequest = new OutstandingRequest(request);
+        outstanding.put(requestId, outstandingRequest);
+        future.whenComplete((run, error) -> outstanding.remove(requestId));
+        if (state == State.READY) {
+            send(requestId, outstandingRequest);
+        }
+        return future;
+    }
+
+    void onStreamReady(StartWorkflowResponseStream stream) {
+        runOnSupervisor(
+                () -> {
+                    synchronized (sendLock) {
+                        if (stream != responseStream || state == State.SHUTDOWN) {
+                            return;
+                        }
+                    }
+                    if (state != State.READY) {
+                        log.info("Workflow stream is ready, replaying {} outstanding requests", outstanding.size());
+                        state = State.READY;
+                        backoffMillis = initialBackoffMillis;
+                        failedAttempts = 0;
+                        unavailable = false;
+                    }
+                    outstanding.forEach(this::send);
+                });
+    }
+
+    void onStreamClosed(StartWorkflowResponseStream stream, Throwable cause) {
+        runOnSupervisor(
+                () -> {
+                    synchronized (sendLock) {
+                        if (stream != responseStream) {
+                            return;
+                        }
+                        responseStream = null;
+                        requestStream = null;
+                    }
+                    if (state == State.SHUTDOWN) {
+                        return;
+                    }
+                    log.warn("Workflow stream closed with {} outstanding requests - {}", outstanding.size(),
+                            cause == null ? "completed by the server" : cause.getMessage());
+                    state = State.BACKOFF;
+                    attemptFailed(cause);
+                    scheduleReconnect();
+                });
+    }
+
+    void shutdown() {
+        state = State.SHUTDOWN;
+        scheduler.shutdownNow();
+        synchronized (sendLock) {
+            if (requestStream != null) {
+                try {
+                    requestStream.onCompleted();
+                } catch (Exception e) {
+                    log.debug("Error closing the workflow stream {}", e.getMessage());
+                }
+            }
+            responseStream = null;
+            requestStream = null;
+        }
+        executionMonitor.failAll(new ApiException("Workflow client has been shut down"));
+    }
+
+    private void runOnSupervisor(Runnable task) {
+        if (state == State.SHUTDOWN) {
+            return;
+        }
+        try {
+            scheduler.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("Supervisor has been shut down");
+        }
+    }
+
+    private void connect() {
+        if (state == State.SHUTDOWN) {
+            return;
+        }
+        state = State.CONNECTING;
+        StartWorkflowResponseStream stream = new StartWorkflowResponseStream(executionMonitor, this, protoMapper);
+        try {
+            synchronized (sendLock) {
+                generation++;
+                responseStream = stream;
+                requestStream = opener.open(stream);
+            }
+        } catch (Exception e) {
+            log.error("Unable to open the workflow stream {}", e.getMessage(), e);
+            synchronized (sendLock) {
+                responseStream = null;
+                requestStream = null;
+            }
+            state = State.BACKOFF;
+            attemptFailed(e);
+            scheduleReconnect();
+        }
+    }
+
+    private void attemptFailed(Throwable cause) {
+        failedAttempts++;
+        if (failedAttempts < maxReconnectAttempts) {
+            return;
+        }
+        if (!unavailable) {
+            unavailable = true;
+            log.error("Workflow stream is unavailable after {} attempts, failing {} outstanding requests",
+                    failedAttempts, outstanding.size());
+        }
+        // requests submitted while the last attempt was in progress are failed as well
+        ApiException error =
+                new ApiException(
+                        "Workflow stream is unavailable after " + failedAttempts + " attempts"
+                                + (cause == null ? "" : " - " + cause.getMessage()));
+        for (String requestId : outstanding.keySet()) {
+            CompletableFuture<WorkflowRun> future = executionMonitor.complete(requestId);
+            if (future != null) {
+                future.completeExceptionally(error);
+            }
+        }
+    }
+
+    private void scheduleReconnect() {
+        long delay = ThreadLocalRandom.current().nextLong(backoffMillis / 2, backoffMillis + 1);
+        backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        log.info("Reconnecting to the workflow stream in {} ms", delay);
+        scheduler.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void send(String requestId, OutstandingRequest outstandingRequest) {
+        synchronized (sendLock) {
+            if (requestStream == null || outstandingRequest.generation == generation) {
+                // not connected, or already sent on the current stream
+                return;
+            }
+            try {
+                requestStream.onNext(outstandingRequest.request);
+                outstandingRequest.generation = generation;
+            } catch (RuntimeException e) {
+                log.warn("Unable to send request {}, it will be replayed on reconnect - {}", requestId, e.getMessage());
+            }
+        }
+    }
+
+    private static class OutstandingRequest {
+        private final OrkesWorkflowService.StartWorkflowRequest request;
+
+        // generation of the stream the request was last sent on, guarded by sendLock
+        private int generation = -1;
+
+        OutstandingRequest(OrkesWorkflowService.StartWorkflowRequest request) {
+            this.request = request;
+        }
+    }
+}
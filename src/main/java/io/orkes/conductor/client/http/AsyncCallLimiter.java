@@ -0,0 +1,130 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Bounds the number of asynchronous calls in flight without blocking the caller. Calls submitted
+ * above the limit wait in a queue and are started as earlier calls complete, so fanning out
+ * thousands of requests costs memory for the queued calls but no thread per request.
+ */
+public class AsyncCallLimiter {
+
+    private final int maxInFlight;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    public AsyncCallLimiter(int maxInFlight) {
+        Preconditions.checkArgument(maxInFlight > 0, "maxInFlight must be positive");
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Starts the call now if the limit allows it, or once enough calls in flight have completed.
+     *
+     * @param <T> type of the result
+     * @param call starts the call and returns its future
+     * @return future completed with the result of the call
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        waiting.add(
+                () -> {
+                    if (result.isDone()) {
+                        // cancelled while queued
+                        release();
+                        return;
+                    }
+                    CompletableFuture<T> future;
+                    try {
+                        future = call.get();
+                    } catch (Throwable t) {
+                        future = CompletableFuture.failedFuture(t);
+                    }
+                    future.whenComplete(
+                            (value, error) -> {
+                                release();
+                                if (error != null) {
+                                    result.completeExceptionally(error);
+                                } else {
+                                    result.complete(value);
+                                }
+                            });
+                });
+        drain();
+        return result;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueued() {
+        return waiting.size();
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    private void drain() {
+        // a call completing synchronously releases and drains again from within next.run(); only
+        // the first caller loops, the others leave a request for it so the stack stays flat
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            startWaiting();
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void startWaiting() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            Runnable next = waiting.poll();
+            if (next == null) {
+                inFlight.decrementAndGet();
+                // a call queued after the poll must not be left behind
+                if (waiting.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            next.run();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.common.model.BulkResponse;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Runs a bulk workflow operation over a large list of ids by splitting it in chunks sent
+ * concurrently, with a bounded number of chunks in flight, and merges the responses of the chunks
+ * into a single response in the order of the ids.
+ *
+ * <p>When every chunk fails, e.g. on a 401 or when the operation fits in a single chunk, the error
+ * of the first chunk is thrown as the unchunked call would have thrown it. Otherwise the ids of a
+ * failed chunk are reported as errors in the merged response.
+ */
+class BulkOperationExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkOperationExecutor.class);
+
+    /** Sends the operation for one chunk of ids */
+    @FunctionalInterface
+    interface ChunkCall {
+
+        /**
+         * @throws ApiException if the call cannot be made, e.g. a required parameter is missing
+         */
+        CompletableFuture<BulkResponse> execute(List<String> workflowIds) throws ApiException;
+    }
+
+    private final int chunkSize;
+
+    private final int maxConcurrentChunks;
+
+    private final BulkProgressListener progressListener;
+
+    BulkOperationExecutor(int chunkSize, int maxConcurrentChunks, BulkProgressListener progressListener) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize cannot be less than 1");
+        }
+        if (maxConcurrentChunks < 1) {
+            throw new IllegalArgumentException("maxConcurrentChunks cannot be less than 1");
+        }
+        this.chunkSize = chunkSize;
+        this.maxConcurrentChunks = maxConcurrentChunks;
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Runs the operation and returns once all the chunks completed.
+     *
+     * @param workflowIds ids of the workflows, null is passed on to the call to be rejected by its
+     *     validation
+     * @throws ApiException if every chunk failed
+     * @throws CancellationException if the thread is interrupted, the chunks in flight are
+     *     cancelled
+     */
+    BulkResponse execute(List<String> workflowIds, ChunkCall chunkCall) {
+        List<List<String>> chunks =
+                workflowIds == null
+                        ? Collections.singletonList(null)
+                        : Lists.partition(workflowIds, chunkSize);
+        BulkResponse[] responses = new BulkResponse[chunks.size()];
+        ApiException[] errors = new ApiException[chunks.size()];
+        List<CompletableFuture<BulkResponse>> inFlight = new ArrayList<>(chunks.size());
+        Semaphore permits = new Semaphore(maxConcurrentChunks);
+        Progress progress = new Progress(workflowIds == null ? 0 : workflowIds.size());
+        int index = 0;
+        try {
+            for (; index < chunks.size(); index++) {
+                int chunkIndex = index;
+                List<String> chunk = chunks.get(index);
+                permits.acquire();
+                CompletableFuture<BulkResponse> future = start(chunk, chunkCall);
+                inFlight.add(future);
+                future.whenComplete(
+                        (response, error) -> {
+                            try {
+                                BulkResponse chunkResponse;
+                                if (error != null) {
+                                    errors[chunkIndex] = toApiException(error);
+                                    LOGGER.warn(
+                                            "Bulk operation failed for a chunk of {} workflows - {}",
+                                            size(chunk),
+                                            errors[chunkIndex].getMessage());
+                                    chunkResponse = failed(chunk, errors[chunkIndex]);
+                                } else {
+                                    chunkResponse = response != null ? response : new BulkResponse();
+                                }
+                                responses[chunkIndex] = chunkResponse;
+                                progress.completed(size(chunk), chunkResponse);
+                            } finally {
+                                permits.release();
+                            }
+                        });
+            }
+            permits.acquire(maxConcurrentChunks);
+            permits.release(maxConcurrentChunks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            inFlight.forEach(future -> future.cancel(true));
+            throw new CancellationException(
+                    "Interrupted after sending " + index + " of " + chunks.size() + " chunks");
+        }
+
+        // the permits order the writes of the callbacks before these reads
+        int failedChunks = 0;
+        for (ApiException error : errors) {
+            if (error != null) {
+                failedChunks++;
+            }
+        }
+        if (failedChunks > 0 && failedChunks == chunks.size()) {
+            throw errors[0];
+        }
+        BulkResponse merged = new BulkResponse();
+        for (BulkResponse response : responses) {
+            response.getBulkSuccessfulResults().forEach(merged::appendSuccessResponse);
+            response.getBulkErrorResults().forEach(merged::appendFailedResponse);
+        }
+        return merged;
+    }
+
+    private static CompletableFuture<BulkResponse> start(List<String> chunk, ChunkCall chunkCall) {
+        try {
+            return chunkCall.execute(chunk);
+        } catch (ApiException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static ApiException toApiException(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof ApiException ? (ApiException) cause : new ApiException(cause);
+    }
+
+    private static int size(List<String> chunk) {
+        return chunk == null ? 0 : chunk.size();
+    }
+
+    private static BulkResponse failed(List<String> chunk, ApiException e) {
+        BulkResponse response = new BulkResponse();
+        if (chunk == null) {
+            return response;
+        }
+        String message = e.getMessage() != null ? e.getMessage() : "status " + e.getCode();
+        for (String workflowId : chunk) {
+            response.appendFailedResponse(workflowId, message);
+        }
+        return response;
+    }
+
+    private class Progress {
+
+        private final int total;
+
+        private int processed;
+
+        Progress(int total) {
+            this.total = total;
+        }
+
+        synchronized void completed(int size, BulkResponse chunkResponse) {
+            processed += size;
+            if (progressListener == null) {
+                return;
+            }
+            try {
+                progressListener.onChunkCompleted(processed, total, chunkResponse);
+            } catch (Throwable t) {
+                LOGGER.error("Error reporting the progress of a bulk operation", t);
+            }
+        }
+    }
+}
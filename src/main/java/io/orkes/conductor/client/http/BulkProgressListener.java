@@ -0,0 +1,30 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import com.netflix.conductor.common.model.BulkResponse;
+
+/** Receives the progress of a bulk operation split in chunks. */
+@FunctionalInterface
+public interface BulkProgressListener {
+
+    /**
+     * Called once for every completed chunk, never concurrently.
+     *
+     * @param processed number of ids processed so far, including this chunk
+     * @param total number of ids of the whole operation
+     * @param chunkResponse response of the chunk, ids of a chunk that failed as a whole are
+     *     reported as errors
+     */
+    void onChunkCompleted(int processed, int total, BulkResponse chunkResponse);
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.common.metadata.workflow.StartWorkflowRequest;
+
+import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.http.api.WorkflowResourceApi;
+import io.orkes.conductor.client.model.StartWorkflowResult;
+
+/**
+ * Starts workflows in bulk by pipelining start requests over the HTTP client with a bounded number
+ * of requests in flight. Results are delivered in the same order as the requests.
+ *
+ * <p>The requests are sent with {@link ApiClient#executeAsync(com.squareup.okhttp.Call,
+ * java.lang.reflect.Type)}, so they also count against {@link ApiClient#getMaxAsyncInFlight()} and
+ * the per-host limit of the dispatcher; the effective concurrency is the lowest of the three.
+ */
+class BulkWorkflowStarter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkWorkflowStarter.class);
+
+    private final WorkflowResourceApi workflowResourceApi;
+
+    private final int maxInFlight;
+
+    BulkWorkflowStarter(ApiClient apiClient, WorkflowResourceApi workflowResourceApi, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight cannot be less than 1");
+        }
+        this.workflowResourceApi = workflowResourceApi;
+        this.maxInFlight = maxInFlight;
+        int maxPerHost = apiClient.getHttpClient().getDispatcher().getMaxRequestsPerHost();
+        int effective = Math.min(maxInFlight, Math.min(apiClient.getMaxAsyncInFlight(), maxPerHost));
+        if (effective < maxInFlight) {
+            LOGGER.warn(
+                    "{} start requests in flight requested, the HTTP client allows {} - see "
+                            + "ApiClient.setMaxRequestsPerHost and ApiClient.setMaxAsyncInFlight",
+                    maxInFlight,
+                    effective);
+        }
+    }
+
+    List<StartWorkflowResult> start(List<StartWorkflowRequest> requests) {
+        StartWorkflowResult[] results = new StartWorkflowResult[requests.size()];
+        start(requests.iterator(), result -> results[result.getIndex()] = result);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Starts the workflows returned by the iterator. The call returns once all the results have
+     * been handed to the consumer. A permit is held by every request from the time it is sent
+     * until its result is delivered, so at most {@code maxInFlight} requests are either in flight
+     * or waiting for an earlier result to be delivered.
+     *
+     * <p>If the calling thread is interrupted, no further request is sent, the requests in flight
+     * are cancelled and a {@link CancellationException} is thrown. No result is handed to the
+     * consumer once the exception is thrown. Workflows whose start request already reached the
+     * server may still be started.
+     */
+    void start(Iterator<StartWorkflowRequest> requests, Consumer<StartWorkflowResult> consumer) {
+        Semaphore permits = new Semaphore(maxInFlight);
+        OrderedDelivery delivery = new OrderedDelivery(consumer, permits);
+        Set<CompletableFuture<String>> inFlight = ConcurrentHashMap.newKeySet();
+        int index = 0;
+        try {
+            while (requests.hasNext()) {
+                StartWorkflowRequest request = requests.next();
+                permits.acquire();
+                submit(index++, request, delivery, inFlight);
+            }
+            permits.acquire(maxInFlight);
+            permits.release(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            delivery.stop();
+            inFlight.forEach(future -> future.cancel(true));
+            throw new CancellationException("Interrupted after sending " + index + " start requests");
+        }
+    }
+
+    private void submit(
+            int index,
+            StartWorkflowRequest request,
+            OrderedDelivery delivery,
+            Set<CompletableFuture<String>> inFlight) {
+        CompletableFuture<String> future;
+        try {
+            if (request == null) {
+                throw new ApiException("StartWorkflowRequest cannot be null");
+            }
+            future = workflowResourceApi.startWorkflowAsync(request);
+        } catch (ApiException e) {
+            delivery.accept(StartWorkflowResult.failure(index, e));
+            return;
+        }
+        inFlight.add(future);
+        future.whenComplete(
+                (workflowId, error) -> {
+                    inFlight.remove(future);
+                    if (error instanceof CompletionException && error.getCause() != null) {
+                        error = error.getCause();
+                    }
+                    delivery.accept(
+                            error == null
+                                    ? StartWorkflowResult.success(index, workflowId)
+                                    : StartWorkflowResult.failure(index, error));
+                });
+    }
+
+    /** Re-orders results that complete out of order and hands them to the consumer in order */
+    private static class OrderedDelivery {
+
+        private final Consumer<StartWorkflowResult> consumer;
+
+        private final Semaphore permits;
+
+        private final Map<Integer, StartWorkflowResult> completed = new HashMap<>();
+
+        private int next = 0;
+
+        private boolean stopped;
+
+        OrderedDelivery(Consumer<StartWorkflowResult> consumer, Semaphore permits) {
+            this.consumer = consumer;
+            this.permits = permits;
+        }
+
+        /** Drops the results accepted from now on, once the results being delivered are handled */
+        synchronized void stop() {
+            stopped = true;
+            completed.clear();
+        }
+
+        synchronized void accept(StartWorkflowResult result) {
+            if (stopped) {
+                return;
+            }
+            completed.put(result.getIndex(), result);
+            StartWorkflowResult ready;
+            while ((ready = completed.remove(next)) != null) {
+                next++;
+                try {
+                    consumer.accept(ready);
+                } catch (Throwable t) {
+                    LOGGER.error("Error handling the result of request {}", ready.getIndex(), t);
+                } finally {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.time.Duration;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Resources reserved to a {@link TrafficClass}: its own connection pool, a limit of concurrent
+ * calls and optionally its own timeouts. Unset timeouts are those of the shared client.
+ */
+public class Bulkhead {
+
+    private final int maxConcurrentCalls;
+
+    private final Duration maxWait;
+
+    private final int maxIdleConnections;
+
+    private final Duration keepAlive;
+
+    private final Duration connectTimeout;
+
+    private final Duration readTimeout;
+
+    private final Duration writeTimeout;
+
+    private Bulkhead(Builder builder) {
+        this.maxConcurrentCalls = builder.maxConcurrentCalls;
+        this.maxWait = builder.maxWait;
+        this.maxIdleConnections = builder.maxIdleConnections;
+        this.keepAlive = builder.keepAlive;
+        this.connectTimeout = builder.connectTimeout;
+        this.readTimeout = builder.readTimeout;
+        this.writeTimeout = builder.writeTimeout;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public Duration getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    public static class Builder {
+
+        private int maxConcurrentCalls = 32;
+
+        private Duration maxWait = Duration.ofSeconds(5);
+
+        private int maxIdleConnections = 8;
+
+        private Duration keepAlive = Duration.ofMinutes(5);
+
+        private Duration connectTimeout;
+
+        private Duration readTimeout;
+
+        private Duration writeTimeout;
+
+        private Builder() {}
+
+        /** Calls of the class made at the same time, further calls wait for up to maxWait */
+        public Builder maxConcurrentCalls(int maxConcurrentCalls) {
+            Preconditions.checkArgument(maxConcurrentCalls > 0, "maxConcurrentCalls must be positive");
+            this.maxConcurrentCalls = maxConcurrentCalls;
+            return this;
+        }
+
+        /** Time a call waits for the class to have room before failing */
+        public Builder maxWait(Duration maxWait) {
+            this.maxWait = Preconditions.checkNotNull(maxWait, "maxWait cannot be null");
+            return this;
+        }
+
+        public Builder connectionPool(int maxIdleConnections, Duration keepAlive) {
+            Preconditions.checkArgument(maxIdleConnections >= 0, "maxIdleConnections cannot be negative");
+            this.maxIdleConnections = maxIdleConnections;
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        public Builder writeTimeout(Duration writeTimeout) {
+            this.writeTimeout = writeTimeout;
+            return this;
+        }
+
+        public Bulkhead build() {
+            return new Bulkhead(this);
+        }
+    }
+}
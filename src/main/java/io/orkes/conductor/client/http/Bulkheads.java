@@ -0,0 +1,372 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import javax.net.SocketFactory;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Spectator;
+import com.netflix.spectator.api.Timer;
+import com.netflix.spectator.api.patterns.PolledMeter;
+
+import io.orkes.conductor.client.http.transport.TransportInterceptor;
+
+import com.google.common.base.Preconditions;
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.Dispatcher;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Response;
+
+/**
+ * Isolates classes of HTTP traffic from each other, so that slow searches cannot starve task
+ * updates of connections or threads.
+ *
+ * <p>Endpoints are assigned to a {@link TrafficClass} by method and path template. The calls of a
+ * class go through their own connection pool and dispatcher, at most {@code maxConcurrentCalls}
+ * at a time. Calls to endpoints not assigned to a class use the shared client.
+ */
+public class Bulkheads {
+
+    private static final Registry REGISTRY = Spectator.globalRegistry();
+
+    private final List<Route> routes;
+
+    private final Map<TrafficClass, Compartment> compartments = new EnumMap<>(TrafficClass.class);
+
+    private Bulkheads(Builder builder) {
+        this.routes = Collections.unmodifiableList(new ArrayList<>(builder.routes));
+        for (Map.Entry<TrafficClass, Bulkhead> entry : builder.bulkheads.entrySet()) {
+            compartments.put(entry.getKey(), new Compartment(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Bulkheads for the three traffic classes, with the resource API endpoints routed to them */
+    public static Bulkheads defaults() {
+        return builder()
+                .bulkhead(
+                        TrafficClass.POLL,
+                        Bulkhead.builder()
+                                .maxConcurrentCalls(64)
+                                .maxWait(Duration.ofSeconds(1))
+                                .connectionPool(16, Duration.ofMinutes(5))
+                                .build())
+                .bulkhead(
+                        TrafficClass.UPDATE,
+                        Bulkhead.builder()
+                                .maxConcurrentCalls(64)
+                                .maxWait(Duration.ofSeconds(5))
+                                .connectionPool(16, Duration.ofMinutes(5))
+                                .build())
+                .bulkhead(
+                        TrafficClass.ADMIN,
+                        Bulkhead.builder()
+                                .maxConcurrentCalls(8)
+                                .maxWait(Duration.ofSeconds(30))
+                                .connectionPool(4, Duration.ofMinutes(1))
+                                .readTimeout(Duration.ofSeconds(60))
+                                .build())
+                .defaultRoutes()
+                .build();
+    }
+
+    /**
+     * @param method method of the request
+     * @param path path of the request relative to the base path
+     * @return class of the request, or null if it is not assigned to one
+     */
+    public TrafficClass classify(String method, String path) {
+        for (Route route : routes) {
+            if (route.matches(method, path)) {
+                return route.trafficClass;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the client a request is sent with: a copy of the shared client using the resources
+     * of the request's class, or the shared client itself when the request has no class. The copy
+     * is made once per class and made again only when the interceptors, timeouts or socket
+     * factory of the shared client change. It must not be modified, copy it to apply per-call
+     * settings.
+     *
+     * @param httpClient the shared client
+     * @param method method of the request
+     * @param path path of the request relative to the base path
+     * @return client for the request
+     */
+    public OkHttpClient clientFor(OkHttpClient httpClient, String method, String path) {
+        TrafficClass trafficClass = classify(method, path);
+        Compartment compartment = trafficClass == null ? null : compartments.get(trafficClass);
+        return compartment == null ? httpClient : compartment.clientFor(httpClient);
+    }
+
+    public Bulkhead getBulkhead(TrafficClass trafficClass) {
+        Compartment compartment = compartments.get(trafficClass);
+        return compartment == null ? null : compartment.bulkhead;
+    }
+
+    /** @return calls of the class in flight */
+    public int getInFlight(TrafficClass trafficClass) {
+        Compartment compartment = compartments.get(trafficClass);
+        return compartment == null ? 0 : compartment.inFlight();
+    }
+
+    /** @return calls of the class rejected because it was full for longer than its max wait */
+    public long getRejected(TrafficClass trafficClass) {
+        Compartment compartment = compartments.get(trafficClass);
+        return compartment == null ? 0 : compartment.rejected.count();
+    }
+
+    private static class Route {
+
+        private final TrafficClass trafficClass;
+
+        private final String method;
+
+        private final PathTemplate path;
+
+        Route(TrafficClass trafficClass, String method, String pathTemplate) {
+            this.trafficClass = trafficClass;
+            this.method = method;
+            this.path = new PathTemplate(pathTemplate);
+        }
+
+        boolean matches(String method, String path) {
+            return ("*".equals(this.method) || this.method.equals(method)) && this.path.matches(path);
+        }
+    }
+
+    /** Resources of a traffic class */
+    static class Compartment implements Interceptor {
+
+        private final TrafficClass trafficClass;
+
+        private final Bulkhead bulkhead;
+
+        private final Semaphore permits;
+
+        private final ConnectionPool connectionPool;
+
+        private final Dispatcher dispatcher;
+
+        private final Timer waitTime;
+
+        private final Counter rejected;
+
+        private volatile ConfiguredClient configured;
+
+        Compartment(TrafficClass trafficClass, Bulkhead bulkhead) {
+            this.trafficClass = trafficClass;
+            this.bulkhead = bulkhead;
+            this.permits = new Semaphore(bulkhead.getMaxConcurrentCalls());
+            this.connectionPool =
+                    new ConnectionPool(bulkhead.getMaxIdleConnections(), bulkhead.getKeepAlive().toMillis());
+            this.dispatcher = new Dispatcher();
+            // asynchronous calls queue in the dispatcher rather than holding a thread on the permits
+            dispatcher.setMaxRequests(bulkhead.getMaxConcurrentCalls());
+            dispatcher.setMaxRequestsPerHost(bulkhead.getMaxConcurrentCalls());
+            String name = trafficClass.name().toLowerCase();
+            this.waitTime = REGISTRY.timer("http_client_bulkhead_wait", "class", name);
+            this.rejected = REGISTRY.counter("http_client_bulkhead_rejected", "class", name);
+            gauge("http_client_bulkhead_in_flight", name, Compartment::inFlight);
+            gauge("http_client_bulkhead_waiting", name, c -> c.permits.getQueueLength());
+            gauge(
+                    "http_client_bulkhead_saturation",
+                    name,
+                    c -> (double) c.inFlight() / c.bulkhead.getMaxConcurrentCalls());
+            gauge("http_client_bulkhead_queued_calls", name, c -> c.dispatcher.getQueuedCallCount());
+        }
+
+        OkHttpClient clientFor(OkHttpClient shared) {
+            ConfiguredClient current = configured;
+            if (current == null || !current.isCopyOf(shared)) {
+                // racing threads may both configure a copy, either one is fine to use
+                current = new ConfiguredClient(shared, configure(shared.clone()));
+                configured = current;
+            }
+            return current.client;
+        }
+
+        private OkHttpClient configure(OkHttpClient client) {
+            client.setConnectionPool(connectionPool);
+            client.setDispatcher(dispatcher);
+            if (bulkhead.getConnectTimeout() != null) {
+                client.setConnectTimeout(bulkhead.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (bulkhead.getReadTimeout() != null) {
+                client.setReadTimeout(bulkhead.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (bulkhead.getWriteTimeout() != null) {
+                client.setWriteTimeout(bulkhead.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            }
+            // the transport reads the timeouts of the copy
+            client.interceptors().replaceAll(
+                    interceptor ->
+                            interceptor instanceof TransportInterceptor
+                                    ? ((TransportInterceptor) interceptor).withClient(client)
+                                    : interceptor);
+            client.interceptors().add(this);
+            InterceptorOrder.sort(client.interceptors());
+            return client;
+        }
+
+        int inFlight() {
+            return bulkhead.getMaxConcurrentCalls() - permits.availablePermits();
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(bulkhead.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(
+                        "Interrupted while waiting for the " + trafficClass + " bulkhead");
+            }
+            waitTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                rejected.increment();
+                throw new IOException(
+                        "Bulkhead "
+                                + trafficClass
+                                + " is full, no room for "
+                                + bulkhead.getMaxWait().toMillis()
+                                + " ms");
+            }
+            try {
+                return chain.proceed(chain.request());
+            } finally {
+                permits.release();
+            }
+        }
+
+        private void gauge(String metric, String name, ToDoubleFunction<Compartment> f) {
+            PolledMeter.using(REGISTRY).withName(metric).withTag("class", name).monitorValue(this, f);
+        }
+    }
+
+    /** The copy of the shared client used by a compartment, and the settings it was copied with */
+    private static class ConfiguredClient {
+
+        private final OkHttpClient source;
+
+        private final List<Interceptor> interceptors;
+
+        private final List<Interceptor> networkInterceptors;
+
+        private final int connectTimeout;
+
+        private final int readTimeout;
+
+        private final int writeTimeout;
+
+        private final SocketFactory socketFactory;
+
+        private final OkHttpClient client;
+
+        ConfiguredClient(OkHttpClient source, OkHttpClient client) {
+            this.source = source;
+            this.interceptors = new ArrayList<>(source.interceptors());
+            this.networkInterceptors = new ArrayList<>(source.networkInterceptors());
+            this.connectTimeout = source.getConnectTimeout();
+            this.readTimeout = source.getReadTimeout();
+            this.writeTimeout = source.getWriteTimeout();
+            this.socketFactory = source.getSocketFactory();
+            this.client = client;
+        }
+
+        boolean isCopyOf(OkHttpClient shared) {
+            return source == shared
+                    && interceptors.equals(shared.interceptors())
+                    && networkInterceptors.equals(shared.networkInterceptors())
+                    && connectTimeout == shared.getConnectTimeout()
+                    && readTimeout == shared.getReadTimeout()
+                    && writeTimeout == shared.getWriteTimeout()
+                    && socketFactory == shared.getSocketFactory();
+        }
+    }
+
+    public static class Builder {
+
+        private final Map<TrafficClass, Bulkhead> bulkheads = new EnumMap<>(TrafficClass.class);
+
+        private final List<Route> routes = new ArrayList<>();
+
+        private Builder() {}
+
+        public Builder bulkhead(TrafficClass trafficClass, Bulkhead bulkhead) {
+            bulkheads.put(
+                    Preconditions.checkNotNull(trafficClass, "trafficClass cannot be null"),
+                    Preconditions.checkNotNull(bulkhead, "bulkhead cannot be null"));
+            return this;
+        }
+
+        /**
+         * Assigns an endpoint to a class. Routes are matched in the order they are added, so
+         * specific routes must be added before the templates that also match them.
+         *
+         * @param trafficClass class of the endpoint
+         * @param method method of the endpoint, or * for any
+         * @param pathTemplate path of the endpoint relative to the base path, e.g. {@code
+         *     /tasks/poll/{tasktype}}, ending with {@code /**} to match every path below it
+         */
+        public Builder route(TrafficClass trafficClass, String method, String pathTemplate) {
+            routes.add(new Route(trafficClass, method, pathTemplate));
+            return this;
+        }
+
+        /** Routes the endpoints of the task, workflow, metadata and scheduler APIs */
+        public Builder defaultRoutes() {
+            // the literal paths under /tasks first, the update templates match them too
+            return route(TrafficClass.ADMIN, "GET", "/tasks/search")
+                    .route(TrafficClass.ADMIN, "GET", "/tasks/search-v2")
+                    .route(TrafficClass.ADMIN, "*", "/tasks/queue/**")
+                    .route(TrafficClass.POLL, "GET", "/tasks/poll/batch/{tasktype}")
+                    .route(TrafficClass.POLL, "GET", "/tasks/poll/{tasktype}")
+                    .route(TrafficClass.UPDATE, "POST", "/tasks")
+                    .route(TrafficClass.UPDATE, "POST", "/tasks/{workflowId}/{taskRefName}/{status}")
+                    .route(TrafficClass.UPDATE, "POST", "/tasks/{taskId}/log")
+                    .route(TrafficClass.ADMIN, "GET", "/workflow/search")
+                    .route(TrafficClass.ADMIN, "GET", "/workflow/search-v2")
+                    .route(TrafficClass.ADMIN, "GET", "/workflow/search-by-tasks")
+                    .route(TrafficClass.ADMIN, "GET", "/workflow/search-by-tasks-v2")
+                    .route(TrafficClass.ADMIN, "*", "/metadata/**")
+                    .route(TrafficClass.ADMIN, "*", "/scheduler/**");
+        }
+
+        public Bulkheads build() {
+            return new Bulkheads(this);
+        }
+    }
+}
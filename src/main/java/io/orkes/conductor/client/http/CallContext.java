@@ -0,0 +1,52 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Request;
+
+/**
+ * Tag of the requests built by {@link io.orkes.conductor.client.ApiClient}. Interceptors only see
+ * the request, the tag gives them the read timeout and the cancellation state of its call.
+ */
+public final class CallContext {
+
+    private final long readTimeoutMillis;
+
+    private volatile Call call;
+
+    public CallContext(long readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    /** @param call the call sending the request tagged with this context */
+    public void bind(Call call) {
+        this.call = call;
+    }
+
+    /** @return read timeout of the client making the call, 0 for no timeout */
+    public long getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public boolean isCanceled() {
+        Call current = call;
+        return current != null && current.isCanceled();
+    }
+
+    /** @return the context of the request, null if the request was not built by the ApiClient */
+    public static CallContext of(Request request) {
+        Object tag = request.tag();
+        return tag instanceof CallContext ? (CallContext) tag : null;
+    }
+}
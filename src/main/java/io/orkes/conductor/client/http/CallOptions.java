@@ -0,0 +1,195 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.squareup.okhttp.Dispatcher;
+
+/**
+ * Options applied to the calls made through an {@link io.orkes.conductor.client.ApiClient}
+ * without changing the shared HTTP client. Unset values fall back to the configuration of the
+ * shared client.
+ *
+ * @see io.orkes.conductor.client.ApiClient#withCallOptions(CallOptions)
+ */
+public class CallOptions {
+
+    public static final CallOptions DEFAULT = builder().build();
+
+    private final Duration connectTimeout;
+
+    private final Duration readTimeout;
+
+    private final Duration writeTimeout;
+
+    private final Map<String, String> headers;
+
+    private final ProgressResponseBody.ProgressListener progressListener;
+
+    private final ProgressRequestBody.ProgressRequestListener progressRequestListener;
+
+    private final RetryPolicy retryPolicy;
+
+    private final Dispatcher dispatcher;
+
+    private CallOptions(Builder builder) {
+        this.connectTimeout = builder.connectTimeout;
+        this.readTimeout = builder.readTimeout;
+        this.writeTimeout = builder.writeTimeout;
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(builder.headers));
+        this.progressListener = builder.progressListener;
+        this.progressRequestListener = builder.progressRequestListener;
+        this.retryPolicy = builder.retryPolicy;
+        this.dispatcher = builder.dispatcher;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.connectTimeout = connectTimeout;
+        builder.readTimeout = readTimeout;
+        builder.writeTimeout = writeTimeout;
+        builder.headers.putAll(headers);
+        builder.progressListener = progressListener;
+        builder.progressRequestListener = progressRequestListener;
+        builder.retryPolicy = retryPolicy;
+        builder.dispatcher = dispatcher;
+        return builder;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public Duration getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public ProgressResponseBody.ProgressListener getProgressListener() {
+        return progressListener;
+    }
+
+    public ProgressRequestBody.ProgressRequestListener getProgressRequestListener() {
+        return progressRequestListener;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public Dispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * @return true if the calls need a client configured differently from the shared one
+     */
+    public boolean overridesClient() {
+        return connectTimeout != null
+                || readTimeout != null
+                || writeTimeout != null
+                || progressListener != null
+                || retryPolicy != null
+                || dispatcher != null;
+    }
+
+    public static class Builder {
+
+        private Duration connectTimeout;
+
+        private Duration readTimeout;
+
+        private Duration writeTimeout;
+
+        private final Map<String, String> headers = new LinkedHashMap<>();
+
+        private ProgressResponseBody.ProgressListener progressListener;
+
+        private ProgressRequestBody.ProgressRequestListener progressRequestListener;
+
+        private RetryPolicy retryPolicy;
+
+        private Dispatcher dispatcher;
+
+        private Builder() {}
+
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        public Builder writeTimeout(Duration writeTimeout) {
+            this.writeTimeout = writeTimeout;
+            return this;
+        }
+
+        /**
+         * Adds a header sent with every call, overriding the header parameters of the endpoint
+         * and the default headers of the client.
+         */
+        public Builder header(String name, String value) {
+            this.headers.put(name, value);
+            return this;
+        }
+
+        public Builder progressListener(ProgressResponseBody.ProgressListener progressListener) {
+            this.progressListener = progressListener;
+            return this;
+        }
+
+        public Builder progressRequestListener(
+                ProgressRequestBody.ProgressRequestListener progressRequestListener) {
+            this.progressRequestListener = progressRequestListener;
+            return this;
+        }
+
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Runs the calls on the given dispatcher instead of the dispatcher of the shared client,
+         * so they are limited by its request limits and do not take the slots of other calls.
+         * The connection pool is still shared.
+         */
+        public Builder dispatcher(Dispatcher dispatcher) {
+            this.dispatcher = dispatcher;
+            return this;
+        }
+
+        public CallOptions build() {
+            return new CallOptions(this);
+        }
+    }
+}
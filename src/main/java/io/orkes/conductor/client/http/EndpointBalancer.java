@@ -0,0 +1,408 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Spectator;
+import com.netflix.spectator.api.Timer;
+import com.netflix.spectator.api.patterns.PolledMeter;
+
+import com.google.common.base.Preconditions;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+/**
+ * Spreads the HTTP calls of a client over several servers.
+ *
+ * <p>Every call picks the better of two endpoints chosen at random, either the one with fewer
+ * requests outstanding or the one with the lowest peak EWMA latency weighted by its outstanding
+ * requests. Endpoints failing {@code failureThreshold} calls in a row, with an I/O error or a 5xx
+ * response, are ejected for a period growing with every ejection. Once the period is over they
+ * are admitted again with a weight ramping up over {@code slowStart}, so a recovering server is
+ * not flooded at once. When every endpoint is ejected the one due back first is used.
+ *
+ * <p>Idempotent calls failing with an I/O error are sent again to another endpoint, up to {@code
+ * maxFailovers} times. A failover is a retry: with a {@link RetryBudget} every failover withdraws
+ * from it, and the call fails without a failover once it is exhausted. Each attempt of a {@link
+ * RetryInterceptor} goes through the balancer and may fail over, so the budget is what bounds the
+ * sends of a call to a struggling cluster.
+ */
+public class EndpointBalancer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EndpointBalancer.class);
+
+    private static final Registry REGISTRY = Spectator.globalRegistry();
+
+    private static final Counter BUDGET_EXHAUSTED =
+            REGISTRY.counter("http_client_retry_budget_exhausted");
+
+    /** Decay time of the latency EWMA */
+    private static final long EWMA_DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /** Weight of an endpoint that was just admitted again */
+    private static final double MIN_WEIGHT = 0.1;
+
+    public enum Strategy {
+        LEAST_OUTSTANDING,
+        PEAK_EWMA
+    }
+
+    private final List<Endpoint> endpoints;
+
+    private final Strategy strategy;
+
+    private final int failureThreshold;
+
+    private final long ejectionNanos;
+
+    private final long maxEjectionNanos;
+
+    private final long slowStartNanos;
+
+    private final int maxFailovers;
+
+    private EndpointBalancer(Builder builder) {
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (String basePath : builder.basePaths) {
+            endpoints.add(new Endpoint(basePath));
+        }
+        this.endpoints = Collections.unmodifiableList(endpoints);
+        this.strategy = builder.strategy;
+        this.failureThreshold = builder.failureThreshold;
+        this.ejectionNanos = builder.ejection.toNanos();
+        this.maxEjectionNanos = builder.maxEjection.toNanos();
+        this.slowStartNanos = builder.slowStart.toNanos();
+        this.maxFailovers = builder.maxFailovers;
+    }
+
+    public static Builder builder(List<String> basePaths) {
+        return new Builder(basePaths);
+    }
+
+    /**
+     * Returns an interceptor sending the requests made to {@code basePath} to the endpoints of
+     * this balancer instead.
+     *
+     * @param basePath base path the requests are built with
+     * @return application interceptor routing the requests
+     */
+    public Interceptor interceptor(String basePath) {
+        return interceptor(basePath, null);
+    }
+
+    /**
+     * Returns an interceptor sending the requests made to {@code basePath} to the endpoints of
+     * this balancer instead, withdrawing from the budget for every failover.
+     *
+     * @param basePath base path the requests are built with
+     * @param retryBudget budget shared with the retries of the client, null for no budget
+     * @return application interceptor routing the requests
+     */
+    public Interceptor interceptor(String basePath, RetryBudget retryBudget) {
+        return new RoutingInterceptor(trimTrailingSlash(basePath), retryBudget);
+    }
+
+    public List<String> getBasePaths() {
+        List<String> basePaths = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            basePaths.add(endpoint.basePath);
+        }
+        return basePaths;
+    }
+
+    /** @return number of endpoints currently ejected */
+    public int getEjectedCount() {
+        long now = System.nanoTime();
+        int ejected = 0;
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isEjected(now)) {
+                ejected++;
+            }
+        }
+        return ejected;
+    }
+
+    private Response route(Interceptor.Chain chain, String prefix, RetryBudget retryBudget)
+            throws IOException {
+        Request request = chain.request();
+        String url = request.urlString();
+        if (!url.startsWith(prefix)) {
+            return chain.proceed(request);
+        }
+        String path = url.substring(prefix.length());
+        int attempts = RetryPolicy.isIdempotent(request) ? 1 + maxFailovers : 1;
+        List<Endpoint> tried = new ArrayList<>(1);
+        while (true) {
+            Endpoint endpoint = select(tried);
+            Request routed = request.newBuilder().url(endpoint.basePath + path).build();
+            long start = System.nanoTime();
+            endpoint.outstanding.incrementAndGet();
+            try {
+                Response response = chain.proceed(routed);
+                endpoint.completed(start, response.code() < 500);
+                return response;
+            } catch (IOException e) {
+                endpoint.completed(start, false);
+                tried.add(endpoint);
+                if (tried.size() >= Math.min(attempts, endpoints.size())) {
+                    throw e;
+                }
+                if (retryBudget != null && !retryBudget.tryWithdraw()) {
+                    BUDGET_EXHAUSTED.increment();
+                    throw e;
+                }
+                LOGGER.debug("Call to {} failed, trying another endpoint - {}", endpoint.basePath, e.getMessage());
+            } finally {
+                endpoint.outstanding.decrementAndGet();
+            }
+        }
+    }
+
+    /** Power of two choices among the available endpoints not tried yet */
+    private Endpoint select(List<Endpoint> tried) {
+        long now = System.nanoTime();
+        List<Endpoint> candidates = new ArrayList<>(endpoints.size());
+        Endpoint dueFirst = null;
+        for (Endpoint endpoint : endpoints) {
+            if (tried.contains(endpoint)) {
+                continue;
+            }
+            if (!endpoint.isEjected(now)) {
+                candidates.add(endpoint);
+            } else if (dueFirst == null || endpoint.ejectedUntil < dueFirst.ejectedUntil) {
+                dueFirst = endpoint;
+            }
+        }
+        if (candidates.isEmpty()) {
+            return dueFirst;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Endpoint a = candidates.get(first);
+        Endpoint b = candidates.get(second);
+        return a.cost(now) <= b.cost(now) ? a : b;
+    }
+
+    /** Routes the requests made to a base path, see {@link InterceptorOrder} */
+    class RoutingInterceptor implements Interceptor {
+
+        private final String prefix;
+
+        private final RetryBudget retryBudget;
+
+        RoutingInterceptor(String prefix, RetryBudget retryBudget) {
+            this.prefix = prefix;
+            this.retryBudget = retryBudget;
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            return route(chain, prefix, retryBudget);
+        }
+    }
+
+    private static String trimTrailingSlash(String basePath) {
+        return basePath.endsWith("/") ? basePath.substring(0, basePath.length() - 1) : basePath;
+    }
+
+    private class Endpoint {
+
+        private final String basePath;
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        private final Timer latency;
+
+        private final Counter errors;
+
+        private final Counter ejections;
+
+        private int consecutiveFailures;
+
+        private int ejectionCount;
+
+        private volatile boolean ejected;
+
+        private volatile long ejectedUntil;
+
+        private volatile long admittedAt;
+
+        private volatile boolean readmitted;
+
+        private double ewmaNanos;
+
+        private long ewmaUpdatedAt = System.nanoTime();
+
+        Endpoint(String basePath) {
+            this.basePath = trimTrailingSlash(basePath);
+            this.latency = REGISTRY.timer("http_client_endpoint_latency", "endpoint", this.basePath);
+            this.errors = REGISTRY.counter("http_client_endpoint_errors", "endpoint", this.basePath);
+            this.ejections = REGISTRY.counter("http_client_endpoint_ejections", "endpoint", this.basePath);
+            PolledMeter.using(REGISTRY)
+                    .withName("http_client_endpoint_outstanding")
+                    .withTag("endpoint", this.basePath)
+                    .monitorValue(outstanding);
+            PolledMeter.using(REGISTRY)
+                    .withName("http_client_endpoint_ejected")
+                    .withTag("endpoint", this.basePath)
+                    .monitorValue(this, e -> e.isEjected(System.nanoTime()) ? 1 : 0);
+        }
+
+        boolean isEjected(long now) {
+            return ejected && now - ejectedUntil < 0;
+        }
+
+        double cost(long now) {
+            int pending = outstanding.get() + 1;
+            double cost;
+            if (strategy == Strategy.PEAK_EWMA) {
+                synchronized (this) {
+                    cost = (ewmaNanos + 1) * pending;
+                }
+            } else {
+                cost = pending;
+            }
+            return cost / weight(now);
+        }
+
+        /** Ramps up from MIN_WEIGHT to 1 over the slow start period after being admitted again */
+        private double weight(long now) {
+            if (!readmitted || slowStartNanos <= 0) {
+                return 1.0;
+            }
+            long since = now - admittedAt;
+            if (since >= slowStartNanos) {
+                return 1.0;
+            }
+            return Math.max(MIN_WEIGHT, (double) Math.max(0, since) / slowStartNanos);
+        }
+
+        synchronized void completed(long start, boolean success) {
+            long now = System.nanoTime();
+            long rtt = now - start;
+            latency.record(rtt, TimeUnit.NANOSECONDS);
+            // peak EWMA: jumps to latency spikes, decays slowly back
+            if (rtt > ewmaNanos) {
+                ewmaNanos = rtt;
+            } else {
+                double w = Math.exp(-(double) Math.max(0, now - ewmaUpdatedAt) / EWMA_DECAY_NANOS);
+                ewmaNanos = ewmaNanos * w + rtt * (1 - w);
+            }
+            ewmaUpdatedAt = now;
+            if (success) {
+                consecutiveFailures = 0;
+                if (readmitted && now - admittedAt >= slowStartNanos) {
+                    ejectionCount = 0;
+                }
+                return;
+            }
+            errors.increment();
+            if (++consecutiveFailures < failureThreshold || isEjected(now)) {
+                return;
+            }
+            long duration = Math.min(maxEjectionNanos, ejectionNanos << Math.min(ejectionCount, 20));
+            ejectionCount++;
+            consecutiveFailures = 0;
+            ejectedUntil = now + duration;
+            ejected = true;
+            admittedAt = ejectedUntil;
+            readmitted = true;
+            ejections.increment();
+            LOGGER.warn(
+                    "Ejected {} for {} ms after {} consecutive failures",
+                    basePath, TimeUnit.NANOSECONDS.toMillis(duration), failureThreshold);
+        }
+    }
+
+    public static class Builder {
+
+        private final List<String> basePaths;
+
+        private Strategy strategy = Strategy.LEAST_OUTSTANDING;
+
+        private int failureThreshold = 5;
+
+        private Duration ejection = Duration.ofSeconds(10);
+
+        private Duration maxEjection = Duration.ofMinutes(2);
+
+        private Duration slowStart = Duration.ofSeconds(30);
+
+        private int maxFailovers = 1;
+
+        private Builder(List<String> basePaths) {
+            Preconditions.checkArgument(
+                    basePaths != null && !basePaths.isEmpty(), "at least one base path is required");
+            this.basePaths = new ArrayList<>(basePaths);
+        }
+
+        public Builder strategy(Strategy strategy) {
+            this.strategy = Preconditions.checkNotNull(strategy, "strategy cannot be null");
+            return this;
+        }
+
+        /** Number of consecutive failures after which an endpoint is ejected */
+        public Builder failureThreshold(int failureThreshold) {
+            Preconditions.checkArgument(failureThreshold > 0, "failureThreshold must be positive");
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /** Duration of the first ejection, doubled on every ejection up to maxEjection */
+        public Builder ejection(Duration ejection, Duration maxEjection) {
+            Preconditions.checkArgument(
+                    ejection.compareTo(maxEjection) <= 0, "ejection exceeds maxEjection");
+            this.ejection = ejection;
+            this.maxEjection = maxEjection;
+            return this;
+        }
+
+        /** Period over which an endpoint admitted again after an ejection ramps up to full weight */
+        public Builder slowStart(Duration slowStart) {
+            this.slowStart = slowStart;
+            return this;
+        }
+
+        /** Number of other endpoints an idempotent call failing with an I/O error is sent to */
+        public Builder maxFailovers(int maxFailovers) {
+            Preconditions.checkArgument(maxFailovers >= 0, "maxFailovers cannot be negative");
+            this.maxFailovers = maxFailovers;
+            return this;
+        }
+
+        public EndpointBalancer build() {
+            return new EndpointBalancer(this);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Precompiled description of a REST endpoint: method, path template, media types, authentications
+ * and return type. Descriptors are created once per endpoint and shared by all the calls, so that
+ * building a request only expands the path and adds the parameters of the call.
+ */
+public final class EndpointDescriptor {
+
+    private final String method;
+
+    private final String pathTemplate;
+
+    // literal parts of the path template, around the variables
+    private final String[] pathLiterals;
+
+    private final String[] pathVariables;
+
+    private final String accept;
+
+    private final String contentType;
+
+    private final String[] authNames;
+
+    private final Type returnType;
+
+    private EndpointDescriptor(Builder builder) {
+        this.method = builder.method;
+        this.pathTemplate = builder.pathTemplate;
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int start = 0;
+        int open;
+        while ((open = pathTemplate.indexOf('{', start)) >= 0) {
+            int close = pathTemplate.indexOf('}', open);
+            Preconditions.checkArgument(close > open, "Unbalanced path template %s", pathTemplate);
+            literals.add(pathTemplate.substring(start, open));
+            variables.add(pathTemplate.substring(open + 1, close));
+            start = close + 1;
+        }
+        literals.add(pathTemplate.substring(start));
+        this.pathLiterals = literals.toArray(new String[0]);
+        this.pathVariables = variables.toArray(new String[0]);
+        this.accept = selectAccept(builder.accepts);
+        this.contentType = selectContentType(builder.contentTypes);
+        this.authNames = builder.authNames;
+        this.returnType = builder.returnType;
+    }
+
+    public static Builder builder(String method, String pathTemplate) {
+        return new Builder(method, pathTemplate);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPathTemplate() {
+        return pathTemplate;
+    }
+
+    /**
+     * @return the Accept header, null when no header should be sent
+     */
+    public String getAccept() {
+        return accept;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String[] getAuthNames() {
+        return authNames;
+    }
+
+    public Type getReturnType() {
+        return returnType;
+    }
+
+    /**
+     * Replaces the variables of the path template with the escaped values, in order of appearance.
+     *
+     * @param values values of the path variables
+     * @return the path of the call
+     */
+    public String expandPath(String... values) {
+        Preconditions.checkArgument(
+                values.length == pathVariables.length,
+                "Expected %s path variables for %s",
+                pathVariables.length,
+                pathTemplate);
+        if (values.length == 0) {
+            return pathTemplate;
+        }
+        StringBuilder path = new StringBuilder(pathTemplate.length() + 32);
+        for (int i = 0; i < values.length; i++) {
+            path.append(pathLiterals[i]).append(StringUtil.urlEncode(values[i]));
+        }
+        return path.append(pathLiterals[values.length]).toString();
+    }
+
+    // same selection as ApiClient.selectHeaderAccept
+    private static String selectAccept(String[] accepts) {
+        if (accepts.length == 0) {
+            return null;
+        }
+        for (String accept : accepts) {
+            if (StringUtil.isJsonMime(accept)) {
+                return accept;
+            }
+        }
+        return StringUtil.join(accepts, ",");
+    }
+
+    // same selection as ApiClient.selectHeaderContentType
+    private static String selectContentType(String[] contentTypes) {
+        if (contentTypes.length == 0 || contentTypes[0].equals("*/*")) {
+            return "application/json";
+        }
+        for (String contentType : contentTypes) {
+            if (StringUtil.isJsonMime(contentType)) {
+                return contentType;
+            }
+        }
+        return contentTypes[0];
+    }
+
+    public static class Builder {
+
+        private final String method;
+
+        private final String pathTemplate;
+
+        private String[] accepts = new String[0];
+
+        private String[] contentTypes = new String[0];
+
+        private String[] authNames = new String[0];
+
+        private Type returnType;
+
+        private Builder(String method, String pathTemplate) {
+            this.method = method;
+            this.pathTemplate = pathTemplate;
+        }
+
+        public Builder accepts(String... accepts) {
+            this.accepts = accepts;
+            return this;
+        }
+
+        public Builder contentTypes(String... contentTypes) {
+            this.contentTypes = contentTypes;
+            return this;
+        }
+
+        public Builder authNames(String... authNames) {
+            this.authNames = authNames;
+            return this;
+        }
+
+        public Builder returnType(Type returnType) {
+            this.returnType = returnType;
+            return this;
+        }
+
+        public EndpointDescriptor build() {
+            return new EndpointDescriptor(this);
+        }
+    }
+}
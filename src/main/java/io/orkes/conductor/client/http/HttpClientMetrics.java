@@ -0,0 +1,212 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+import javax.net.SocketFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Spectator;
+import com.netflix.spectator.api.Timer;
+import com.netflix.spectator.api.patterns.PolledMeter;
+
+import com.squareup.okhttp.Connection;
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Response;
+
+/**
+ * Live gauges and timers for the connection pool and dispatcher of an OkHttp client.
+ *
+ * <p>OkHttp 2 has no event listener, so the network level is observed directly: the time to
+ * establish new TCP connections is measured by the socket factory of the client, and a network
+ * interceptor counts new and reused connections. Retries, bulkhead waits and the other
+ * application interceptors are therefore not part of the measures. Neither is anything sent by an
+ * {@link io.orkes.conductor.client.http.transport.HttpTransport}, which bypasses the network layer
+ * of the client.
+ */
+public class HttpClientMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientMetrics.class);
+
+    private static final Registry REGISTRY = Spectator.globalRegistry();
+
+    private final OkHttpClient httpClient;
+
+    private final Set<Connection> seenConnections =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final Timer connectTimer;
+
+    private final LongAdder connects = new LongAdder();
+
+    private final LongAdder newConnections = new LongAdder();
+
+    private final LongAdder reusedConnections = new LongAdder();
+
+    private HttpClientMetrics(OkHttpClient httpClient, String name) {
+        this.httpClient = httpClient;
+        this.connectTimer = REGISTRY.timer("http_client_connect", "client", name);
+        PolledMeter.using(REGISTRY)
+                .withName("http_client_connections")
+                .withTag("client", name)
+                .withTag("reused", "false")
+                .monitorMonotonicCounter(newConnections);
+        PolledMeter.using(REGISTRY)
+                .withName("http_client_connections")
+                .withTag("client", name)
+                .withTag("reused", "true")
+                .monitorMonotonicCounter(reusedConnections);
+        gauge("http_client_pool_connections", name, m -> m.getConnectionPool().getConnectionCount());
+        gauge("http_client_pool_idle_connections", name, m -> m.getConnectionPool().getIdleConnectionCount());
+        gauge("http_client_pool_active_connections", name, HttpClientMetrics::getActiveConnectionCount);
+        gauge("http_client_dispatcher_running_calls", name, m -> m.httpClient.getDispatcher().getRunningCallCount());
+        gauge("http_client_dispatcher_queued_calls", name, m -> m.httpClient.getDispatcher().getQueuedCallCount());
+        gauge("http_client_connection_reuse_ratio", name, HttpClientMetrics::getConnectionReuseRatio);
+    }
+
+    /**
+     * Registers the gauges, and installs the socket factory and network interceptor observing the
+     * connections of the client.
+     *
+     * @param httpClient client to instrument
+     * @param name value of the client tag of the metrics
+     * @return the metrics of the client
+     */
+    public static HttpClientMetrics attach(OkHttpClient httpClient, String name) {
+        HttpClientMetrics metrics = new HttpClientMetrics(httpClient, name);
+        SocketFactory socketFactory = httpClient.getSocketFactory();
+        if (socketFactory == null || socketFactory == SocketFactory.getDefault()) {
+            httpClient.setSocketFactory(metrics.new TimedSocketFactory());
+        } else {
+            LOGGER.info("The client {} has its own socket factory, connect times are not measured", name);
+        }
+        httpClient.networkInterceptors().add(metrics.new ConnectionInterceptor());
+        return metrics;
+    }
+
+    public int getActiveConnectionCount() {
+        ConnectionPool pool = getConnectionPool();
+        return pool.getConnectionCount() - pool.getIdleConnectionCount();
+    }
+
+    public double getConnectionReuseRatio() {
+        long reused = reusedConnections.sum();
+        long total = reused + newConnections.sum();
+        return total == 0 ? 0.0 : (double) reused / total;
+    }
+
+    /** @return number of TCP connections established */
+    public long getConnectCount() {
+        return connects.sum();
+    }
+
+    /** @return number of requests sent on a connection used for the first time */
+    public long getNewConnectionCount() {
+        return newConnections.sum();
+    }
+
+    /** @return number of requests sent on a connection used before */
+    public long getReusedConnectionCount() {
+        return reusedConnections.sum();
+    }
+
+    private ConnectionPool getConnectionPool() {
+        ConnectionPool pool = httpClient.getConnectionPool();
+        return pool == null ? ConnectionPool.getDefault() : pool;
+    }
+
+    private void gauge(String metric, String name, ToDoubleFunction<HttpClientMetrics> f) {
+        PolledMeter.using(REGISTRY).withName(metric).withTag("client", name).monitorValue(this, f);
+    }
+
+    private class ConnectionInterceptor implements Interceptor {
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Connection connection = chain.connection();
+            if (connection != null) {
+                if (seenConnections.add(connection)) {
+                    newConnections.increment();
+                } else {
+                    reusedConnections.increment();
+                }
+            }
+            return chain.proceed(chain.request());
+        }
+    }
+
+    /** Creates unconnected sockets, OkHttp connects them itself, which is what is timed */
+    private class TimedSocketFactory extends SocketFactory {
+
+        @Override
+        public Socket createSocket() {
+            return new TimedSocket();
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            return connected(new TimedSocket(), new InetSocketAddress(host, port));
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort)
+                throws IOException {
+            Socket socket = new TimedSocket();
+            socket.bind(new InetSocketAddress(localHost, localPort));
+            return connected(socket, new InetSocketAddress(host, port));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) throws IOException {
+            return connected(new TimedSocket(), new InetSocketAddress(host, port));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort)
+                throws IOException {
+            Socket socket = new TimedSocket();
+            socket.bind(new InetSocketAddress(localAddress, localPort));
+            return connected(socket, new InetSocketAddress(address, port));
+        }
+
+        private Socket connected(Socket socket, SocketAddress address) throws IOException {
+            socket.connect(address);
+            return socket;
+        }
+    }
+
+    private class TimedSocket extends Socket {
+        @Override
+        public void connect(SocketAddress endpoint, int timeout) throws IOException {
+            long start = System.nanoTime();
+            super.connect(endpoint, timeout);
+            connectTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            connects.increment();
+        }
+    }
+}
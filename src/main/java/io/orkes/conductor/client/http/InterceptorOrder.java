@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.util.Comparator;
+import java.util.List;
+
+import io.orkes.conductor.client.http.auth.TokenRefreshInterceptor;
+import io.orkes.conductor.client.http.transport.TransportInterceptor;
+
+import com.squareup.okhttp.Interceptor;
+
+/**
+ * The order of the application interceptors installed by the {@link
+ * io.orkes.conductor.client.ApiClient}, from the outermost:
+ *
+ * <ol>
+ *   <li>request coalescing, so that a request waiting on a shared call takes no bulkhead permit
+ *       and is not retried on its own
+ *   <li>the bulkhead of the traffic class, whose permit is held for the call and its retries
+ *   <li>retries, every attempt going through the interceptors below
+ *   <li>token refresh, replaying a request once when its token is rejected
+ *   <li>endpoint balancing, picking the server of every attempt
+ *   <li>the interceptors added to the HTTP client by the application, in the order they were
+ *       added
+ *   <li>the transport, which sends the request instead of OkHttp
+ * </ol>
+ *
+ * The order does not depend on the order the features are enabled in.
+ */
+public final class InterceptorOrder {
+
+    private static final int APPLICATION = 5;
+
+    private static final Comparator<Interceptor> ORDER =
+            Comparator.comparingInt(InterceptorOrder::rank);
+
+    private InterceptorOrder() {}
+
+    /**
+     * Sorts the interceptors in the order above. The sort is stable, the interceptors of the
+     * application keep their relative order.
+     *
+     * @param interceptors the application interceptors of an OkHttp client
+     */
+    public static void sort(List<Interceptor> interceptors) {
+        interceptors.sort(ORDER);
+    }
+
+    private static int rank(Interceptor interceptor) {
+        if (interceptor instanceof RequestCoalescer) {
+            return 0;
+        }
+        if (interceptor instanceof Bulkheads.Compartment) {
+            return 1;
+        }
+        if (interceptor instanceof RetryInterceptor) {
+            return 2;
+        }
+        if (interceptor instanceof TokenRefreshInterceptor) {
+            return 3;
+        }
+        if (interceptor instanceof EndpointBalancer.RoutingInterceptor) {
+            return 4;
+        }
+        if (interceptor instanceof TransportInterceptor) {
+            return 6;
+        }
+        return APPLICATION;
+    }
+}
@@ -13,6 +13,7 @@
 package io.orkes.conductor.client.http;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.lang.reflect.Type;
 import java.text.DateFormat;
@@ -90,6 +91,35 @@ public class JSON {
         return gson.toJson(obj);
     }
 
+    /**
+     * Serialize the given Java object as JSON to the writer, without building the intermediate
+     * string.
+     *
+     * @param obj Object
+     * @param writer Destination of the JSON
+     */
+    public void serialize(Object obj, Appendable writer) {
+        gson.toJson(obj, writer);
+    }
+
+    /**
+     * Deserialize the JSON read from the reader to Java object, without buffering the whole
+     * document.
+     *
+     * @param <T> Type
+     * @param reader Source of the JSON
+     * @param returnType The type to deserialize into
+     * @return The deserialized Java object
+     */
+    public <T> T deserialize(Reader reader, Type returnType) {
+        if (isLenientOnJson) {
+            JsonReader jsonReader = new JsonReader(reader);
+            jsonReader.setLenient(true);
+            return gson.fromJson(jsonReader, returnType);
+        }
+        return gson.fromJson(reader, returnType);
+    }
+
     /**
      * Deserialize the given JSON string to Java object.
      *
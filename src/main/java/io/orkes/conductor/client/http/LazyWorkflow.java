@@ -0,0 +1,286 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.common.metadata.tasks.Task;
+import com.netflix.conductor.common.run.TaskSummary;
+import com.netflix.conductor.common.run.Workflow;
+
+import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.http.api.TaskResourceApi;
+import io.orkes.conductor.client.http.api.WorkflowResourceApi;
+import io.orkes.conductor.client.model.SearchResultTaskSummary;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * View of a workflow loading its tasks on demand.
+ *
+ * <p>The workflow is fetched without its tasks. The tasks are listed, without their payloads,
+ * from the task search the first time they are needed, and the full tasks are only fetched for
+ * the tasks actually read. There is no endpoint fetching several tasks at once, so the tasks read
+ * together are fetched concurrently, at most 16 at a time per view, and every task is fetched at
+ * most once per view. The {@link TaskProjection} of the view drops the input and output fields not
+ * needed: a view loaded with {@link #load(ApiClient, String, TaskProjection)} skips them while the
+ * task is parsed, so a large field that is not selected is read past but never materialized.
+ *
+ * <p>The task list comes from the search index, which may lag behind a running workflow. The index
+ * cannot page past its result window of 10,000 tasks, so the tasks of larger workflows are listed
+ * by ranges of scheduled time, halved until every range fits in the window, the way {@link
+ * WorkflowSearchExporter} slices workflows.
+ */
+public class LazyWorkflow {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LazyWorkflow.class);
+
+    private static final int INDEX_PAGE_SIZE = 1000;
+
+    private static final String INDEX_SORT = "scheduledTime:ASC";
+
+    static final int MAX_INDEX_HITS = 10_000;
+
+    static final int MAX_CONCURRENT_FETCHES = 16;
+
+    /** Margin for the server clock being ahead of the client clock */
+    private static final long CLOCK_SKEW_MILLIS = 60 * 60 * 1000;
+
+    private final Workflow workflow;
+
+    private final TaskResourceApi taskResourceApi;
+
+    private final TaskProjection projection;
+
+    private final int maxIndexHits;
+
+    private final Semaphore fetches;
+
+    private final Map<String, CompletableFuture<Task>> tasks = new ConcurrentHashMap<>();
+
+    private volatile List<TaskSummary> taskSummaries;
+
+    LazyWorkflow(Workflow workflow, TaskResourceApi taskResourceApi, TaskProjection projection) {
+        this(workflow, taskResourceApi, projection, MAX_INDEX_HITS, MAX_CONCURRENT_FETCHES);
+    }
+
+    LazyWorkflow(
+            Workflow workflow,
+            TaskResourceApi taskResourceApi,
+            TaskProjection projection,
+            int maxIndexHits,
+            int maxConcurrentFetches) {
+        this.workflow = workflow;
+        this.taskResourceApi = taskResourceApi;
+        this.projection = projection;
+        this.maxIndexHits = maxIndexHits;
+        this.fetches = new Semaphore(maxConcurrentFetches);
+    }
+
+    /**
+     * Fetches the workflow without its tasks.
+     *
+     * @param apiClient client used for the workflow and its tasks
+     * @param workflowId id of the workflow
+     * @param projection fields of the task input and output to keep
+     */
+    public static LazyWorkflow load(ApiClient apiClient, String workflowId, TaskProjection projection) {
+        Preconditions.checkNotNull(workflowId, "workflowId cannot be null");
+        Preconditions.checkNotNull(projection, "projection cannot be null");
+        Workflow workflow = new WorkflowResourceApi(apiClient).getExecutionStatus(workflowId, false);
+        // a copy of the client reading the tasks through the projection, the client is unchanged
+        ApiClient taskClient =
+                apiClient.withCallOptions(apiClient.getCallOptions())
+                        .setJsonCodec(projection.codec(apiClient.getJsonCodec()));
+        return new LazyWorkflow(workflow, new TaskResourceApi(taskClient), projection);
+    }
+
+    /** @return the workflow, without its tasks */
+    public Workflow getWorkflow() {
+        return workflow;
+    }
+
+    public String getWorkflowId() {
+        return workflow.getWorkflowId();
+    }
+
+    /**
+     * @return the tasks of the workflow without their input and output, in scheduling order
+     */
+    public List<TaskSummary> getTaskSummaries() {
+        List<TaskSummary> summaries = taskSummaries;
+        if (summaries == null) {
+            synchronized (this) {
+                summaries = taskSummaries;
+                if (summaries == null) {
+                    List<TaskSummary> loaded = new ArrayList<>();
+                    long startTime = workflow.getStartTime();
+                    if (startTime > 0) {
+                        // a retried workflow schedules tasks after its previous end time
+                        listTasks(startTime, System.currentTimeMillis() + CLOCK_SKEW_MILLIS, loaded);
+                    } else {
+                        addPages(null, search(null, 0), loaded);
+                    }
+                    summaries = Collections.unmodifiableList(loaded);
+                    taskSummaries = summaries;
+                }
+            }
+        }
+        return summaries;
+    }
+
+    /** @return the task, fetched at most once */
+    public Task getTask(String taskId) {
+        return getTasks(Collections.singletonList(taskId)).get(0);
+    }
+
+    /**
+     * Fetches the tasks not loaded yet concurrently, at most 16 at a time.
+     *
+     * @return the tasks, in the order of the ids
+     */
+    public List<Task> getTasks(Collection<String> taskIds) {
+        List<CompletableFuture<Task>> futures =
+                taskIds.stream().map(this::load).collect(Collectors.toList());
+        List<Task> result = new ArrayList<>(futures.size());
+        for (CompletableFuture<Task> future : futures) {
+            try {
+                result.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fetches the tasks whose summary matches, e.g. the failed tasks or the tasks of a type.
+     *
+     * @return the matching tasks, in scheduling order
+     */
+    public List<Task> getTasks(Predicate<TaskSummary> filter) {
+        return getTasks(
+                getTaskSummaries().stream()
+                        .filter(filter)
+                        .map(TaskSummary::getTaskId)
+                        .collect(Collectors.toList()));
+    }
+
+    /** @return number of tasks fetched so far by this view */
+    public int getLoadedTaskCount() {
+        return tasks.size();
+    }
+
+    /** Lists the tasks scheduled from start included to end excluded, in scheduling order */
+    private void listTasks(long start, long end, List<TaskSummary> into) {
+        String range = "scheduledTime > " + (start - 1) + " AND scheduledTime < " + end;
+        SearchResultTaskSummary first = search(range, 0);
+        long totalHits = first.getTotalHits() == null ? 0 : first.getTotalHits();
+        if (totalHits > maxIndexHits && end - start > 1) {
+            long middle = start + (end - start) / 2;
+            listTasks(start, middle, into);
+            listTasks(middle, end, into);
+            return;
+        }
+        addPages(range, first, into);
+    }
+
+    private void addPages(String range, SearchResultTaskSummary page, List<TaskSummary> into) {
+        long totalHits = page.getTotalHits() == null ? 0 : page.getTotalHits();
+        int count = 0;
+        while (page.getResults() != null && !page.getResults().isEmpty()) {
+            into.addAll(page.getResults());
+            count += page.getResults().size();
+            if (count >= totalHits) {
+                return;
+            }
+            if (count >= maxIndexHits) {
+                // a single millisecond, or a workflow without start time, cannot be split
+                LOGGER.warn(
+                        "Listed {} of the {} tasks of workflow {}, the others are past the index window",
+                        count, totalHits, workflow.getWorkflowId());
+                return;
+            }
+            page = search(range, count);
+        }
+    }
+
+    private SearchResultTaskSummary search(String range, int start) {
+        String query = "workflowId=\"" + workflow.getWorkflowId() + "\"";
+        if (range != null) {
+            query += " AND " + range;
+        }
+        int size = Math.min(INDEX_PAGE_SIZE, maxIndexHits - start);
+        return taskResourceApi.search1(start, size, INDEX_SORT, "*", query);
+    }
+
+    private CompletableFuture<Task> load(String taskId) {
+        CompletableFuture<Task> future = tasks.get(taskId);
+        if (future != null) {
+            return future;
+        }
+        CompletableFuture<Task> created = new CompletableFuture<>();
+        future = tasks.putIfAbsent(taskId, created);
+        if (future != null) {
+            return future;
+        }
+        try {
+            fetches.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tasks.remove(taskId, created);
+            created.completeExceptionally(
+                    new CancellationException("Interrupted before fetching task " + taskId));
+            return created;
+        }
+        try {
+            taskResourceApi.getTaskAsync(taskId)
+                    .whenComplete(
+                            (task, error) -> {
+                                fetches.release();
+                                if (error != null) {
+                                    // not cached, a later read fetches the task again
+                                    tasks.remove(taskId, created);
+                                    created.completeExceptionally(
+                                            error instanceof CompletionException && error.getCause() != null
+                                                    ? error.getCause()
+                                                    : error);
+                                } else {
+                                    created.complete(task == null ? null : projection.apply(task));
+                                }
+                            });
+        } catch (RuntimeException e) {
+            fetches.release();
+            tasks.remove(taskId, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+}
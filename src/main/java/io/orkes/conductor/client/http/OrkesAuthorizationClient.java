@@ -186,4 +186,12 @@ public class OrkesAuthorizationClient extends OrkesClient implements Authorizati
     public ConductorApplication updateApplication(CreateOrUpdateApplicationRequest createOrUpdateApplicationRequest, String id) throws ApiException {
         return applicationResourceApi.updateApplication(createOrUpdateApplicationRequest, id);
     }
+
+    @Override
+    protected void bindApiClient(ApiClient apiClient) {
+        authorizationResourceApi.setApiClient(apiClient);
+        applicationResourceApi.setApiClient(apiClient);
+        groupResourceApi.setApiClient(apiClient);
+        userResourceApi.setApiClient(apiClient);
+    }
 }
@@ -12,6 +12,8 @@
  */
 package io.orkes.conductor.client.http;
 
+import java.time.Duration;
+
 import io.orkes.conductor.client.ApiClient;
 
 public abstract class OrkesClient {
@@ -23,20 +25,46 @@ public abstract class OrkesClient {
     }
 
     public OrkesClient withReadTimeout(int readTimeout) {
-        apiClient.setReadTimeout(readTimeout);
-        return this;
+        return withCallOptions(
+                apiClient.getCallOptions().toBuilder()
+                        .readTimeout(Duration.ofMillis(readTimeout))
+                        .build());
     }
 
     public OrkesClient setWriteTimeout(int writeTimeout) {
-        apiClient.setWriteTimeout(writeTimeout);
-        return this;
+        return withCallOptions(
+                apiClient.getCallOptions().toBuilder()
+                        .writeTimeout(Duration.ofMillis(writeTimeout))
+                        .build());
     }
 
     public OrkesClient withConnectTimeout(int connectTimeout) {
-        apiClient.setConnectTimeout(connectTimeout);
+        return withCallOptions(
+                apiClient.getCallOptions().toBuilder()
+                        .connectTimeout(Duration.ofMillis(connectTimeout))
+                        .build());
+    }
+
+    /**
+     * Applies the options to the calls made by this client only, other clients sharing the same
+     * {@link ApiClient} are not affected.
+     *
+     * @param callOptions options for the calls of this client
+     * @return this client
+     */
+    public OrkesClient withCallOptions(CallOptions callOptions) {
+        this.apiClient = apiClient.withCallOptions(callOptions);
+        bindApiClient(apiClient);
         return this;
     }
 
+    /**
+     * Points the resource APIs of the client to the given {@link ApiClient}.
+     *
+     * @param apiClient client carrying the call options
+     */
+    protected abstract void bindApiClient(ApiClient apiClient);
+
     public ApiClient getApiClient() {
         return apiClient;
     }
@@ -12,7 +12,9 @@
  */
 package io.orkes.conductor.client.http;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.netflix.conductor.common.metadata.events.EventHandler;
 
@@ -33,17 +35,36 @@ public class OrkesEventClient extends EventClient {
     }
 
     public EventClient withReadTimeout(int readTimeout) {
-        apiClient.setReadTimeout(readTimeout);
-        return this;
+        return withCallOptions(
+                apiClient.getCallOptions().toBuilder()
+                        .readTimeout(Duration.ofMillis(readTimeout))
+                        .build());
     }
 
     public EventClient setWriteTimeout(int writeTimeout) {
-        apiClient.setWriteTimeout(writeTimeout);
-        return this;
+        return withCallOptions(
+                apiClient.getCallOptions().toBuilder()
+                        .writeTimeout(Duration.ofMillis(writeTimeout))
+                        .build());
     }
 
     public EventClient withConnectTimeout(int connectTimeout) {
-        apiClient.setConnectTimeout(connectTimeout);
+        return withCallOptions(
+                apiClient.getCallOptions().toBuilder()
+                        .connectTimeout(Duration.ofMillis(connectTimeout))
+                        .build());
+    }
+
+    /**
+     * Applies the options to the calls made by this client only, other clients sharing the same
+     * {@link ApiClient} are not affected.
+     *
+     * @param callOptions options for the calls of this client
+     * @return this client
+     */
+    public EventClient withCallOptions(CallOptions callOptions) {
+        this.apiClient = apiClient.withCallOptions(callOptions);
+        eventResourceApi.setApiClient(apiClient);
         return this;
     }
 
@@ -66,6 +87,10 @@ public class OrkesEventClient extends EventClient {
         return eventResourceApi.getEventHandlersForEvent(event, activeOnly);
     }
 
+    public CompletableFuture<List<EventHandler>> getEventHandlersAsync(String event, boolean activeOnly) {
+        return eventResourceApi.getEventHandlersForEventAsync(event, activeOnly);
+    }
+
     @Override
     public void unregisterEventHandler(String name) {
         eventResourceApi.removeEventHandlerStatus(name);
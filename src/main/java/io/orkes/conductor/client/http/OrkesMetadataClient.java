@@ -12,7 +12,9 @@
  */
 package io.orkes.conductor.client.http;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
@@ -29,17 +31,37 @@ public class OrkesMetadataClient extends MetadataClient  {
     protected ApiClient apiClient;
 
     public OrkesMetadataClient withReadTimeout(int readTimeout) {
-        apiClient.setReadTimeout(readTimeout);
-        return this;
+        return withCallOptions(
+                apiClient.getCallOptions().toBuilder()
+                        .readTimeout(Duration.ofMillis(readTimeout))
+                        .build());
     }
 
     public OrkesMetadataClient setWriteTimeout(int writeTimeout) {
-        apiClient.setWriteTimeout(writeTimeout);
-        return this;
+        return withCallOptions(
+                apiClient.getCallOptions().toBuilder()
+                        .writeTimeout(Duration.ofMillis(writeTimeout))
+                        .build());
     }
 
     public OrkesMetadataClient withConnectTimeout(int connectTimeout) {
-        apiClient.setConnectTimeout(connectTimeout);
+        return withCallOptions(
+                apiClient.getCallOptions().toBuilder()
+                        .connectTimeout(Duration.ofMillis(connectTimeout))
+                        .build());
+    }
+
+    /**
+     * Applies the options to the calls made by this client only, other clients sharing the same
+     * {@link ApiClient} are not affected.
+     *
+     * @param callOptions options for the calls of this client
+     * @return this client
+     */
+    public OrkesMetadataClient withCallOptions(CallOptions callOptions) {
+        this.apiClient = apiClient.withCallOptions(callOptions);
+        metadataResourceApi.setApiClient(apiClient);
+        tagsApi.setApiClient(apiClient);
         return this;
     }
 
@@ -85,6 +107,11 @@ public class OrkesMetadataClient extends MetadataClient  {
         return metadataResourceApi.get(name, version, true);
     }
 
+    @Override
+    public CompletableFuture<WorkflowDef> getWorkflowDefAsync(String name, Integer version) {
+        return metadataResourceApi.getAsync(name, version, false);
+    }
+
     @Override
     public void unregisterWorkflowDef(String name, Integer version) {
         metadataResourceApi.unregisterWorkflowDef(name, version);
@@ -105,6 +132,11 @@ public class OrkesMetadataClient extends MetadataClient  {
         return metadataResourceApi.getTaskDef(taskType, true);
     }
 
+    @Override
+    public CompletableFuture<TaskDef> getTaskDefAsync(String taskType) {
+        return metadataResourceApi.getTaskDefAsync(taskType, true);
+    }
+
     @Override
     public void unregisterTaskDef(String taskType) {
         metadataResourceApi.unregisterTaskDef(taskType);
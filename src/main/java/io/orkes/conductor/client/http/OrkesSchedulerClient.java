@@ -13,6 +13,8 @@
 package io.orkes.conductor.client.http;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import io.orkes.conductor.client.ApiClient;
 import io.orkes.conductor.client.SchedulerClient;
@@ -20,6 +22,7 @@ import io.orkes.conductor.client.http.api.SchedulerResourceApi;
 import io.orkes.conductor.client.model.SaveScheduleRequest;
 import io.orkes.conductor.client.model.SearchResultWorkflowScheduleExecutionModel;
 import io.orkes.conductor.client.model.WorkflowSchedule;
+import io.orkes.conductor.client.model.WorkflowScheduleExecutionModel;
 
 public class OrkesSchedulerClient extends OrkesClient implements SchedulerClient {
 
@@ -53,6 +56,10 @@ public class OrkesSchedulerClient extends OrkesClient implements SchedulerClient
         return schedulerResourceApi.getSchedule(name);
     }
 
+    public CompletableFuture<WorkflowSchedule> getScheduleAsync(String name) throws ApiException {
+        return schedulerResourceApi.getScheduleAsync(name);
+    }
+
     @Override
     public void pauseAllSchedules() throws ApiException {
         schedulerResourceApi.pauseAllSchedules();
@@ -89,4 +96,29 @@ public class OrkesSchedulerClient extends OrkesClient implements SchedulerClient
             throws ApiException {
         return schedulerResourceApi.searchV22(start, size, sort, freeText, query);
     }
+
+    @Override
+    public SearchPager<WorkflowScheduleExecutionModel> searchV22Iterator(
+            int pageSize, String sort, String freeText, String query) {
+        return new SearchPager<>(searchV22Fetcher(sort, freeText, query), pageSize);
+    }
+
+    @Override
+    public Stream<WorkflowScheduleExecutionModel> searchV22Stream(
+            int pageSize, String sort, String freeText, String query) {
+        return SearchPager.stream(searchV22Fetcher(sort, freeText, query), pageSize);
+    }
+
+    private SearchPager.PageFetcher<WorkflowScheduleExecutionModel> searchV22Fetcher(
+            String sort, String freeText, String query) {
+        return SearchPager.fetcher(
+                (queryId, start, size) ->
+                        schedulerResourceApi.searchV22Async(start, size, sort, freeText, query),
+                result -> new SearchPager.Page<>(result.getResults(), result.getTotalHits()));
+    }
+
+    @Override
+    protected void bindApiClient(ApiClient apiClient) {
+        schedulerResourceApi.setApiClient(apiClient);
+    }
 }
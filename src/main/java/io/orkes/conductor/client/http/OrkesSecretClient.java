@@ -14,6 +14,7 @@ package io.orkes.conductor.client.http;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import io.orkes.conductor.client.ApiClient;
 import io.orkes.conductor.client.SecretClient;
@@ -39,6 +40,10 @@ public class OrkesSecretClient extends OrkesClient implements SecretClient {
         return secretResourceApi.getSecret(key);
     }
 
+    public CompletableFuture<String> getSecretAsync(String key) throws ApiException {
+        return secretResourceApi.getSecretAsync(key);
+    }
+
     @Override
     public Set<String> listAllSecretNames() throws ApiException {
         return secretResourceApi.listAllSecretNames();
@@ -58,4 +63,9 @@ public class OrkesSecretClient extends OrkesClient implements SecretClient {
     public boolean secretExists(String key) throws ApiException {
         return secretResourceApi.secretExists(key);
     }
+
+    @Override
+    protected void bindApiClient(ApiClient apiClient) {
+        secretResourceApi.setApiClient(apiClient);
+    }
 }
@@ -12,9 +12,12 @@
  */
 package io.orkes.conductor.client.http;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import com.netflix.conductor.common.metadata.tasks.PollData;
 import com.netflix.conductor.common.metadata.tasks.Task;
@@ -27,6 +30,8 @@ import io.orkes.conductor.client.ApiClient;
 import io.orkes.conductor.client.TaskClient;
 import io.orkes.conductor.client.grpc.GrpcTaskClient;
 import io.orkes.conductor.client.http.api.TaskResourceApi;
+import io.orkes.conductor.client.model.SearchResultTask;
+import io.orkes.conductor.client.model.SearchResultTaskSummary;
 
 public class OrkesTaskClient extends TaskClient {
 
@@ -43,17 +48,36 @@ public class OrkesTaskClient extends TaskClient {
     }
 
     public OrkesTaskClient withReadTimeout(int readTimeout) {
-        apiClient.setReadTimeout(readTimeout);
-        return this;
+        return withCallOptions(
+                apiClient.getCallOptions().toBuilder()
+                        .readTimeout(Duration.ofMillis(readTimeout))
+                        .build());
     }
 
     public OrkesTaskClient setWriteTimeout(int writeTimeout) {
-        apiClient.setWriteTimeout(writeTimeout);
-        return this;
+        return withCallOptions(
+                apiClient.getCallOptions().toBuilder()
+                        .writeTimeout(Duration.ofMillis(writeTimeout))
+                        .build());
     }
 
     public OrkesTaskClient withConnectTimeout(int connectTimeout) {
-        apiClient.setConnectTimeout(connectTimeout);
+        return withCallOptions(
+                apiClient.getCallOptions().toBuilder()
+                        .connectTimeout(Duration.ofMillis(connectTimeout))
+                        .build());
+    }
+
+    /**
+     * Applies the options to the calls made by this client only, other clients sharing the same
+     * {@link ApiClient} are not affected.
+     *
+     * @param callOptions options for the calls of this client
+     * @return this client
+     */
+    public OrkesTaskClient withCallOptions(CallOptions callOptions) {
+        this.apiClient = apiClient.withCallOptions(callOptions);
+        taskResourceApi.setApiClient(apiClient);
         return this;
     }
 
@@ -82,6 +106,11 @@ public class OrkesTaskClient extends TaskClient {
         return taskResourceApi.batchPoll(taskType, workerId, domain, count, timeoutInMillisecond);
     }
 
+    public CompletableFuture<List<Task>> batchPollTasksInDomainAsync(
+            String taskType, String domain, String workerId, int count, int timeoutInMillisecond) {
+        return taskResourceApi.batchPollAsync(taskType, workerId, domain, count, timeoutInMillisecond);
+    }
+
     @Override
     public void updateTask(TaskResult taskResult) {
         if(apiClient.isUseGRPC()) {
@@ -91,6 +120,17 @@ public class OrkesTaskClient extends TaskClient {
         }
     }
 
+    /**
+     * Updates the task over HTTP without blocking the caller, regardless of whether gRPC is
+     * enabled.
+     *
+     * @param taskResult result of the task
+     * @return future completed once the update is acknowledged
+     */
+    public CompletableFuture<String> updateTaskAsync(TaskResult taskResult) {
+        return taskResourceApi.updateTaskAsync(taskResult);
+    }
+
     @Override
     public Optional<String> evaluateAndUploadLargePayload(
             Map<String, Object> taskOutputData, String taskType) {
@@ -117,11 +157,23 @@ public class OrkesTaskClient extends TaskClient {
         return taskResourceApi.getTask(taskId);
     }
 
+    public CompletableFuture<Task> getTaskDetailsAsync(String taskId) {
+        return taskResourceApi.getTaskAsync(taskId);
+    }
+
     @Override
     public void removeTaskFromQueue(String taskType, String taskId) {
         throw new UnsupportedOperationException("remove task from queue is no longer supported");
     }
 
+    /**
+     * @return the size of every task queue in a single call, keyed by queue name: the task type,
+     *     prefixed by the domain and a colon for the queues of a domain
+     */
+    public Map<String, Long> getQueueSizes() {
+        return taskResourceApi.all();
+    }
+
     @Override
     public int getQueueSizeForTask(String taskType) {
         return taskResourceApi.size(List.of(taskType)).get(taskType);
@@ -155,21 +207,74 @@ public class OrkesTaskClient extends TaskClient {
 
     @Override
     public SearchResult<TaskSummary> search(String query) {
-        throw new UnsupportedOperationException("search operation on tasks is not supported");
+        return search(null, null, null, "", query);
     }
 
     @Override
     public SearchResult<Task> searchV2(String query) {
-        throw new UnsupportedOperationException("search operation on tasks is not supported");
+        return searchV2(null, null, null, "", query);
     }
 
     @Override
     public SearchResult<TaskSummary> search(Integer start, Integer size, String sort, String freeText, String query) {
-        throw new UnsupportedOperationException("search operation on tasks is not supported");
+        SearchResultTaskSummary result = taskResourceApi.search1(start, size, sort, freeText, query);
+        return new SearchResult<>(totalHits(result.getTotalHits()), result.getResults());
     }
 
     @Override
     public SearchResult<Task> searchV2(Integer start, Integer size, String sort, String freeText, String query) {
-        throw new UnsupportedOperationException("search operation on tasks is not supported");
+        SearchResultTask result = taskResourceApi.searchV21(start, size, sort, freeText, query);
+        return new SearchResult<>(totalHits(result.getTotalHits()), result.getResults());
+    }
+
+    /**
+     * Iterates over all the tasks matching the search, fetching the next page in the background
+     * while the current one is consumed.
+     *
+     * @param pageSize number of tasks fetched per request
+     * @param sort sort order e.g. updateTime:DESC
+     * @param freeText free text search
+     * @param query search query
+     * @return iterator over the matching tasks, close it to stop prefetching early
+     */
+    public SearchPager<TaskSummary> searchIterator(int pageSize, String sort, String freeText, String query) {
+        return new SearchPager<>(searchFetcher(sort, freeText, query), pageSize);
+    }
+
+    /**
+     * Streaming variant of {@link #searchIterator(int, String, String, String)}.
+     */
+    public Stream<TaskSummary> searchStream(int pageSize, String sort, String freeText, String query) {
+        return SearchPager.stream(searchFetcher(sort, freeText, query), pageSize);
+    }
+
+    /**
+     * Same as {@link #searchIterator(int, String, String, String)} but returns the full tasks.
+     */
+    public SearchPager<Task> searchV2Iterator(int pageSize, String sort, String freeText, String query) {
+        return new SearchPager<>(searchV2Fetcher(sort, freeText, query), pageSize);
+    }
+
+    /**
+     * Streaming variant of {@link #searchV2Iterator(int, String, String, String)}.
+     */
+    public Stream<Task> searchV2Stream(int pageSize, String sort, String freeText, String query) {
+        return SearchPager.stream(searchV2Fetcher(sort, freeText, query), pageSize);
+    }
+
+    private SearchPager.PageFetcher<TaskSummary> searchFetcher(String sort, String freeText, String query) {
+        return SearchPager.fetcher(
+                (queryId, start, size) -> taskResourceApi.search1Async(start, size, sort, freeText, query),
+                result -> new SearchPager.Page<>(result.getResults(), result.getTotalHits()));
+    }
+
+    private SearchPager.PageFetcher<Task> searchV2Fetcher(String sort, String freeText, String query) {
+        return SearchPager.fetcher(
+                (queryId, start, size) -> taskResourceApi.searchV21Async(start, size, sort, freeText, query),
+                result -> new SearchPager.Page<>(result.getResults(), result.getTotalHits()));
+    }
+
+    private static long totalHits(Long totalHits) {
+        return totalHits == null ? 0 : totalHits;
     }
 }
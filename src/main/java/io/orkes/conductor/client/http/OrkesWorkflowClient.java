@@ -13,10 +13,12 @@
 package io.orkes.conductor.client.http;
 
 import java.time.Duration;
-import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang.StringUtils;
 
@@ -31,12 +33,15 @@ import com.netflix.conductor.common.run.WorkflowSummary;
 import io.orkes.conductor.client.ApiClient;
 import io.orkes.conductor.client.WorkflowClient;
 import io.orkes.conductor.client.grpc.workflow.GrpcWorkflowClient;
+import io.orkes.conductor.client.grpc.workflow.WorkflowProgressPublisher;
 import io.orkes.conductor.client.http.api.WorkflowBulkResourceApi;
 import io.orkes.conductor.client.http.api.WorkflowResourceApi;
+import io.orkes.conductor.client.model.StartWorkflowResult;
 import io.orkes.conductor.client.model.WorkflowStatus;
 import io.orkes.conductor.common.model.WorkflowRun;
 
 import com.google.common.base.Preconditions;
+import com.squareup.okhttp.Dispatcher;
 
 public class OrkesWorkflowClient extends WorkflowClient {
 
@@ -44,39 +49,141 @@ public class OrkesWorkflowClient extends WorkflowClient {
 
     private final WorkflowResourceApi httpClient;
 
+    /** Runs the execute-and-wait calls on {@link #executeDispatcher} */
+    private final WorkflowResourceApi executeClient;
+
     private final WorkflowBulkResourceApi bulkResourceApi;
 
-    private final GrpcWorkflowClient grpcWorkflowClient;
+    /** Created on first use, gRPC may be enabled on the ApiClient after this client is created */
+    private volatile GrpcWorkflowClient grpcWorkflowClient;
+
+    private final Dispatcher executeDispatcher;
+
+    private static final int DEFAULT_BULK_START_CONCURRENCY = 32;
+
+    private static final int DEFAULT_MAX_EXECUTE_IN_FLIGHT = 64;
+
+    private static final Duration DEFAULT_PROGRESS_POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private static final int DEFAULT_BULK_CHUNK_SIZE = 1000;
+
+    private static final int DEFAULT_BULK_CHUNK_CONCURRENCY = 4;
 
-    private ExecutorService executorService;
+    private int bulkChunkSize = DEFAULT_BULK_CHUNK_SIZE;
+
+    private int bulkChunkConcurrency = DEFAULT_BULK_CHUNK_CONCURRENCY;
+
+    private BulkProgressListener bulkProgressListener;
+
+    private TerminalWorkflowCache workflowCache;
+
+    private Duration progressPollInterval = DEFAULT_PROGRESS_POLL_INTERVAL;
 
     public OrkesWorkflowClient(ApiClient apiClient) {
         this.apiClient = apiClient;
         this.httpClient = new WorkflowResourceApi(apiClient);
         this.bulkResourceApi = new WorkflowBulkResourceApi(apiClient);
-        this.grpcWorkflowClient = new GrpcWorkflowClient(apiClient);
-        if(!apiClient.isUseGRPC()) {
-            int threadCount = apiClient.getExecutorThreadCount();
-            if(threadCount < 1) {
-                this.executorService = Executors.newCachedThreadPool();
-            } else {
-                this.executorService = Executors.newFixedThreadPool(threadCount);
-            }
+        // execute-and-wait holds the call open until the workflow reaches the task, so it runs on
+        // a bounded dispatcher of its own instead of taking slots of the shared dispatcher. The
+        // dispatcher creates its threads on first use.
+        int maxInFlight = apiClient.getExecutorThreadCount();
+        if (maxInFlight < 1) {
+            maxInFlight = DEFAULT_MAX_EXECUTE_IN_FLIGHT;
         }
+        this.executeDispatcher = new Dispatcher();
+        this.executeDispatcher.setMaxRequests(maxInFlight);
+        this.executeDispatcher.setMaxRequestsPerHost(maxInFlight);
+        this.executeClient = new WorkflowResourceApi(withExecuteDispatcher(apiClient));
     }
 
     public WorkflowClient withReadTimeout(int readTimeout) {
-        apiClient.setReadTimeout(readTimeout);
-        return this;
+        return withCallOptions(
+                apiClient.getCallOptions().toBuilder()
+                        .readTimeout(Duration.ofMillis(readTimeout))
+                        .build());
     }
 
     public WorkflowClient setWriteTimeout(int writeTimeout) {
-        apiClient.setWriteTimeout(writeTimeout);
-        return this;
+        return withCallOptions(
+                apiClient.getCallOptions().toBuilder()
+                        .writeTimeout(Duration.ofMillis(writeTimeout))
+                        .build());
     }
 
     public WorkflowClient withConnectTimeout(int connectTimeout) {
-        apiClient.setConnectTimeout(connectTimeout);
+        return withCallOptions(
+                apiClient.getCallOptions().toBuilder()
+                        .connectTimeout(Duration.ofMillis(connectTimeout))
+                        .build());
+    }
+
+    /**
+     * Applies the options to the calls made by this client only, other clients sharing the same
+     * {@link ApiClient} are not affected.
+     *
+     * @param callOptions options for the calls of this client
+     * @return this client
+     */
+    public WorkflowClient withCallOptions(CallOptions callOptions) {
+        this.apiClient = apiClient.withCallOptions(callOptions);
+        httpClient.setApiClient(apiClient);
+        bulkResourceApi.setApiClient(apiClient);
+        executeClient.setApiClient(withExecuteDispatcher(apiClient));
+        return this;
+    }
+
+    private ApiClient withExecuteDispatcher(ApiClient client) {
+        return client.withCallOptions(
+                client.getCallOptions().toBuilder().dispatcher(executeDispatcher).build());
+    }
+
+    /**
+     * Splits the ids of the bulk operations (terminate, pause, resume, restart and retry) in chunks
+     * sent concurrently, and merges the responses of the chunks.
+     *
+     * @param chunkSize maximum number of ids sent in a single request
+     * @param maxConcurrentChunks maximum number of chunks in flight
+     * @return this client
+     */
+    public WorkflowClient withBulkChunking(int chunkSize, int maxConcurrentChunks) {
+        Preconditions.checkArgument(chunkSize > 0, "chunkSize must be greater than 0");
+        Preconditions.checkArgument(maxConcurrentChunks > 0, "maxConcurrentChunks must be greater than 0");
+        this.bulkChunkSize = chunkSize;
+        this.bulkChunkConcurrency = maxConcurrentChunks;
+        return this;
+    }
+
+    /**
+     * @param progressListener notified as the chunks of the bulk operations complete, null for
+     *     none
+     * @return this client
+     */
+    public WorkflowClient withBulkProgressListener(BulkProgressListener progressListener) {
+        this.bulkProgressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * Serves the workflows in a terminal status from the cache instead of fetching them again, see
+     * {@link TerminalWorkflowCache#builder(io.orkes.conductor.client.codec.JsonCodec)}.
+     *
+     * @param workflowCache cache of terminal workflows, null to disable caching
+     * @return this client
+     */
+    public WorkflowClient withWorkflowCache(TerminalWorkflowCache workflowCache) {
+        this.workflowCache = workflowCache;
+        return this;
+    }
+
+    /**
+     * @param pollInterval interval between two polls of the status of a workflow followed by
+     *     {@link #executeWorkflowWithProgress(StartWorkflowRequest, Duration)}, one second by
+     *     default
+     * @return this client
+     */
+    public WorkflowClient withProgressPollInterval(Duration pollInterval) {
+        Preconditions.checkArgument(pollInterval.toMillis() > 0, "pollInterval must be at least 1 ms");
+        this.progressPollInterval = pollInterval;
         return this;
     }
 
@@ -85,10 +192,46 @@ public class OrkesWorkflowClient extends WorkflowClient {
         return httpClient.startWorkflow(startWorkflowRequest);
     }
 
+    @Override
+    public List<StartWorkflowResult> startWorkflows(List<StartWorkflowRequest> startWorkflowRequests) {
+        return startWorkflows(startWorkflowRequests, DEFAULT_BULK_START_CONCURRENCY);
+    }
+
+    /**
+     * Starts the workflows with at most maxInFlight start requests outstanding at any time.
+     *
+     * @param startWorkflowRequests workflows to start
+     * @param maxInFlight maximum number of concurrent start requests
+     * @return one result per request, in the same order as the requests
+     */
+    public List<StartWorkflowResult> startWorkflows(List<StartWorkflowRequest> startWorkflowRequests, int maxInFlight) {
+        Preconditions.checkNotNull(startWorkflowRequests, "startWorkflowRequests cannot be null");
+        return new BulkWorkflowStarter(apiClient, httpClient, maxInFlight).start(startWorkflowRequests);
+    }
+
+    @Override
+    public void startWorkflows(Iterator<StartWorkflowRequest> startWorkflowRequests, Consumer<StartWorkflowResult> resultConsumer) {
+        startWorkflows(startWorkflowRequests, resultConsumer, DEFAULT_BULK_START_CONCURRENCY);
+    }
+
+    /**
+     * Streaming variant of {@link #startWorkflows(List, int)}. The requests are consumed lazily
+     * from the iterator and the results are handed to the consumer in input order.
+     *
+     * @param startWorkflowRequests workflows to start
+     * @param resultConsumer receives the result of every request
+     * @param maxInFlight maximum number of concurrent start requests
+     */
+    public void startWorkflows(Iterator<StartWorkflowRequest> startWorkflowRequests, Consumer<StartWorkflowResult> resultConsumer, int maxInFlight) {
+        Preconditions.checkNotNull(startWorkflowRequests, "startWorkflowRequests cannot be null");
+        Preconditions.checkNotNull(resultConsumer, "resultConsumer cannot be null");
+        new BulkWorkflowStarter(apiClient, httpClient, maxInFlight).start(startWorkflowRequests, resultConsumer);
+    }
+
     @Override
     public CompletableFuture<WorkflowRun> executeWorkflow(StartWorkflowRequest request, String waitUntilTask) {
         if(apiClient.isUseGRPC()) {
-            return grpcWorkflowClient.executeWorkflow(request, waitUntilTask);
+            return grpcClient().executeWorkflow(request, waitUntilTask);
         } else {
             return executeWorkflowHttp(request, waitUntilTask);
         }
@@ -96,35 +239,123 @@ public class OrkesWorkflowClient extends WorkflowClient {
 
     @Override
     public WorkflowRun executeWorkflow(StartWorkflowRequest request, String waitUntilTask, Duration waitTimeout) throws ExecutionException, InterruptedException, TimeoutException {
-        CompletableFuture<WorkflowRun> future = executeWorkflow(request, waitUntilTask);
-        return future.get(waitTimeout.get(ChronoUnit.MILLIS), TimeUnit.MILLISECONDS);
+        CompletableFuture<WorkflowRun> future;
+        if(apiClient.isUseGRPC()) {
+            future = grpcClient().executeWorkflow(request, waitUntilTask, waitTimeout);
+        } else {
+            future = executeWorkflowHttp(request, waitUntilTask);
+        }
+        try {
+            return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            // cancels the call, releasing its slot of the execute dispatcher
+            future.cancel(true);
+            throw e;
+        }
     }
 
-    private CompletableFuture<WorkflowRun> executeWorkflowHttp(StartWorkflowRequest startWorkflowRequest, String waitUntilTask) {
-        CompletableFuture<WorkflowRun> future = new CompletableFuture<>();
-        String requestId = UUID.randomUUID().toString();
-        executorService.submit(
-                () -> {
-                    try {
-                        WorkflowRun response =
-                                httpClient.executeWorkflow(
-                                        startWorkflowRequest,
-                                        startWorkflowRequest.getName(),
-                                        startWorkflowRequest.getVersion(),
-                                        waitUntilTask,
-                                        requestId);
-                        future.complete(response);
-                    } catch (Throwable t) {
-                        future.completeExceptionally(t);
-                    }
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The server answers the execute request once: with the terminal snapshot, or with the
+     * current one when its synchronous wait expires. In the latter case the status summary of the
+     * workflow is then polled over HTTP, every second unless set with {@link
+     * #withProgressPollInterval(Duration)}. Every summary with a new status, output or variables is
+     * published as a snapshot without tasks, and the terminal snapshot is fetched with the tasks.
+     */
+    @Override
+    public Flow.Publisher<WorkflowRun> executeWorkflowWithProgress(StartWorkflowRequest request, Duration timeout) {
+        Preconditions.checkNotNull(request, "StartWorkflowRequest cannot be null");
+        Preconditions.checkNotNull(timeout, "timeout cannot be null");
+        WorkflowProgressFollower follower =
+                new WorkflowProgressFollower(
+                        workflowId -> httpClient.getWorkflowStatusSummaryAsync(workflowId, true, true),
+                        workflowId -> getWorkflowAsync(workflowId, true),
+                        progressPollInterval);
+        return new WorkflowProgressPublisher(
+                listener -> {
+                    CompletableFuture<WorkflowRun> started =
+                            apiClient.isUseGRPC()
+                                    ? grpcClient().executeWorkflow(request, null, timeout)
+                                    : executeWorkflowHttp(request, null);
+                    return follower.follow(started, listener)
+                            .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
                 });
+    }
 
-        return future;
+    private GrpcWorkflowClient grpcClient() {
+        GrpcWorkflowClient client = grpcWorkflowClient;
+        if (client == null) {
+            synchronized (this) {
+                client = grpcWorkflowClient;
+                if (client == null) {
+                    client = new GrpcWorkflowClient(apiClient);
+                    grpcWorkflowClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    private CompletableFuture<WorkflowRun> executeWorkflowHttp(StartWorkflowRequest startWorkflowRequest, String waitUntilTask) {
+        String requestId = UUID.randomUUID().toString();
+        return executeClient.executeWorkflowAsync(
+                startWorkflowRequest,
+                startWorkflowRequest.getName(),
+                startWorkflowRequest.getVersion(),
+                waitUntilTask,
+                requestId);
     }
 
     @Override
     public Workflow getWorkflow(String workflowId, boolean includeTasks) {
-        return httpClient.getExecutionStatus(workflowId, includeTasks);
+        TerminalWorkflowCache cache = workflowCache;
+        if (cache == null) {
+            return httpClient.getExecutionStatus(workflowId, includeTasks);
+        }
+        Workflow workflow = cache.get(workflowId, includeTasks);
+        if (workflow == null) {
+            long stamp = cache.invalidation(workflowId);
+            workflow = httpClient.getExecutionStatus(workflowId, includeTasks);
+            cache.put(workflow, includeTasks, stamp);
+        }
+        return workflow;
+    }
+
+    /**
+     * Fetches the workflow without its tasks, which are fetched when read.
+     *
+     * @param workflowId id of the workflow
+     * @param projection fields of the task input and output to keep, {@link TaskProjection#ALL}
+     *     for all
+     * @return view of the workflow
+     */
+    public LazyWorkflow getLazyWorkflow(String workflowId, TaskProjection projection) {
+        return LazyWorkflow.load(apiClient, workflowId, projection);
+    }
+
+    @Override
+    public CompletableFuture<Workflow> getWorkflowAsync(String workflowId, boolean includeTasks) {
+        TerminalWorkflowCache cache = workflowCache;
+        if (cache == null) {
+            return httpClient.getExecutionStatusAsync(workflowId, includeTasks);
+        }
+        Workflow workflow = cache.get(workflowId, includeTasks);
+        if (workflow != null) {
+            return CompletableFuture.completedFuture(workflow);
+        }
+        long stamp = cache.invalidation(workflowId);
+        return httpClient.getExecutionStatusAsync(workflowId, includeTasks)
+                .thenApply(
+                        fetched -> {
+                            cache.put(fetched, includeTasks, stamp);
+                            return fetched;
+                        });
+    }
+
+    @Override
+    public CompletableFuture<String> startWorkflowAsync(StartWorkflowRequest startWorkflowRequest) {
+        return httpClient.startWorkflowAsync(startWorkflowRequest);
     }
 
     @Override
@@ -137,12 +368,13 @@ public class OrkesWorkflowClient extends WorkflowClient {
     @Override
     public void deleteWorkflow(String workflowId, boolean archiveWorkflow) {
         httpClient.delete(workflowId, archiveWorkflow);
+        invalidateCached(workflowId);
     }
 
     @Override
     public BulkResponse terminateWorkflows(List<String> workflowIds, String reason) {
         Preconditions.checkArgument(!workflowIds.isEmpty(), "workflow id cannot be blank");
-        return bulkResourceApi.terminate(workflowIds, reason);
+        return terminateWorkflow(workflowIds, reason);
     }
 
     @Override
@@ -183,17 +415,33 @@ public class OrkesWorkflowClient extends WorkflowClient {
 
     @Override
     public String rerunWorkflow(String workflowId, RerunWorkflowRequest rerunWorkflowRequest) {
-        return httpClient.rerun(rerunWorkflowRequest, workflowId);
+        invalidateCached(workflowId);
+        try {
+            return httpClient.rerun(rerunWorkflowRequest, workflowId);
+        } finally {
+            // again after the call, a read racing with it may have cached the old terminal state
+            invalidateCached(workflowId);
+        }
     }
 
     @Override
     public void restart(String workflowId, boolean useLatestDefinitions) {
-        httpClient.restart(workflowId, useLatestDefinitions);
+        invalidateCached(workflowId);
+        try {
+            httpClient.restart(workflowId, useLatestDefinitions);
+        } finally {
+            invalidateCached(workflowId);
+        }
     }
 
     @Override
     public void retryLastFailedTask(String workflowId) {
-        httpClient.retry(workflowId, true);
+        invalidateCached(workflowId);
+        try {
+            httpClient.retry(workflowId, true);
+        } finally {
+            invalidateCached(workflowId);
+        }
     }
 
     @Override
@@ -206,6 +454,11 @@ public class OrkesWorkflowClient extends WorkflowClient {
         httpClient.terminateWithAReason(workflowId, reason);
     }
 
+    @Override
+    public CompletableFuture<Void> terminateWorkflowAsync(String workflowId, String reason) {
+        return httpClient.terminateWithAReasonAsync(workflowId, reason);
+    }
+
     @Override
     public SearchResult<WorkflowSummary> search(String query) {
         return httpClient.search(null, null, null, null, "", query, null);
@@ -228,31 +481,116 @@ public class OrkesWorkflowClient extends WorkflowClient {
         throw new UnsupportedOperationException("Please use search() API");
     }
 
+    @Override
+    public SearchPager<WorkflowSummary> searchIterator(int pageSize, String sort, String freeText, String query) {
+        return new SearchPager<>(searchFetcher(sort, freeText, query), pageSize);
+    }
+
+    @Override
+    public Stream<WorkflowSummary> searchStream(int pageSize, String sort, String freeText, String query) {
+        return SearchPager.stream(searchFetcher(sort, freeText, query), pageSize);
+    }
+
+    @Override
+    public SearchPager<WorkflowSummary> searchWorkflowsByTasksIterator(int pageSize, String sort, String freeText, String query) {
+        return new SearchPager<>(searchByTasksFetcher(sort, freeText, query), pageSize);
+    }
+
+    @Override
+    public Stream<WorkflowSummary> searchWorkflowsByTasksStream(int pageSize, String sort, String freeText, String query) {
+        return SearchPager.stream(searchByTasksFetcher(sort, freeText, query), pageSize);
+    }
+
+    /**
+     * Creates an exporter writing the workflows started between from (inclusive) and to
+     * (exclusive) to a compressed NDJSON file.
+     *
+     * @param from start of the time range in epoch millis
+     * @param to end of the time range in epoch millis
+     * @return builder of the exporter
+     */
+    public WorkflowSearchExporter.Builder searchExporter(long from, long to) {
+        return WorkflowSearchExporter.builder(apiClient, from, to);
+    }
+
+    /**
+     * Creates a watcher waiting for many workflows to complete with a single poller, instead of
+     * one polling loop per workflow.
+     *
+     * @return builder of the watcher
+     */
+    public WorkflowStatusWatcher.Builder statusWatcher() {
+        return WorkflowStatusWatcher.builder(apiClient);
+    }
+
+    private SearchPager.PageFetcher<WorkflowSummary> searchFetcher(String sort, String freeText, String query) {
+        return SearchPager.fetcher(
+                (queryId, start, size) -> httpClient.searchAsync(queryId, start, size, sort, freeText, query, null),
+                result -> new SearchPager.Page<>(result.getResults(), result.getTotalHits(), result.getQueryId()));
+    }
+
+    private SearchPager.PageFetcher<WorkflowSummary> searchByTasksFetcher(String sort, String freeText, String query) {
+        return SearchPager.fetcher(
+                (queryId, start, size) -> httpClient.searchWorkflowsByTasksAsync(start, size, sort, freeText, query),
+                result -> new SearchPager.Page<>(result.getResults(), result.getTotalHits()));
+    }
+
     @Override
     public BulkResponse pauseWorkflow(List<String> workflowIds) throws ApiException {
-        return bulkResourceApi.pauseWorkflow1(workflowIds);
+        return bulk(workflowIds, chunk -> bulkResourceApi.pauseWorkflow1Async(chunk));
     }
 
     @Override
     public BulkResponse restartWorkflow(List<String> workflowIds, Boolean useLatestDefinitions)
             throws ApiException {
-        return bulkResourceApi.restart1(workflowIds, useLatestDefinitions);
+        invalidateCached(workflowIds);
+        try {
+            return bulk(
+                    workflowIds,
+                    chunk -> bulkResourceApi.restart1Async(chunk, useLatestDefinitions));
+        } finally {
+            invalidateCached(workflowIds);
+        }
     }
 
     @Override
     public BulkResponse resumeWorkflow(List<String> workflowIds) throws ApiException {
-        return bulkResourceApi.resumeWorkflow1(workflowIds);
+        return bulk(workflowIds, chunk -> bulkResourceApi.resumeWorkflow1Async(chunk));
     }
 
     @Override
     public BulkResponse retryWorkflow(List<String> workflowIds) throws ApiException {
-        return bulkResourceApi.retry1(workflowIds);
+        invalidateCached(workflowIds);
+        try {
+            return bulk(workflowIds, chunk -> bulkResourceApi.retry1Async(chunk));
+        } finally {
+            invalidateCached(workflowIds);
+        }
     }
 
     @Override
     public BulkResponse terminateWorkflow(List<String> workflowIds, String reason)
             throws ApiException {
-        return bulkResourceApi.terminate(workflowIds, reason);
+        return bulk(workflowIds, chunk -> bulkResourceApi.terminateAsync(chunk, reason));
+    }
+
+    /** Terminal workflows restarted, retried or rerun are not terminal anymore */
+    private void invalidateCached(String workflowId) {
+        TerminalWorkflowCache cache = workflowCache;
+        if (cache != null) {
+            cache.invalidate(workflowId);
+        }
+    }
+
+    private void invalidateCached(List<String> workflowIds) {
+        if (workflowIds != null) {
+            workflowIds.forEach(this::invalidateCached);
+        }
+    }
+
+    private BulkResponse bulk(List<String> workflowIds, BulkOperationExecutor.ChunkCall chunkCall) {
+        return new BulkOperationExecutor(bulkChunkSize, bulkChunkConcurrency, bulkProgressListener)
+                .execute(workflowIds, chunkCall);
     }
 
     @Override
@@ -261,13 +599,18 @@ public class OrkesWorkflowClient extends WorkflowClient {
         return httpClient.getWorkflowStatusSummary(workflowId, includeOutput, includeVariables);
     }
 
+    @Override
+    public CompletableFuture<WorkflowStatus> getWorkflowStatusSummaryAsync(
+            String workflowId, Boolean includeOutput, Boolean includeVariables) {
+        return httpClient.getWorkflowStatusSummaryAsync(workflowId, includeOutput, includeVariables);
+    }
+
     @Override
     public void shutdown() {
-        if(apiClient.isUseGRPC()) {
-            grpcWorkflowClient.shutdown();
-        }
-        if(executorService != null) {
-            executorService.shutdown();;
+        GrpcWorkflowClient grpcClient = grpcWorkflowClient;
+        if (grpcClient != null) {
+            grpcClient.shutdown();
         }
+        executeDispatcher.getExecutorService().shutdown();
     }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matches request paths against an endpoint path template such as {@code /workflow/{workflowId}}.
+ * A template ending with {@code /**} also matches every path below it.
+ */
+final class PathTemplate {
+
+    private static final Pattern PATH_VARIABLE = Pattern.compile("\\{[^}]+}");
+
+    private final String template;
+
+    private final Pattern pattern;
+
+    private final Pattern suffixPattern;
+
+    PathTemplate(String template) {
+        this.template = template;
+        boolean subtree = template.endsWith("/**");
+        String path = subtree ? template.substring(0, template.length() - 3) : template;
+        StringBuilder regex = new StringBuilder();
+        Matcher variable = PATH_VARIABLE.matcher(path);
+        int last = 0;
+        while (variable.find()) {
+            regex.append(Pattern.quote(path.substring(last, variable.start())));
+            regex.append("[^/]+");
+            last = variable.end();
+        }
+        regex.append(Pattern.quote(path.substring(last)));
+        if (subtree) {
+            regex.append("(/.*)?");
+        }
+        this.pattern = Pattern.compile(regex.toString());
+        this.suffixPattern = Pattern.compile(".*" + regex);
+    }
+
+    String getTemplate() {
+        return template;
+    }
+
+    /** @return true if the path, relative to the base path, matches the template */
+    boolean matches(String relativePath) {
+        return pattern.matcher(relativePath).matches();
+    }
+
+    /** @return true if the path ends with a match of the template, for when the base path is unknown */
+    boolean matchesEnd(String path) {
+        return suffixPattern.matcher(path).matches();
+    }
+}
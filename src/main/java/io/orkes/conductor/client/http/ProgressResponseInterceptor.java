@@ -0,0 +1,37 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Response;
+
+/** Reports the download progress of the response body to a listener. */
+public class ProgressResponseInterceptor implements Interceptor {
+
+    private final ProgressResponseBody.ProgressListener progressListener;
+
+    public ProgressResponseInterceptor(ProgressResponseBody.ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Response originalResponse = chain.proceed(chain.request());
+        return originalResponse
+                .newBuilder()
+                .body(new ProgressResponseBody(originalResponse.body(), progressListener))
+                .build();
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Spectator;
+
+import com.google.common.base.Preconditions;
+import com.squareup.okhttp.Headers;
+import com.squareup.okhttp.HttpUrl;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.ResponseBody;
+
+/**
+ * Shares a single call between identical GET requests made at the same time. The first request
+ * for a URL is sent, requests for the same URL made while it is in flight wait for it and receive
+ * a copy of its response instead of being sent.
+ *
+ * <p>Only the endpoints explicitly enabled are coalesced. Requests are considered identical when
+ * they have the same URL, including the query string, and the same credentials and accept header.
+ * The response body of a coalesced call is buffered in memory so it can be handed to every caller.
+ *
+ * <p>A waiting request gives up after the read timeout of its own call, or as soon as its call is
+ * cancelled. If the shared call is cancelled or times out, the waiting requests are sent again
+ * instead of failing with it, one of them becoming the new shared call.
+ */
+public class RequestCoalescer implements Interceptor {
+
+    private static final Registry REGISTRY = Spectator.globalRegistry();
+
+    private static final String AUTHORIZATION_HEADER = "X-Authorization";
+
+    // how often a waiting request checks whether its call was cancelled
+    private static final long CANCEL_CHECK_MILLIS = 50;
+
+    private final Supplier<String> basePath;
+
+    private final List<Endpoint> endpoints = new CopyOnWriteArrayList<>();
+
+    private final Map<String, CompletableFuture<SharedResponse>> inFlight =
+            new ConcurrentHashMap<>();
+
+    private final AtomicLong savedRequests = new AtomicLong();
+
+    /** @param basePath supplies the base path the endpoint templates are relative to */
+    public RequestCoalescer(Supplier<String> basePath) {
+        this.basePath = basePath;
+    }
+
+    /**
+     * Coalesces the GET requests made to the endpoint.
+     *
+     * @param pathTemplate path of the endpoint relative to the base path, e.g. {@code
+     *     /workflow/{workflowId}}
+     */
+    public void enable(String pathTemplate) {
+        Preconditions.checkNotNull(pathTemplate, "pathTemplate cannot be null");
+        if (find(pathTemplate) == null) {
+            endpoints.add(new Endpoint(pathTemplate));
+        }
+    }
+
+    public void disable(String pathTemplate) {
+        endpoints.removeIf(endpoint -> endpoint.pathTemplate.equals(pathTemplate));
+    }
+
+    public boolean isEnabled(String pathTemplate) {
+        return find(pathTemplate) != null;
+    }
+
+    /** @return number of requests that were not sent because they shared an in-flight call */
+    public long getSavedRequests() {
+        return savedRequests.get();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Endpoint endpoint = "GET".equals(request.method()) ? match(request.httpUrl()) : null;
+        if (endpoint == null) {
+            return chain.proceed(request);
+        }
+        String key =
+                request.urlString()
+                        + '\n'
+                        + request.header(AUTHORIZATION_HEADER)
+                        + '\n'
+                        + request.header("Accept");
+        CallContext context = CallContext.of(request);
+        long deadline =
+                context == null || context.getReadTimeoutMillis() == 0
+                        ? 0
+                        : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(context.getReadTimeoutMillis());
+        while (true) {
+            CompletableFuture<SharedResponse> shared = new CompletableFuture<>();
+            CompletableFuture<SharedResponse> existing = inFlight.putIfAbsent(key, shared);
+            if (existing == null) {
+                return lead(chain, request, key, shared);
+            }
+            savedRequests.incrementAndGet();
+            SharedResponse result = await(existing, context, deadline);
+            if (result != null) {
+                endpoint.saved.increment();
+                return result.toResponse(request);
+            }
+            // the shared call was abandoned, send the request or wait for the next shared call
+            savedRequests.decrementAndGet();
+        }
+    }
+
+    private Response lead(
+            Chain chain, Request request, String key, CompletableFuture<SharedResponse> shared)
+            throws IOException {
+        try {
+            Response response = chain.proceed(request);
+            SharedResponse result = new SharedResponse(response);
+            // removed before completing so later requests are sent instead of getting this response
+            inFlight.remove(key, shared);
+            shared.complete(result);
+            return result.toResponse(request);
+        } catch (Throwable t) {
+            inFlight.remove(key, shared);
+            if (isAbandoned(request, t)) {
+                // a cancellation or timeout of this call says nothing about the other callers
+                shared.complete(null);
+            } else {
+                shared.completeExceptionally(t);
+            }
+            throw t;
+        }
+    }
+
+    private static boolean isAbandoned(Request request, Throwable t) {
+        CallContext context = CallContext.of(request);
+        return t instanceof InterruptedIOException
+                || (context != null && context.isCanceled())
+                || (t instanceof IOException && "Canceled".equals(t.getMessage()));
+    }
+
+    private Endpoint find(String pathTemplate) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.pathTemplate.equals(pathTemplate)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    private Endpoint match(HttpUrl url) {
+        if (endpoints.isEmpty()) {
+            return null;
+        }
+        String path = url.encodedPath();
+        HttpUrl base = HttpUrl.parse(basePath.get());
+        if (base != null) {
+            String prefix = base.encodedPath();
+            if (prefix.endsWith("/")) {
+                prefix = prefix.substring(0, prefix.length() - 1);
+            }
+            if (!path.startsWith(prefix)) {
+                return null;
+            }
+            path = path.substring(prefix.length());
+        }
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.template.matches(path)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    /** @return the shared response, or null if the shared call was abandoned */
+    private static SharedResponse await(
+            CompletableFuture<SharedResponse> shared, CallContext context, long deadline)
+            throws IOException {
+        try {
+            while (true) {
+                if (context != null && context.isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                long waitMillis = CANCEL_CHECK_MILLIS;
+                if (deadline != 0) {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remaining <= 0) {
+                        throw new SocketTimeoutException("timeout waiting for a coalesced request");
+                    }
+                    waitMillis = Math.min(waitMillis, remaining);
+                }
+                try {
+                    return shared.get(waitMillis, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // check the call and the deadline again
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a coalesced request");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static class Endpoint {
+
+        private final String pathTemplate;
+
+        private final PathTemplate template;
+
+        private final Counter saved;
+
+        Endpoint(String pathTemplate) {
+            this.pathTemplate = pathTemplate;
+            this.template = new PathTemplate(pathTemplate);
+            this.saved = REGISTRY.counter("http_client_coalesced_requests", "endpoint", pathTemplate);
+        }
+    }
+
+    /** A response whose body can be handed to several callers */
+    private static class SharedResponse {
+
+        private final int code;
+
+        private final String message;
+
+        private final Protocol protocol;
+
+        private final Headers headers;
+
+        private final MediaType contentType;
+
+        private final byte[] body;
+
+        SharedResponse(Response response) throws IOException {
+            this.code = response.code();
+            this.message = response.message();
+            this.protocol = response.protocol();
+            this.headers = response.headers();
+            ResponseBody responseBody = response.body();
+            this.contentType = responseBody.contentType();
+            this.body = responseBody.bytes();
+        }
+
+        Response toResponse(Request request) {
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(protocol)
+                    .code(code)
+                    .message(message)
+                    .headers(headers)
+                    .body(ResponseBody.create(contentType, body))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Token bucket bounding the retries of a client to a share of its traffic. Every call deposits
+ * {@code retryRatio} tokens and every retry withdraws one, so retries cannot exceed that share of
+ * the calls however many attempts each call is allowed. A floor of {@code minRetriesPerSecond}
+ * keeps a client with little traffic able to retry. The bucket holds at most {@code maxTokens}
+ * tokens so a long quiet period cannot bank an unbounded burst of retries.
+ */
+public class RetryBudget {
+
+    private final double maxTokens;
+
+    private final double retryRatio;
+
+    private final double minRetriesPerSecond;
+
+    private double tokens;
+
+    private long refilledAt;
+
+    /**
+     * @param maxTokens maximum number of retries the bucket can hold
+     * @param retryRatio share of the calls that can be retried, e.g. 0.2 for 20%
+     * @param minRetriesPerSecond retries allowed regardless of the traffic
+     */
+    public RetryBudget(int maxTokens, double retryRatio, double minRetriesPerSecond) {
+        Preconditions.checkArgument(maxTokens > 0, "maxTokens must be positive");
+        Preconditions.checkArgument(retryRatio >= 0, "retryRatio cannot be negative");
+        Preconditions.checkArgument(minRetriesPerSecond >= 0, "minRetriesPerSecond cannot be negative");
+        this.maxTokens = maxTokens;
+        this.retryRatio = retryRatio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.tokens = maxTokens;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /** Records a call, crediting the budget. */
+    public synchronized void deposit() {
+        refill();
+        tokens = Math.min(maxTokens, tokens + retryRatio);
+    }
+
+    /**
+     * Withdraws a token for a retry.
+     *
+     * @return false if the budget is exhausted and the call must not be retried
+     */
+    public synchronized boolean tryWithdraw() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    public synchronized double getTokens() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double seconds = (now - refilledAt) / (double) TimeUnit.SECONDS.toNanos(1);
+        refilledAt = now;
+        tokens = Math.min(maxTokens, tokens + seconds * minRetriesPerSecond);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.DistributionSummary;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Spectator;
+
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+/**
+ * Attempts a call again according to a {@link RetryPolicy}. When a {@link RetryBudget} is given,
+ * every retry withdraws from it and calls are not retried once it is exhausted, which keeps
+ * retries from multiplying the load on a server that is already struggling.
+ */
+public class RetryInterceptor implements Interceptor {
+
+    private static final Registry REGISTRY = Spectator.globalRegistry();
+
+    private static final DistributionSummary ATTEMPTS =
+            REGISTRY.distributionSummary("http_client_call_attempts");
+
+    private static final Counter BUDGET_EXHAUSTED =
+            REGISTRY.counter("http_client_retry_budget_exhausted");
+
+    private final RetryPolicy retryPolicy;
+
+    private final RetryBudget retryBudget;
+
+    public RetryInterceptor(RetryPolicy retryPolicy) {
+        this(retryPolicy, null);
+    }
+
+    /**
+     * @param retryPolicy decides which calls are retried and when
+     * @param retryBudget budget shared by the calls of a client, null for no budget
+     */
+    public RetryInterceptor(RetryPolicy retryPolicy, RetryBudget retryBudget) {
+        this.retryPolicy = retryPolicy;
+        this.retryBudget = retryBudget;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (retryPolicy.getMaxAttempts() <= 1 || !retryPolicy.isRetryable(request)) {
+            return chain.proceed(request);
+        }
+        if (retryBudget != null) {
+            retryBudget.deposit();
+        }
+        long backoff = 0;
+        for (int attempt = 1; ; attempt++) {
+            boolean last = attempt >= retryPolicy.getMaxAttempts();
+            long retryAfter = 0;
+            try {
+                Response response = chain.proceed(request);
+                if (last || !retryPolicy.isRetryable(response.code())) {
+                    ATTEMPTS.record(attempt);
+                    return response;
+                }
+                retryAfter = retryPolicy.retryAfterMillis(response);
+                if (retryAfter < 0 || !withdraw()) {
+                    ATTEMPTS.record(attempt);
+                    return response;
+                }
+                response.body().close();
+                retried(String.valueOf(response.code()));
+            } catch (IOException e) {
+                if (last || !retryPolicy.isRetryable(e) || !withdraw()) {
+                    ATTEMPTS.record(attempt);
+                    throw e;
+                }
+                retried("io_error");
+            }
+            backoff = retryPolicy.backoffMillis(attempt, backoff);
+            sleep(Math.max(backoff, retryAfter));
+        }
+    }
+
+    private boolean withdraw() {
+        if (retryBudget == null || retryBudget.tryWithdraw()) {
+            return true;
+        }
+        BUDGET_EXHAUSTED.increment();
+        return false;
+    }
+
+    private static void retried(String reason) {
+        REGISTRY.counter("http_client_retries", "reason", reason).increment();
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.google.common.base.Preconditions;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+/**
+ * Decides whether and when a failed call is attempted again. Only idempotent calls are retried,
+ * on I/O errors and on responses telling the client to come back later.
+ *
+ * <p>A call is idempotent when its method is, unless its endpoint was declared otherwise with
+ * {@link Builder#idempotent(String, String)} or {@link Builder#nonIdempotent(String, String)}.
+ * Backoffs use decorrelated jitter, each wait is picked at random between the initial backoff and
+ * three times the previous wait, capped at the max backoff. A {@code Retry-After} header sent by
+ * the server is honoured when it is not longer than the max backoff, longer waits are not retried.
+ */
+public class RetryPolicy {
+
+    // initialized first, the constants below are built with it
+    private static final Set<Integer> DEFAULT_RETRYABLE_STATUS_CODES = Set.of(429, 502, 503, 504);
+
+    public static final RetryPolicy NONE = new RetryPolicy(1, Duration.ZERO, Duration.ZERO);
+
+    /**
+     * Three attempts, backing off from 100 ms up to 5 s. Bulk terminate is retried, terminating
+     * a workflow twice has the same effect as terminating it once.
+     */
+    public static final RetryPolicy DEFAULT =
+            builder()
+                    .maxAttempts(3)
+                    .backoff(Duration.ofMillis(100), Duration.ofSeconds(5))
+                    .idempotent("POST", "/workflow/bulk/terminate")
+                    .build();
+
+    private final int maxAttempts;
+
+    private final Duration initialBackoff;
+
+    private final Duration maxBackoff;
+
+    private final Set<Integer> retryableStatusCodes;
+
+    private final List<EndpointOverride> overrides;
+
+    private final boolean jitter;
+
+    public RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        this(
+                builder()
+                        .maxAttempts(maxAttempts)
+                        .backoff(initialBackoff, maxBackoff)
+                        .jitter(false));
+    }
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoff = builder.initialBackoff;
+        this.maxBackoff = builder.maxBackoff;
+        this.retryableStatusCodes = Collections.unmodifiableSet(new HashSet<>(builder.retryableStatusCodes));
+        this.overrides = Collections.unmodifiableList(new ArrayList<>(builder.overrides));
+        this.jitter = builder.jitter;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public boolean isRetryable(Request request) {
+        String path = request.httpUrl().encodedPath();
+        for (EndpointOverride override : overrides) {
+            if (override.method.equals(request.method()) && override.path.matchesEnd(path)) {
+                return override.idempotent;
+            }
+        }
+        return isIdempotent(request);
+    }
+
+    /** @return true if sending the request more than once has the same effect as sending it once */
+    public static boolean isIdempotent(Request request) {
+        switch (request.method()) {
+            case "GET":
+            case "HEAD":
+            case "OPTIONS":
+            case "PUT":
+            case "DELETE":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public boolean isRetryable(int statusCode) {
+        return retryableStatusCodes.contains(statusCode);
+    }
+
+    public boolean isRetryable(IOException e) {
+        // an interrupted thread must not be kept waiting, timeouts are worth another attempt
+        return !(e instanceof InterruptedIOException) || e instanceof SocketTimeoutException;
+    }
+
+    /**
+     * @param attempt number of the attempt that failed, starting at 1
+     * @return milliseconds to wait before the next attempt, without jitter
+     */
+    public long backoffMillis(int attempt) {
+        long backoff = initialBackoff.toMillis() << Math.min(attempt - 1, 30);
+        return Math.min(backoff, maxBackoff.toMillis());
+    }
+
+    /**
+     * @param attempt number of the attempt that failed, starting at 1
+     * @param previousMillis wait before the attempt that failed, 0 for the first attempt
+     * @return milliseconds to wait before the next attempt
+     */
+    public long backoffMillis(int attempt, long previousMillis) {
+        if (!jitter) {
+            return backoffMillis(attempt);
+        }
+        long base = initialBackoff.toMillis();
+        long upper = Math.max(base, previousMillis * 3);
+        long backoff = upper > base ? ThreadLocalRandom.current().nextLong(base, upper + 1) : base;
+        return Math.min(backoff, maxBackoff.toMillis());
+    }
+
+    /**
+     * @param response response of the failed attempt
+     * @return milliseconds the server asked to wait for with a {@code Retry-After} header, 0 if it
+     *     did not or -1 if the wait is longer than the max backoff and the call must not be retried
+     */
+    public long retryAfterMillis(Response response) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter == null || retryAfter.isEmpty()) {
+            return 0;
+        }
+        long millis;
+        try {
+            millis = Long.parseLong(retryAfter.trim()) * 1000;
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                millis = date.toInstant().toEpochMilli() - System.currentTimeMillis();
+            } catch (DateTimeParseException ignored) {
+                return 0;
+            }
+        }
+        if (millis > maxBackoff.toMillis()) {
+            return -1;
+        }
+        return Math.max(0, millis);
+    }
+
+    private static class EndpointOverride {
+
+        private final String method;
+
+        private final PathTemplate path;
+
+        private final boolean idempotent;
+
+        EndpointOverride(String method, String pathTemplate, boolean idempotent) {
+            this.method = method;
+            this.path = new PathTemplate(pathTemplate);
+            this.idempotent = idempotent;
+        }
+    }
+
+    public static class Builder {
+
+        private int maxAttempts = 3;
+
+        private Duration initialBackoff = Duration.ofMillis(100);
+
+        private Duration maxBackoff = Duration.ofSeconds(5);
+
+        private final Set<Integer> retryableStatusCodes = new HashSet<>(DEFAULT_RETRYABLE_STATUS_CODES);
+
+        private final List<EndpointOverride> overrides = new ArrayList<>();
+
+        private boolean jitter = true;
+
+        private Builder() {}
+
+        public Builder maxAttempts(int maxAttempts) {
+            Preconditions.checkArgument(maxAttempts > 0, "maxAttempts must be positive");
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder backoff(Duration initialBackoff, Duration maxBackoff) {
+            Preconditions.checkArgument(
+                    initialBackoff.compareTo(maxBackoff) <= 0, "initialBackoff exceeds maxBackoff");
+            this.initialBackoff = initialBackoff;
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /** Status codes retried in addition to 429, 502, 503 and 504 */
+        public Builder retryOn(int... statusCodes) {
+            for (int statusCode : statusCodes) {
+                retryableStatusCodes.add(statusCode);
+            }
+            return this;
+        }
+
+        /** Declares the endpoint safe to retry whatever its method */
+        public Builder idempotent(String method, String pathTemplate) {
+            overrides.add(new EndpointOverride(method, pathTemplate, true));
+            return this;
+        }
+
+        /** Declares the endpoint unsafe to retry whatever its method */
+        public Builder nonIdempotent(String method, String pathTemplate) {
+            overrides.add(new EndpointOverride(method, pathTemplate, false));
+            return this;
+        }
+
+        /** Set to false for plain exponential backoff */
+        public Builder jitter(boolean jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
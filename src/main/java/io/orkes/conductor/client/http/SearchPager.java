@@ -0,0 +1,231 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import io.orkes.conductor.client.OrkesClientException;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Iterates over all the results of a paginated search, one page at a time.
+ *
+ * <p>The request for the next page is sent as soon as the current page arrives, so the server
+ * round trip overlaps with the caller consuming the current page. At most one page is buffered
+ * and one is in flight, which keeps memory bounded regardless of the size of the result set.
+ * When the server returns a scroll query id it is passed back on the following requests.
+ *
+ * @param <T> type of the search results
+ */
+public class SearchPager<T> implements Iterator<T>, AutoCloseable {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /** Fetches a page of results. */
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+
+        /**
+         * @param queryId scroll id returned with the previous page, null for the first page
+         * @param start offset of the first result of the page
+         * @param size maximum number of results in the page
+         * @return future of the page
+         */
+        CompletableFuture<Page<T>> fetch(String queryId, int start, int size);
+    }
+
+    /** Sends a search request returning the response type of the API. */
+    @FunctionalInterface
+    public interface SearchCall<R> {
+
+        /**
+         * @param queryId scroll id returned with the previous page, null for the first page
+         * @param start offset of the first result of the page
+         * @param size maximum number of results in the page
+         * @return future of the search response, cancelling it cancels the request
+         */
+        CompletableFuture<R> search(String queryId, int start, int size);
+    }
+
+    /** A page of search results. */
+    public static final class Page<T> {
+
+        private final List<T> results;
+
+        private final Long totalHits;
+
+        private final String queryId;
+
+        public Page(List<T> results, Long totalHits, String queryId) {
+            this.results = results == null ? Collections.emptyList() : results;
+            this.totalHits = totalHits;
+            this.queryId = queryId;
+        }
+
+        public Page(List<T> results, Long totalHits) {
+            this(results, totalHits, null);
+        }
+
+        public List<T> getResults() {
+            return results;
+        }
+
+        public Long getTotalHits() {
+            return totalHits;
+        }
+
+        public String getQueryId() {
+            return queryId;
+        }
+    }
+
+    private final PageFetcher<T> fetcher;
+
+    private final int pageSize;
+
+    private Iterator<T> current = Collections.emptyIterator();
+
+    private CompletableFuture<Page<T>> next;
+
+    private int start;
+
+    private boolean closed;
+
+    public SearchPager(PageFetcher<T> fetcher, int pageSize) {
+        Preconditions.checkNotNull(fetcher, "fetcher cannot be null");
+        Preconditions.checkArgument(pageSize > 0, "pageSize must be positive");
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+        this.next = fetch(null);
+    }
+
+    /**
+     * Streams all the results of the search. Closing the stream cancels the page being
+     * prefetched.
+     */
+    public static <T> Stream<T> stream(PageFetcher<T> fetcher, int pageSize) {
+        SearchPager<T> pager = new SearchPager<>(fetcher, pageSize);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(
+                                pager, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(pager::close);
+    }
+
+    /**
+     * Adapts a search call to a {@link PageFetcher}. A page mapped with {@code thenApply} does not
+     * pass its cancellation to the request it depends on; the pages returned here do, so closing
+     * the pager cancels the request of the page being prefetched.
+     *
+     * @param search sends the search request
+     * @param toPage converts the search response to a page
+     * @return page fetcher
+     */
+    public static <R, T> PageFetcher<T> fetcher(
+            SearchCall<R> search, Function<? super R, Page<T>> toPage) {
+        Preconditions.checkNotNull(search, "search cannot be null");
+        Preconditions.checkNotNull(toPage, "toPage cannot be null");
+        return (queryId, start, size) -> {
+            CompletableFuture<R> response = search.search(queryId, start, size);
+            CompletableFuture<Page<T>> page = response.thenApply(toPage);
+            page.whenComplete(
+                    (result, error) -> {
+                        if (page.isCancelled()) {
+                            response.cancel(true);
+                        }
+                    });
+            return page;
+        };
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (next == null) {
+                return false;
+            }
+            Page<T> page = await(next);
+            List<T> results = page.getResults();
+            start += results.size();
+            next = hasMore(page) ? fetch(page.getQueryId()) : null;
+            current = results.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /** Stops the iteration and cancels the page being prefetched, if any. */
+    @Override
+    public void close() {
+        closed = true;
+        current = Collections.emptyIterator();
+        if (next != null) {
+            next.cancel(true);
+            next = null;
+        }
+    }
+
+    private boolean hasMore(Page<T> page) {
+        int received = page.getResults().size();
+        if (closed || received == 0 || received < pageSize) {
+            return false;
+        }
+        Long totalHits = page.getTotalHits();
+        return totalHits == null || start < totalHits;
+    }
+
+    private CompletableFuture<Page<T>> fetch(String queryId) {
+        try {
+            return fetcher.fetch(queryId, start, pageSize);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Page<T> await(CompletableFuture<Page<T>> page) {
+        try {
+            return page.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new CancellationException("Interrupted while waiting for the next page");
+        } catch (ExecutionException e) {
+            close();
+            Throwable cause = e.getCause();
+            if (cause instanceof OrkesClientException) {
+                throw (OrkesClientException) cause;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+}
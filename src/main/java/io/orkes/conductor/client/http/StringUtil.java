@@ -12,7 +12,17 @@
  */
 package io.orkes.conductor.client.http;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
 public class StringUtil {
+
+    private static final Pattern JSON_MIME =
+            Pattern.compile(
+                    "^(application/json|[^;/ \t]+/[^;/ \t]+[+]json)[ \t]*(;.*)?$",
+                    Pattern.CASE_INSENSITIVE);
+
     /**
      * Check if the given array contains the given value (with case-insensitive comparison).
      *
@@ -49,4 +59,26 @@ public class StringUtil {
         }
         return out.toString();
     }
+
+    /**
+     * Check if the given MIME is a JSON MIME. JSON MIME examples: application/json application/json;
+     * charset=UTF8 APPLICATION/JSON application/vnd.company+json "* / *" is also default to JSON
+     *
+     * @param mime MIME (Multipurpose Internet Mail Extensions)
+     * @return True if the given MIME is JSON, false otherwise.
+     */
+    public static boolean isJsonMime(String mime) {
+        return mime != null && (mime.equals("*/*") || JSON_MIME.matcher(mime).matches());
+    }
+
+    /**
+     * Escape the given string to be used as URL query value or path segment.
+     *
+     * @param str String to be escaped
+     * @return Escaped string
+     */
+    public static String urlEncode(String str) {
+        String encoded = URLEncoder.encode(str, StandardCharsets.UTF_8);
+        return encoded.indexOf('+') < 0 ? encoded : encoded.replace("+", "%20");
+    }
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.netflix.conductor.common.metadata.tasks.Task;
+
+import io.orkes.conductor.client.codec.JsonCodec;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Selects the fields of the input and output of tasks kept in memory. Fields not selected are
+ * dropped as soon as a task is loaded. With {@link #codec(JsonCodec)} they are skipped while the
+ * response is parsed, so they are never materialized.
+ */
+public final class TaskProjection {
+
+    private static final TypeAdapter<JsonElement> ELEMENT = new Gson().getAdapter(JsonElement.class);
+
+    /** Keeps the whole input and output */
+    public static final TaskProjection ALL = new TaskProjection(null, null);
+
+    /** Drops the input and output, keeping only the status and timing of the tasks */
+    public static final TaskProjection NONE =
+            new TaskProjection(Collections.emptySet(), Collections.emptySet());
+
+    /** null keeps all the fields */
+    private final Set<String> inputFields;
+
+    private final Set<String> outputFields;
+
+    private TaskProjection(Set<String> inputFields, Set<String> outputFields) {
+        this.inputFields = inputFields;
+        this.outputFields = outputFields;
+    }
+
+    /**
+     * @param inputFields fields of the input to keep
+     * @param outputFields fields of the output to keep
+     */
+    public static TaskProjection of(Set<String> inputFields, Set<String> outputFields) {
+        return new TaskProjection(copy(inputFields), copy(outputFields));
+    }
+
+    /** Keeps only the given fields of the output, and no input */
+    public static TaskProjection outputFields(String... outputFields) {
+        return new TaskProjection(Collections.emptySet(), copy(new HashSet<>(Arrays.asList(outputFields))));
+    }
+
+    /** Keeps only the given fields of the input, and no output */
+    public static TaskProjection inputFields(String... inputFields) {
+        return new TaskProjection(copy(new HashSet<>(Arrays.asList(inputFields))), Collections.emptySet());
+    }
+
+    /** Applies the projection to the task in place */
+    public Task apply(Task task) {
+        if (inputFields != null) {
+            task.setInputData(project(task.getInputData(), inputFields));
+        }
+        if (outputFields != null) {
+            task.setOutputData(project(task.getOutputData(), outputFields));
+        }
+        return task;
+    }
+
+    /**
+     * Returns a codec reading tasks with this projection, and everything else as the given codec.
+     * The fields of the input and output not selected are skipped in the JSON stream. The rest of
+     * the task is handed to the given codec, so it is read the same way.
+     *
+     * @param codec codec of the client
+     * @return the projecting codec, or the given codec if this projection keeps all the fields
+     */
+    public JsonCodec codec(JsonCodec codec) {
+        if (inputFields == null && outputFields == null) {
+            return codec;
+        }
+        return new JsonCodec() {
+            @Override
+            public void write(Object value, Writer writer) throws IOException {
+                codec.write(value, writer);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T read(Reader reader, Type type) throws IOException {
+                if (type != Task.class) {
+                    return codec.read(reader, type);
+                }
+                JsonObject task = read(new JsonReader(reader));
+                return task == null ? null : (T) codec.fromJson(task.toString(), Task.class);
+            }
+        };
+    }
+
+    /** Reads a task keeping only the selected fields of its input and output */
+    private JsonObject read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        JsonObject task = new JsonObject();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (name.equals("inputData") && inputFields != null) {
+                task.add(name, readFields(in, inputFields));
+            } else if (name.equals("outputData") && outputFields != null) {
+                task.add(name, readFields(in, outputFields));
+            } else {
+                task.add(name, ELEMENT.read(in));
+            }
+        }
+        in.endObject();
+        return task;
+    }
+
+    private static JsonObject readFields(JsonReader in, Set<String> fields) throws IOException {
+        JsonObject projected = new JsonObject();
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return projected;
+        }
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (fields.contains(name)) {
+                projected.add(name, ELEMENT.read(in));
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return projected;
+    }
+
+    private static Map<String, Object> project(Map<String, Object> data, Set<String> fields) {
+        Map<String, Object> projected = new LinkedHashMap<>();
+        if (data == null || fields.isEmpty()) {
+            return projected;
+        }
+        for (String field : fields) {
+            if (data.containsKey(field)) {
+                projected.put(field, data.get(field));
+            }
+        }
+        return projected;
+    }
+
+    private static Set<String> copy(Set<String> fields) {
+        return fields == null ? null : Collections.unmodifiableSet(new HashSet<>(fields));
+    }
+}
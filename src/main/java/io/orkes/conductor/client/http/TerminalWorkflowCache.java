@@ -0,0 +1,496 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.common.run.Workflow;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Spectator;
+import com.netflix.spectator.api.patterns.PolledMeter;
+
+import io.orkes.conductor.client.codec.JsonCodec;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+
+/**
+ * Cache of workflows in a terminal status, which never change once terminal.
+ *
+ * <p>The workflows are kept as JSON and every read returns a new copy, so callers may modify the
+ * workflows they get or put. The memory tier is a LRU cache bounded by the size of that JSON rather
+ * than by the number of workflows, so a few workflows with large payloads cannot hold most of the
+ * heap. With a disk tier, the workflows evicted from memory are written to a memory-mapped file
+ * used as a ring: the oldest workflows on disk are overwritten first. A workflow found on disk is
+ * moved back to memory and keeps its original expiry.
+ *
+ * <p>A fetch that started before an invalidation of the same workflow may return the state the
+ * invalidation was meant to discard. Callers take a stamp with {@link #invalidation(String)}
+ * before fetching and put the result with it: the put is skipped if the workflow was invalidated
+ * in the meantime.
+ */
+public class TerminalWorkflowCache implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TerminalWorkflowCache.class);
+
+    private static final Registry REGISTRY = Spectator.globalRegistry();
+
+    /** Number of invalidation counters, workflows sharing one only skip more puts */
+    private static final int INVALIDATION_STRIPES = 1024;
+
+    private final JsonCodec codec;
+
+    private final Cache<String, Entry> memory;
+
+    private final AtomicLong memoryBytes = new AtomicLong();
+
+    private final DiskTier disk;
+
+    private final long expireAfterWriteMillis;
+
+    /**
+     * Reads and writes share the lock, invalidations take it exclusively. Guava notifies the
+     * evictions from within the cache operation that caused them, so an eviction is written to disk
+     * before an invalidation of the same workflow starts, never after it.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Invalidations per stripe of workflow ids, incremented under the write lock */
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    private final Counter diskHits;
+
+    private final Counter diskWrites;
+
+    private TerminalWorkflowCache(Builder builder) throws IOException {
+        this.codec = builder.codec;
+        this.disk =
+                builder.diskFile == null ? null : new DiskTier(builder.diskFile, builder.diskBytes);
+        this.expireAfterWriteMillis = builder.expireAfterWrite == null ? 0 : builder.expireAfterWrite.toMillis();
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+        if (expireAfterWriteMillis > 0) {
+            cacheBuilder.expireAfterWrite(expireAfterWriteMillis, TimeUnit.MILLISECONDS);
+        }
+        this.memory =
+                cacheBuilder
+                        .maximumWeight(builder.maxBytes)
+                        .<String, Entry>weigher((key, entry) -> entry.json.length)
+                        .removalListener(this::evicted)
+                        .recordStats()
+                        .build();
+        this.diskHits = REGISTRY.counter("workflow_cache_disk_hits", "cache", builder.name);
+        this.diskWrites = REGISTRY.counter("workflow_cache_disk_writes", "cache", builder.name);
+        PolledMeter.using(REGISTRY)
+                .withName("workflow_cache_hits")
+                .withTag("cache", builder.name)
+                .monitorMonotonicCounter(this, cache -> cache.memory.stats().hitCount());
+        PolledMeter.using(REGISTRY)
+                .withName("workflow_cache_misses")
+                .withTag("cache", builder.name)
+                .monitorMonotonicCounter(this, cache -> cache.memory.stats().missCount());
+        PolledMeter.using(REGISTRY)
+                .withName("workflow_cache_evictions")
+                .withTag("cache", builder.name)
+                .monitorMonotonicCounter(this, cache -> cache.memory.stats().evictionCount());
+        PolledMeter.using(REGISTRY)
+                .withName("workflow_cache_bytes")
+                .withTag("cache", builder.name)
+                .withTag("tier", "memory")
+                .monitorValue(this, TerminalWorkflowCache::getMemoryBytes);
+        if (disk != null) {
+            PolledMeter.using(REGISTRY)
+                    .withName("workflow_cache_bytes")
+                    .withTag("cache", builder.name)
+                    .withTag("tier", "disk")
+                    .monitorValue(this, TerminalWorkflowCache::getDiskBytes);
+        }
+    }
+
+    public static Builder builder(JsonCodec codec) {
+        return new Builder(codec);
+    }
+
+    /**
+     * @return a copy of the cached workflow, or null if it is neither in memory nor on disk, or
+     *     has expired
+     */
+    public Workflow get(String workflowId, boolean includeTasks) {
+        String key = key(workflowId, includeTasks);
+        long now = System.currentTimeMillis();
+        Entry entry;
+        lock.readLock().lock();
+        try {
+            entry = memory.getIfPresent(key);
+            if (entry != null && entry.isExpired(now)) {
+                memory.invalidate(key);
+                return null;
+            }
+            if (entry == null && disk != null) {
+                entry = disk.get(key, now);
+                if (entry != null) {
+                    diskHits.increment();
+                    store(key, entry);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (entry == null) {
+            return null;
+        }
+        try {
+            return codec.fromJson(new String(entry.json, StandardCharsets.UTF_8), Workflow.class);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to read cached workflow {} - {}", workflowId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Caches a copy of the workflow if it is in a terminal status, does nothing otherwise.
+     *
+     * @param includeTasks whether the workflow was fetched with its tasks
+     */
+    public void put(Workflow workflow, boolean includeTasks) {
+        put(workflow, includeTasks, -1);
+    }
+
+    /**
+     * Caches a copy of the workflow if it is in a terminal status and has not been invalidated
+     * since the stamp was taken, does nothing otherwise.
+     *
+     * @param includeTasks whether the workflow was fetched with its tasks
+     * @param stamp value of {@link #invalidation(String)} taken before fetching the workflow
+     */
+    public void put(Workflow workflow, boolean includeTasks, long stamp) {
+        if (workflow == null || workflow.getStatus() == null || !workflow.getStatus().isTerminal()) {
+            return;
+        }
+        byte[] json;
+        try {
+            json = codec.toJson(workflow).getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to cache workflow {} - {}", workflow.getWorkflowId(), e.getMessage());
+            return;
+        }
+        long expiresAt =
+                expireAfterWriteMillis > 0
+                        ? System.currentTimeMillis() + expireAfterWriteMillis
+                        : Long.MAX_VALUE;
+        lock.readLock().lock();
+        try {
+            if (stamp >= 0 && stamp != invalidation(workflow.getWorkflowId())) {
+                // invalidated while it was fetched, the workflow may no longer be terminal
+                return;
+            }
+            store(key(workflow.getWorkflowId(), includeTasks), new Entry(json, expiresAt));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return stamp to pass to {@link #put(Workflow, boolean, long)}, changed by every invalidation
+     *     of the workflow
+     */
+    public long invalidation(String workflowId) {
+        return invalidations.get(stripe(workflowId));
+    }
+
+    public void invalidate(String workflowId) {
+        lock.writeLock().lock();
+        try {
+            invalidations.incrementAndGet(stripe(workflowId));
+            memory.invalidate(key(workflowId, true));
+            memory.invalidate(key(workflowId, false));
+            if (disk != null) {
+                disk.remove(key(workflowId, true));
+                disk.remove(key(workflowId, false));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long size() {
+        return memory.size();
+    }
+
+    public long getMemoryBytes() {
+        return memoryBytes.get();
+    }
+
+    public long getDiskBytes() {
+        return disk == null ? 0 : disk.getUsedBytes();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            memory.invalidateAll();
+            if (disk != null) {
+                disk.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void store(String key, Entry entry) {
+        memoryBytes.addAndGet(entry.json.length);
+        memory.put(key, entry);
+    }
+
+    private void evicted(RemovalNotification<String, Entry> notification) {
+        Entry entry = notification.getValue();
+        if (entry == null) {
+            return;
+        }
+        memoryBytes.addAndGet(-entry.json.length);
+        if (disk == null || notification.getCause() != RemovalCause.SIZE) {
+            return;
+        }
+        if (disk.put(notification.getKey(), entry)) {
+            diskWrites.increment();
+        }
+    }
+
+    private static int stripe(String workflowId) {
+        return Math.floorMod(workflowId.hashCode(), INVALIDATION_STRIPES);
+    }
+
+    private static String key(String workflowId, boolean includeTasks) {
+        return includeTasks ? workflowId : workflowId + "#summary";
+    }
+
+    private static class Entry {
+
+        private final byte[] json;
+
+        private final long expiresAt;
+
+        Entry(byte[] json, long expiresAt) {
+            this.json = json;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+
+    /**
+     * Memory-mapped file written as a ring. The index keeps the position of every workflow, and a
+     * queue in write order tells which workflows are overwritten when the ring wraps.
+     */
+    private static class DiskTier {
+
+        private final FileChannel channel;
+
+        private final MappedByteBuffer buffer;
+
+        private final Map<String, Slot> index = new HashMap<>();
+
+        private final ArrayDeque<Slot> written = new ArrayDeque<>();
+
+        private int position;
+
+        private long usedBytes;
+
+        DiskTier(Path file, long capacity) throws IOException {
+            Preconditions.checkArgument(capacity <= Integer.MAX_VALUE, "The disk tier cannot exceed 2 GB");
+            this.channel =
+                    FileChannel.open(
+                            file,
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.READ,
+                            StandardOpenOption.WRITE,
+                            StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+
+        synchronized boolean put(String key, Entry entry) {
+            byte[] json = entry.json;
+            if (json.length > buffer.capacity()) {
+                return false;
+            }
+            if (position + json.length > buffer.capacity()) {
+                position = 0;
+            }
+            int end = position + json.length;
+            // drop the oldest workflows overlapping the range about to be written
+            while (!written.isEmpty() && overlaps(written.peekFirst(), position, end)) {
+                Slot overwritten = written.pollFirst();
+                if (index.get(overwritten.key) == overwritten) {
+                    index.remove(overwritten.key);
+                    usedBytes -= overwritten.length;
+                }
+            }
+            ByteBuffer target = buffer.duplicate();
+            target.position(position);
+            target.put(json);
+            Slot slot = new Slot(key, position, json.length, entry.expiresAt);
+            Slot previous = index.put(key, slot);
+            if (previous != null) {
+                usedBytes -= previous.length;
+            }
+            usedBytes += json.length;
+            written.addLast(slot);
+            position = end;
+            return true;
+        }
+
+        synchronized Entry get(String key, long now) {
+            Slot slot = index.get(key);
+            if (slot == null) {
+                return null;
+            }
+            if (slot.expiresAt <= now) {
+                remove(key);
+                return null;
+            }
+            byte[] json = new byte[slot.length];
+            ByteBuffer source = buffer.duplicate();
+            source.position(slot.offset);
+            source.get(json);
+            return new Entry(json, slot.expiresAt);
+        }
+
+        synchronized void remove(String key) {
+            Slot slot = index.remove(key);
+            if (slot != null) {
+                usedBytes -= slot.length;
+            }
+        }
+
+        synchronized long getUsedBytes() {
+            return usedBytes;
+        }
+
+        synchronized void close() throws IOException {
+            index.clear();
+            written.clear();
+            usedBytes = 0;
+            channel.close();
+        }
+
+        private static boolean overlaps(Slot slot, int start, int end) {
+            return slot.offset < end && start < slot.offset + slot.length;
+        }
+
+        private static class Slot {
+
+            private final String key;
+
+            private final int offset;
+
+            private final int length;
+
+            private final long expiresAt;
+
+            Slot(String key, int offset, int length, long expiresAt) {
+                this.key = key;
+                this.offset = offset;
+                this.length = length;
+                this.expiresAt = expiresAt;
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private final JsonCodec codec;
+
+        private String name = "workflows";
+
+        private long maxBytes = 64L * 1024 * 1024;
+
+        private Path diskFile;
+
+        private long diskBytes;
+
+        private Duration expireAfterWrite;
+
+        private Builder(JsonCodec codec) {
+            Preconditions.checkNotNull(codec, "codec cannot be null");
+            this.codec = codec;
+        }
+
+        /** Name of the cache in the metrics */
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /** Maximum JSON size of the workflows kept in memory */
+        public Builder maxBytes(long maxBytes) {
+            Preconditions.checkArgument(maxBytes > 0, "maxBytes must be positive");
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * Keeps the workflows evicted from memory in a memory-mapped file, truncated when the cache
+         * is built.
+         *
+         * @param file the file backing the disk tier
+         * @param capacityBytes size of the file, at most 2 GB
+         */
+        public Builder diskTier(Path file, long capacityBytes) {
+            Preconditions.checkArgument(capacityBytes > 0, "capacityBytes must be positive");
+            this.diskFile = file;
+            this.diskBytes = capacityBytes;
+            return this;
+        }
+
+        /**
+         * Drops the workflows some time after they were cached, in memory and on disk. Terminal
+         * workflows only change when restarted, retried or rerun, which the client invalidates
+         * itself; expiring them also bounds how stale a workflow changed by another client can be.
+         * Never expire by default.
+         */
+        public Builder expireAfterWrite(Duration expireAfterWrite) {
+            Preconditions.checkArgument(
+                    expireAfterWrite.toMillis() > 0, "expireAfterWrite must be at least 1 ms");
+            this.expireAfterWrite = expireAfterWrite;
+            return this;
+        }
+
+        public TerminalWorkflowCache build() throws IOException {
+            return new TerminalWorkflowCache(this);
+        }
+    }
+}
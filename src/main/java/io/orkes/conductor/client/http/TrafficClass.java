@@ -0,0 +1,23 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+/** Kinds of HTTP traffic isolated from each other by {@link Bulkheads}. */
+public enum TrafficClass {
+    /** Task polls, including long polls holding a connection until tasks are available */
+    POLL,
+    /** Task updates, latency critical as workflows wait for them */
+    UPDATE,
+    /** Searches, metadata and queue administration, potentially slow and heavy */
+    ADMIN
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.common.run.Workflow;
+
+import io.orkes.conductor.client.model.WorkflowStatus;
+import io.orkes.conductor.common.model.WorkflowRun;
+
+/**
+ * Follows a workflow started with the execute API until it reaches a terminal state.
+ *
+ * <p>The server answers an execute request once, either with the terminal workflow or with its
+ * current state when the synchronous wait of the server expires. In the latter case the snapshot is
+ * handed to the listener and the status summary of the workflow, without its tasks, is polled until
+ * the workflow is terminal. Every summary whose status, output or variables changed is handed to
+ * the listener as a snapshot without tasks. Once terminal, the workflow is fetched once with its
+ * tasks for the terminal snapshot.
+ *
+ * <p>Failed polls are retried on the next interval when the error is transient: an I/O error, a
+ * 429 or a server error. Other errors fail the result.
+ */
+class WorkflowProgressFollower {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkflowProgressFollower.class);
+
+    private final Function<String, CompletableFuture<WorkflowStatus>> fetchSummary;
+
+    private final Function<String, CompletableFuture<Workflow>> fetchWorkflow;
+
+    private final Executor delay;
+
+    /**
+     * @param fetchSummary fetches the status summary of the workflow, with its output and variables
+     * @param fetchWorkflow fetches the workflow with its tasks
+     * @param pollInterval interval between two polls
+     */
+    WorkflowProgressFollower(
+            Function<String, CompletableFuture<WorkflowStatus>> fetchSummary,
+            Function<String, CompletableFuture<Workflow>> fetchWorkflow,
+            Duration pollInterval) {
+        this.fetchSummary = fetchSummary;
+        this.fetchWorkflow = fetchWorkflow;
+        this.delay = CompletableFuture.delayedExecutor(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param started response of the execute request
+     * @param listener receives the non-terminal snapshots
+     * @return future completed with the terminal snapshot, cancelling it stops the polling
+     */
+    CompletableFuture<WorkflowRun> follow(
+            CompletableFuture<WorkflowRun> started, Consumer<WorkflowRun> listener) {
+        Follow follow = new Follow(listener);
+        follow.current = started;
+        started.whenComplete(
+                (run, error) -> {
+                    if (error != null) {
+                        follow.result.completeExceptionally(unwrap(error));
+                    } else if (isTerminal(run.getStatus())) {
+                        follow.result.complete(run);
+                    } else {
+                        follow.workflowId = run.getWorkflowId();
+                        follow.last = run;
+                        follow.accept(run);
+                        follow.schedulePoll();
+                    }
+                });
+        follow.result.whenComplete((run, error) -> follow.current.cancel(true));
+        return follow.result;
+    }
+
+    private class Follow {
+
+        private final Consumer<WorkflowRun> listener;
+
+        private final CompletableFuture<WorkflowRun> result = new CompletableFuture<>();
+
+        private volatile CompletableFuture<?> current;
+
+        private volatile String workflowId;
+
+        /** Last snapshot handed to the listener */
+        private volatile WorkflowRun last;
+
+        /** Set once a summary is terminal, the workflow is then fetched with its tasks */
+        private volatile boolean terminal;
+
+        Follow(Consumer<WorkflowRun> listener) {
+            this.listener = listener;
+        }
+
+        void schedulePoll() {
+            if (!result.isDone()) {
+                current = CompletableFuture.runAsync(this::poll, delay);
+            }
+        }
+
+        void poll() {
+            if (result.isDone()) {
+                return;
+            }
+            CompletableFuture<?> fetched;
+            try {
+                fetched = terminal ? fetchWorkflow() : fetchSummary();
+            } catch (RuntimeException e) {
+                failed(e);
+                return;
+            }
+            current = fetched;
+            if (result.isDone()) {
+                fetched.cancel(true);
+            }
+        }
+
+        private CompletableFuture<?> fetchSummary() {
+            return fetchSummary
+                    .apply(workflowId)
+                    .whenComplete(
+                            (summary, error) -> {
+                                if (error != null) {
+                                    failed(error);
+                                    return;
+                                }
+                                WorkflowRun run = toRun(summary);
+                                if (isTerminal(run.getStatus())) {
+                                    terminal = true;
+                                    poll();
+                                    return;
+                                }
+                                if (changed(last, run)) {
+                                    last = run;
+                                    accept(run);
+                                }
+                                schedulePoll();
+                            });
+        }
+
+        private CompletableFuture<?> fetchWorkflow() {
+            return fetchWorkflow
+                    .apply(workflowId)
+                    .whenComplete(
+                            (workflow, error) -> {
+                                if (error != null) {
+                                    failed(error);
+                                } else {
+                                    result.complete(toRun(workflow));
+                                }
+                            });
+        }
+
+        private void failed(Throwable error) {
+            error = unwrap(error);
+            if (!isTransient(error)) {
+                result.completeExceptionally(error);
+                return;
+            }
+            LOGGER.debug("Failed to poll workflow {}, retrying - {}", workflowId, error.getMessage());
+            schedulePoll();
+        }
+
+        void accept(WorkflowRun run) {
+            try {
+                listener.accept(run);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Progress listener of workflow {} failed", workflowId, e);
+            }
+        }
+    }
+
+    private static boolean changed(WorkflowRun last, WorkflowRun run) {
+        return last == null
+                || last.getStatus() != run.getStatus()
+                || !Objects.equals(last.getOutput(), run.getOutput())
+                || !Objects.equals(last.getVariables(), run.getVariables());
+    }
+
+    static WorkflowRun toRun(WorkflowStatus summary) {
+        WorkflowRun run = new WorkflowRun();
+        run.setWorkflowId(summary.getWorkflowId());
+        run.setCorrelationId(summary.getCorrelationId());
+        run.setOutput(summary.getOutput());
+        run.setVariables(summary.getVariables());
+        if (summary.getStatus() != null) {
+            run.setStatus(Workflow.WorkflowStatus.valueOf(summary.getStatus().name()));
+        }
+        return run;
+    }
+
+    static WorkflowRun toRun(Workflow workflow) {
+        WorkflowRun run = new WorkflowRun();
+        run.setWorkflowId(workflow.getWorkflowId());
+        run.setCorrelationId(workflow.getCorrelationId());
+        run.setInput(workflow.getInput());
+        run.setOutput(workflow.getOutput());
+        run.setVariables(workflow.getVariables());
+        run.setTasks(workflow.getTasks());
+        run.setStatus(workflow.getStatus());
+        run.setPriority(workflow.getPriority());
+        run.setCreatedBy(workflow.getCreatedBy());
+        run.setCreateTime(workflow.getCreateTime());
+        run.setUpdateTime(workflow.getUpdateTime());
+        return run;
+    }
+
+    private static boolean isTerminal(Workflow.WorkflowStatus status) {
+        return status != null && status.isTerminal();
+    }
+
+    private static boolean isTransient(Throwable error) {
+        if (error instanceof IOException) {
+            return true;
+        }
+        if (!(error instanceof ApiException)) {
+            return false;
+        }
+        int code = ((ApiException) error).getCode();
+        // code 0 is an I/O error
+        return code == 0 || code == 429 || code >= 500;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
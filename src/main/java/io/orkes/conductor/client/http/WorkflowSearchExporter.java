@@ -0,0 +1,459 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.common.run.WorkflowSummary;
+
+import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.codec.JsonCodec;
+import io.orkes.conductor.client.http.api.WorkflowResourceApi;
+import io.orkes.conductor.client.model.ScrollableSearchResultWorkflowSummary;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Exports the workflows matching a search to a gzip compressed NDJSON file, one {@link
+ * WorkflowSummary} per line.
+ *
+ * <p>Instead of paginating deeper and deeper into a single search, the time range is split into
+ * slices on the workflow start time which are searched concurrently. A slice matching more than
+ * {@code maxHitsPerSlice} workflows is split in two and each half searched again, so no search
+ * ever pages past {@code maxHitsPerSlice} results.
+ *
+ * <p>Every completed slice is appended to the output as a separate gzip member (concatenated
+ * members are a valid gzip file) and recorded in the checkpoint file together with the size of
+ * the output after it. An interrupted export started again with the same checkpoint file
+ * truncates the output to the last completed slice and only searches the slices not exported yet.
+ */
+public class WorkflowSearchExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkflowSearchExporter.class);
+
+    private static final String SORT = "startTime:ASC";
+
+    private final WorkflowResourceApi workflowResourceApi;
+
+    private final JsonCodec codec;
+
+    private final long from;
+
+    private final long to;
+
+    private final String query;
+
+    private final String freeText;
+
+    private final long sliceMillis;
+
+    private final int maxHitsPerSlice;
+
+    private final int pageSize;
+
+    private final int concurrency;
+
+    private final Path checkpointFile;
+
+    private WorkflowSearchExporter(Builder builder) {
+        this.workflowResourceApi = new WorkflowResourceApi(builder.apiClient);
+        this.codec = builder.apiClient.getJsonCodec();
+        this.from = builder.from;
+        this.to = builder.to;
+        this.query = builder.query;
+        this.freeText = builder.freeText;
+        this.sliceMillis = builder.slice.toMillis();
+        this.maxHitsPerSlice = builder.maxHitsPerSlice;
+        this.pageSize = builder.pageSize;
+        this.concurrency = builder.concurrency;
+        this.checkpointFile = builder.checkpointFile;
+    }
+
+    /**
+     * @param apiClient client used for the searches
+     * @param from start of the time range in epoch millis, inclusive
+     * @param to end of the time range in epoch millis, exclusive
+     */
+    public static Builder builder(ApiClient apiClient, long from, long to) {
+        return new Builder(apiClient, from, to);
+    }
+
+    /**
+     * Exports the workflows to the file, resuming from the checkpoint file if one is configured
+     * and exists.
+     *
+     * @param output file the NDJSON is written to
+     * @return summary of the export
+     * @throws IOException if the output or the checkpoint cannot be written
+     * @throws ApiException if a search fails
+     */
+    public Result export(Path output) throws IOException {
+        List<long[]> done = new ArrayList<>();
+        long validLength = 0;
+        long resumedRecords = 0;
+        if (checkpointFile != null && Files.exists(checkpointFile)) {
+            for (String line : Files.readAllLines(checkpointFile, StandardCharsets.UTF_8)) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                done.add(new long[] {Long.parseLong(fields[0]), Long.parseLong(fields[1])});
+                resumedRecords += Long.parseLong(fields[2]);
+                validLength = Math.max(validLength, Long.parseLong(fields[3]));
+            }
+        }
+        try (FileChannel out =
+                        FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileChannel checkpoint = openCheckpoint()) {
+            if (out.size() < validLength) {
+                throw new IllegalStateException(
+                        "Output " + output + " is shorter than recorded in the checkpoint " + checkpointFile);
+            }
+            // drops whatever was written after the last completed slice
+            out.truncate(validLength);
+            out.position(validLength);
+            Run run = new Run(out, checkpoint, resumedRecords);
+            List<long[]> pending = pendingSlices(done);
+            if (!done.isEmpty()) {
+                LOGGER.info(
+                        "Resuming export to {}, {} slices done, {} to go", output, done.size(), pending.size());
+            }
+            run.execute(pending);
+            return new Result(run.records.get(), run.slices.get(), run.splits.get(), done.size());
+        }
+    }
+
+    private FileChannel openCheckpoint() throws IOException {
+        if (checkpointFile == null) {
+            return null;
+        }
+        return FileChannel.open(
+                checkpointFile,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /** The parts of the time range not covered by the completed slices, cut in initial slices */
+    private List<long[]> pendingSlices(List<long[]> done) {
+        done.sort((a, b) -> Long.compare(a[0], b[0]));
+        List<long[]> pending = new ArrayList<>();
+        long cursor = from;
+        for (long[] slice : done) {
+            addSlices(pending, cursor, Math.max(cursor, slice[0]));
+            cursor = Math.max(cursor, slice[1]);
+        }
+        addSlices(pending, cursor, to);
+        return pending;
+    }
+
+    private void addSlices(List<long[]> slices, long start, long end) {
+        for (long s = start; s < end; s += sliceMillis) {
+            slices.add(new long[] {s, Math.min(end, s + sliceMillis)});
+        }
+    }
+
+    private String sliceQuery(long start, long end) {
+        String range = "startTime > " + (start - 1) + " AND startTime < " + end;
+        return query == null || query.isEmpty() ? range : "(" + query + ") AND " + range;
+    }
+
+    private ScrollableSearchResultWorkflowSummary search(String queryId, int start, String sliceQuery) {
+        return workflowResourceApi.search(queryId, start, pageSize, SORT, freeText, sliceQuery, null);
+    }
+
+    /** State of a single export */
+    private class Run {
+
+        private final FileChannel out;
+
+        private final FileChannel checkpoint;
+
+        private final AtomicLong records;
+
+        private final AtomicInteger slices = new AtomicInteger();
+
+        private final AtomicInteger splits = new AtomicInteger();
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        private final ExecutorService executor;
+
+        Run(FileChannel out, FileChannel checkpoint, long resumedRecords) {
+            this.out = out;
+            this.checkpoint = checkpoint;
+            this.records = new AtomicLong(resumedRecords);
+            this.executor =
+                    Executors.newFixedThreadPool(
+                            concurrency,
+                            new ThreadFactoryBuilder()
+                                    .setNameFormat("workflow-export-%d")
+                                    .setDaemon(true)
+                                    .build());
+        }
+
+        void execute(List<long[]> pending) throws IOException {
+            if (pending.isEmpty()) {
+                executor.shutdown();
+                return;
+            }
+            // keeps the count above zero until every initial slice is submitted
+            outstanding.incrementAndGet();
+            for (long[] slice : pending) {
+                submit(slice[0], slice[1]);
+            }
+            finished();
+            try {
+                completion.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while exporting workflows", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private void submit(long start, long end) {
+            outstanding.incrementAndGet();
+            executor.execute(
+                    () -> {
+                        try {
+                            if (!completion.isDone()) {
+                                exportSlice(start, end);
+                            }
+                        } catch (Throwable t) {
+                            completion.completeExceptionally(t);
+                        } finally {
+                            finished();
+                        }
+                    });
+        }
+
+        private void finished() {
+            if (outstanding.decrementAndGet() == 0) {
+                completion.complete(null);
+            }
+        }
+
+        private void exportSlice(long start, long end) throws IOException {
+            String sliceQuery = sliceQuery(start, end);
+            ScrollableSearchResultWorkflowSummary page = search(null, 0, sliceQuery);
+            long totalHits = page.getTotalHits();
+            if (totalHits > maxHitsPerSlice) {
+                if (end - start > 1) {
+                    long middle = start + (end - start) / 2;
+                    splits.incrementAndGet();
+                    submit(start, middle);
+                    submit(middle, end);
+                    return;
+                }
+                LOGGER.warn(
+                        "{} workflows started at {}, paging past maxHitsPerSlice {}",
+                        totalHits, start, maxHitsPerSlice);
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            long count = 0;
+            try (Writer writer =
+                    new OutputStreamWriter(new GZIPOutputStream(buffer), StandardCharsets.UTF_8)) {
+                while (true) {
+                    List<WorkflowSummary> results = page.getResults();
+                    if (results == null || results.isEmpty()) {
+                        break;
+                    }
+                    for (WorkflowSummary summary : results) {
+                        codec.write(summary, writer);
+                        writer.write('\n');
+                    }
+                    count += results.size();
+                    if (results.size() < pageSize || count >= totalHits) {
+                        break;
+                    }
+                    page = search(page.getQueryId(), (int) count, sliceQuery);
+                }
+            }
+            append(start, end, count, count > 0 ? buffer.toByteArray() : new byte[0]);
+        }
+
+        /** Appends the compressed slice to the output and records it in the checkpoint */
+        private synchronized void append(long start, long end, long count, byte[] member)
+                throws IOException {
+            ByteBuffer data = ByteBuffer.wrap(member);
+            while (data.hasRemaining()) {
+                out.write(data);
+            }
+            records.addAndGet(count);
+            slices.incrementAndGet();
+            if (checkpoint != null) {
+                out.force(false);
+                String line = start + "\t" + end + "\t" + count + "\t" + out.position() + "\n";
+                ByteBuffer entry = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+                while (entry.hasRemaining()) {
+                    checkpoint.write(entry);
+                }
+                checkpoint.force(false);
+            }
+        }
+    }
+
+    /** Summary of an export */
+    public static class Result {
+
+        private final long records;
+
+        private final int slices;
+
+        private final int splits;
+
+        private final int resumedSlices;
+
+        Result(long records, int slices, int splits, int resumedSlices) {
+            this.records = records;
+            this.slices = slices;
+            this.splits = splits;
+            this.resumedSlices = resumedSlices;
+        }
+
+        /** @return number of workflows in the output, including the ones exported before a resume */
+        public long getRecords() {
+            return records;
+        }
+
+        /** @return number of slices exported by this run */
+        public int getSlices() {
+            return slices;
+        }
+
+        /** @return number of slices that were split because they matched too many workflows */
+        public int getSplits() {
+            return splits;
+        }
+
+        /** @return number of slices found in the checkpoint and skipped */
+        public int getResumedSlices() {
+            return resumedSlices;
+        }
+    }
+
+    public static class Builder {
+
+        private final ApiClient apiClient;
+
+        private final long from;
+
+        private final long to;
+
+        private String query;
+
+        private String freeText = "*";
+
+        private Duration slice = Duration.ofHours(1);
+
+        private int maxHitsPerSlice = 10_000;
+
+        private int pageSize = 1_000;
+
+        private int concurrency = 4;
+
+        private Path checkpointFile;
+
+        private Builder(ApiClient apiClient, long from, long to) {
+            Preconditions.checkNotNull(apiClient, "apiClient cannot be null");
+            Preconditions.checkArgument(from < to, "from must be before to");
+            this.apiClient = apiClient;
+            this.from = from;
+            this.to = to;
+        }
+
+        /** Additional search query, combined with the time range of every slice */
+        public Builder query(String query) {
+            this.query = query;
+            return this;
+        }
+
+        public Builder freeText(String freeText) {
+            this.freeText = freeText;
+            return this;
+        }
+
+        /** Initial length of the slices, before any splitting */
+        public Builder slice(Duration slice) {
+            Preconditions.checkArgument(slice.toMillis() > 0, "slice must be at least 1 ms");
+            this.slice = slice;
+            return this;
+        }
+
+        /** Slices matching more workflows than this are split */
+        public Builder maxHitsPerSlice(int maxHitsPerSlice) {
+            Preconditions.checkArgument(maxHitsPerSlice > 0, "maxHitsPerSlice must be positive");
+            this.maxHitsPerSlice = maxHitsPerSlice;
+            return this;
+        }
+
+        public Builder pageSize(int pageSize) {
+            Preconditions.checkArgument(pageSize > 0, "pageSize must be positive");
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /** Number of slices searched at the same time */
+        public Builder concurrency(int concurrency) {
+            Preconditions.checkArgument(concurrency > 0, "concurrency must be positive");
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /** File recording the completed slices, used to resume an interrupted export */
+        public Builder checkpointFile(Path checkpointFile) {
+            this.checkpointFile = checkpointFile;
+            return this;
+        }
+
+        public WorkflowSearchExporter build() {
+            return new WorkflowSearchExporter(this);
+        }
+    }
+}
@@ -0,0 +1,449 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.common.run.Workflow;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Spectator;
+import com.netflix.spectator.api.patterns.PolledMeter;
+
+import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.http.api.WorkflowResourceApi;
+import io.orkes.conductor.client.model.WorkflowStatus;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Waits for many workflows to complete with a single poller.
+ *
+ * <p>Every watched workflow gets a future completed with its status once the workflow reaches a
+ * terminal status. Watching the same workflow twice polls it once, but every caller gets its own
+ * future: cancelling it only stops watching the workflow once every caller has cancelled. All the
+ * workflows are polled from one scheduler thread with a bounded number of lookups in flight, so the
+ * load on the server depends on the watcher and not on the number of waiting callers.
+ *
+ * <p>The polling interval of a workflow grows with its age, from {@code minInterval} for workflows
+ * just started up to {@code maxInterval}: a workflow that has been running for long is unlikely to
+ * complete in the next second. Workflows watched with their name and correlation id are looked up
+ * in batches, one request per workflow name for up to {@code batchSize} correlation ids; the other
+ * workflows are looked up one by one. A workflow missing from {@value #MAX_BATCH_MISSES} batch
+ * responses in a row, e.g. because it was watched with the wrong correlation id, is looked up by
+ * id from then on, so a workflow that does not exist fails instead of being polled forever. The
+ * status summary of a single lookup has no start time, so the age of those workflows is counted
+ * from the time they were first watched.
+ */
+public class WorkflowStatusWatcher implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkflowStatusWatcher.class);
+
+    private static final Registry REGISTRY = Spectator.globalRegistry();
+
+    private static final Type WORKFLOWS_BY_CORRELATION_ID_TYPE =
+            new TypeToken<Map<String, List<Workflow>>>() {}.getType();
+
+    /** Share of its age a workflow waits between two polls */
+    private static final int AGE_DIVISOR = 10;
+
+    /** Consecutive batch responses without a workflow after which it is looked up by id */
+    static final int MAX_BATCH_MISSES = 3;
+
+    private final ApiClient apiClient;
+
+    private final WorkflowResourceApi workflowResourceApi;
+
+    private final long minIntervalMillis;
+
+    private final long maxIntervalMillis;
+
+    private final int batchSize;
+
+    private final Semaphore lookups;
+
+    private final Map<String, Watch> watches = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter singleLookups;
+
+    private final Counter batchLookups;
+
+    private final Counter lookupErrors;
+
+    private WorkflowStatusWatcher(Builder builder) {
+        this.apiClient = builder.apiClient;
+        this.workflowResourceApi = new WorkflowResourceApi(builder.apiClient);
+        this.minIntervalMillis = builder.minInterval.toMillis();
+        this.maxIntervalMillis = builder.maxInterval.toMillis();
+        this.batchSize = builder.batchSize;
+        this.lookups = new Semaphore(builder.maxConcurrentLookups);
+        this.scheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("workflow-status-watcher-%d")
+                                .setDaemon(true)
+                                .build());
+        this.singleLookups = REGISTRY.counter("workflow_watcher_lookups", "type", "single");
+        this.batchLookups = REGISTRY.counter("workflow_watcher_lookups", "type", "batch");
+        this.lookupErrors = REGISTRY.counter("workflow_watcher_lookup_errors");
+        PolledMeter.using(REGISTRY)
+                .withName("workflow_watcher_watched")
+                .monitorValue(this, WorkflowStatusWatcher::getWatchedCount);
+        scheduler.scheduleWithFixedDelay(
+                this::poll, minIntervalMillis, minIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static Builder builder(ApiClient apiClient) {
+        return new Builder(apiClient);
+    }
+
+    /**
+     * Watches a workflow looked up by id.
+     *
+     * @param workflowId id of the workflow
+     * @return future completed with the status of the workflow once it is terminal. Cancelling it
+     *     stops watching the workflow unless other callers still watch it.
+     */
+    public CompletableFuture<WorkflowStatus> watch(String workflowId) {
+        return watch(workflowId, null, null);
+    }
+
+    /**
+     * Watches a workflow looked up in batches by workflow name and correlation id.
+     *
+     * @param workflowId id of the workflow
+     * @param workflowName name of the workflow
+     * @param correlationId correlation id the workflow was started with
+     * @return future completed with the status of the workflow once it is terminal. Cancelling it
+     *     stops watching the workflow unless other callers still watch it.
+     */
+    public CompletableFuture<WorkflowStatus> watch(
+            String workflowId, String workflowName, String correlationId) {
+        Preconditions.checkNotNull(workflowId, "workflowId cannot be null");
+        Preconditions.checkState(!scheduler.isShutdown(), "The watcher is closed");
+        while (true) {
+            Watch watch =
+                    watches.computeIfAbsent(
+                            workflowId, id -> newWatch(id, workflowName, correlationId));
+            CompletableFuture<WorkflowStatus> caller = watch.join();
+            if (caller != null) {
+                return caller;
+            }
+            // the last caller cancelled this watch in the meantime, start a new one
+            watches.remove(workflowId, watch);
+        }
+    }
+
+    private Watch newWatch(String workflowId, String workflowName, String correlationId) {
+        Watch watch = new Watch(workflowId, workflowName, correlationId);
+        watch.future.whenComplete((status, error) -> watches.remove(workflowId, watch));
+        return watch;
+    }
+
+    public int getWatchedCount() {
+        return watches.size();
+    }
+
+    /** Stops polling and cancels the futures of the workflows still watched. */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (Watch watch : new ArrayList<>(watches.values())) {
+            watch.future.completeExceptionally(new CancellationException("The watcher is closed"));
+        }
+    }
+
+    private void poll() {
+        try {
+            long now = System.currentTimeMillis();
+            Map<String, List<Watch>> byName = new HashMap<>();
+            for (Watch watch : watches.values()) {
+                if (watch.polling || now < watch.nextPollAt) {
+                    continue;
+                }
+                if (watch.workflowName != null && watch.correlationId != null && !watch.lookUpById) {
+                    byName.computeIfAbsent(watch.workflowName, name -> new ArrayList<>()).add(watch);
+                } else if (lookups.tryAcquire()) {
+                    lookup(watch);
+                }
+            }
+            for (Map.Entry<String, List<Watch>> entry : byName.entrySet()) {
+                for (List<Watch> batch : Lists.partition(entry.getValue(), batchSize)) {
+                    if (!lookups.tryAcquire()) {
+                        // the remaining workflows are still due on the next poll
+                        return;
+                    }
+                    lookup(entry.getKey(), batch);
+                }
+            }
+        } catch (Throwable t) {
+            LOGGER.error("Error polling the watched workflows", t);
+        }
+    }
+
+    private void lookup(Watch watch) {
+        watch.polling = true;
+        singleLookups.increment();
+        CompletableFuture<WorkflowStatus> lookup;
+        try {
+            lookup = workflowResourceApi.getWorkflowStatusSummaryAsync(watch.workflowId, true, true);
+        } catch (Throwable t) {
+            lookup = new CompletableFuture<>();
+            lookup.completeExceptionally(t);
+        }
+        lookup.whenComplete(
+                (status, error) -> {
+                    try {
+                        if (error != null) {
+                            failed(watch, error);
+                        } else {
+                            update(watch, status);
+                        }
+                    } finally {
+                        lookups.release();
+                    }
+                });
+    }
+
+    private void lookup(String workflowName, List<Watch> batch) {
+        List<String> correlationIds = new ArrayList<>(batch.size());
+        for (Watch watch : batch) {
+            watch.polling = true;
+            correlationIds.add(watch.correlationId);
+        }
+        batchLookups.increment();
+        CompletableFuture<Map<String, List<Workflow>>> lookup;
+        try {
+            lookup =
+                    apiClient.executeAsync(
+                            workflowResourceApi.getWorkflowsCall(
+                                    correlationIds, workflowName, true, false, null, null),
+                            WORKFLOWS_BY_CORRELATION_ID_TYPE);
+        } catch (Throwable t) {
+            lookup = new CompletableFuture<>();
+            lookup.completeExceptionally(t);
+        }
+        lookup.whenComplete(
+                (workflows, error) -> {
+                    try {
+                        for (Watch watch : batch) {
+                            if (error != null) {
+                                failed(watch, error);
+                            } else {
+                                update(watch, found(watch, find(workflows, watch)));
+                            }
+                        }
+                    } finally {
+                        lookups.release();
+                    }
+                });
+    }
+
+    private static WorkflowStatus find(Map<String, List<Workflow>> workflows, Watch watch) {
+        List<Workflow> correlated = workflows == null ? null : workflows.get(watch.correlationId);
+        if (correlated == null) {
+            return null;
+        }
+        for (Workflow workflow : correlated) {
+            if (watch.workflowId.equals(workflow.getWorkflowId())) {
+                if (workflow.getStartTime() > 0) {
+                    watch.startedAt = workflow.getStartTime();
+                }
+                return new WorkflowStatus()
+                        .workflowId(workflow.getWorkflowId())
+                        .correlationId(workflow.getCorrelationId())
+                        .status(WorkflowStatus.StatusEnum.fromValue(workflow.getStatus().name()))
+                        .output(workflow.getOutput())
+                        .variables(workflow.getVariables());
+            }
+        }
+        return null;
+    }
+
+    /** Counts the batch responses missing the workflow, and switches it to lookups by id */
+    private WorkflowStatus found(Watch watch, WorkflowStatus status) {
+        if (status != null) {
+            watch.batchMisses = 0;
+        } else if (++watch.batchMisses >= MAX_BATCH_MISSES) {
+            LOGGER.debug(
+                    "Workflow {} missing from {} batch lookups, looking it up by id",
+                    watch.workflowId, watch.batchMisses);
+            watch.lookUpById = true;
+        }
+        return status;
+    }
+
+    private void update(Watch watch, WorkflowStatus status) {
+        if (status != null && isTerminal(status.getStatus())) {
+            watch.future.complete(status);
+            return;
+        }
+        reschedule(watch);
+    }
+
+    private void failed(Watch watch, Throwable error) {
+        lookupErrors.increment();
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof ApiException && ((ApiException) error).getCode() == 404) {
+            watch.future.completeExceptionally(error);
+            return;
+        }
+        LOGGER.debug("Failed to look up workflow {} - {}", watch.workflowId, error.getMessage());
+        reschedule(watch);
+    }
+
+    private void reschedule(Watch watch) {
+        long now = System.currentTimeMillis();
+        long interval = (now - watch.startedAt) / AGE_DIVISOR;
+        watch.nextPollAt = now + Math.max(minIntervalMillis, Math.min(maxIntervalMillis, interval));
+        watch.polling = false;
+    }
+
+    private static boolean isTerminal(WorkflowStatus.StatusEnum status) {
+        return status != null
+                && status != WorkflowStatus.StatusEnum.RUNNING
+                && status != WorkflowStatus.StatusEnum.PAUSED;
+    }
+
+    private static class Watch {
+
+        private final CompletableFuture<WorkflowStatus> future = new CompletableFuture<>();
+
+        private final String workflowId;
+
+        private final String workflowName;
+
+        private final String correlationId;
+
+        /** Time the workflow was first watched, until a lookup returns its start time */
+        private volatile long startedAt = System.currentTimeMillis();
+
+        /** Due right away, the workflow may have completed already */
+        private volatile long nextPollAt;
+
+        private volatile boolean polling;
+
+        /** Consecutive batch responses without the workflow, updated by one lookup at a time */
+        private volatile int batchMisses;
+
+        private volatile boolean lookUpById;
+
+        /** Callers whose future is not cancelled, guarded by this */
+        private int callers;
+
+        Watch(String workflowId, String workflowName, String correlationId) {
+            this.workflowId = workflowId;
+            this.workflowName = workflowName;
+            this.correlationId = correlationId;
+        }
+
+        /**
+         * @return a future of its own for a new caller, or null if the watch was cancelled by its
+         *     last caller
+         */
+        synchronized CompletableFuture<WorkflowStatus> join() {
+            if (future.isCancelled()) {
+                return null;
+            }
+            callers++;
+            CompletableFuture<WorkflowStatus> caller = future.copy();
+            caller.whenComplete(
+                    (status, error) -> {
+                        if (caller.isCancelled()) {
+                            leave();
+                        }
+                    });
+            return caller;
+        }
+
+        private synchronized void leave() {
+            if (--callers == 0) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private final ApiClient apiClient;
+
+        private Duration minInterval = Duration.ofSeconds(1);
+
+        private Duration maxInterval = Duration.ofSeconds(30);
+
+        private int batchSize = 100;
+
+        private int maxConcurrentLookups = 16;
+
+        private Builder(ApiClient apiClient) {
+            Preconditions.checkNotNull(apiClient, "apiClient cannot be null");
+            this.apiClient = apiClient;
+        }
+
+        /** Interval between the polls of a workflow just watched, and period of the poller */
+        public Builder minInterval(Duration minInterval) {
+            Preconditions.checkArgument(minInterval.toMillis() > 0, "minInterval must be at least 1 ms");
+            this.minInterval = minInterval;
+            return this;
+        }
+
+        /** Longest interval between two polls of a workflow, however old */
+        public Builder maxInterval(Duration maxInterval) {
+            this.maxInterval = maxInterval;
+            return this;
+        }
+
+        /** Maximum number of correlation ids looked up in a single request */
+        public Builder batchSize(int batchSize) {
+            Preconditions.checkArgument(batchSize > 0, "batchSize must be positive");
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /** Maximum number of lookups in flight, single or batched */
+        public Builder maxConcurrentLookups(int maxConcurrentLookups) {
+            Preconditions.checkArgument(maxConcurrentLookups > 0, "maxConcurrentLookups must be positive");
+            this.maxConcurrentLookups = maxConcurrentLookups;
+            return this;
+        }
+
+        public WorkflowStatusWatcher build() {
+            Preconditions.checkArgument(
+                    maxInterval.compareTo(minInterval) >= 0, "maxInterval cannot be less than minInterval");
+            return new WorkflowStatusWatcher(this);
+        }
+    }
+}
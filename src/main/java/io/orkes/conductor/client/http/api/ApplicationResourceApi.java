@@ -12,7 +12,6 @@
  */
 package io.orkes.conductor.client.http.api;
 
-import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -87,29 +86,6 @@ public class ApplicationResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -120,6 +96,7 @@ public class ApplicationResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -209,29 +186,6 @@ public class ApplicationResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -242,6 +196,7 @@ public class ApplicationResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -323,29 +278,6 @@ public class ApplicationResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -356,6 +288,7 @@ public class ApplicationResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -453,29 +386,6 @@ public class ApplicationResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -486,6 +396,7 @@ public class ApplicationResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -579,29 +490,6 @@ public class ApplicationResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -612,6 +500,7 @@ public class ApplicationResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -694,29 +583,6 @@ public class ApplicationResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -727,6 +593,7 @@ public class ApplicationResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -812,29 +679,6 @@ public class ApplicationResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -845,6 +689,7 @@ public class ApplicationResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -926,29 +771,6 @@ public class ApplicationResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -959,6 +781,7 @@ public class ApplicationResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1042,29 +865,6 @@ public class ApplicationResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1075,6 +875,7 @@ public class ApplicationResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1171,29 +972,6 @@ public class ApplicationResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1204,6 +982,7 @@ public class ApplicationResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1302,29 +1081,6 @@ public class ApplicationResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1335,6 +1091,7 @@ public class ApplicationResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
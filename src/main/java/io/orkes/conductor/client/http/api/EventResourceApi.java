@@ -12,12 +12,12 @@
  */
 package io.orkes.conductor.client.http.api;
 
-import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.netflix.conductor.common.metadata.events.EventHandler;
 
@@ -27,6 +27,9 @@ import io.orkes.conductor.client.http.*;
 import com.google.gson.reflect.TypeToken;
 
 public class EventResourceApi {
+    private static final Type LIST_EVENT_HANDLER_TYPE =
+            new TypeToken<List<EventHandler>>() {}.getType();
+
     private ApiClient apiClient;
 
     public EventResourceApi() {
@@ -80,29 +83,6 @@ public class EventResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -113,6 +93,7 @@ public class EventResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -202,29 +183,6 @@ public class EventResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -235,6 +193,7 @@ public class EventResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -326,29 +285,6 @@ public class EventResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -359,6 +295,7 @@ public class EventResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -440,29 +377,6 @@ public class EventResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -473,6 +387,7 @@ public class EventResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -528,6 +443,20 @@ public class EventResourceApi {
         return apiClient.execute(call, localVarReturnType);
     }
 
+    /**
+     * Asynchronous variant of {@link #getEventHandlersForEvent(String, Boolean)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public CompletableFuture<List<EventHandler>> getEventHandlersForEventAsync(
+            String event, Boolean activeOnly)
+            throws ApiException {
+        com.squareup.okhttp.Call call =
+                getEventHandlersForEventValidateBeforeCall(event, activeOnly, null, null);
+        return apiClient.executeAsync(call, LIST_EVENT_HANDLER_TYPE);
+    }
+
     /**
      * Build call for getQueueConfig
      *
@@ -572,29 +501,6 @@ public class EventResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -605,6 +511,7 @@ public class EventResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -695,29 +602,6 @@ public class EventResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -728,6 +612,7 @@ public class EventResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -812,29 +697,6 @@ public class EventResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -845,6 +707,7 @@ public class EventResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -951,29 +814,6 @@ public class EventResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -984,6 +824,7 @@ public class EventResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1065,29 +906,6 @@ public class EventResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1098,6 +916,7 @@ public class EventResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -12,12 +12,12 @@
  */
 package io.orkes.conductor.client.http.api;
 
-import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
@@ -28,6 +28,12 @@ import io.orkes.conductor.client.http.*;
 import com.google.gson.reflect.TypeToken;
 
 public class MetadataResourceApi {
+    private static final Type WORKFLOW_DEF_TYPE = new TypeToken<WorkflowDef>() {}.getType();
+    private static final Type LIST_WORKFLOW_DEF_TYPE =
+            new TypeToken<List<WorkflowDef>>() {}.getType();
+    private static final Type TASK_DEF_TYPE = new TypeToken<TaskDef>() {}.getType();
+    private static final Type LIST_TASK_DEF_TYPE = new TypeToken<List<TaskDef>>() {}.getType();
+
     private ApiClient apiClient;
 
     public MetadataResourceApi() {
@@ -85,29 +91,6 @@ public class MetadataResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -118,6 +101,7 @@ public class MetadataResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -213,29 +197,6 @@ public class MetadataResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -246,6 +207,7 @@ public class MetadataResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -295,10 +257,22 @@ public class MetadataResourceApi {
     private ApiResponse<WorkflowDef> getWithHttpInfo(String name, Integer version, Boolean metadata)
             throws ApiException {
         com.squareup.okhttp.Call call = getValidateBeforeCall(name, version, metadata, null, null);
-        Type localVarReturnType = new TypeToken<WorkflowDef>() {}.getType();
+        Type localVarReturnType = WORKFLOW_DEF_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
+    /**
+     * Asynchronous variant of {@link #get(String, Integer, Boolean)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public CompletableFuture<WorkflowDef> getAsync(String name, Integer version, Boolean metadata)
+            throws ApiException {
+        com.squareup.okhttp.Call call = getValidateBeforeCall(name, version, metadata, null, null);
+        return apiClient.executeAsync(call, WORKFLOW_DEF_TYPE);
+    }
+
     /**
      * Build call for getAllWorkflows
      *
@@ -346,29 +320,6 @@ public class MetadataResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -379,6 +330,7 @@ public class MetadataResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -436,7 +388,7 @@ public class MetadataResourceApi {
             String access, Boolean metadata, String tagKey, String tagValue) throws ApiException {
         com.squareup.okhttp.Call call =
                 getAllWorkflowsValidateBeforeCall(access, metadata, tagKey, tagValue, null, null);
-        Type localVarReturnType = new TypeToken<List<WorkflowDef>>() {}.getType();
+        Type localVarReturnType = LIST_WORKFLOW_DEF_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -483,29 +435,6 @@ public class MetadataResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -516,6 +445,7 @@ public class MetadataResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -564,10 +494,23 @@ public class MetadataResourceApi {
             throws ApiException {
         com.squareup.okhttp.Call call =
                 getTaskDefValidateBeforeCall(tasktype, metadata, null, null);
-        Type localVarReturnType = new TypeToken<TaskDef>() {}.getType();
+        Type localVarReturnType = TASK_DEF_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
+    /**
+     * Asynchronous variant of {@link #getTaskDef(String, Boolean)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public CompletableFuture<TaskDef> getTaskDefAsync(String tasktype, Boolean metadata)
+            throws ApiException {
+        com.squareup.okhttp.Call call =
+                getTaskDefValidateBeforeCall(tasktype, metadata, null, null);
+        return apiClient.executeAsync(call, TASK_DEF_TYPE);
+    }
+
     /**
      * Build call for getTaskDefs
      *
@@ -615,29 +558,6 @@ public class MetadataResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -648,6 +568,7 @@ public class MetadataResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -705,7 +626,7 @@ public class MetadataResourceApi {
             String access, Boolean metadata, String tagKey, String tagValue) throws ApiException {
         com.squareup.okhttp.Call call =
                 getTaskDefsValidateBeforeCall(access, metadata, tagKey, tagValue, null, null);
-        Type localVarReturnType = new TypeToken<List<TaskDef>>() {}.getType();
+        Type localVarReturnType = LIST_TASK_DEF_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -744,29 +665,6 @@ public class MetadataResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -777,6 +675,7 @@ public class MetadataResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -862,29 +761,6 @@ public class MetadataResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -895,6 +771,7 @@ public class MetadataResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -982,29 +859,6 @@ public class MetadataResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1015,6 +869,7 @@ public class MetadataResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1108,29 +963,6 @@ public class MetadataResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1141,6 +973,7 @@ public class MetadataResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1225,29 +1058,6 @@ public class MetadataResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1258,6 +1068,7 @@ public class MetadataResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -12,12 +12,12 @@
  */
 package io.orkes.conductor.client.http.api;
 
-import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.netflix.conductor.common.metadata.tasks.PollData;
 import com.netflix.conductor.common.metadata.tasks.Task;
@@ -33,6 +33,47 @@ import io.orkes.conductor.client.model.SearchResultTaskSummary;
 import com.google.gson.reflect.TypeToken;
 
 public class TaskResourceApi {
+    private static final Type MAP_STRING_LONG_TYPE =
+            new TypeToken<Map<String, Long>>() {}.getType();
+    private static final Type MAP_STRING_MAP_STRING_MAP_STRING_LONG_TYPE =
+            new TypeToken<Map<String, Map<String, Map<String, Long>>>>() {}.getType();
+    private static final Type LIST_TASK_TYPE = new TypeToken<List<Task>>() {}.getType();
+    private static final Type LIST_POLL_DATA_TYPE = new TypeToken<List<PollData>>() {}.getType();
+    private static final Type EXTERNAL_STORAGE_LOCATION_TYPE =
+            new TypeToken<ExternalStorageLocation>() {}.getType();
+    private static final Type TASK_TYPE = new TypeToken<Task>() {}.getType();
+    private static final Type LIST_TASK_EXEC_LOG_TYPE =
+            new TypeToken<List<TaskExecLog>>() {}.getType();
+    private static final Type STRING_TYPE = new TypeToken<String>() {}.getType();
+    private static final Type SEARCH_RESULT_TASK_SUMMARY_TYPE =
+            new TypeToken<SearchResultTaskSummary>() {}.getType();
+    private static final Type SEARCH_RESULT_TASK_TYPE =
+            new TypeToken<SearchResultTask>() {}.getType();
+    private static final Type MAP_STRING_INTEGER_TYPE =
+            new TypeToken<Map<String, Integer>>() {}.getType();
+
+    private static final EndpointDescriptor BATCH_POLL =
+            EndpointDescriptor.builder("GET", "/tasks/poll/batch/{tasktype}")
+                    .accepts("*/*")
+                    .authNames("api_key")
+                    .returnType(LIST_TASK_TYPE)
+                    .build();
+
+    private static final EndpointDescriptor GET_TASK =
+            EndpointDescriptor.builder("GET", "/tasks/{taskId}")
+                    .accepts("*/*")
+                    .authNames("api_key")
+                    .returnType(TASK_TYPE)
+                    .build();
+
+    private static final EndpointDescriptor UPDATE_TASK =
+            EndpointDescriptor.builder("POST", "/tasks")
+                    .accepts("text/plain")
+                    .contentTypes("application/json")
+                    .authNames("api_key")
+                    .returnType(STRING_TYPE)
+                    .build();
+
     private ApiClient apiClient;
 
     public TaskResourceApi() {
@@ -84,29 +125,6 @@ public class TaskResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -117,6 +135,7 @@ public class TaskResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -151,7 +170,7 @@ public class TaskResourceApi {
      */
     private ApiResponse<Map<String, Long>> allWithHttpInfo() throws ApiException {
         com.squareup.okhttp.Call call = allValidateBeforeCall(null, null);
-        Type localVarReturnType = new TypeToken<Map<String, Long>>() {}.getType();
+        Type localVarReturnType = MAP_STRING_LONG_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -188,29 +207,6 @@ public class TaskResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -221,6 +217,7 @@ public class TaskResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -256,8 +253,7 @@ public class TaskResourceApi {
     private ApiResponse<Map<String, Map<String, Map<String, Long>>>> allVerboseWithHttpInfo()
             throws ApiException {
         com.squareup.okhttp.Call call = allVerboseValidateBeforeCall(null, null);
-        Type localVarReturnType =
-                new TypeToken<Map<String, Map<String, Map<String, Long>>>>() {}.getType();
+        Type localVarReturnType = MAP_STRING_MAP_STRING_MAP_STRING_LONG_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -283,17 +279,7 @@ public class TaskResourceApi {
             final ProgressResponseBody.ProgressListener progressListener,
             final ProgressRequestBody.ProgressRequestListener progressRequestListener)
             throws ApiException {
-        Object localVarPostBody = null;
-
-        // create path and map variables
-        String localVarPath =
-                "/tasks/poll/batch/{tasktype}"
-                        .replaceAll(
-                                "\\{" + "tasktype" + "\\}",
-                                apiClient.escapeString(tasktype.toString()));
-
         List<Pair> localVarQueryParams = new ArrayList<Pair>();
-        List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
         if (workerid != null)
             localVarQueryParams.addAll(apiClient.parameterToPair("workerid", workerid));
         if (domain != null) localVarQueryParams.addAll(apiClient.parameterToPair("domain", domain));
@@ -301,52 +287,12 @@ public class TaskResourceApi {
         if (timeout != null)
             localVarQueryParams.addAll(apiClient.parameterToPair("timeout", timeout));
 
-        Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-
-        Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-        final String[] localVarAccepts = {"*/*"};
-        final String localVarAccept = apiClient.selectHeaderAccept(localVarAccepts);
-        if (localVarAccept != null) localVarHeaderParams.put("Accept", localVarAccept);
-
-        final String[] localVarContentTypes = {};
-
-        final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
-        localVarHeaderParams.put("Content-Type", localVarContentType);
-
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
-        String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
-                localVarPath,
-                "GET",
+                BATCH_POLL,
+                BATCH_POLL.expandPath(tasktype),
                 localVarQueryParams,
-                localVarCollectionQueryParams,
-                localVarPostBody,
-                localVarHeaderParams,
-                localVarFormParams,
-                localVarAuthNames,
+                null,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -415,10 +361,24 @@ public class TaskResourceApi {
             throws ApiException {
         com.squareup.okhttp.Call call =
                 batchPollValidateBeforeCall(tasktype, workerid, domain, count, timeout, null, null);
-        Type localVarReturnType = new TypeToken<List<Task>>() {}.getType();
+        Type localVarReturnType = LIST_TASK_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
+    /**
+     * Asynchronous variant of {@link #batchPoll(String, String, String, Integer, Integer)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public CompletableFuture<List<Task>> batchPollAsync(
+            String tasktype, String workerid, String domain, Integer count, Integer timeout)
+            throws ApiException {
+        com.squareup.okhttp.Call call =
+                batchPollValidateBeforeCall(tasktype, workerid, domain, count, timeout, null, null);
+        return apiClient.executeAsync(call, LIST_TASK_TYPE);
+    }
+
     /**
      * Build call for getAllPollData
      *
@@ -452,29 +412,6 @@ public class TaskResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -485,6 +422,7 @@ public class TaskResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -520,7 +458,7 @@ public class TaskResourceApi {
      */
     private ApiResponse<List<PollData>> getAllPollDataWithHttpInfo() throws ApiException {
         com.squareup.okhttp.Call call = getAllPollDataValidateBeforeCall(null, null);
-        Type localVarReturnType = new TypeToken<List<PollData>>() {}.getType();
+        Type localVarReturnType = LIST_POLL_DATA_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -568,29 +506,6 @@ public class TaskResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -601,6 +516,7 @@ public class TaskResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -666,7 +582,7 @@ public class TaskResourceApi {
         com.squareup.okhttp.Call call =
                 getExternalStorageLocation1ValidateBeforeCall(
                         path, operation, payloadType, null, null);
-        Type localVarReturnType = new TypeToken<ExternalStorageLocation>() {}.getType();
+        Type localVarReturnType = EXTERNAL_STORAGE_LOCATION_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -707,29 +623,6 @@ public class TaskResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -740,6 +633,7 @@ public class TaskResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -784,7 +678,7 @@ public class TaskResourceApi {
     private ApiResponse<List<PollData>> getPollDataWithHttpInfo(String taskType)
             throws ApiException {
         com.squareup.okhttp.Call call = getPollDataValidateBeforeCall(taskType, null, null);
-        Type localVarReturnType = new TypeToken<List<PollData>>() {}.getType();
+        Type localVarReturnType = LIST_POLL_DATA_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -802,64 +696,12 @@ public class TaskResourceApi {
             final ProgressResponseBody.ProgressListener progressListener,
             final ProgressRequestBody.ProgressRequestListener progressRequestListener)
             throws ApiException {
-        Object localVarPostBody = null;
-
-        // create path and map variables
-        String localVarPath =
-                "/tasks/{taskId}"
-                        .replaceAll(
-                                "\\{" + "taskId" + "\\}",
-                                apiClient.escapeString(taskId.toString()));
-
-        List<Pair> localVarQueryParams = new ArrayList<Pair>();
-        List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
-
-        Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-
-        Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-        final String[] localVarAccepts = {"*/*"};
-        final String localVarAccept = apiClient.selectHeaderAccept(localVarAccepts);
-        if (localVarAccept != null) localVarHeaderParams.put("Accept", localVarAccept);
-
-        final String[] localVarContentTypes = {};
-
-        final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
-        localVarHeaderParams.put("Content-Type", localVarContentType);
-
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
-        String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
-                localVarPath,
-                "GET",
-                localVarQueryParams,
-                localVarCollectionQueryParams,
-                localVarPostBody,
-                localVarHeaderParams,
-                localVarFormParams,
-                localVarAuthNames,
+                GET_TASK,
+                GET_TASK.expandPath(taskId),
+                new ArrayList<Pair>(),
+                null,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -903,10 +745,22 @@ public class TaskResourceApi {
      */
     private ApiResponse<Task> getTaskWithHttpInfo(String taskId) throws ApiException {
         com.squareup.okhttp.Call call = getTaskValidateBeforeCall(taskId, null, null);
-        Type localVarReturnType = new TypeToken<Task>() {}.getType();
+        Type localVarReturnType = TASK_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
+    /**
+     * Asynchronous variant of {@link #getTask(String)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public CompletableFuture<Task> getTaskAsync(String taskId)
+            throws ApiException {
+        com.squareup.okhttp.Call call = getTaskValidateBeforeCall(taskId, null, null);
+        return apiClient.executeAsync(call, TASK_TYPE);
+    }
+
     /**
      * Build call for getTaskLogs
      *
@@ -946,29 +800,6 @@ public class TaskResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -979,6 +810,7 @@ public class TaskResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1023,7 +855,7 @@ public class TaskResourceApi {
     private ApiResponse<List<TaskExecLog>> getTaskLogsWithHttpInfo(String taskId)
             throws ApiException {
         com.squareup.okhttp.Call call = getTaskLogsValidateBeforeCall(taskId, null, null);
-        Type localVarReturnType = new TypeToken<List<TaskExecLog>>() {}.getType();
+        Type localVarReturnType = LIST_TASK_EXEC_LOG_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -1068,29 +900,6 @@ public class TaskResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1101,6 +910,7 @@ public class TaskResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1198,29 +1008,6 @@ public class TaskResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1231,6 +1018,7 @@ public class TaskResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1282,7 +1070,7 @@ public class TaskResourceApi {
             throws ApiException {
         com.squareup.okhttp.Call call =
                 pollValidateBeforeCall(tasktype, workerid, domain, null, null);
-        Type localVarReturnType = new TypeToken<Task>() {}.getType();
+        Type localVarReturnType = TASK_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -1325,29 +1113,6 @@ public class TaskResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1358,6 +1123,7 @@ public class TaskResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1402,7 +1168,7 @@ public class TaskResourceApi {
     private ApiResponse<String> requeuePendingTaskWithHttpInfo(String taskType)
             throws ApiException {
         com.squareup.okhttp.Call call = requeuePendingTaskValidateBeforeCall(taskType, null, null);
-        Type localVarReturnType = new TypeToken<String>() {}.getType();
+        Type localVarReturnType = STRING_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -1455,29 +1221,6 @@ public class TaskResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1488,6 +1231,7 @@ public class TaskResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1555,10 +1299,24 @@ public class TaskResourceApi {
             throws ApiException {
         com.squareup.okhttp.Call call =
                 search1ValidateBeforeCall(start, size, sort, freeText, query, null, null);
-        Type localVarReturnType = new TypeToken<SearchResultTaskSummary>() {}.getType();
+        Type localVarReturnType = SEARCH_RESULT_TASK_SUMMARY_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
+    /**
+     * Asynchronous variant of {@link #search1(Integer, Integer, String, String, String)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public CompletableFuture<SearchResultTaskSummary> search1Async(
+            Integer start, Integer size, String sort, String freeText, String query)
+            throws ApiException {
+        com.squareup.okhttp.Call call =
+                search1ValidateBeforeCall(start, size, sort, freeText, query, null, null);
+        return apiClient.executeAsync(call, SEARCH_RESULT_TASK_SUMMARY_TYPE);
+    }
+
     /**
      * Build call for searchV21
      *
@@ -1608,29 +1366,6 @@ public class TaskResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1641,6 +1376,7 @@ public class TaskResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1708,10 +1444,24 @@ public class TaskResourceApi {
             throws ApiException {
         com.squareup.okhttp.Call call =
                 searchV21ValidateBeforeCall(start, size, sort, freeText, query, null, null);
-        Type localVarReturnType = new TypeToken<SearchResultTask>() {}.getType();
+        Type localVarReturnType = SEARCH_RESULT_TASK_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
+    /**
+     * Asynchronous variant of {@link #searchV21(Integer, Integer, String, String, String)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public CompletableFuture<SearchResultTask> searchV21Async(
+            Integer start, Integer size, String sort, String freeText, String query)
+            throws ApiException {
+        com.squareup.okhttp.Call call =
+                searchV21ValidateBeforeCall(start, size, sort, freeText, query, null, null);
+        return apiClient.executeAsync(call, SEARCH_RESULT_TASK_TYPE);
+    }
+
     /**
      * Build call for size
      *
@@ -1750,29 +1500,6 @@ public class TaskResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1783,6 +1510,7 @@ public class TaskResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1822,7 +1550,7 @@ public class TaskResourceApi {
     private ApiResponse<Map<String, Integer>> sizeWithHttpInfo(List<String> taskType)
             throws ApiException {
         com.squareup.okhttp.Call call = sizeValidateBeforeCall(taskType, null, null);
-        Type localVarReturnType = new TypeToken<Map<String, Integer>>() {}.getType();
+        Type localVarReturnType = MAP_STRING_INTEGER_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -1840,59 +1568,12 @@ public class TaskResourceApi {
             final ProgressResponseBody.ProgressListener progressListener,
             final ProgressRequestBody.ProgressRequestListener progressRequestListener)
             throws ApiException {
-        Object localVarPostBody = taskResult;
-
-        // create path and map variables
-        String localVarPath = "/tasks";
-
-        List<Pair> localVarQueryParams = new ArrayList<Pair>();
-        List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
-
-        Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-
-        Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-        final String[] localVarAccepts = {"text/plain"};
-        final String localVarAccept = apiClient.selectHeaderAccept(localVarAccepts);
-        if (localVarAccept != null) localVarHeaderParams.put("Accept", localVarAccept);
-
-        final String[] localVarContentTypes = {"application/json"};
-        final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
-        localVarHeaderParams.put("Content-Type", localVarContentType);
-
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
-        String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
-                localVarPath,
-                "POST",
-                localVarQueryParams,
-                localVarCollectionQueryParams,
-                localVarPostBody,
-                localVarHeaderParams,
-                localVarFormParams,
-                localVarAuthNames,
+                UPDATE_TASK,
+                UPDATE_TASK.expandPath(),
+                new ArrayList<Pair>(),
+                taskResult,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1936,10 +1617,22 @@ public class TaskResourceApi {
      */
     private ApiResponse<String> updateTaskWithHttpInfo(TaskResult taskResult) throws ApiException {
         com.squareup.okhttp.Call call = updateTaskValidateBeforeCall(taskResult, null, null);
-        Type localVarReturnType = new TypeToken<String>() {}.getType();
+        Type localVarReturnType = STRING_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
+    /**
+     * Asynchronous variant of {@link #updateTask(TaskResult)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public CompletableFuture<String> updateTaskAsync(TaskResult taskResult)
+            throws ApiException {
+        com.squareup.okhttp.Call call = updateTaskValidateBeforeCall(taskResult, null, null);
+        return apiClient.executeAsync(call, STRING_TYPE);
+    }
+
     /**
      * Build call for updateTask1
      *
@@ -1990,29 +1683,6 @@ public class TaskResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -2023,6 +1693,7 @@ public class TaskResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -2101,7 +1772,7 @@ public class TaskResourceApi {
             throws ApiException {
         com.squareup.okhttp.Call call =
                 updateTask1ValidateBeforeCall(body, workflowId, taskRefName, status, null, null);
-        Type localVarReturnType = new TypeToken<String>() {}.getType();
+        Type localVarReturnType = STRING_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 }
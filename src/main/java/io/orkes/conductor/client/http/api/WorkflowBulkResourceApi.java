@@ -12,12 +12,12 @@
  */
 package io.orkes.conductor.client.http.api;
 
-import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.netflix.conductor.common.model.BulkResponse;
 
@@ -27,6 +27,8 @@ import io.orkes.conductor.client.http.*;
 import com.google.gson.reflect.TypeToken;
 
 public class WorkflowBulkResourceApi {
+    private static final Type BULK_RESPONSE_TYPE = new TypeToken<BulkResponse>() {}.getType();
+
     private ApiClient apiClient;
 
     public WorkflowBulkResourceApi() {
@@ -79,29 +81,6 @@ public class WorkflowBulkResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -112,6 +91,7 @@ public class WorkflowBulkResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -156,7 +136,7 @@ public class WorkflowBulkResourceApi {
     private ApiResponse<BulkResponse> pauseWorkflow1WithHttpInfo(List<String> workflowIds)
             throws ApiException {
         com.squareup.okhttp.Call call = pauseWorkflow1ValidateBeforeCall(workflowIds, null, null);
-        Type localVarReturnType = new TypeToken<BulkResponse>() {}.getType();
+        Type localVarReturnType = BULK_RESPONSE_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
     /**
@@ -198,29 +178,6 @@ public class WorkflowBulkResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -231,6 +188,7 @@ public class WorkflowBulkResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -284,7 +242,7 @@ public class WorkflowBulkResourceApi {
             List<String> workflowIds, Boolean useLatestDefinitions) throws ApiException {
         com.squareup.okhttp.Call call =
                 restart1ValidateBeforeCall(workflowIds, useLatestDefinitions, null, null);
-        Type localVarReturnType = new TypeToken<BulkResponse>() {}.getType();
+        Type localVarReturnType = BULK_RESPONSE_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -322,29 +280,6 @@ public class WorkflowBulkResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -355,6 +290,7 @@ public class WorkflowBulkResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -399,7 +335,7 @@ public class WorkflowBulkResourceApi {
     private ApiResponse<BulkResponse> resumeWorkflow1WithHttpInfo(List<String> workflowIds)
             throws ApiException {
         com.squareup.okhttp.Call call = resumeWorkflow1ValidateBeforeCall(workflowIds, null, null);
-        Type localVarReturnType = new TypeToken<BulkResponse>() {}.getType();
+        Type localVarReturnType = BULK_RESPONSE_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -437,29 +373,6 @@ public class WorkflowBulkResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -470,6 +383,7 @@ public class WorkflowBulkResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -514,7 +428,7 @@ public class WorkflowBulkResourceApi {
     private ApiResponse<BulkResponse> retry1WithHttpInfo(List<String> workflowIds)
             throws ApiException {
         com.squareup.okhttp.Call call = retry1ValidateBeforeCall(workflowIds, null, null);
-        Type localVarReturnType = new TypeToken<BulkResponse>() {}.getType();
+        Type localVarReturnType = BULK_RESPONSE_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -555,29 +469,6 @@ public class WorkflowBulkResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -588,6 +479,7 @@ public class WorkflowBulkResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -636,7 +528,67 @@ public class WorkflowBulkResourceApi {
             throws ApiException {
         com.squareup.okhttp.Call call =
                 terminateValidateBeforeCall(workflowIds, reason, null, null);
-        Type localVarReturnType = new TypeToken<BulkResponse>() {}.getType();
+        Type localVarReturnType = BULK_RESPONSE_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
+
+    /**
+     * Asynchronous variant of {@link #pauseWorkflow1(List)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If a required parameter is missing or the request body cannot be
+     *     serialized
+     */
+    public CompletableFuture<BulkResponse> pauseWorkflow1Async(List<String> workflowIds) throws ApiException {
+        com.squareup.okhttp.Call call = pauseWorkflow1ValidateBeforeCall(workflowIds, null, null);
+        return apiClient.executeAsync(call, BULK_RESPONSE_TYPE);
+    }
+
+    /**
+     * Asynchronous variant of {@link #restart1(List, Boolean)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If a required parameter is missing or the request body cannot be
+     *     serialized
+     */
+    public CompletableFuture<BulkResponse> restart1Async(List<String> workflowIds, Boolean useLatestDefinitions) throws ApiException {
+        com.squareup.okhttp.Call call = restart1ValidateBeforeCall(workflowIds, useLatestDefinitions, null, null);
+        return apiClient.executeAsync(call, BULK_RESPONSE_TYPE);
+    }
+
+    /**
+     * Asynchronous variant of {@link #resumeWorkflow1(List)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If a required parameter is missing or the request body cannot be
+     *     serialized
+     */
+    public CompletableFuture<BulkResponse> resumeWorkflow1Async(List<String> workflowIds) throws ApiException {
+        com.squareup.okhttp.Call call = resumeWorkflow1ValidateBeforeCall(workflowIds, null, null);
+        return apiClient.executeAsync(call, BULK_RESPONSE_TYPE);
+    }
+
+    /**
+     * Asynchronous variant of {@link #retry1(List)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If a required parameter is missing or the request body cannot be
+     *     serialized
+     */
+    public CompletableFuture<BulkResponse> retry1Async(List<String> workflowIds) throws ApiException {
+        com.squareup.okhttp.Call call = retry1ValidateBeforeCall(workflowIds, null, null);
+        return apiClient.executeAsync(call, BULK_RESPONSE_TYPE);
+    }
+
+    /**
+     * Asynchronous variant of {@link #terminate(List, String)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If a required parameter is missing or the request body cannot be
+     *     serialized
+     */
+    public CompletableFuture<BulkResponse> terminateAsync(List<String> workflowIds, String reason) throws ApiException {
+        com.squareup.okhttp.Call call = terminateValidateBeforeCall(workflowIds, reason, null, null);
+        return apiClient.executeAsync(call, BULK_RESPONSE_TYPE);
+    }
 }
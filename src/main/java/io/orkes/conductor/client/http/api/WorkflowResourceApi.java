@@ -12,12 +12,12 @@
  */
 package io.orkes.conductor.client.http.api;
 
-import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.netflix.conductor.common.metadata.workflow.RerunWorkflowRequest;
 import com.netflix.conductor.common.metadata.workflow.SkipTaskRequest;
@@ -32,6 +32,39 @@ import io.orkes.conductor.common.model.WorkflowRun;
 import com.google.gson.reflect.TypeToken;
 
 public class WorkflowResourceApi {
+    private static final Type WORKFLOW_RUN_TYPE = new TypeToken<WorkflowRun>() {}.getType();
+    private static final Type WORKFLOW_TYPE = new TypeToken<Workflow>() {}.getType();
+    private static final Type EXTERNAL_STORAGE_LOCATION_TYPE =
+            new TypeToken<ExternalStorageLocation>() {}.getType();
+    private static final Type LIST_STRING_TYPE = new TypeToken<List<String>>() {}.getType();
+    private static final Type WORKFLOW_STATUS_TYPE = new TypeToken<WorkflowStatus>() {}.getType();
+    private static final Type MAP_STRING_LIST_WORKFLOW_TYPE =
+            new TypeToken<Map<String, List<Workflow>>>() {}.getType();
+    private static final Type LIST_WORKFLOW_TYPE = new TypeToken<List<Workflow>>() {}.getType();
+    private static final Type STRING_TYPE = new TypeToken<String>() {}.getType();
+    private static final Type SCROLLABLE_SEARCH_RESULT_WORKFLOW_SUMMARY_TYPE =
+            new TypeToken<ScrollableSearchResultWorkflowSummary>() {}.getType();
+    private static final Type SEARCH_RESULT_WORKFLOW_TYPE =
+            new TypeToken<SearchResultWorkflow>() {}.getType();
+    private static final Type SEARCH_RESULT_WORKFLOW_SUMMARY_TYPE =
+            new TypeToken<SearchResultWorkflowSummary>() {}.getType();
+    private static final Type OBJECT_TYPE = new TypeToken<Object>() {}.getType();
+
+    private static final EndpointDescriptor GET_EXECUTION_STATUS =
+            EndpointDescriptor.builder("GET", "/workflow/{workflowId}")
+                    .accepts("*/*")
+                    .authNames("api_key")
+                    .returnType(WORKFLOW_TYPE)
+                    .build();
+
+    private static final EndpointDescriptor START_WORKFLOW =
+            EndpointDescriptor.builder("POST", "/workflow")
+                    .accepts("text/plain")
+                    .contentTypes("application/json")
+                    .authNames("api_key")
+                    .returnType(STRING_TYPE)
+                    .build();
+
     private ApiClient apiClient;
 
     public WorkflowResourceApi() {
@@ -96,10 +129,29 @@ public class WorkflowResourceApi {
         com.squareup.okhttp.Call call =
                 executeWorkflowValidateBeforeCall(
                         body, name, version, waitUntilTaskRef, requestId, null, null);
-        Type localVarReturnType = new TypeToken<WorkflowRun>() {}.getType();
+        Type localVarReturnType = WORKFLOW_RUN_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
+    /**
+     * Asynchronous variant of {@link #executeWorkflow(StartWorkflowRequest, String, Integer, String, String)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public CompletableFuture<WorkflowRun> executeWorkflowAsync(
+            StartWorkflowRequest body,
+            String name,
+            Integer version,
+            String waitUntilTaskRef,
+            String requestId)
+            throws ApiException {
+        com.squareup.okhttp.Call call =
+                executeWorkflowValidateBeforeCall(
+                        body, name, version, waitUntilTaskRef, requestId, null, null);
+        return apiClient.executeAsync(call, WORKFLOW_RUN_TYPE);
+    }
+
     private com.squareup.okhttp.Call executeWorkflowValidateBeforeCall(
             StartWorkflowRequest body,
             String name,
@@ -177,29 +229,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -210,6 +239,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -266,7 +296,7 @@ public class WorkflowResourceApi {
                         requestId,
                         progressListener,
                         progressRequestListener);
-        Type localVarReturnType = new TypeToken<WorkflowRun>() {}.getType();
+        Type localVarReturnType = WORKFLOW_RUN_TYPE;
         apiClient.executeAsync(call, localVarReturnType, callback);
 
         return call;
@@ -312,29 +342,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -345,6 +352,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -434,29 +442,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -467,6 +452,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -532,66 +518,16 @@ public class WorkflowResourceApi {
             final ProgressResponseBody.ProgressListener progressListener,
             final ProgressRequestBody.ProgressRequestListener progressRequestListener)
             throws ApiException {
-        Object localVarPostBody = null;
-
-        // create path and map variables
-        String localVarPath =
-                "/workflow/{workflowId}"
-                        .replaceAll(
-                                "\\{" + "workflowId" + "\\}",
-                                apiClient.escapeString(workflowId.toString()));
-
         List<Pair> localVarQueryParams = new ArrayList<Pair>();
-        List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
         if (includeTasks != null)
             localVarQueryParams.addAll(apiClient.parameterToPair("includeTasks", includeTasks));
 
-        Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-
-        Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-        final String[] localVarAccepts = {"*/*"};
-        final String localVarAccept = apiClient.selectHeaderAccept(localVarAccepts);
-        if (localVarAccept != null) localVarHeaderParams.put("Accept", localVarAccept);
-
-        final String[] localVarContentTypes = {};
-
-        final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
-        localVarHeaderParams.put("Content-Type", localVarContentType);
-
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
-        String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
-                localVarPath,
-                "GET",
+                GET_EXECUTION_STATUS,
+                GET_EXECUTION_STATUS.expandPath(workflowId),
                 localVarQueryParams,
-                localVarCollectionQueryParams,
-                localVarPostBody,
-                localVarHeaderParams,
-                localVarFormParams,
-                localVarAuthNames,
+                null,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -642,10 +578,24 @@ public class WorkflowResourceApi {
             String workflowId, Boolean includeTasks) throws ApiException {
         com.squareup.okhttp.Call call =
                 getExecutionStatusValidateBeforeCall(workflowId, includeTasks, null, null);
-        Type localVarReturnType = new TypeToken<Workflow>() {}.getType();
+        Type localVarReturnType = WORKFLOW_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
+    /**
+     * Asynchronous variant of {@link #getExecutionStatus(String, Boolean)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public CompletableFuture<Workflow> getExecutionStatusAsync(
+            String workflowId, Boolean includeTasks)
+            throws ApiException {
+        com.squareup.okhttp.Call call =
+                getExecutionStatusValidateBeforeCall(workflowId, includeTasks, null, null);
+        return apiClient.executeAsync(call, WORKFLOW_TYPE);
+    }
+
     /**
      * Build call for getExternalStorageLocation
      *
@@ -690,29 +640,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -723,6 +650,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -788,7 +716,7 @@ public class WorkflowResourceApi {
         com.squareup.okhttp.Call call =
                 getExternalStorageLocationValidateBeforeCall(
                         path, operation, payloadType, null, null);
-        Type localVarReturnType = new TypeToken<ExternalStorageLocation>() {}.getType();
+        Type localVarReturnType = EXTERNAL_STORAGE_LOCATION_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -842,29 +770,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -875,6 +780,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -937,7 +843,7 @@ public class WorkflowResourceApi {
             String name, Integer version, Long startTime, Long endTime) throws ApiException {
         com.squareup.okhttp.Call call =
                 getRunningWorkflowValidateBeforeCall(name, version, startTime, endTime, null, null);
-        Type localVarReturnType = new TypeToken<List<String>>() {}.getType();
+        Type localVarReturnType = LIST_STRING_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -989,29 +895,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1022,6 +905,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1083,10 +967,25 @@ public class WorkflowResourceApi {
         com.squareup.okhttp.Call call =
                 getWorkflowStatusSummaryValidateBeforeCall(
                         workflowId, includeOutput, includeVariables, null, null);
-        Type localVarReturnType = new TypeToken<WorkflowStatus>() {}.getType();
+        Type localVarReturnType = WORKFLOW_STATUS_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
+    /**
+     * Asynchronous variant of {@link #getWorkflowStatusSummary(String, Boolean, Boolean)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public CompletableFuture<WorkflowStatus> getWorkflowStatusSummaryAsync(
+            String workflowId, Boolean includeOutput, Boolean includeVariables)
+            throws ApiException {
+        com.squareup.okhttp.Call call =
+                getWorkflowStatusSummaryValidateBeforeCall(
+                        workflowId, includeOutput, includeVariables, null, null);
+        return apiClient.executeAsync(call, WORKFLOW_STATUS_TYPE);
+    }
+
     /**
      * Build call for getWorkflows
      *
@@ -1134,29 +1033,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1167,6 +1043,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1236,7 +1113,7 @@ public class WorkflowResourceApi {
             throws ApiException {
         com.squareup.okhttp.Call call =
                 getWorkflowsValidateBeforeCall(body, name, includeClosed, includeTasks, null, null);
-        Type localVarReturnType = new TypeToken<Map<String, List<Workflow>>>() {}.getType();
+        Type localVarReturnType = MAP_STRING_LIST_WORKFLOW_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -1290,29 +1167,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1323,6 +1177,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1393,7 +1248,7 @@ public class WorkflowResourceApi {
         com.squareup.okhttp.Call call =
                 getWorkflows1ValidateBeforeCall(
                         name, correlationId, includeClosed, includeTasks, null, null);
-        Type localVarReturnType = new TypeToken<List<Workflow>>() {}.getType();
+        Type localVarReturnType = LIST_WORKFLOW_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -1437,29 +1292,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1470,6 +1302,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1554,29 +1387,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1587,6 +1397,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1645,7 +1456,7 @@ public class WorkflowResourceApi {
             RerunWorkflowRequest rerunWorkflowRequest, String workflowId) throws ApiException {
         com.squareup.okhttp.Call call =
                 rerunValidateBeforeCall(rerunWorkflowRequest, workflowId, null, null);
-        Type localVarReturnType = new TypeToken<String>() {}.getType();
+        Type localVarReturnType = STRING_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -1689,29 +1500,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1722,6 +1510,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1811,29 +1600,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1844,6 +1610,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -1937,29 +1704,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -1970,6 +1714,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -2059,29 +1804,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -2092,6 +1814,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -2202,29 +1925,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -2235,6 +1935,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -2323,11 +2024,32 @@ public class WorkflowResourceApi {
         com.squareup.okhttp.Call call =
                 searchValidateBeforeCall(
                         queryId, start, size, sort, freeText, query, skipCache, null, null);
-        Type localVarReturnType =
-                new TypeToken<ScrollableSearchResultWorkflowSummary>() {}.getType();
+        Type localVarReturnType = SCROLLABLE_SEARCH_RESULT_WORKFLOW_SUMMARY_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
+    /**
+     * Asynchronous variant of {@link #search(String, Integer, Integer, String, String, String,
+     * Boolean)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public CompletableFuture<ScrollableSearchResultWorkflowSummary> searchAsync(
+            String queryId,
+            Integer start,
+            Integer size,
+            String sort,
+            String freeText,
+            String query,
+            Boolean skipCache)
+            throws ApiException {
+        com.squareup.okhttp.Call call =
+                searchValidateBeforeCall(
+                        queryId, start, size, sort, freeText, query, skipCache, null, null);
+        return apiClient.executeAsync(call, SCROLLABLE_SEARCH_RESULT_WORKFLOW_SUMMARY_TYPE);
+    }
+
     /**
      * Build call for searchV2
      *
@@ -2377,29 +2099,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -2410,6 +2109,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -2477,7 +2177,7 @@ public class WorkflowResourceApi {
             throws ApiException {
         com.squareup.okhttp.Call call =
                 searchV2ValidateBeforeCall(start, size, sort, freeText, query, null, null);
-        Type localVarReturnType = new TypeToken<SearchResultWorkflow>() {}.getType();
+        Type localVarReturnType = SEARCH_RESULT_WORKFLOW_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -2530,29 +2230,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -2563,6 +2240,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -2631,10 +2309,26 @@ public class WorkflowResourceApi {
         com.squareup.okhttp.Call call =
                 searchWorkflowsByTasksValidateBeforeCall(
                         start, size, sort, freeText, query, null, null);
-        Type localVarReturnType = new TypeToken<SearchResultWorkflowSummary>() {}.getType();
+        Type localVarReturnType = SEARCH_RESULT_WORKFLOW_SUMMARY_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
+    /**
+     * Asynchronous variant of {@link #searchWorkflowsByTasks(Integer, Integer, String, String,
+     * String)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public CompletableFuture<SearchResultWorkflowSummary> searchWorkflowsByTasksAsync(
+            Integer start, Integer size, String sort, String freeText, String query)
+            throws ApiException {
+        com.squareup.okhttp.Call call =
+                searchWorkflowsByTasksValidateBeforeCall(
+                        start, size, sort, freeText, query, null, null);
+        return apiClient.executeAsync(call, SEARCH_RESULT_WORKFLOW_SUMMARY_TYPE);
+    }
+
     /**
      * Build call for searchWorkflowsByTasksV2
      *
@@ -2684,29 +2378,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -2717,6 +2388,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -2785,7 +2457,7 @@ public class WorkflowResourceApi {
         com.squareup.okhttp.Call call =
                 searchWorkflowsByTasksV2ValidateBeforeCall(
                         start, size, sort, freeText, query, null, null);
-        Type localVarReturnType = new TypeToken<SearchResultWorkflow>() {}.getType();
+        Type localVarReturnType = SEARCH_RESULT_WORKFLOW_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -2839,29 +2511,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -2872,6 +2521,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -2957,59 +2607,12 @@ public class WorkflowResourceApi {
             final ProgressResponseBody.ProgressListener progressListener,
             final ProgressRequestBody.ProgressRequestListener progressRequestListener)
             throws ApiException {
-        Object localVarPostBody = startWorkflowRequest;
-
-        // create path and map variables
-        String localVarPath = "/workflow";
-
-        List<Pair> localVarQueryParams = new ArrayList<Pair>();
-        List<Pair> localVarCollectionQueryParams = new ArrayList<Pair>();
-
-        Map<String, String> localVarHeaderParams = new HashMap<String, String>();
-
-        Map<String, Object> localVarFormParams = new HashMap<String, Object>();
-
-        final String[] localVarAccepts = {"text/plain"};
-        final String localVarAccept = apiClient.selectHeaderAccept(localVarAccepts);
-        if (localVarAccept != null) localVarHeaderParams.put("Accept", localVarAccept);
-
-        final String[] localVarContentTypes = {"application/json"};
-        final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
-        localVarHeaderParams.put("Content-Type", localVarContentType);
-
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
-        String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
-                localVarPath,
-                "POST",
-                localVarQueryParams,
-                localVarCollectionQueryParams,
-                localVarPostBody,
-                localVarHeaderParams,
-                localVarFormParams,
-                localVarAuthNames,
+                START_WORKFLOW,
+                START_WORKFLOW.expandPath(),
+                new ArrayList<Pair>(),
+                startWorkflowRequest,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -3055,10 +2658,23 @@ public class WorkflowResourceApi {
             throws ApiException {
         com.squareup.okhttp.Call call =
                 startWorkflowValidateBeforeCall(startWorkflowRequest, null, null);
-        Type localVarReturnType = new TypeToken<String>() {}.getType();
+        Type localVarReturnType = STRING_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
+    /**
+     * Asynchronous variant of {@link #startWorkflow(StartWorkflowRequest)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public CompletableFuture<String> startWorkflowAsync(StartWorkflowRequest startWorkflowRequest)
+            throws ApiException {
+        com.squareup.okhttp.Call call =
+                startWorkflowValidateBeforeCall(startWorkflowRequest, null, null);
+        return apiClient.executeAsync(call, STRING_TYPE);
+    }
+
     /**
      * Build call for startWorkflow1
      *
@@ -3110,29 +2726,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -3143,6 +2736,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -3227,7 +2821,7 @@ public class WorkflowResourceApi {
         com.squareup.okhttp.Call call =
                 startWorkflow1ValidateBeforeCall(
                         body, name, version, correlationId, priority, null, null);
-        Type localVarReturnType = new TypeToken<String>() {}.getType();
+        Type localVarReturnType = STRING_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 
@@ -3274,29 +2868,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -3307,6 +2878,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -3356,6 +2928,19 @@ public class WorkflowResourceApi {
         return apiClient.execute(call);
     }
 
+    /**
+     * Asynchronous variant of {@link #terminateWithAReason(String, String)}.
+     *
+     * @return future of the response data
+     * @throws ApiException If fail to serialize the request body object
+     */
+    public CompletableFuture<Void> terminateWithAReasonAsync(String workflowId, String reason)
+            throws ApiException {
+        com.squareup.okhttp.Call call =
+                terminate1ValidateBeforeCall(workflowId, reason, null, null);
+        return apiClient.executeAsync(call, (Type) null);
+    }
+
     /**
      * Build call for uploadCompletedWorkflows
      *
@@ -3389,29 +2974,6 @@ public class WorkflowResourceApi {
         final String localVarContentType = apiClient.selectHeaderContentType(localVarContentTypes);
         localVarHeaderParams.put("Content-Type", localVarContentType);
 
-        if (progressListener != null) {
-            apiClient
-                    .getHttpClient()
-                    .networkInterceptors()
-                    .add(
-                            new com.squareup.okhttp.Interceptor() {
-                                @Override
-                                public com.squareup.okhttp.Response intercept(
-                                        com.squareup.okhttp.Interceptor.Chain chain)
-                                        throws IOException {
-                                    com.squareup.okhttp.Response originalResponse =
-                                            chain.proceed(chain.request());
-                                    return originalResponse
-                                            .newBuilder()
-                                            .body(
-                                                    new ProgressResponseBody(
-                                                            originalResponse.body(),
-                                                            progressListener))
-                                            .build();
-                                }
-                            });
-        }
-
         String[] localVarAuthNames = new String[] {"api_key"};
         return apiClient.buildCall(
                 localVarPath,
@@ -3422,6 +2984,7 @@ public class WorkflowResourceApi {
                 localVarHeaderParams,
                 localVarFormParams,
                 localVarAuthNames,
+                progressListener,
                 progressRequestListener);
     }
 
@@ -3457,7 +3020,7 @@ public class WorkflowResourceApi {
      */
     private ApiResponse<Object> uploadCompletedWorkflowsWithHttpInfo() throws ApiException {
         com.squareup.okhttp.Call call = uploadCompletedWorkflowsValidateBeforeCall(null, null);
-        Type localVarReturnType = new TypeToken<Object>() {}.getType();
+        Type localVarReturnType = OBJECT_TYPE;
         return apiClient.execute(call, localVarReturnType);
     }
 }
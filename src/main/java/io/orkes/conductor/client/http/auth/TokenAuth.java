@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http.auth;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.orkes.conductor.client.http.Pair;
+
+/**
+ * Sends the current token of a {@link TokenManager} in the X-Authorization header. When no token
+ * can be fetched the request is sent without one, as before the token manager, and the server
+ * rejects it with a 401.
+ */
+public class TokenAuth implements Authentication {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenAuth.class);
+
+    public static final String HEADER_NAME = "X-Authorization";
+
+    private final TokenManager tokenManager;
+
+    public TokenAuth(TokenManager tokenManager) {
+        this.tokenManager = tokenManager;
+    }
+
+    public TokenManager getTokenManager() {
+        return tokenManager;
+    }
+
+    @Override
+    public void applyToParams(List<Pair> queryParams, Map<String, String> headerParams) {
+        String token;
+        try {
+            token = tokenManager.getToken();
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to get a token, sending the request without one - {}", e.getMessage());
+            return;
+        }
+        if (token != null) {
+            headerParams.put(HEADER_NAME, token);
+        }
+    }
+}
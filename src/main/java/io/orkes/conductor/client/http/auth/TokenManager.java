@@ -0,0 +1,303 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http.auth;
+
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.orkes.conductor.client.codec.JacksonCodec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Keeps an authentication token fresh without making callers wait for it.
+ *
+ * <p>The token is refreshed in the background ahead of its expiry, read from the {@code exp} claim
+ * when the token is a JWT. Past the refresh time and until the token expires callers keep getting
+ * the current token while a single refresh runs (stale while revalidate), so only the very first
+ * call, or a call made after a token expired without a successful refresh, waits for the token
+ * service. The current token is published through an atomic reference, reading it takes no lock.
+ *
+ * <p>A single shared thread schedules the refreshes of every manager, the blocking calls to the
+ * token service run on a separate pool so that a slow token service only delays its own manager.
+ * The scheduled refreshes only hold a weak reference to the manager, call {@link #shutdown()} to
+ * stop them when the client is no longer used.
+ */
+public class TokenManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenManager.class);
+
+    private static final ScheduledThreadPoolExecutor SCHEDULER = newScheduler();
+
+    private static final ExecutorService FETCHER =
+            Executors.newCachedThreadPool(
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("orkes-token-fetch-%d")
+                            .setDaemon(true)
+                            .build());
+
+    /** Lifetime assumed for tokens that do not tell their expiry */
+    public static final Duration DEFAULT_TOKEN_TTL = Duration.ofMinutes(30);
+
+    /** Shortest time between the refresh of a token and its expiry */
+    private static final long MIN_REFRESH_AHEAD_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    /** Delay before attempting again a background refresh that failed */
+    private static final long RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    /** Set while fetching a token, the token request itself must not wait for a token */
+    private static final ThreadLocal<Boolean> FETCHING = ThreadLocal.withInitial(() -> false);
+
+    private final Supplier<String> tokenSupplier;
+
+    private final AtomicReference<Credentials> current = new AtomicReference<>();
+
+    private final AtomicReference<CompletableFuture<Credentials>> refreshing = new AtomicReference<>();
+
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile ScheduledFuture<?> scheduledRefresh;
+
+    private volatile boolean shutdown;
+
+    /** @param tokenSupplier fetches a new token from the token service, blocking */
+    public TokenManager(Supplier<String> tokenSupplier) {
+        this.tokenSupplier = tokenSupplier;
+    }
+
+    /**
+     * @return the current token, waiting for one only if there is no token or it has expired
+     */
+    public String getToken() {
+        Credentials credentials = current.get();
+        long now = System.currentTimeMillis();
+        if (credentials != null && now < credentials.expiresAt) {
+            if (now >= credentials.refreshAt) {
+                refreshAsync();
+            }
+            return credentials.token;
+        }
+        if (FETCHING.get()) {
+            return credentials == null ? null : credentials.token;
+        }
+        return await(refreshAsync()).token;
+    }
+
+    /**
+     * Refreshes the token after the server rejected it. Concurrent calls for the same rejected
+     * token share a single refresh.
+     *
+     * @param rejectedToken the token the server rejected
+     * @return a token other than the rejected one, unless the refresh failed
+     */
+    public String refresh(String rejectedToken) {
+        Credentials credentials = current.get();
+        if (credentials != null && !credentials.token.equals(rejectedToken)) {
+            // refreshed by another call in the meantime
+            return credentials.token;
+        }
+        return await(refreshAsync()).token;
+    }
+
+    /** @return expiry of the current token in epoch millis, 0 if there is none */
+    public long getExpiresAt() {
+        Credentials credentials = current.get();
+        return credentials == null ? 0 : credentials.expiresAt;
+    }
+
+    /**
+     * Registers a listener called with the new token every time it changes, e.g. to rebuild
+     * headers derived from it.
+     */
+    public void addListener(Consumer<String> listener) {
+        listeners.add(listener);
+        Credentials credentials = current.get();
+        if (credentials != null) {
+            listener.accept(credentials.token);
+        }
+    }
+
+    /**
+     * Stops the background refreshes. A token is still fetched on demand when there is no valid
+     * one.
+     */
+    public void shutdown() {
+        shutdown = true;
+        ScheduledFuture<?> scheduled = scheduledRefresh;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+    }
+
+    private CompletableFuture<Credentials> refreshAsync() {
+        CompletableFuture<Credentials> future = refreshing.get();
+        if (future != null) {
+            return future;
+        }
+        CompletableFuture<Credentials> created = new CompletableFuture<>();
+        if (!refreshing.compareAndSet(null, created)) {
+            return refreshing.get();
+        }
+        FETCHER.execute(() -> fetch(created));
+        return created;
+    }
+
+    private void fetch(CompletableFuture<Credentials> future) {
+        FETCHING.set(true);
+        try {
+            String token = tokenSupplier.get();
+            if (token == null) {
+                throw new IllegalStateException("The token service returned no token");
+            }
+            Credentials credentials = Credentials.of(token, System.currentTimeMillis());
+            current.set(credentials);
+            refreshing.set(null);
+            schedule(credentials.refreshAt - System.currentTimeMillis());
+            // listeners first, callers waiting for the token then see everything derived from it
+            for (Consumer<String> listener : listeners) {
+                try {
+                    listener.accept(token);
+                } catch (Throwable t) {
+                    LOGGER.error("Token listener failed", t);
+                }
+            }
+            future.complete(credentials);
+        } catch (Throwable t) {
+            refreshing.set(null);
+            future.completeExceptionally(t);
+            Credentials credentials = current.get();
+            if (credentials != null && System.currentTimeMillis() < credentials.expiresAt) {
+                LOGGER.warn("Failed to refresh the token, using the current one - {}", t.getMessage());
+                schedule(RETRY_DELAY_MILLIS);
+            }
+        } finally {
+            FETCHING.set(false);
+        }
+    }
+
+    private void schedule(long delayMillis) {
+        if (shutdown) {
+            return;
+        }
+        ScheduledFuture<?> previous = scheduledRefresh;
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        scheduledRefresh =
+                SCHEDULER.schedule(
+                        refreshTask(new WeakReference<>(this)),
+                        Math.max(0, delayMillis),
+                        TimeUnit.MILLISECONDS);
+    }
+
+    /** The scheduled refresh, which does not keep an unused manager reachable */
+    private static Runnable refreshTask(WeakReference<TokenManager> reference) {
+        return () -> {
+            TokenManager manager = reference.get();
+            if (manager != null && !manager.shutdown) {
+                manager.refreshAsync();
+            }
+        };
+    }
+
+    private static ScheduledThreadPoolExecutor newScheduler() {
+        ScheduledThreadPoolExecutor scheduler =
+                new ScheduledThreadPoolExecutor(
+                        1,
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("orkes-token-refresh")
+                                .setDaemon(true)
+                                .build());
+        // a cancelled refresh leaves the queue at once instead of when its delay elapses
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    private static Credentials await(CompletableFuture<Credentials> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the expiry of a JWT from its exp claim, without verifying it.
+     *
+     * @return expiry in epoch millis, or -1 if the token is not a JWT with an expiry
+     */
+    static long expiryOf(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            return -1;
+        }
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(parts[1]);
+            JsonNode exp =
+                    JacksonCodec.sharedObjectMapper()
+                            .readTree(new String(payload, StandardCharsets.UTF_8))
+                            .get("exp");
+            return exp != null && exp.canConvertToLong() ? exp.asLong() * 1000 : -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static class Credentials {
+
+        private final String token;
+
+        private final long expiresAt;
+
+        private final long refreshAt;
+
+        private Credentials(String token, long expiresAt, long refreshAt) {
+            this.token = token;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+        }
+
+        /** Refreshes once 80% of the lifetime has passed, and at least 30 s before expiry */
+        static Credentials of(String token, long now) {
+            long expiresAt = expiryOf(token);
+            if (expiresAt <= now) {
+                expiresAt = now + DEFAULT_TOKEN_TTL.toMillis();
+            }
+            long lifetime = expiresAt - now;
+            long ahead = Math.max(lifetime / 5, Math.min(MIN_REFRESH_AHEAD_MILLIS, lifetime / 2));
+            return new Credentials(token, expiresAt, expiresAt - ahead);
+        }
+    }
+}
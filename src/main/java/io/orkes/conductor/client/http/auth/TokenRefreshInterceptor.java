@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http.auth;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+/**
+ * Replays a request once with a new token when the server rejects its token with a 401, e.g. when
+ * the token was revoked or the clocks disagree on its expiry. Concurrent rejections of the same
+ * token share a single refresh.
+ */
+public class TokenRefreshInterceptor implements Interceptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenRefreshInterceptor.class);
+
+    private final TokenManager tokenManager;
+
+    public TokenRefreshInterceptor(TokenManager tokenManager) {
+        this.tokenManager = tokenManager;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        String rejectedToken = request.header(TokenAuth.HEADER_NAME);
+        if (response.code() != 401
+                || rejectedToken == null
+                || request.httpUrl().encodedPath().endsWith("/token")) {
+            return response;
+        }
+        String token;
+        try {
+            token = tokenManager.refresh(rejectedToken);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to refresh the rejected token - {}", e.getMessage());
+            return response;
+        }
+        if (token == null || token.equals(rejectedToken)) {
+            return response;
+        }
+        response.body().close();
+        return chain.proceed(request.newBuilder().header(TokenAuth.HEADER_NAME, token).build());
+    }
+}
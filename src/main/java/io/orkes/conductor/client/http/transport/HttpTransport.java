@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http.transport;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+/**
+ * Transport used by the {@link io.orkes.conductor.client.ApiClient} to exchange HTTP requests with
+ * the server.
+ *
+ * <p>Requests are still built, authenticated and intercepted by the OkHttp client owned by the
+ * ApiClient, so the generated {@code *ResourceApi} classes do not depend on the transport. When a
+ * transport is installed it replaces OkHttp's own network layer: the request that reaches the end
+ * of the application interceptor chain is handed to {@link #execute(Request, Duration)}.
+ *
+ * <p>Everything below the application interceptors is skipped: network interceptors (response
+ * progress listeners, the connection metrics of {@link
+ * io.orkes.conductor.client.http.HttpClientMetrics}), the connection pool, the connect and write
+ * timeouts of the OkHttp client and its redirect and connection retry handling. The read timeout of
+ * the client, including the one set by {@link io.orkes.conductor.client.http.CallOptions}, is
+ * passed to the transport with every request.
+ */
+public interface HttpTransport {
+
+    /**
+     * Sends the request and returns the response. The response body must be readable by the
+     * caller and is closed by it.
+     *
+     * @param request request to send
+     * @return response from the server
+     * @throws IOException if the request could not be sent or the response could not be read
+     */
+    Response execute(Request request) throws IOException;
+
+    /**
+     * Sends the request, failing if no response is received within the timeout.
+     *
+     * @param request request to send
+     * @param timeout maximum time to wait for the response, null for the default of the transport
+     * @return response from the server
+     * @throws IOException if the request could not be sent, timed out or the response could not be
+     *     read
+     */
+    default Response execute(Request request, Duration timeout) throws IOException {
+        return execute(request);
+    }
+
+    /** Releases the resources held by the transport */
+    default void shutdown() {}
+}
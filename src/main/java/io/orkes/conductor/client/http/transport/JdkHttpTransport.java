@@ -0,0 +1,188 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.squareup.okhttp.Headers;
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+
+/**
+ * {@link HttpTransport} backed by the JDK {@link HttpClient}.
+ *
+ * <p>The client negotiates HTTP/2 (ALPN over TLS, h2c upgrade over plain text) and multiplexes
+ * concurrent requests to the same server over a single connection, falling back to HTTP/1.1 when
+ * the server does not support HTTP/2.
+ */
+public class JdkHttpTransport implements HttpTransport {
+
+    // headers managed by the JDK client that cannot be set on a request
+    private static final Set<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        RESTRICTED_HEADERS.addAll(
+                List.of("connection", "content-length", "expect", "host", "upgrade", "transfer-encoding"));
+    }
+
+    private final HttpClient httpClient;
+
+    private final Duration requestTimeout;
+
+    /**
+     * Transport negotiating HTTP/2. Requests time out after the read timeout of the ApiClient, or
+     * of the call options of the call.
+     */
+    public JdkHttpTransport() {
+        this(
+                HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_2)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build(),
+                null);
+    }
+
+    /**
+     * @param httpClient JDK client used to send the requests
+     * @param requestTimeout timeout applied to the requests sent without a timeout of their own,
+     *     null for no timeout
+     */
+    public JdkHttpTransport(HttpClient httpClient, Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    @Override
+    public Response execute(Request request) throws IOException {
+        return execute(request, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The timeout bounds the time until the response headers are received, the response body
+     * is then read without a timeout.
+     */
+    @Override
+    public Response execute(Request request, Duration timeout) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.uri());
+        Duration effectiveTimeout = timeout == null ? requestTimeout : timeout;
+        if (effectiveTimeout != null) {
+            builder.timeout(effectiveTimeout);
+        }
+        Headers headers = request.headers();
+        for (int i = 0; i < headers.size(); i++) {
+            if (!RESTRICTED_HEADERS.contains(headers.name(i))) {
+                builder.header(headers.name(i), headers.value(i));
+            }
+        }
+        RequestBody body = request.body();
+        if (body == null) {
+            builder.method(request.method(), HttpRequest.BodyPublishers.noBody());
+        } else {
+            MediaType contentType = body.contentType();
+            if (contentType != null && request.header("Content-Type") == null) {
+                builder.header("Content-Type", contentType.toString());
+            }
+            Buffer buffer = new Buffer();
+            body.writeTo(buffer);
+            builder.method(
+                    request.method(), HttpRequest.BodyPublishers.ofByteArray(buffer.readByteArray()));
+        }
+
+        HttpResponse<InputStream> httpResponse;
+        try {
+            httpResponse = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + request.urlString());
+        }
+        return toResponse(request, httpResponse);
+    }
+
+    private Response toResponse(Request request, HttpResponse<InputStream> httpResponse) {
+        Headers.Builder headers = new Headers.Builder();
+        for (Map.Entry<String, List<String>> header : httpResponse.headers().map().entrySet()) {
+            if (header.getKey().startsWith(":")) {
+                // HTTP/2 pseudo headers
+                continue;
+            }
+            for (String value : header.getValue()) {
+                headers.add(header.getKey(), value);
+            }
+        }
+        return new Response.Builder()
+                .request(request)
+                .protocol(
+                        httpResponse.version() == HttpClient.Version.HTTP_2
+                                ? Protocol.HTTP_2
+                                : Protocol.HTTP_1_1)
+                .code(httpResponse.statusCode())
+                .message("")
+                .headers(headers.build())
+                .body(new InputStreamResponseBody(httpResponse.headers(), httpResponse.body()))
+                .build();
+    }
+
+    private static class InputStreamResponseBody extends ResponseBody {
+
+        private final MediaType contentType;
+
+        private final long contentLength;
+
+        private final BufferedSource source;
+
+        InputStreamResponseBody(HttpHeaders headers, InputStream body) {
+            this.contentType = headers.firstValue("Content-Type").map(MediaType::parse).orElse(null);
+            this.contentLength = headers.firstValueAsLong("Content-Length").orElse(-1);
+            this.source = Okio.buffer(Okio.source(body));
+        }
+
+        @Override
+        public MediaType contentType() {
+            return contentType;
+        }
+
+        @Override
+        public long contentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+}
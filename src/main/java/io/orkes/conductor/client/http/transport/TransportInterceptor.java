@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http.transport;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Response;
+
+/**
+ * Application interceptor that short-circuits the OkHttp network layer and sends the request with
+ * an {@link HttpTransport}. Must be the last application interceptor of the client. The read
+ * timeout of the client it is bound to is passed to the transport as the timeout of the request.
+ */
+public final class TransportInterceptor implements Interceptor {
+
+    private final HttpTransport transport;
+
+    private final OkHttpClient client;
+
+    public TransportInterceptor(HttpTransport transport) {
+        this(transport, null);
+    }
+
+    /**
+     * @param transport transport sending the requests
+     * @param client client whose read timeout applies to the requests, null for the default
+     *     timeout of the transport
+     */
+    public TransportInterceptor(HttpTransport transport, OkHttpClient client) {
+        this.transport = transport;
+        this.client = client;
+    }
+
+    /**
+     * @param client client whose read timeout applies to the requests, e.g. a copy of the client
+     *     with the timeouts of a call
+     * @return an interceptor sending the requests with the same transport
+     */
+    public TransportInterceptor withClient(OkHttpClient client) {
+        return new TransportInterceptor(transport, client);
+    }
+
+    public HttpTransport getTransport() {
+        return transport;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        int readTimeout = client == null ? 0 : client.getReadTimeout();
+        return transport.execute(chain.request(), readTimeout == 0 ? null : Duration.ofMillis(readTimeout));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.model;
+
+import java.util.Objects;
+
+/** Outcome of starting one workflow as part of a bulk start request */
+public class StartWorkflowResult {
+
+    private final int index;
+
+    private final String workflowId;
+
+    private final Throwable error;
+
+    private StartWorkflowResult(int index, String workflowId, Throwable error) {
+        this.index = index;
+        this.workflowId = workflowId;
+        this.error = error;
+    }
+
+    public static StartWorkflowResult success(int index, String workflowId) {
+        return new StartWorkflowResult(index, workflowId, null);
+    }
+
+    public static StartWorkflowResult failure(int index, Throwable error) {
+        return new StartWorkflowResult(index, null, error);
+    }
+
+    /**
+     * @return position of the request in the input
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return id of the started workflow, null if the workflow could not be started
+     */
+    public String getWorkflowId() {
+        return workflowId;
+    }
+
+    /**
+     * @return error returned when starting the workflow, null on success
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        StartWorkflowResult that = (StartWorkflowResult) o;
+        return index == that.index
+                && Objects.equals(workflowId, that.workflowId)
+                && Objects.equals(error, that.error);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, workflowId, error);
+    }
+
+    @Override
+    public String toString() {
+        return "StartWorkflowResult{index=" + index + ", workflowId=" + workflowId + ", error=" + error + "}";
+    }
+}
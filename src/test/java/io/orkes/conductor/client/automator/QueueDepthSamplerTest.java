@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.automator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueueDepthSamplerTest {
+
+    @Test
+    public void testSamplesAllQueuesInOneCall() {
+        AtomicInteger calls = new AtomicInteger();
+        Map<String, Long> sizes = new HashMap<>();
+        sizes.put("encode", 120L);
+        sizes.put("gpu:encode", 7L);
+        QueueDepthSampler sampler =
+                new QueueDepthSampler(
+                        () -> {
+                            calls.incrementAndGet();
+                            return sizes;
+                        });
+        AtomicInteger notified = new AtomicInteger();
+        sampler.addListener(s -> notified.incrementAndGet());
+
+        sampler.sample();
+
+        assertEquals(1, calls.get());
+        assertEquals(1, notified.get());
+        assertEquals(120, sampler.getDepth("encode", null));
+        assertEquals(7, sampler.getDepth("encode", "gpu"));
+        assertEquals(0, sampler.getDepth("unknown", null));
+
+        sizes.remove("gpu:encode");
+        sampler.sample();
+        assertEquals(0, sampler.getDepth("encode", "gpu"));
+        sampler.close();
+    }
+
+    @Test
+    public void testFailedSampleKeepsPreviousDepths() {
+        AtomicInteger calls = new AtomicInteger();
+        QueueDepthSampler sampler =
+                new QueueDepthSampler(
+                        () -> {
+                            if (calls.incrementAndGet() > 1) {
+                                throw new IllegalStateException("server down");
+                            }
+                            Map<String, Long> sizes = new HashMap<>();
+                            sizes.put("encode", 3L);
+                            return sizes;
+                        });
+        sampler.sample();
+        sampler.sample();
+        assertEquals(3, sampler.getDepth("encode", null));
+        sampler.close();
+    }
+}
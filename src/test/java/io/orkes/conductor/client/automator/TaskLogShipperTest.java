@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.automator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.netflix.conductor.common.metadata.tasks.TaskExecLog;
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
+
+import io.orkes.conductor.client.TaskClient;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class TaskLogShipperTest {
+
+    private final TaskClient taskClient = mock(TaskClient.class);
+
+    private TaskLogShipper shipper;
+
+    @AfterEach
+    public void tearDown() {
+        if (shipper != null) {
+            shipper.close();
+        }
+    }
+
+    @Test
+    public void testLinesAreAttachedToTheResult() {
+        shipper = new TaskLogShipper(taskClient, Duration.ofHours(1), 3, 1024);
+        shipper.open("task-1");
+        TaskLogger.current().log("started");
+        TaskLogger.current().log("processed %d items", 10);
+        TaskLogger.current().log("done");
+        TaskLogger.current().log("dropped");
+        shipper.unbind();
+
+        TaskResult result = new TaskResult();
+        shipper.complete("task-1", result);
+
+        assertEquals(
+                List.of("started", "processed 10 items", "done", "1 log lines were dropped"),
+                messages(result));
+        assertEquals(0, shipper.getBufferedChars());
+        verifyZeroInteractions(taskClient);
+    }
+
+    @Test
+    public void testLinesOutsideOfATaskAreDropped() {
+        shipper = new TaskLogShipper(taskClient, Duration.ofHours(1), 3, 1024);
+        TaskLogger.current().log("nowhere to go");
+        assertNull(TaskLogger.current().getTaskId());
+        assertEquals(0, shipper.getBufferedChars());
+    }
+
+    @Test
+    public void testSharedBudgetDropsLines() {
+        shipper = new TaskLogShipper(taskClient, Duration.ofHours(1), 100, 10);
+        TaskLogger first = shipper.open("task-1");
+        first.log("12345678");
+        TaskLogger second = shipper.open("task-2");
+        second.log("12345");
+        shipper.unbind();
+
+        assertEquals(8, shipper.getBufferedChars());
+        assertEquals(1, second.getDroppedCount());
+
+        shipper.complete("task-1", new TaskResult());
+        second.log("12345");
+        assertEquals(5, shipper.getBufferedChars());
+    }
+
+    @Test
+    public void testLongRunningTaskLinesAreShippedInOneMessage() throws Exception {
+        shipper = new TaskLogShipper(taskClient, Duration.ofMillis(1), 100, 1024);
+        TaskLogger logger = shipper.open("task-1");
+        shipper.unbind();
+        shipper.close();
+        logger.log("first");
+        logger.log("second");
+        Thread.sleep(5);
+
+        shipper.flushLongRunning();
+
+        verify(taskClient).logMessageForTask("task-1", "first\nsecond");
+        TaskResult result = new TaskResult();
+        shipper.complete("task-1", result);
+        assertTrue(result.getLogs().isEmpty());
+    }
+
+    @Test
+    public void testLinesAfterCompletionAreDropped() {
+        shipper = new TaskLogShipper(taskClient, Duration.ofHours(1), 100, 1024);
+        TaskLogger logger = shipper.open("task-1");
+        shipper.unbind();
+        shipper.complete("task-1", new TaskResult());
+
+        logger.log("late");
+
+        assertEquals(0, shipper.getBufferedChars());
+        assertEquals(1, logger.getDroppedCount());
+        shipper.flushLongRunning();
+        verify(taskClient, never()).logMessageForTask("task-1", "late");
+    }
+
+    private static List<String> messages(TaskResult result) {
+        return result.getLogs().stream().map(TaskExecLog::getLog).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.automator;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkerAutoscalerTest {
+
+    private final WorkerAutoscaler autoscaler = new WorkerAutoscaler(Duration.ofSeconds(10), 2, 50);
+
+    @Test
+    public void testScalesUpToDrainBacklogInTime() {
+        // 1000 tasks of 200 ms in 10 s need 20 threads
+        assertEquals(20, autoscaler.targetThreads(5, 1000, 200));
+        assertEquals(50, autoscaler.targetThreads(5, 100_000, 200));
+    }
+
+    @Test
+    public void testScalesDownByHalfAtMost() {
+        assertEquals(20, autoscaler.targetThreads(40, 0, 200));
+        assertEquals(10, autoscaler.targetThreads(20, 0, 200));
+        assertEquals(2, autoscaler.targetThreads(3, 0, 200));
+    }
+
+    @Test
+    public void testKeepsThreadsWithoutExecutionTimeWhileBacklogged() {
+        assertEquals(8, autoscaler.targetThreads(8, 500, 0));
+        assertEquals(4, autoscaler.targetThreads(8, 0, 0));
+    }
+}
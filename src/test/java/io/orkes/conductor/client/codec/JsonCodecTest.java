@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.codec;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.netflix.conductor.common.metadata.tasks.Task;
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.common.run.Workflow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonCodecTest {
+
+    private final List<JsonCodec> codecs = List.of(new GsonCodec(), new JacksonCodec());
+
+    @Test
+    public void testTaskResultRoundTrip() throws Exception {
+        TaskResult taskResult = new TaskResult();
+        taskResult.setWorkflowInstanceId("wf-1");
+        taskResult.setTaskId("task-1");
+        taskResult.setStatus(TaskResult.Status.COMPLETED);
+        taskResult.setOutputData(Map.of("key", "value"));
+        for (JsonCodec codec : codecs) {
+            TaskResult read = codec.fromJson(codec.toJson(taskResult), TaskResult.class);
+            assertEquals(taskResult.getTaskId(), read.getTaskId(), codec.getClass().getSimpleName());
+            assertEquals(taskResult.getStatus(), read.getStatus());
+            assertEquals(taskResult.getOutputData(), read.getOutputData());
+        }
+    }
+
+    @Test
+    public void testWorkflowRoundTrip() throws Exception {
+        Task task = new Task();
+        task.setTaskId("task-1");
+        task.setStatus(Task.Status.IN_PROGRESS);
+        Workflow workflow = new Workflow();
+        workflow.setWorkflowId("wf-1");
+        workflow.setStatus(Workflow.WorkflowStatus.RUNNING);
+        workflow.setTasks(List.of(task));
+        for (JsonCodec codec : codecs) {
+            StringWriter writer = new StringWriter();
+            codec.write(workflow, writer);
+            Workflow read = codec.read(new StringReader(writer.toString()), Workflow.class);
+            assertEquals(workflow.getWorkflowId(), read.getWorkflowId(), codec.getClass().getSimpleName());
+            assertEquals(workflow.getStatus(), read.getStatus());
+            assertEquals(Task.Status.IN_PROGRESS, read.getTasks().get(0).getStatus());
+        }
+    }
+
+    @Test
+    public void testObjectMapperOfTheConfiguredCodec() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertSame(objectMapper, JacksonCodec.objectMapperOf(new JacksonCodec(objectMapper)));
+        assertSame(JacksonCodec.sharedObjectMapper(), JacksonCodec.objectMapperOf(new GsonCodec()));
+        assertSame(JacksonCodec.sharedObjectMapper(), JacksonCodec.objectMapperOf(null));
+        assertTrue(
+                JacksonCodec.sharedObjectMapper()
+                        .getRegisteredModuleIds()
+                        .contains(new AfterburnerModule().getTypeId()));
+    }
+
+    @Test
+    public void testNull() throws Exception {
+        for (JsonCodec codec : codecs) {
+            assertEquals("null", codec.toJson(null));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.grpc;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.orkes.conductor.client.http.auth.TokenManager;
+
+import io.grpc.CallCredentials;
+import io.grpc.Metadata;
+import io.grpc.Status;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthTokenTest {
+
+    @Test
+    public void testValidTokenIsAppliedInlineWithSharedMetadata() {
+        AtomicInteger fetches = new AtomicInteger();
+        TokenManager manager = new TokenManager(() -> "token-" + fetches.incrementAndGet());
+        AuthToken authToken = new AuthToken(manager);
+        CountingExecutor executor = new CountingExecutor();
+
+        CapturingApplier first = apply(authToken, executor);
+        assertEquals("token-1", first.metadata.get(AuthToken.AUTH_HEADER));
+        assertEquals(ClientIdentity.get(), first.metadata.get(AuthToken.CLIENT_ID_HEADER));
+
+        for (int i = 0; i < 1_000; i++) {
+            assertSame(first.metadata, apply(authToken, executor).metadata);
+        }
+        assertEquals(1, executor.executed);
+        assertEquals(1, fetches.get());
+        manager.shutdown();
+    }
+
+    @Test
+    public void testMetadataIsSwappedWhenTokenChanges() {
+        AtomicInteger fetches = new AtomicInteger();
+        TokenManager manager = new TokenManager(() -> "token-" + fetches.incrementAndGet());
+        AuthToken authToken = new AuthToken(manager);
+        CountingExecutor executor = new CountingExecutor();
+
+        String token = apply(authToken, executor).metadata.get(AuthToken.AUTH_HEADER);
+        manager.refresh(token);
+
+        assertEquals("token-2", apply(authToken, executor).metadata.get(AuthToken.AUTH_HEADER));
+        assertEquals(1, executor.executed);
+        manager.shutdown();
+    }
+
+    @Test
+    public void testFailsUnauthenticatedWithoutToken() {
+        TokenManager manager =
+                new TokenManager(
+                        () -> {
+                            throw new IllegalStateException("bad credentials");
+                        });
+        CapturingApplier applier = apply(new AuthToken(manager), new CountingExecutor());
+        assertNull(applier.metadata);
+        assertEquals(Status.Code.UNAUTHENTICATED, applier.status.getCode());
+    }
+
+    @Test
+    public void testClientIdentityIsResolvedOnce() {
+        assertNotNull(ClientIdentity.get());
+        assertSame(ClientIdentity.get(), ClientIdentity.get());
+    }
+
+    private static CapturingApplier apply(AuthToken authToken, Executor executor) {
+        CapturingApplier applier = new CapturingApplier();
+        authToken.applyRequestMetadata(null, executor, applier);
+        return applier;
+    }
+
+    private static class CountingExecutor implements Executor {
+
+        private int executed;
+
+        @Override
+        public void execute(Runnable command) {
+            executed++;
+            command.run();
+        }
+    }
+
+    private static class CapturingApplier extends CallCredentials.MetadataApplier {
+
+        private Metadata metadata;
+
+        private Status status;
+
+        @Override
+        public void apply(Metadata headers) {
+            metadata = headers;
+        }
+
+        @Override
+        public void fail(Status status) {
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.grpc.workflow;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PendingRequestTableTest {
+
+    private final PendingRequestTable<String> table = new PendingRequestTable<>("test");
+
+    @AfterEach
+    public void shutdown() {
+        table.shutdown();
+    }
+
+    @Test
+    public void testRemoveOnCompletion() {
+        CompletableFuture<String> future = table.register("r1", Duration.ofMinutes(1));
+        assertEquals(1, table.size());
+        CompletableFuture<String> removed = table.remove("r1");
+        assertSame(future, removed);
+        assertEquals(0, table.size());
+        assertNull(table.remove("r1"));
+    }
+
+    @Test
+    public void testDeadline() {
+        CompletableFuture<String> future = table.register("r2", Duration.ofMillis(50));
+        ExecutionException e =
+                assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof TimeoutException);
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testFailAll() {
+        CompletableFuture<String> f1 = table.register("a", Duration.ofMinutes(1));
+        CompletableFuture<String> f2 = table.register("b", Duration.ofMinutes(1));
+        assertEquals(2, table.failAll(new RuntimeException("stream closed")));
+        assertTrue(f1.isCompletedExceptionally());
+        assertTrue(f2.isCompletedExceptionally());
+        assertEquals(0, table.size());
+    }
+}
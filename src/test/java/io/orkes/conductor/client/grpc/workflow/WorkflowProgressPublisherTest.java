@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.grpc.workflow;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import com.netflix.conductor.common.run.Workflow;
+
+import io.orkes.conductor.common.model.WorkflowRun;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkflowProgressPublisherTest {
+
+    @Test
+    public void testSnapshotsAreFollowedByTheTerminalOne() throws Exception {
+        CompletableFuture<WorkflowRun> execution = new CompletableFuture<>();
+        AtomicReference<Consumer<WorkflowRun>> listener = new AtomicReference<>();
+        WorkflowProgressPublisher publisher =
+                new WorkflowProgressPublisher(
+                        l -> {
+                            listener.set(l);
+                            return execution;
+                        });
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+
+        listener.get().accept(run(Workflow.WorkflowStatus.RUNNING));
+        listener.get().accept(run(Workflow.WorkflowStatus.RUNNING));
+        execution.complete(run(Workflow.WorkflowStatus.COMPLETED));
+
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        assertEquals(3, subscriber.items.size());
+        assertEquals(Workflow.WorkflowStatus.COMPLETED, subscriber.items.get(2).getStatus());
+    }
+
+    @Test
+    public void testSlowSubscriberDoesNotBlockAndGetsTheTerminalSnapshot() throws Exception {
+        CompletableFuture<WorkflowRun> execution = new CompletableFuture<>();
+        AtomicReference<Consumer<WorkflowRun>> listener = new AtomicReference<>();
+        WorkflowProgressPublisher publisher =
+                new WorkflowProgressPublisher(
+                        l -> {
+                            listener.set(l);
+                            return execution;
+                        },
+                        Runnable::run,
+                        4);
+        // requests nothing until told to
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe(subscriber);
+
+        for (int i = 0; i < 100; i++) {
+            listener.get().accept(run(Workflow.WorkflowStatus.RUNNING));
+        }
+        execution.complete(run(Workflow.WorkflowStatus.COMPLETED));
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        assertEquals(4, subscriber.items.size());
+        assertEquals(Workflow.WorkflowStatus.COMPLETED, subscriber.items.get(3).getStatus());
+    }
+
+    @Test
+    public void testExecutionFailureIsPublished() throws Exception {
+        WorkflowProgressPublisher publisher =
+                new WorkflowProgressPublisher(
+                        l -> CompletableFuture.failedFuture(new IllegalStateException("failed")));
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+        assertTrue(subscriber.error instanceof IllegalStateException);
+        assertTrue(subscriber.items.isEmpty());
+    }
+
+    @Test
+    public void testSecondSubscriberIsRejected() throws Exception {
+        WorkflowProgressPublisher publisher = new WorkflowProgressPublisher(l -> new CompletableFuture<>());
+        publisher.subscribe(new RecordingSubscriber(Long.MAX_VALUE));
+
+        RecordingSubscriber second = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(second);
+
+        assertTrue(second.done.await(5, TimeUnit.SECONDS));
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    private static WorkflowRun run(Workflow.WorkflowStatus status) {
+        WorkflowRun run = new WorkflowRun();
+        run.setStatus(status);
+        return run;
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<WorkflowRun> {
+
+        private final long initialRequest;
+
+        private final List<WorkflowRun> items = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private volatile Flow.Subscription subscription;
+
+        private volatile Throwable error;
+
+        RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(WorkflowRun item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.grpc.workflow;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.orkes.conductor.client.http.ApiException;
+import io.orkes.conductor.common.model.WorkflowRun;
+import io.orkes.grpc.service.OrkesWorkflowService;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkflowStreamSupervisorTest {
+
+    private final WorkflowExecutionMonitor monitor = new WorkflowExecutionMonitor();
+
+    private final BlockingQueue<FakeStream> opened = new LinkedBlockingQueue<>();
+
+    private final AtomicBoolean serverDown = new AtomicBoolean();
+
+    private WorkflowStreamSupervisor supervisor;
+
+    @AfterEach
+    public void shutdown() {
+        if (supervisor != null) {
+            supervisor.shutdown();
+        }
+        monitor.shutdown();
+    }
+
+    @Test
+    public void testRequestsAreSentOnceTheStreamIsReady() throws Exception {
+        supervisor = supervisor(5);
+        FakeStream stream = nextStream();
+
+        CompletableFuture<WorkflowRun> future = supervisor.submit("r1", request("r1"), Duration.ofMinutes(1));
+        assertTrue(stream.sent.isEmpty());
+
+        ready(stream);
+        await(() -> stream.sent.size() == 1);
+        assertEquals(WorkflowStreamSupervisor.State.READY, supervisor.getState());
+
+        complete("r1");
+        assertNotNull(future.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testOutstandingRequestsAreReplayedOnReconnect() throws Exception {
+        supervisor = supervisor(5);
+        FakeStream first = nextStream();
+        ready(first);
+        await(() -> supervisor.getState() == WorkflowStreamSupervisor.State.READY);
+
+        CompletableFuture<WorkflowRun> pending = supervisor.submit("r1", request("r1"), Duration.ofMinutes(1));
+        CompletableFuture<WorkflowRun> answered = supervisor.submit("r2", request("r2"), Duration.ofMinutes(1));
+        await(() -> first.sent.size() == 2);
+        complete("r2");
+        answered.get(5, TimeUnit.SECONDS);
+
+        first.fail(Status.UNAVAILABLE);
+        FakeStream second = nextStream();
+        ready(second);
+
+        await(() -> second.sent.size() == 1);
+        assertEquals("r1", second.sent.get(0).getRequestId());
+        assertFalse(pending.isDone());
+
+        // becoming ready again does not send the request twice on the same stream
+        ready(second);
+        Thread.sleep(50);
+        assertEquals(1, second.sent.size());
+
+        complete("r1");
+        assertNotNull(pending.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testOutstandingRequestsFailOnceTheReconnectBudgetIsSpent() throws Exception {
+        serverDown.set(true);
+        supervisor = supervisor(3);
+
+        CompletableFuture<WorkflowRun> future = supervisor.submit("r1", request("r1"), Duration.ofMinutes(5));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof ApiException);
+        assertEquals(0, monitor.getPendingCount());
+
+        // new requests fail right away while the stream is unavailable
+        CompletableFuture<WorkflowRun> rejected = supervisor.submit("r2", request("r2"), Duration.ofMinutes(5));
+        assertTrue(rejected.isCompletedExceptionally());
+
+        // and are accepted again once the server is back
+        serverDown.set(false);
+        FakeStream stream = nextStream();
+        ready(stream);
+        await(() -> supervisor.getState() == WorkflowStreamSupervisor.State.READY);
+        CompletableFuture<WorkflowRun> accepted = supervisor.submit("r3", request("r3"), Duration.ofMinutes(5));
+        await(() -> stream.sent.size() == 1);
+        assertFalse(accepted.isDone());
+    }
+
+    @Test
+    public void testShutdownFailsPendingRequests() {
+        supervisor = supervisor(5);
+        CompletableFuture<WorkflowRun> future = supervisor.submit("r1", request("r1"), Duration.ofMinutes(5));
+
+        supervisor.shutdown();
+
+        assertTrue(future.isCompletedExceptionally());
+        assertTrue(supervisor.submit("r2", request("r2"), Duration.ofMinutes(5)).isCompletedExceptionally());
+    }
+
+    private WorkflowStreamSupervisor supervisor(int maxReconnectAttempts) {
+        WorkflowStreamSupervisor supervisor =
+                new WorkflowStreamSupervisor(this::open, monitor, maxReconnectAttempts, 10);
+        supervisor.start();
+        return supervisor;
+    }
+
+    private StreamObserver<OrkesWorkflowService.StartWorkflowRequest> open(
+            StreamObserver<OrkesWorkflowService.StartWorkflowResponse> responseObserver) {
+        if (serverDown.get()) {
+            throw Status.UNAVAILABLE.asRuntimeException();
+        }
+        FakeStream stream = new FakeStream((StartWorkflowResponseStream) responseObserver);
+        opened.add(stream);
+        return stream;
+    }
+
+    private FakeStream nextStream() throws InterruptedException {
+        FakeStream stream = opened.poll(5, TimeUnit.SECONDS);
+        assertNotNull(stream, "no stream was opened");
+        return stream;
+    }
+
+    private void ready(FakeStream stream) {
+        supervisor.onStreamReady(stream.responses);
+    }
+
+    private void complete(String requestId) {
+        CompletableFuture<WorkflowRun> future = monitor.complete(requestId);
+        assertNotNull(future, "no pending request " + requestId);
+        future.complete(new WorkflowRun());
+    }
+
+    private static OrkesWorkflowService.StartWorkflowRequest request(String requestId) {
+        return OrkesWorkflowService.StartWorkflowRequest.newBuilder()
+                .setRequestId(requestId)
+                .setIdempotencyKey(requestId)
+                .build();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    /** Request side of a stream, recording the requests sent by the supervisor */
+    private static class FakeStream implements StreamObserver<OrkesWorkflowService.StartWorkflowRequest> {
+
+        private final StartWorkflowResponseStream responses;
+
+        private final List<OrkesWorkflowService.StartWorkflowRequest> sent = new CopyOnWriteArrayList<>();
+
+        FakeStream(StartWorkflowResponseStream responses) {
+            this.responses = responses;
+        }
+
+        void fail(Status status) {
+            responses.onError(status.asRuntimeException());
+        }
+
+        @Override
+        public void onNext(OrkesWorkflowService.StartWorkflowRequest request) {
+            sent.add(request);
+        }
+
+        @Override
+        public void onError(Throwable t) {}
+
+        @Override
+        public void onCompleted() {}
+    }
+}
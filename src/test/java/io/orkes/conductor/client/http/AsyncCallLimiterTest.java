@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncCallLimiterTest {
+
+    @Test
+    public void testBoundsCallsInFlight() {
+        AsyncCallLimiter limiter = new AsyncCallLimiter(2);
+        List<CompletableFuture<Integer>> started = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(
+                    limiter.submit(
+                            () -> {
+                                CompletableFuture<Integer> call = new CompletableFuture<>();
+                                started.add(call);
+                                return call;
+                            }));
+        }
+        assertEquals(2, started.size());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(3, limiter.getQueued());
+
+        started.get(0).complete(0);
+        assertEquals(0, results.get(0).join());
+        assertEquals(3, started.size());
+
+        for (int i = 1; i < 5; i++) {
+            started.get(i).complete(i);
+        }
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, results.get(i).join());
+        }
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    public void testSynchronousCompletionsDoNotGrowTheStack() {
+        AsyncCallLimiter limiter = new AsyncCallLimiter(1);
+        CompletableFuture<Integer> first = new CompletableFuture<>();
+        limiter.submit(() -> first);
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            int value = i;
+            results.add(limiter.submit(() -> CompletableFuture.completedFuture(value)));
+        }
+        assertEquals(100_000, limiter.getQueued());
+
+        first.complete(-1);
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).join());
+        }
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    public void testCancelledWhileQueued() {
+        AsyncCallLimiter limiter = new AsyncCallLimiter(1);
+        CompletableFuture<String> first = new CompletableFuture<>();
+        limiter.submit(() -> first);
+        CompletableFuture<String> queued =
+                limiter.submit(() -> CompletableFuture.completedFuture("never"));
+        queued.cancel(false);
+
+        first.complete("done");
+        assertTrue(queued.isCancelled());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testCallFailingToStart() {
+        AsyncCallLimiter limiter = new AsyncCallLimiter(1);
+        CompletableFuture<String> result =
+                limiter.submit(
+                        () -> {
+                            throw new ApiException("invalid");
+                        });
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
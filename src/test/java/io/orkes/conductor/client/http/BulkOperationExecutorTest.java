@@ -0,0 +1,183 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.netflix.conductor.common.model.BulkResponse;
+
+import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.http.api.WorkflowBulkResourceApi;
+import io.orkes.conductor.client.util.LocalServer;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkOperationExecutorTest {
+
+    private static final Pattern ID = Pattern.compile("\"([^\"]+)\"");
+
+    private LocalServer server;
+
+    private ApiClient apiClient;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = LocalServer.start().handle("/api/workflow/bulk/pause", this::pause);
+        apiClient = new ApiClient(server.getBasePath());
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void testChunksAreMergedInOrder() {
+        List<String> ids = ids(1050);
+        List<Integer> progress = new ArrayList<>();
+        BulkResponse response =
+                new BulkOperationExecutor(
+                                100, 3, (processed, total, chunk) -> {
+                                    assertEquals(1050, total);
+                                    progress.add(processed);
+                                })
+                        .execute(ids, pauseCall());
+
+        assertEquals(ids, response.getBulkSuccessfulResults());
+        assertTrue(response.getBulkErrorResults().isEmpty());
+        assertEquals(11, requests.get());
+        assertTrue(maxInFlight.get() <= 3, "in flight " + maxInFlight.get());
+        assertEquals(11, progress.size());
+        assertEquals(1050, (int) progress.get(progress.size() - 1));
+    }
+
+    @Test
+    public void testFailedChunkReportsItsIdsAsErrors() {
+        List<String> ids = ids(30);
+        ids.set(15, "fail");
+        BulkResponse response = new BulkOperationExecutor(10, 2, null).execute(ids, pauseCall());
+
+        assertEquals(20, response.getBulkSuccessfulResults().size());
+        assertEquals(10, response.getBulkErrorResults().size());
+        assertTrue(response.getBulkErrorResults().containsKey("fail"));
+        assertTrue(response.getBulkErrorResults().containsKey("wf-10"));
+    }
+
+    @Test
+    public void testErrorIsThrownWhenEveryChunkFails() {
+        List<String> ids = ids(5);
+        ids.set(2, "fail");
+        ApiException e =
+                assertThrows(
+                        ApiException.class,
+                        () -> new BulkOperationExecutor(10, 2, null).execute(ids, pauseCall()));
+        assertEquals(500, e.getCode());
+    }
+
+    @Test
+    public void testMissingIdsAreRejectedByTheApi() {
+        ApiException e =
+                assertThrows(
+                        ApiException.class,
+                        () -> new BulkOperationExecutor(10, 2, null).execute(null, pauseCall()));
+        assertTrue(e.getMessage().contains("Missing the required parameter"));
+        assertEquals(0, requests.get());
+    }
+
+    @Test
+    public void testInterruptCancelsTheChunksInFlight() {
+        List<CompletableFuture<BulkResponse>> started = new ArrayList<>();
+        BulkOperationExecutor.ChunkCall hanging =
+                chunk -> {
+                    CompletableFuture<BulkResponse> future = new CompletableFuture<>();
+                    started.add(future);
+                    // the caller is interrupted while waiting for room for the next chunk
+                    Thread.currentThread().interrupt();
+                    return future;
+                };
+        try {
+            assertThrows(
+                    CancellationException.class,
+                    () -> new BulkOperationExecutor(10, 1, null).execute(ids(30), hanging));
+            assertTrue(Thread.interrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(1, started.size());
+        started.forEach(future -> assertTrue(future.isCancelled()));
+    }
+
+    @Test
+    public void testEmptyListSendsNothing() {
+        BulkResponse response = new BulkOperationExecutor(10, 2, null).execute(new ArrayList<>(), pauseCall());
+        assertTrue(response.getBulkSuccessfulResults().isEmpty());
+        assertEquals(0, requests.get());
+    }
+
+    private BulkOperationExecutor.ChunkCall pauseCall() {
+        WorkflowBulkResourceApi api = new WorkflowBulkResourceApi(apiClient);
+        return api::pauseWorkflow1Async;
+    }
+
+    private void pause(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            List<String> ids = new ArrayList<>();
+            Matcher matcher = ID.matcher(LocalServer.read(exchange));
+            while (matcher.find()) {
+                ids.add(matcher.group(1));
+            }
+            Thread.sleep(20);
+            if (ids.contains("fail")) {
+                LocalServer.respond(exchange, 500, "{\"message\":\"failed\"}");
+                return;
+            }
+            String results = ids.stream().map(id -> "\"" + id + "\"").collect(Collectors.joining(","));
+            LocalServer.respond(
+                    exchange, 200, "{\"bulkErrorResults\":{},\"bulkSuccessfulResults\":[" + results + "]}");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static List<String> ids(int count) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add("wf-" + i);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.netflix.conductor.common.metadata.workflow.StartWorkflowRequest;
+
+import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.http.api.WorkflowResourceApi;
+import io.orkes.conductor.client.model.StartWorkflowResult;
+import io.orkes.conductor.client.util.LocalServer;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkWorkflowStarterTest {
+
+    private static final Pattern NAME = Pattern.compile("\"name\"\\s*:\\s*\"wf-(\\d+)\"");
+
+    private LocalServer server;
+
+    private ApiClient apiClient;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = LocalServer.start().handle("/api/workflow", this::start);
+        apiClient = new ApiClient(server.getBasePath());
+        apiClient.setMaxRequestsPerHost(32);
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void testResultsAreDeliveredInRequestOrder() {
+        List<StartWorkflowResult> results = starter(16).start(requests(100));
+
+        assertEquals(100, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals("id-" + i, results.get(i).getWorkflowId());
+        }
+        assertTrue(maxInFlight.get() <= 16, "in flight " + maxInFlight.get());
+        // more than the 5 calls per host allowed by a default OkHttp dispatcher
+        assertTrue(maxInFlight.get() > 5, "in flight " + maxInFlight.get());
+    }
+
+    @Test
+    public void testFailuresAreReportedAtTheirIndex() {
+        List<StartWorkflowRequest> requests = requests(20);
+        requests.get(7).setName("fail");
+        requests.set(12, null);
+
+        List<StartWorkflowResult> results = starter(4).start(requests);
+
+        assertEquals(20, results.size());
+        assertFalse(results.get(7).isSuccessful());
+        assertEquals(500, ((ApiException) results.get(7).getError()).getCode());
+        assertFalse(results.get(12).isSuccessful());
+        assertEquals("id-8", results.get(8).getWorkflowId());
+        assertEquals(18, results.stream().filter(StartWorkflowResult::isSuccessful).count());
+    }
+
+    @Test
+    public void testConsumerSeesResultsInOrder() {
+        List<Integer> indexes = new ArrayList<>();
+        starter(8).start(requests(50).iterator(), result -> indexes.add(result.getIndex()));
+
+        assertEquals(50, indexes.size());
+        for (int i = 0; i < indexes.size(); i++) {
+            assertEquals(i, indexes.get(i));
+        }
+    }
+
+    @Test
+    public void testNoResultIsDeliveredAfterAnInterrupt() throws Exception {
+        AtomicInteger delivered = new AtomicInteger();
+        Iterator<StartWorkflowRequest> requests = requests(20).iterator();
+        Iterator<StartWorkflowRequest> interrupting =
+                new Iterator<StartWorkflowRequest>() {
+                    private int sent;
+
+                    @Override
+                    public boolean hasNext() {
+                        return requests.hasNext();
+                    }
+
+                    @Override
+                    public StartWorkflowRequest next() {
+                        if (++sent == 5) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return requests.next();
+                    }
+                };
+
+        assertThrows(
+                CancellationException.class,
+                () -> starter(16).start(interrupting, result -> delivered.incrementAndGet()));
+        assertTrue(Thread.interrupted());
+        int afterCancel = delivered.get();
+        Thread.sleep(200);
+        assertEquals(afterCancel, delivered.get());
+    }
+
+    private BulkWorkflowStarter starter(int maxInFlight) {
+        return new BulkWorkflowStarter(apiClient, new WorkflowResourceApi(apiClient), maxInFlight);
+    }
+
+    private static List<StartWorkflowRequest> requests(int count) {
+        List<StartWorkflowRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StartWorkflowRequest request = new StartWorkflowRequest();
+            request.setName("wf-" + i);
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    private void start(HttpExchange exchange) throws IOException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Matcher matcher = NAME.matcher(LocalServer.read(exchange));
+            if (!matcher.find()) {
+                LocalServer.respond(exchange, 500, "{\"message\":\"failed\"}");
+                return;
+            }
+            int index = Integer.parseInt(matcher.group(1));
+            // later requests complete first, so that results arrive out of order
+            Thread.sleep(50 - index % 10 * 5);
+            LocalServer.respond(exchange, 200, "text/plain", "id-" + index);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.util.LocalServer;
+
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.OkHttpClient;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkheadsTest {
+
+    private LocalServer server;
+
+    private ApiClient apiClient;
+
+    private final CountDownLatch releaseSearches = new CountDownLatch(1);
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server =
+                LocalServer.start()
+                        .handle(
+                                "/api",
+                                exchange -> {
+                                    if (exchange.getRequestURI().getPath().startsWith("/api/workflow/search")) {
+                                        try {
+                                            releaseSearches.await(10, TimeUnit.SECONDS);
+                                        } catch (InterruptedException e) {
+                                            Thread.currentThread().interrupt();
+                                        }
+                                    }
+                                    LocalServer.read(exchange);
+                                    LocalServer.respond(exchange, 200, "{}");
+                                });
+        apiClient = new ApiClient(server.getBasePath());
+    }
+
+    @AfterEach
+    public void stopServer() {
+        releaseSearches.countDown();
+        server.close();
+    }
+
+    @Test
+    public void testDefaultRoutes() {
+        Bulkheads bulkheads = Bulkheads.defaults();
+        assertEquals(TrafficClass.POLL, bulkheads.classify("GET", "/tasks/poll/batch/email"));
+        assertEquals(TrafficClass.UPDATE, bulkheads.classify("POST", "/tasks"));
+        assertEquals(TrafficClass.ADMIN, bulkheads.classify("GET", "/metadata/taskdefs/email"));
+        assertEquals(TrafficClass.ADMIN, bulkheads.classify("GET", "/tasks/queue/sizes"));
+        assertEquals(TrafficClass.ADMIN, bulkheads.classify("POST", "/tasks/queue/requeue/email"));
+        assertEquals(TrafficClass.UPDATE, bulkheads.classify("POST", "/tasks/wf-1/email_ref/COMPLETED"));
+        assertEquals(TrafficClass.ADMIN, bulkheads.classify("GET", "/workflow/search"));
+        assertNull(bulkheads.classify("GET", "/workflow/wf-1"));
+    }
+
+    @Test
+    public void testClientIsCopiedOncePerClass() {
+        Bulkheads bulkheads = Bulkheads.defaults();
+        OkHttpClient shared = new OkHttpClient();
+        OkHttpClient poll = bulkheads.clientFor(shared, "GET", "/tasks/poll/email");
+        assertNotSame(shared, poll);
+        assertSame(poll, bulkheads.clientFor(shared, "GET", "/tasks/poll/other"));
+        assertNotSame(poll, bulkheads.clientFor(shared, "POST", "/tasks"));
+
+        // copied again once the shared client changes
+        shared.interceptors().add(chain -> chain.proceed(chain.request()));
+        OkHttpClient updated = bulkheads.clientFor(shared, "GET", "/tasks/poll/email");
+        assertNotSame(poll, updated);
+        assertEquals(2, updated.interceptors().size());
+        assertSame(updated, bulkheads.clientFor(shared, "GET", "/tasks/poll/email"));
+        assertSame(shared, bulkheads.clientFor(shared, "GET", "/workflow/wf-1"));
+    }
+
+    @Test
+    public void testUpdatesFlowWhileAdminIsSaturated() throws Exception {
+        Bulkheads bulkheads =
+                Bulkheads.builder()
+                        .bulkhead(
+                                TrafficClass.ADMIN,
+                                Bulkhead.builder()
+                                        .maxConcurrentCalls(2)
+                                        .maxWait(Duration.ofMillis(100))
+                                        .build())
+                        .bulkhead(TrafficClass.UPDATE, Bulkhead.builder().maxConcurrentCalls(4).build())
+                        .defaultRoutes()
+                        .build();
+        apiClient.setBulkheads(bulkheads);
+
+        CompletableFuture<?> first = CompletableFuture.runAsync(() -> call("/workflow/search", "GET", null));
+        CompletableFuture<?> second = CompletableFuture.runAsync(() -> call("/workflow/search", "GET", null));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (bulkheads.getInFlight(TrafficClass.ADMIN) < 2) {
+            assertTrue(System.currentTimeMillis() < deadline, "searches did not start");
+            Thread.sleep(10);
+        }
+
+        // the admin class is full, further searches are rejected
+        assertThrows(ApiException.class, () -> call("/workflow/search", "GET", null));
+        assertEquals(1, bulkheads.getRejected(TrafficClass.ADMIN));
+
+        // updates have their own resources and are not held up by the searches
+        for (int i = 0; i < 10; i++) {
+            call("/tasks", "POST", "{}");
+        }
+        assertEquals(0, bulkheads.getInFlight(TrafficClass.UPDATE));
+        assertFalse(first.isDone());
+
+        releaseSearches.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+        assertEquals(0, bulkheads.getInFlight(TrafficClass.ADMIN));
+    }
+
+    private void call(String path, String method, Object body) {
+        Call call =
+                apiClient.buildCall(
+                        path,
+                        method,
+                        new ArrayList<>(),
+                        new ArrayList<>(),
+                        body,
+                        new HashMap<>(),
+                        new HashMap<>(),
+                        new String[0],
+                        null);
+        apiClient.execute(call);
+    }
+}
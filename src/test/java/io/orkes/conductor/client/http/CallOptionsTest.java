@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.http.api.TaskResourceApi;
+import io.orkes.conductor.client.util.LocalServer;
+
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Dispatcher;
+import com.squareup.okhttp.Request;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CallOptionsTest {
+
+    private final ApiClient apiClient = new ApiClient("http://localhost:8080/api");
+
+    @Test
+    public void testInterceptorChainStaysConstant() throws Exception {
+        TaskResourceApi taskResourceApi = new TaskResourceApi(apiClient);
+        int interceptors = apiClient.getHttpClient().interceptors().size();
+        int networkInterceptors = apiClient.getHttpClient().networkInterceptors().size();
+        ProgressResponseBody.ProgressListener listener = (bytesRead, contentLength, done) -> {};
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10_000; i++) {
+            executor.submit(() -> taskResourceApi.allCall(listener, null));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(interceptors, apiClient.getHttpClient().interceptors().size());
+        assertEquals(networkInterceptors, apiClient.getHttpClient().networkInterceptors().size());
+    }
+
+    @Test
+    public void testTimeoutsDoNotChangeSharedClient() {
+        int readTimeout = apiClient.getReadTimeout();
+        OrkesEventClient eventClient = new OrkesEventClient(apiClient);
+        eventClient.withReadTimeout(readTimeout + 60_000).withConnectTimeout(1_000);
+
+        assertEquals(readTimeout, apiClient.getReadTimeout());
+        CallOptions callOptions = eventClient.getApiClient().getCallOptions();
+        assertEquals(Duration.ofMillis(readTimeout + 60_000), callOptions.getReadTimeout());
+        assertEquals(Duration.ofSeconds(1), callOptions.getConnectTimeout());
+        assertSame(apiClient.getHttpClient(), eventClient.getApiClient().getHttpClient());
+    }
+
+    @Test
+    public void testHeadersAppliedToCalls() throws Exception {
+        ApiClient withHeader =
+                apiClient.withCallOptions(CallOptions.builder().header("X-Test", "value").build());
+        Request request =
+                withHeader.buildRequest(
+                        "/tasks/queue/all",
+                        "GET",
+                        new ArrayList<>(),
+                        new ArrayList<>(),
+                        null,
+                        new HashMap<>(),
+                        new HashMap<>(),
+                        new String[] {"api_key"},
+                        null);
+        assertEquals("value", request.header("X-Test"));
+
+        Request plain =
+                apiClient.buildRequest(
+                        "/tasks/queue/all",
+                        "GET",
+                        new ArrayList<>(),
+                        new ArrayList<>(),
+                        null,
+                        new HashMap<>(),
+                        new HashMap<>(),
+                        new String[] {"api_key"},
+                        null);
+        assertNull(plain.header("X-Test"));
+    }
+
+    @Test
+    public void testCallsRunOnTheDispatcherOfTheOptions() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (LocalServer server =
+                LocalServer.start()
+                        .handle(
+                                "/api/held",
+                                exchange -> {
+                                    received.countDown();
+                                    try {
+                                        release.await(10, TimeUnit.SECONDS);
+                                    } catch (InterruptedException e) {
+                                        Thread.currentThread().interrupt();
+                                    }
+                                    LocalServer.respond(exchange, 200, "{}");
+                                })) {
+            ApiClient client = new ApiClient(server.getBasePath());
+            Dispatcher dispatcher = new Dispatcher();
+            ApiClient withDispatcher =
+                    client.withCallOptions(CallOptions.builder().dispatcher(dispatcher).build());
+            Call call =
+                    withDispatcher.buildCall(
+                            "/held", "GET", new ArrayList<>(), new ArrayList<>(), null, new HashMap<>(),
+                            Collections.emptyMap(), new String[0], null);
+            CompletableFuture<Map<String, Object>> response = withDispatcher.executeAsync(call, Map.class);
+
+            assertTrue(received.await(10, TimeUnit.SECONDS));
+            assertEquals(1, dispatcher.getRunningCallCount());
+            assertEquals(0, client.getHttpClient().getDispatcher().getRunningCallCount());
+            release.countDown();
+            assertNotNull(response.get(10, TimeUnit.SECONDS));
+            dispatcher.getExecutorService().shutdown();
+            client.shutdown();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.orkes.conductor.client.util.LocalServer;
+
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndpointBalancerTest {
+
+    private static final String BASE_PATH = "http://conductor.invalid/api";
+
+    private final List<LocalServer> servers = new ArrayList<>();
+
+    @AfterEach
+    public void stopServers() {
+        servers.forEach(LocalServer::close);
+    }
+
+    @Test
+    public void testSpreadsCallsOverEndpoints() throws IOException {
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger second = new AtomicInteger();
+        EndpointBalancer balancer =
+                EndpointBalancer.builder(List.of(start(first, 200), start(second, 200))).build();
+        OkHttpClient client = client(balancer);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(200, get(client, "/workflow/wf-" + i));
+        }
+        assertEquals(100, first.get() + second.get());
+        assertTrue(first.get() > 10, "first endpoint got " + first.get());
+        assertTrue(second.get() > 10, "second endpoint got " + second.get());
+    }
+
+    @Test
+    public void testEjectsFailingEndpoint() throws IOException {
+        AtomicInteger healthy = new AtomicInteger();
+        AtomicInteger failing = new AtomicInteger();
+        EndpointBalancer balancer =
+                EndpointBalancer.builder(List.of(start(healthy, 200), start(failing, 503)))
+                        .failureThreshold(2)
+                        .ejection(Duration.ofMinutes(1), Duration.ofMinutes(5))
+                        .build();
+        OkHttpClient client = client(balancer);
+
+        for (int i = 0; i < 100; i++) {
+            get(client, "/workflow/wf-" + i);
+        }
+        assertEquals(2, failing.get());
+        assertEquals(98, healthy.get());
+        assertEquals(1, balancer.getEjectedCount());
+    }
+
+    @Test
+    public void testFailsOverIdempotentCalls() throws IOException {
+        AtomicInteger healthy = new AtomicInteger();
+        EndpointBalancer balancer =
+                EndpointBalancer.builder(List.of(start(healthy, 200), unreachable()))
+                        .failureThreshold(3)
+                        .build();
+        OkHttpClient client = client(balancer);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(200, get(client, "/workflow/wf-" + i));
+        }
+        assertEquals(20, healthy.get());
+        assertEquals(1, balancer.getEjectedCount());
+    }
+
+    @Test
+    public void testFailoversWithdrawFromTheRetryBudget() throws IOException {
+        EndpointBalancer balancer =
+                EndpointBalancer.builder(List.of(unreachable(), unreachable()))
+                        .failureThreshold(100)
+                        .build();
+        RetryBudget retryBudget = new RetryBudget(1, 0, 0);
+        AtomicInteger sends = new AtomicInteger();
+        OkHttpClient client = new OkHttpClient();
+        client.setRetryOnConnectionFailure(false);
+        client.interceptors().add(balancer.interceptor(BASE_PATH, retryBudget));
+        client.interceptors().add(
+                chain -> {
+                    sends.incrementAndGet();
+                    return chain.proceed(chain.request());
+                });
+
+        assertThrows(IOException.class, () -> get(client, "/workflow/wf-1"));
+        assertEquals(2, sends.get());
+        // the budget is spent, the next call is sent to a single endpoint
+        assertThrows(IOException.class, () -> get(client, "/workflow/wf-2"));
+        assertEquals(3, sends.get());
+    }
+
+    private static String unreachable() throws IOException {
+        try (LocalServer stopped = LocalServer.start()) {
+            return stopped.getBasePath();
+        }
+    }
+
+    private String start(AtomicInteger counter, int status) throws IOException {
+        LocalServer server =
+                LocalServer.start()
+                        .handle(
+                                "/api",
+                                exchange -> {
+                                    counter.incrementAndGet();
+                                    LocalServer.respond(exchange, status, "{}");
+                                });
+        servers.add(server);
+        return server.getBasePath();
+    }
+
+    private static OkHttpClient client(EndpointBalancer balancer) {
+        OkHttpClient client = new OkHttpClient();
+        client.setRetryOnConnectionFailure(false);
+        client.interceptors().add(balancer.interceptor(BASE_PATH));
+        return client;
+    }
+
+    private static int get(OkHttpClient client, String path) throws IOException {
+        Request request = new Request.Builder().url(BASE_PATH + path).get().build();
+        Response response = client.newCall(request).execute();
+        response.body().close();
+        return response.code();
+    }
+}
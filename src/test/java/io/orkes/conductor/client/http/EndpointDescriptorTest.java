@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.http.api.TaskResourceApi;
+
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Request;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndpointDescriptorTest {
+
+    @Test
+    public void testExpandPath() {
+        EndpointDescriptor endpoint =
+                EndpointDescriptor.builder("GET", "/tasks/{workflowId}/{taskRefName}/status")
+                        .build();
+        assertEquals("/tasks/wf%201/ref%2Fa/status", endpoint.expandPath("wf 1", "ref/a"));
+        assertThrows(IllegalArgumentException.class, () -> endpoint.expandPath("wf"));
+        assertEquals("/tasks", EndpointDescriptor.builder("POST", "/tasks").build().expandPath());
+    }
+
+    @Test
+    public void testMediaTypes() {
+        EndpointDescriptor endpoint =
+                EndpointDescriptor.builder("POST", "/tasks")
+                        .accepts("text/plain")
+                        .contentTypes("application/json")
+                        .build();
+        assertEquals("text/plain", endpoint.getAccept());
+        assertEquals("application/json", endpoint.getContentType());
+
+        EndpointDescriptor noAccept = EndpointDescriptor.builder("GET", "/tasks").build();
+        assertNull(noAccept.getAccept());
+        assertEquals("application/json", noAccept.getContentType());
+    }
+
+    @Test
+    public void testSameRequestAsGenericPath() throws Exception {
+        ApiClient apiClient = new ApiClient("http://localhost:8080/api");
+        AtomicReference<Request> sent = new AtomicReference<>();
+        apiClient
+                .getHttpClient()
+                .interceptors()
+                .add(
+                        chain -> {
+                            sent.set(chain.request());
+                            throw new IOException("not sent");
+                        });
+        Call call =
+                new TaskResourceApi(apiClient)
+                        .batchPollCall("task type", "worker", null, 5, 100, null, null);
+        assertThrows(IOException.class, call::execute);
+        Request request = sent.get();
+
+        List<Pair> queryParams = new ArrayList<>();
+        queryParams.addAll(apiClient.parameterToPair("workerid", "worker"));
+        queryParams.addAll(apiClient.parameterToPair("count", 5));
+        queryParams.addAll(apiClient.parameterToPair("timeout", 100));
+        HashMap<String, String> headerParams = new HashMap<>();
+        headerParams.put("Accept", apiClient.selectHeaderAccept(new String[] {"*/*"}));
+        headerParams.put("Content-Type", apiClient.selectHeaderContentType(new String[] {}));
+        Request expected =
+                apiClient.buildRequest(
+                        "/tasks/poll/batch/" + apiClient.escapeString("task type"),
+                        "GET",
+                        queryParams,
+                        new ArrayList<>(),
+                        null,
+                        headerParams,
+                        new HashMap<>(),
+                        new String[] {"api_key"},
+                        null);
+
+        assertEquals(expected.urlString(), request.urlString());
+        assertEquals(expected.method(), request.method());
+        assertEquals(expected.headers().toMultimap(), request.headers().toMultimap());
+    }
+}
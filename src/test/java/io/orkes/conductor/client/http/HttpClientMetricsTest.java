@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.orkes.conductor.client.util.LocalServer;
+
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpClientMetricsTest {
+
+    private LocalServer server;
+
+    private String url;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server =
+                LocalServer.start()
+                        .handle("/ping", exchange -> LocalServer.respond(exchange, 200, "text/plain", "pong"));
+        url = server.getUrl() + "/ping";
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void testConnectionsAreCountedAtTheNetworkLevel() throws IOException {
+        OkHttpClient client = new OkHttpClient();
+        HttpClientMetrics metrics = HttpClientMetrics.attach(client, "test");
+
+        for (int i = 0; i < 3; i++) {
+            get(client);
+        }
+
+        assertEquals(1, metrics.getConnectCount());
+        assertEquals(1, metrics.getNewConnectionCount());
+        assertEquals(2, metrics.getReusedConnectionCount());
+        assertEquals(2.0 / 3, metrics.getConnectionReuseRatio(), 0.001);
+    }
+
+    @Test
+    public void testApplicationInterceptorsAreNotMeasured() throws IOException {
+        OkHttpClient client = new OkHttpClient();
+        // stands for retries or a bulkhead waiting before the request reaches the network
+        client.interceptors().add(
+                chain -> {
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return chain.proceed(chain.request());
+                });
+        HttpClientMetrics metrics = HttpClientMetrics.attach(client, "test-interceptors");
+
+        get(client);
+        get(client);
+
+        // only the first request opens a connection, the interceptor delays are not connects
+        assertEquals(1, metrics.getConnectCount());
+        assertEquals(0.5, metrics.getConnectionReuseRatio(), 0.001);
+    }
+
+    private void get(OkHttpClient client) throws IOException {
+        Response response = client.newCall(new Request.Builder().url(url).build()).execute();
+        assertEquals("pong", response.body().string());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.orkes.conductor.client.ApiClient;
+
+import com.squareup.okhttp.Interceptor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InterceptorOrderTest {
+
+    private static final List<String> BASE_PATHS =
+            List.of("http://conductor-1:8080/api", "http://conductor-2:8080/api");
+
+    private final Interceptor application = chain -> chain.proceed(chain.request());
+
+    @Test
+    public void testOrderDoesNotDependOnTheOrderOfTheSetters() {
+        ApiClient first = new ApiClient(BASE_PATHS.get(0));
+        first.getHttpClient().interceptors().add(application);
+        first.setBasePaths(BASE_PATHS);
+        first.setRetryPolicy(RetryPolicy.DEFAULT);
+        first.enableRequestCoalescing("/workflow/{workflowId}");
+        assertOrdered(first.getHttpClient().interceptors());
+
+        ApiClient second = new ApiClient(BASE_PATHS.get(0));
+        second.enableRequestCoalescing("/workflow/{workflowId}");
+        second.setRetryPolicy(RetryPolicy.DEFAULT);
+        second.getHttpClient().interceptors().add(application);
+        second.setBasePaths(BASE_PATHS);
+        assertOrdered(second.getHttpClient().interceptors());
+    }
+
+    @Test
+    public void testReplacingAFeatureKeepsItsPlace() {
+        ApiClient apiClient = new ApiClient(BASE_PATHS.get(0));
+        apiClient.getHttpClient().interceptors().add(application);
+        apiClient.enableRequestCoalescing("/workflow/{workflowId}");
+        apiClient.setBasePaths(BASE_PATHS);
+        apiClient.setRetryPolicy(RetryPolicy.DEFAULT);
+        apiClient.setBasePaths(BASE_PATHS);
+        apiClient.setRetryPolicy(RetryPolicy.DEFAULT);
+        assertOrdered(apiClient.getHttpClient().interceptors());
+    }
+
+    private void assertOrdered(List<Interceptor> interceptors) {
+        assertEquals(4, interceptors.size());
+        assertTrue(interceptors.get(0) instanceof RequestCoalescer);
+        assertTrue(interceptors.get(1) instanceof RetryInterceptor);
+        assertTrue(interceptors.get(2) instanceof EndpointBalancer.RoutingInterceptor);
+        assertSame(application, interceptors.get(3));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import com.netflix.conductor.common.metadata.tasks.Task;
+import com.netflix.conductor.common.run.Workflow;
+
+import io.orkes.conductor.client.ApiClient;
+
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.ResponseBody;
+import okio.Buffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonStreamingTest {
+
+    private static final MediaType JSON_TYPE = MediaType.parse("application/json");
+
+    private final ApiClient apiClient = new ApiClient("http://localhost:8080/api");
+
+    @Test
+    public void testRoundTripLargeWorkflow() throws Exception {
+        Workflow workflow = largeWorkflow(2_000);
+
+        RequestBody requestBody = apiClient.serialize(workflow, "application/json");
+        Buffer buffer = new Buffer();
+        requestBody.writeTo(buffer);
+        assertTrue(buffer.size() > 2_000_000, "workflow should be multiple megabytes");
+        // the body can be written again, e.g. when the request is retried
+        Buffer again = new Buffer();
+        requestBody.writeTo(again);
+        assertEquals(buffer.size(), again.size());
+
+        Workflow read = apiClient.deserialize(response(buffer), Workflow.class);
+        assertEquals(workflow.getWorkflowId(), read.getWorkflowId());
+        assertEquals(workflow.getTasks().size(), read.getTasks().size());
+        assertEquals(
+                workflow.getTasks().get(1_999).getInputData(),
+                read.getTasks().get(1_999).getInputData());
+    }
+
+    @Test
+    public void testEmptyBody() throws Exception {
+        assertNull(apiClient.deserialize(response(new Buffer()), Workflow.class));
+    }
+
+    @Test
+    public void testStringResponse() throws Exception {
+        Buffer buffer = new Buffer().writeUtf8("not json");
+        assertEquals("not json", apiClient.deserialize(response(buffer), String.class));
+    }
+
+    private static Response response(Buffer content) {
+        return new Response.Builder()
+                .request(new Request.Builder().url("http://localhost:8080/api/workflow").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .header("Content-Type", "application/json")
+                .body(ResponseBody.create(JSON_TYPE, content.size(), content))
+                .build();
+    }
+
+    private static Workflow largeWorkflow(int taskCount) {
+        Workflow workflow = new Workflow();
+        workflow.setWorkflowId("wf-1");
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task();
+            task.setTaskId("task-" + i);
+            task.setReferenceTaskName("ref_" + i);
+            task.setInputData(Map.of("payload", StringUtils.repeat('x', 1_024), "index", (long) i));
+            tasks.add(task);
+        }
+        workflow.setTasks(tasks);
+        return workflow;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.netflix.conductor.common.metadata.tasks.Task;
+import com.netflix.conductor.common.run.TaskSummary;
+import com.netflix.conductor.common.run.Workflow;
+
+import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.http.api.TaskResourceApi;
+import io.orkes.conductor.client.util.LocalServer;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyWorkflowTest {
+
+    private static final int TASKS = 30;
+
+    /** Tasks of the large workflow, scheduled every 20 ms from its start time */
+    private static final int LARGE_TASKS = 50;
+
+    private static final long LARGE_START_TIME = 1_000_000;
+
+    private static final Pattern RANGE =
+            Pattern.compile("scheduledTime > (\\d+) AND scheduledTime < (\\d+)");
+
+    private static final Pattern PAGE = Pattern.compile("start=(\\d+)&size=(\\d+)");
+
+    private LocalServer server;
+
+    private ApiClient apiClient;
+
+    private final AtomicInteger searches = new AtomicInteger();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private volatile int maxWindow = Integer.MAX_VALUE;
+
+    private final Map<String, AtomicInteger> taskFetches = new ConcurrentHashMap<>();
+
+    private volatile String workflowQuery;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = LocalServer.start().handle("/api/", this::handle);
+        apiClient = new ApiClient(server.getBasePath());
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void testWorkflowIsFetchedWithoutTasks() {
+        LazyWorkflow view = LazyWorkflow.load(apiClient, "wf-1", TaskProjection.ALL);
+        assertEquals("wf-1", view.getWorkflowId());
+        assertTrue(workflowQuery.contains("includeTasks=false"), workflowQuery);
+        assertEquals(0, searches.get());
+        assertEquals(0, view.getLoadedTaskCount());
+    }
+
+    @Test
+    public void testTasksAreFetchedOnceOnDemand() {
+        LazyWorkflow view = LazyWorkflow.load(apiClient, "wf-1", TaskProjection.ALL);
+        List<TaskSummary> summaries = view.getTaskSummaries();
+        assertEquals(TASKS, summaries.size());
+        assertSame(summaries, view.getTaskSummaries());
+        assertEquals(1, searches.get());
+
+        List<Task> tasks = view.getTasks(Arrays.asList("t-1", "t-2", "t-3"));
+        assertEquals("t-2", tasks.get(1).getTaskId());
+        assertEquals("r-2", tasks.get(1).getOutputData().get("result"));
+        view.getTask("t-2");
+        assertEquals(3, view.getLoadedTaskCount());
+        assertEquals(1, taskFetches.get("t-2").get());
+    }
+
+    @Test
+    public void testFilterOnSummaries() {
+        LazyWorkflow view = LazyWorkflow.load(apiClient, "wf-1", TaskProjection.ALL);
+        List<Task> failed = view.getTasks(summary -> summary.getStatus() == Task.Status.FAILED);
+        assertEquals(3, failed.size());
+        assertEquals(3, view.getLoadedTaskCount());
+    }
+
+    @Test
+    public void testProjectionDropsFields() {
+        LazyWorkflow view = LazyWorkflow.load(apiClient, "wf-1", TaskProjection.outputFields("result"));
+        Task task = view.getTask("t-5");
+        assertEquals("t-5", task.getTaskId());
+        assertEquals(Task.Status.COMPLETED, task.getStatus());
+        assertEquals("r-5", task.getOutputData().get("result"));
+        assertFalse(task.getOutputData().containsKey("big"));
+        assertTrue(task.getInputData().isEmpty());
+    }
+
+    @Test
+    public void testMissingTaskIsNotCached() {
+        LazyWorkflow view = LazyWorkflow.load(apiClient, "wf-1", TaskProjection.ALL);
+        ApiException e = assertThrows(ApiException.class, () -> view.getTask("missing"));
+        assertEquals(404, e.getCode());
+        assertEquals(0, view.getLoadedTaskCount());
+    }
+
+    @Test
+    public void testLargeWorkflowsAreListedByTimeRange() {
+        maxWindow = 10;
+        Workflow workflow = new Workflow();
+        workflow.setWorkflowId("wf-large");
+        workflow.setStartTime(LARGE_START_TIME);
+        LazyWorkflow view = new LazyWorkflow(workflow, new TaskResourceApi(apiClient), TaskProjection.ALL, 10, 16);
+        List<String> taskIds =
+                view.getTaskSummaries().stream().map(TaskSummary::getTaskId).collect(Collectors.toList());
+        assertEquals(
+                IntStream.range(0, LARGE_TASKS).mapToObj(i -> "t-" + i).collect(Collectors.toList()),
+                taskIds);
+        assertTrue(searches.get() > LARGE_TASKS / 10);
+    }
+
+    @Test
+    public void testConcurrentFetchesAreCapped() {
+        Workflow workflow = new Workflow();
+        workflow.setWorkflowId("wf-1");
+        LazyWorkflow view = new LazyWorkflow(workflow, new TaskResourceApi(apiClient), TaskProjection.ALL, 10_000, 3);
+        List<Task> tasks =
+                view.getTasks(IntStream.range(0, 20).mapToObj(i -> "t-" + i).collect(Collectors.toList()));
+        assertEquals(20, tasks.size());
+        assertTrue(maxInFlight.get() <= 3, "in flight " + maxInFlight.get());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String query = exchange.getRequestURI().getQuery();
+        if (path.equals("/api/tasks/search") && query.contains("wf-large")) {
+            searchLarge(exchange, query);
+        } else if (path.equals("/api/workflow/wf-1")) {
+            workflowQuery = exchange.getRequestURI().getQuery();
+            LocalServer.respond(exchange, 200, "{\"workflowId\":\"wf-1\",\"status\":\"FAILED\"}");
+        } else if (path.equals("/api/tasks/search")) {
+            searches.incrementAndGet();
+            StringBuilder results = new StringBuilder();
+            for (int i = 0; i < TASKS; i++) {
+                if (i > 0) {
+                    results.append(',');
+                }
+                results.append("{\"taskId\":\"t-").append(i)
+                        .append("\",\"taskType\":\"SIMPLE\",\"status\":\"")
+                        .append(i % 10 == 9 ? "FAILED" : "COMPLETED").append("\"}");
+            }
+            LocalServer.respond(exchange, 200, "{\"totalHits\":" + TASKS + ",\"results\":[" + results + "]}");
+        } else if (path.startsWith("/api/tasks/t-")) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            String taskId = path.substring("/api/tasks/".length());
+            taskFetches.computeIfAbsent(taskId, id -> new AtomicInteger()).incrementAndGet();
+            String index = taskId.substring(2);
+            LocalServer.respond(
+                    exchange,
+                    200,
+                    "{\"taskId\":\"" + taskId + "\",\"status\":\"COMPLETED\","
+                            + "\"inputData\":{\"a\":1},"
+                            + "\"outputData\":{\"result\":\"r-" + index + "\",\"big\":\"xxxxxxxx\"}}");
+        } else {
+            LocalServer.respond(exchange, 404, "{\"message\":\"not found\"}");
+        }
+    }
+
+    /** Pages through the tasks of the range, failing past the window like the index */
+    private void searchLarge(HttpExchange exchange, String query) throws IOException {
+        searches.incrementAndGet();
+        Matcher range = RANGE.matcher(query);
+        assertTrue(range.find(), query);
+        long from = Long.parseLong(range.group(1));
+        long to = Long.parseLong(range.group(2));
+        Matcher page = PAGE.matcher(query);
+        assertTrue(page.find(), query);
+        int start = Integer.parseInt(page.group(1));
+        int size = Integer.parseInt(page.group(2));
+        if (start + size > maxWindow) {
+            LocalServer.respond(exchange, 500, "{\"message\":\"Result window is too large\"}");
+            return;
+        }
+        List<Integer> matching =
+                IntStream.range(0, LARGE_TASKS)
+                        .filter(i -> LARGE_START_TIME + i * 20L > from && LARGE_START_TIME + i * 20L < to)
+                        .boxed()
+                        .collect(Collectors.toList());
+        String results =
+                matching.stream()
+                        .skip(start)
+                        .limit(size)
+                        .map(i -> "{\"taskId\":\"t-" + i + "\",\"status\":\"COMPLETED\"}")
+                        .collect(Collectors.joining(","));
+        LocalServer.respond(exchange, 200, "{\"totalHits\":" + matching.size() + ",\"results\":[" + results + "]}");
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.orkes.conductor.client.util.LocalServer;
+
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestCoalescerTest {
+
+    private LocalServer server;
+
+    private String basePath;
+
+    private final AtomicInteger received = new AtomicInteger();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final OkHttpClient httpClient = new OkHttpClient();
+
+    private RequestCoalescer coalescer;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(5);
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server =
+                LocalServer.start()
+                        .handle(
+                                "/api",
+                                exchange -> {
+                                    int count = received.incrementAndGet();
+                                    try {
+                                        release.await(10, TimeUnit.SECONDS);
+                                    } catch (InterruptedException e) {
+                                        Thread.currentThread().interrupt();
+                                    }
+                                    LocalServer.respond(exchange, 200, "{\"count\":" + count + "}");
+                                });
+        basePath = server.getBasePath();
+        coalescer = new RequestCoalescer(() -> basePath);
+        httpClient.interceptors().add(coalescer);
+    }
+
+    @AfterEach
+    public void stopServer() {
+        release.countDown();
+        executor.shutdownNow();
+        server.close();
+    }
+
+    @Test
+    public void testConcurrentIdenticalRequestsShareOneCall() throws Exception {
+        coalescer.enable("/workflow/{workflowId}");
+        List<Future<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            responses.add(executor.submit(() -> get("/workflow/wf-1?includeTasks=true")));
+        }
+        waitFor(() -> coalescer.getSavedRequests() == 4);
+        release.countDown();
+
+        for (Future<String> response : responses) {
+            assertEquals("{\"count\":1}", response.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, received.get());
+        assertEquals(4, coalescer.getSavedRequests());
+
+        // the call is not shared once it has completed
+        assertEquals("{\"count\":2}", get("/workflow/wf-1?includeTasks=true"));
+    }
+
+    @Test
+    public void testOnlyEnabledEndpointsAreCoalesced() throws Exception {
+        coalescer.enable("/workflow/{workflowId}");
+        List<Future<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            responses.add(executor.submit(() -> get("/workflow/wf-1/status")));
+            responses.add(executor.submit(() -> get("/metadata/taskdefs/task")));
+        }
+        waitFor(() -> received.get() == 4);
+        release.countDown();
+        for (Future<String> response : responses) {
+            response.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(0, coalescer.getSavedRequests());
+        assertFalse(coalescer.isEnabled("/workflow/{workflowId}/status"));
+    }
+
+    @Test
+    public void testWaitIsBoundedByTheReadTimeoutOfTheCall() throws Exception {
+        coalescer.enable("/workflow/{workflowId}");
+        Future<String> leader = executor.submit(() -> get("/workflow/wf-1"));
+        waitFor(() -> received.get() == 1);
+
+        Call follower = call("/workflow/wf-1", 200);
+        long start = System.nanoTime();
+        assertThrows(SocketTimeoutException.class, follower::execute);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000);
+
+        release.countDown();
+        assertEquals("{\"count\":1}", leader.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancelledCallStopsWaiting() throws Exception {
+        coalescer.enable("/workflow/{workflowId}");
+        Future<String> leader = executor.submit(() -> get("/workflow/wf-1"));
+        waitFor(() -> received.get() == 1);
+
+        Call follower = call("/workflow/wf-1", 0);
+        Future<Response> waiting = executor.submit(follower::execute);
+        waitFor(() -> coalescer.getSavedRequests() == 1);
+        follower.cancel();
+        ExecutionException e =
+                assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IOException);
+
+        release.countDown();
+        assertEquals("{\"count\":1}", leader.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testWaitingRequestsAreSentWhenTheSharedCallIsCancelled() throws Exception {
+        coalescer.enable("/workflow/{workflowId}");
+        Call leader = call("/workflow/wf-1", 0);
+        Future<Response> leading = executor.submit(leader::execute);
+        waitFor(() -> received.get() == 1);
+        Future<String> follower = executor.submit(() -> get("/workflow/wf-1"));
+        waitFor(() -> coalescer.getSavedRequests() == 1);
+
+        leader.cancel();
+        assertThrows(ExecutionException.class, () -> leading.get(5, TimeUnit.SECONDS));
+        waitFor(() -> received.get() == 2);
+        release.countDown();
+
+        assertEquals("{\"count\":2}", follower.get(10, TimeUnit.SECONDS));
+        assertEquals(0, coalescer.getSavedRequests());
+    }
+
+    private Call call(String path, long readTimeoutMillis) {
+        CallContext context = new CallContext(readTimeoutMillis);
+        Request request = new Request.Builder().url(basePath + path).get().tag(context).build();
+        Call call = httpClient.newCall(request);
+        context.bind(call);
+        return call;
+    }
+
+    private String get(String path) throws IOException {
+        Request request = new Request.Builder().url(basePath + path).get().build();
+        Response response = httpClient.newCall(request).execute();
+        return response.body().string();
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+}
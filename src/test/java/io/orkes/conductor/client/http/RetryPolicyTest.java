@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.orkes.conductor.client.util.LocalServer;
+
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.Response;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryPolicyTest {
+
+    private LocalServer server;
+
+    @AfterEach
+    public void stopServer() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testDecorrelatedJitterStaysWithinBounds() {
+        RetryPolicy policy =
+                RetryPolicy.builder().backoff(Duration.ofMillis(100), Duration.ofSeconds(2)).build();
+        long previous = 0;
+        for (int attempt = 1; attempt < 50; attempt++) {
+            long backoff = policy.backoffMillis(attempt, previous);
+            assertTrue(backoff >= 100, "backoff " + backoff);
+            assertTrue(backoff <= Math.min(2_000, Math.max(100, previous * 3)), "backoff " + backoff);
+            previous = backoff;
+        }
+    }
+
+    @Test
+    public void testRetryAfter() {
+        RetryPolicy policy = RetryPolicy.builder().backoff(Duration.ZERO, Duration.ofSeconds(10)).build();
+        assertEquals(0, policy.retryAfterMillis(response(null)));
+        assertEquals(3_000, policy.retryAfterMillis(response("3")));
+        assertEquals(-1, policy.retryAfterMillis(response("60")));
+        assertEquals(0, policy.retryAfterMillis(response("soon")));
+    }
+
+    @Test
+    public void testEndpointIdempotency() {
+        RequestBody body = RequestBody.create(null, new byte[0]);
+        Request terminate =
+                new Request.Builder()
+                        .url("http://localhost:8080/api/workflow/bulk/terminate")
+                        .post(body)
+                        .build();
+        Request start =
+                new Request.Builder().url("http://localhost:8080/api/workflow").post(body).build();
+        Request get =
+                new Request.Builder().url("http://localhost:8080/api/workflow/wf-1").get().build();
+
+        assertTrue(RetryPolicy.DEFAULT.isRetryable(terminate));
+        assertFalse(RetryPolicy.DEFAULT.isRetryable(start));
+        assertTrue(RetryPolicy.DEFAULT.isRetryable(get));
+
+        RetryPolicy policy = RetryPolicy.builder().nonIdempotent("GET", "/workflow/{workflowId}").build();
+        assertFalse(policy.isRetryable(get));
+    }
+
+    @Test
+    public void testRetriesBoundedByBudget() throws IOException {
+        AtomicInteger received = new AtomicInteger();
+        server =
+                LocalServer.start()
+                        .handle(
+                                "/api",
+                                exchange -> {
+                                    received.incrementAndGet();
+                                    LocalServer.respond(exchange, 503);
+                                });
+        RetryPolicy policy =
+                RetryPolicy.builder().maxAttempts(3).backoff(Duration.ZERO, Duration.ZERO).build();
+        OkHttpClient client = new OkHttpClient();
+        client.interceptors().add(new RetryInterceptor(policy, new RetryBudget(3, 0, 0)));
+        Request request =
+                new Request.Builder()
+                        .url(server.getBasePath() + "/workflow/wf-1")
+                        .get()
+                        .build();
+
+        assertEquals(503, client.newCall(request).execute().code());
+        assertEquals(3, received.get());
+        // one token left, the second call is retried once
+        assertEquals(503, client.newCall(request).execute().code());
+        assertEquals(5, received.get());
+        // budget exhausted, no more retries
+        assertEquals(503, client.newCall(request).execute().code());
+        assertEquals(6, received.get());
+    }
+
+    private static Response response(String retryAfter) {
+        Response.Builder builder =
+                new Response.Builder()
+                        .request(new Request.Builder().url("http://localhost:8080/api").build())
+                        .protocol(Protocol.HTTP_1_1)
+                        .code(503);
+        if (retryAfter != null) {
+            builder.header("Retry-After", retryAfter);
+        }
+        return builder.build();
+    }
+}
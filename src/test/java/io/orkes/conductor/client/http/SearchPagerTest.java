@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchPagerTest {
+
+    @Test
+    public void testIteratesAllPagesAndPrefetches() {
+        List<Integer> all = IntStream.range(0, 25).boxed().collect(Collectors.toList());
+        List<Integer> requestedStarts = new CopyOnWriteArrayList<>();
+        SearchPager<Integer> pager =
+                new SearchPager<>(
+                        (queryId, start, size) -> {
+                            requestedStarts.add(start);
+                            List<Integer> page =
+                                    all.subList(start, Math.min(start + size, all.size()));
+                            return CompletableFuture.completedFuture(
+                                    new SearchPager.Page<>(new ArrayList<>(page), 25L));
+                        },
+                        10);
+        assertEquals(List.of(0), requestedStarts);
+
+        assertEquals(0, pager.next());
+        // the second page is requested as soon as the first one is received
+        assertEquals(List.of(0, 10), requestedStarts);
+
+        List<Integer> rest = new ArrayList<>();
+        pager.forEachRemaining(rest::add);
+        assertEquals(all.subList(1, 25), rest);
+        assertEquals(List.of(0, 10, 20), requestedStarts);
+        assertFalse(pager.hasNext());
+    }
+
+    @Test
+    public void testPassesScrollQueryId() {
+        List<String> queryIds = new CopyOnWriteArrayList<>();
+        Stream<Integer> stream =
+                SearchPager.stream(
+                        (queryId, start, size) -> {
+                            queryIds.add(String.valueOf(queryId));
+                            List<Integer> page = start < 4 ? List.of(start, start + 1) : List.of();
+                            return CompletableFuture.completedFuture(
+                                    new SearchPager.Page<>(page, null, "scroll-" + start));
+                        },
+                        2);
+        assertEquals(List.of(0, 1, 2, 3), stream.collect(Collectors.toList()));
+        assertEquals(List.of("null", "scroll-0", "scroll-2"), queryIds);
+    }
+
+    @Test
+    public void testCloseCancelsPrefetch() {
+        CompletableFuture<SearchPager.Page<Integer>> pending = new CompletableFuture<>();
+        SearchPager<Integer> pager =
+                new SearchPager<>(
+                        (queryId, start, size) ->
+                                start == 0
+                                        ? CompletableFuture.completedFuture(
+                                                new SearchPager.Page<>(List.of(1, 2), 10L))
+                                        : pending,
+                        2);
+        assertEquals(1, pager.next());
+        pager.close();
+        assertTrue(pending.isCancelled());
+        assertFalse(pager.hasNext());
+    }
+
+    @Test
+    public void testCloseCancelsTheSearchCallOfAMappedPage() {
+        CompletableFuture<List<Integer>> pending = new CompletableFuture<>();
+        SearchPager<Integer> pager =
+                new SearchPager<>(
+                        SearchPager.fetcher(
+                                (queryId, start, size) ->
+                                        start == 0
+                                                ? CompletableFuture.completedFuture(List.of(1, 2))
+                                                : pending,
+                                results -> new SearchPager.Page<>(results, 10L)),
+                        2);
+        assertEquals(1, pager.next());
+        pager.close();
+        assertTrue(pending.isCancelled());
+        assertFalse(pager.hasNext());
+    }
+
+    @Test
+    public void testFailedPageIsRethrown() {
+        SearchPager<Integer> pager =
+                new SearchPager<>(
+                        (queryId, start, size) ->
+                                CompletableFuture.failedFuture(new ApiException(500, "boom")),
+                        10);
+        ApiException e = assertThrows(ApiException.class, pager::hasNext);
+        assertEquals(500, e.getCode());
+    }
+}
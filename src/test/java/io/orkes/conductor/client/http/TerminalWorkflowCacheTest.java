@@ -0,0 +1,157 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.netflix.conductor.common.run.Workflow;
+
+import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.codec.JsonCodec;
+
+import com.google.common.base.Strings;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TerminalWorkflowCacheTest {
+
+    private final JsonCodec codec = new ApiClient().getJsonCodec();
+
+    @TempDir Path dir;
+
+    @Test
+    public void testOnlyTerminalWorkflowsAreCached() throws IOException {
+        try (TerminalWorkflowCache cache = TerminalWorkflowCache.builder(codec).build()) {
+            cache.put(workflow("running", Workflow.WorkflowStatus.RUNNING, 10), true);
+            cache.put(workflow("done", Workflow.WorkflowStatus.COMPLETED, 10), true);
+
+            assertNull(cache.get("running", true));
+            assertEquals("done", cache.get("done", true).getWorkflowId());
+            // fetched with tasks, not served to calls without tasks
+            assertNull(cache.get("done", false));
+        }
+    }
+
+    @Test
+    public void testFetchStartedBeforeAnInvalidationIsNotCached() throws IOException {
+        try (TerminalWorkflowCache cache = TerminalWorkflowCache.builder(codec).build()) {
+            long stale = cache.invalidation("done");
+            cache.invalidate("done");
+            cache.put(workflow("done", Workflow.WorkflowStatus.COMPLETED, 10), true, stale);
+            assertNull(cache.get("done", true));
+
+            cache.put(workflow("done", Workflow.WorkflowStatus.COMPLETED, 10), true, cache.invalidation("done"));
+            assertNotNull(cache.get("done", true));
+        }
+    }
+
+    @Test
+    public void testBoundedByJsonBytes() throws IOException {
+        try (TerminalWorkflowCache cache = TerminalWorkflowCache.builder(codec).maxBytes(200_000).build()) {
+            for (int i = 0; i < 100; i++) {
+                cache.put(workflow("wf-" + i, Workflow.WorkflowStatus.COMPLETED, 10_000), true);
+            }
+            assertTrue(cache.getMemoryBytes() <= 200_000, "bytes " + cache.getMemoryBytes());
+            assertTrue(cache.size() < 100);
+            assertNotNull(cache.get("wf-99", true));
+        }
+    }
+
+    @Test
+    public void testEvictedWorkflowsAreReadFromDisk() throws IOException {
+        try (TerminalWorkflowCache cache =
+                TerminalWorkflowCache.builder(codec)
+                        .maxBytes(50_000)
+                        .diskTier(dir.resolve("workflows.cache"), 10_000_000)
+                        .build()) {
+            for (int i = 0; i < 100; i++) {
+                cache.put(workflow("wf-" + i, Workflow.WorkflowStatus.FAILED, 5_000), true);
+            }
+            assertTrue(cache.getDiskBytes() > 0);
+            Workflow workflow = cache.get("wf-0", true);
+            assertNotNull(workflow);
+            assertEquals("wf-0", workflow.getWorkflowId());
+            assertEquals(Workflow.WorkflowStatus.FAILED, workflow.getStatus());
+            assertEquals(Strings.repeat("x", 5_000), workflow.getOutput().get("result"));
+
+            cache.invalidate("wf-1");
+            assertNull(cache.get("wf-1", true));
+        }
+    }
+
+    @Test
+    public void testDiskTierOverwritesOldestWorkflows() throws IOException {
+        try (TerminalWorkflowCache cache =
+                TerminalWorkflowCache.builder(codec)
+                        .maxBytes(20_000)
+                        .diskTier(dir.resolve("workflows.cache"), 60_000)
+                        .build()) {
+            for (int i = 0; i < 200; i++) {
+                cache.put(workflow("wf-" + i, Workflow.WorkflowStatus.COMPLETED, 5_000), true);
+            }
+            assertTrue(cache.getDiskBytes() <= 60_000);
+            assertNull(cache.get("wf-0", true));
+            assertNotNull(cache.get("wf-199", true));
+        }
+    }
+
+    @Test
+    public void testReadsReturnCopies() throws IOException {
+        try (TerminalWorkflowCache cache = TerminalWorkflowCache.builder(codec).build()) {
+            Workflow workflow = workflow("done", Workflow.WorkflowStatus.COMPLETED, 10);
+            cache.put(workflow, true);
+            workflow.getOutput().put("result", "changed after put");
+
+            Workflow first = cache.get("done", true);
+            first.getOutput().put("result", "changed after get");
+            assertNotSame(first, cache.get("done", true));
+            assertEquals(Strings.repeat("x", 10), cache.get("done", true).getOutput().get("result"));
+        }
+    }
+
+    @Test
+    public void testExpiresAfterWriteInMemoryAndOnDisk() throws Exception {
+        try (TerminalWorkflowCache cache =
+                TerminalWorkflowCache.builder(codec)
+                        .maxBytes(20_000)
+                        .diskTier(dir.resolve("workflows.cache"), 1_000_000)
+                        .expireAfterWrite(Duration.ofMillis(200))
+                        .build()) {
+            for (int i = 0; i < 20; i++) {
+                cache.put(workflow("wf-" + i, Workflow.WorkflowStatus.COMPLETED, 5_000), true);
+            }
+            assertTrue(cache.getDiskBytes() > 0);
+            assertNotNull(cache.get("wf-0", true));
+            Thread.sleep(300);
+            assertNull(cache.get("wf-0", true));
+            assertNull(cache.get("wf-19", true));
+        }
+    }
+
+    private static Workflow workflow(String workflowId, Workflow.WorkflowStatus status, int outputSize) {
+        Workflow workflow = new Workflow();
+        workflow.setWorkflowId(workflowId);
+        workflow.setStatus(status);
+        Map<String, Object> output = new HashMap<>();
+        output.put("result", Strings.repeat("x", outputSize));
+        workflow.setOutput(output);
+        return workflow;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.netflix.conductor.common.metadata.tasks.Task;
+import com.netflix.conductor.common.run.Workflow;
+
+import io.orkes.conductor.client.model.WorkflowStatus;
+import io.orkes.conductor.common.model.WorkflowRun;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkflowProgressFollowerTest {
+
+    private final AtomicInteger summaryFetches = new AtomicInteger();
+
+    private final AtomicInteger workflowFetches = new AtomicInteger();
+
+    @Test
+    public void testTerminalResponseIsNotPolled() throws Exception {
+        WorkflowProgressFollower follower = follower(new ArrayDeque<>());
+        List<WorkflowRun> snapshots = new CopyOnWriteArrayList<>();
+
+        WorkflowRun run =
+                follower.follow(CompletableFuture.completedFuture(run(Workflow.WorkflowStatus.COMPLETED)), snapshots::add)
+                        .get(5, TimeUnit.SECONDS);
+
+        assertEquals(Workflow.WorkflowStatus.COMPLETED, run.getStatus());
+        assertTrue(snapshots.isEmpty());
+        assertEquals(0, summaryFetches.get());
+        assertEquals(0, workflowFetches.get());
+    }
+
+    @Test
+    public void testSummaryIsPolledUntilTerminal() throws Exception {
+        Deque<Object> states = new ArrayDeque<>();
+        states.add(summary(WorkflowStatus.StatusEnum.RUNNING, 0));
+        states.add(summary(WorkflowStatus.StatusEnum.RUNNING, 1));
+        states.add(summary(WorkflowStatus.StatusEnum.RUNNING, 1));
+        states.add(summary(WorkflowStatus.StatusEnum.COMPLETED, 2));
+        WorkflowProgressFollower follower = follower(states);
+        List<WorkflowRun> snapshots = new CopyOnWriteArrayList<>();
+
+        WorkflowRun run =
+                follower.follow(CompletableFuture.completedFuture(run(Workflow.WorkflowStatus.RUNNING)), snapshots::add)
+                        .get(5, TimeUnit.SECONDS);
+
+        assertEquals(Workflow.WorkflowStatus.COMPLETED, run.getStatus());
+        assertEquals("wf-1", run.getWorkflowId());
+        // the terminal snapshot is fetched with its tasks
+        assertEquals(1, run.getTasks().size());
+        // the response of the execute request, then one snapshot per changed summary
+        assertEquals(3, snapshots.size());
+        assertEquals(1, snapshots.get(2).getVariables().get("step"));
+        assertEquals(4, summaryFetches.get());
+        assertEquals(1, workflowFetches.get());
+    }
+
+    @Test
+    public void testPollingStopsWhenCancelled() throws Exception {
+        Deque<Object> states = new ArrayDeque<>();
+        for (int i = 0; i < 1000; i++) {
+            states.add(summary(WorkflowStatus.StatusEnum.RUNNING, i));
+        }
+        WorkflowProgressFollower follower = follower(states);
+
+        CompletableFuture<WorkflowRun> result =
+                follower.follow(CompletableFuture.completedFuture(run(Workflow.WorkflowStatus.RUNNING)), run -> {});
+        Thread.sleep(50);
+        result.cancel(true);
+        int polled = summaryFetches.get();
+        Thread.sleep(100);
+
+        assertTrue(summaryFetches.get() <= polled + 1);
+    }
+
+    @Test
+    public void testTransientFailuresAreRetried() throws Exception {
+        Deque<Object> states = new ArrayDeque<>();
+        states.add(new ApiException(503, "unavailable"));
+        states.add(new ApiException(0, "connection reset"));
+        states.add(summary(WorkflowStatus.StatusEnum.COMPLETED, 1));
+        states.add(new ApiException(502, "bad gateway"));
+        WorkflowProgressFollower follower = follower(states);
+
+        WorkflowRun run =
+                follower.follow(CompletableFuture.completedFuture(run(Workflow.WorkflowStatus.RUNNING)), r -> {})
+                        .get(5, TimeUnit.SECONDS);
+
+        assertEquals(Workflow.WorkflowStatus.COMPLETED, run.getStatus());
+        assertEquals(3, summaryFetches.get());
+        assertEquals(2, workflowFetches.get());
+    }
+
+    @Test
+    public void testClientErrorFailsTheResult() {
+        Deque<Object> states = new ArrayDeque<>();
+        states.add(new ApiException(404, "not found"));
+        WorkflowProgressFollower follower = follower(states);
+
+        CompletableFuture<WorkflowRun> result =
+                follower.follow(CompletableFuture.completedFuture(run(Workflow.WorkflowStatus.RUNNING)), run -> {});
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(404, ((ApiException) e.getCause()).getCode());
+    }
+
+    @Test
+    public void testWorkflowIsMappedToRun() {
+        Workflow workflow = workflow();
+        workflow.setCorrelationId("c-1");
+        workflow.setInput(Map.of("a", 1));
+        workflow.setPriority(3);
+        workflow.setUpdateTime(42L);
+
+        WorkflowRun run = WorkflowProgressFollower.toRun(workflow);
+
+        assertEquals("wf-1", run.getWorkflowId());
+        assertEquals("c-1", run.getCorrelationId());
+        assertEquals(Map.of("a", 1), run.getInput());
+        assertEquals(Integer.valueOf(3), run.getPriority());
+        assertEquals(Long.valueOf(42), run.getUpdateTime());
+        assertSame(workflow.getTasks(), run.getTasks());
+        assertEquals(Workflow.WorkflowStatus.COMPLETED, run.getStatus());
+    }
+
+    /**
+     * Fetches return the states in order, the summaries while the workflow runs and a workflow
+     * with tasks once terminal. An exception in the states fails the fetch that polls it.
+     */
+    private WorkflowProgressFollower follower(Deque<Object> states) {
+        return new WorkflowProgressFollower(
+                workflowId -> {
+                    summaryFetches.incrementAndGet();
+                    return next(states, WorkflowStatus.class);
+                },
+                workflowId -> {
+                    workflowFetches.incrementAndGet();
+                    CompletableFuture<Workflow> failed = failure(states);
+                    return failed != null ? failed : CompletableFuture.completedFuture(workflow());
+                },
+                Duration.ofMillis(1));
+    }
+
+    private static <T> CompletableFuture<T> next(Deque<Object> states, Class<T> type) {
+        CompletableFuture<T> failed = failure(states);
+        if (failed != null) {
+            return failed;
+        }
+        synchronized (states) {
+            return CompletableFuture.completedFuture(type.cast(states.poll()));
+        }
+    }
+
+    private static <T> CompletableFuture<T> failure(Deque<Object> states) {
+        synchronized (states) {
+            if (states.peek() instanceof ApiException) {
+                return CompletableFuture.failedFuture((ApiException) states.poll());
+            }
+            return null;
+        }
+    }
+
+    private static WorkflowRun run(Workflow.WorkflowStatus status) {
+        WorkflowRun run = new WorkflowRun();
+        run.setWorkflowId("wf-1");
+        run.setStatus(status);
+        return run;
+    }
+
+    private static WorkflowStatus summary(WorkflowStatus.StatusEnum status, int step) {
+        return new WorkflowStatus()
+                .workflowId("wf-1")
+                .status(status)
+                .putVariablesItem("step", step);
+    }
+
+    private static Workflow workflow() {
+        Workflow workflow = new Workflow();
+        workflow.setWorkflowId("wf-1");
+        workflow.setStatus(Workflow.WorkflowStatus.COMPLETED);
+        Task task = new Task();
+        task.setTaskId("t-1");
+        workflow.getTasks().add(task);
+        return workflow;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.util.LocalServer;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkflowSearchExporterTest {
+
+    private static final Pattern RANGE =
+            Pattern.compile("startTime > (-?\\d+) AND startTime < (\\d+)");
+
+    private static final Pattern WORKFLOW_ID = Pattern.compile("\"workflowId\":\"([^\"]+)\"");
+
+    private static final int WORKFLOWS = 500;
+
+    private static final long BASE = 1_000_000L;
+
+    private LocalServer server;
+
+    private ApiClient apiClient;
+
+    private final AtomicInteger searches = new AtomicInteger();
+
+    /** Searches covering this start time fail while set */
+    private volatile long failAt = -1;
+
+    @TempDir Path dir;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = LocalServer.start().handle("/api/workflow/search", this::search);
+        apiClient = new ApiClient(server.getBasePath());
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void testExportsEveryWorkflowOnce() throws IOException {
+        Path output = dir.resolve("workflows.ndjson.gz");
+        WorkflowSearchExporter.Result result =
+                WorkflowSearchExporter.builder(apiClient, BASE, BASE + WORKFLOWS * 10)
+                        .slice(Duration.ofMillis(1_000))
+                        .maxHitsPerSlice(40)
+                        .pageSize(15)
+                        .concurrency(4)
+                        .build()
+                        .export(output);
+
+        assertEquals(WORKFLOWS, result.getRecords());
+        assertTrue(result.getSplits() > 0, "slices of 100 workflows should have been split");
+        assertEquals(allWorkflowIds(), readWorkflowIds(output));
+    }
+
+    @Test
+    public void testResumesFromCheckpoint() throws IOException {
+        Path output = dir.resolve("workflows.ndjson.gz");
+        Path checkpoint = dir.resolve("export.checkpoint");
+        WorkflowSearchExporter exporter =
+                WorkflowSearchExporter.builder(apiClient, BASE, BASE + WORKFLOWS * 10)
+                        .slice(Duration.ofMillis(500))
+                        .pageSize(20)
+                        .concurrency(1)
+                        .checkpointFile(checkpoint)
+                        .build();
+
+        failAt = BASE + 3_200;
+        assertThrows(ApiException.class, () -> exporter.export(output));
+        assertFalse(Files.readAllLines(checkpoint).isEmpty());
+
+        failAt = -1;
+        searches.set(0);
+        WorkflowSearchExporter.Result result = exporter.export(output);
+        assertEquals(WORKFLOWS, result.getRecords());
+        assertEquals(6, result.getResumedSlices());
+        assertEquals(4, result.getSlices());
+        assertEquals(allWorkflowIds(), readWorkflowIds(output));
+        // 4 slices of 50 workflows in pages of 20
+        assertEquals(12, searches.get());
+    }
+
+    private void search(HttpExchange exchange) throws IOException {
+        searches.incrementAndGet();
+        Map<String, String> params = new HashMap<>();
+        for (String param : exchange.getRequestURI().getRawQuery().split("&")) {
+            String[] pair = param.split("=", 2);
+            params.put(pair[0], URLDecoder.decode(pair[1], StandardCharsets.UTF_8));
+        }
+        Matcher range = RANGE.matcher(params.get("query"));
+        assertTrue(range.find());
+        long after = Long.parseLong(range.group(1));
+        long before = Long.parseLong(range.group(2));
+        if (failAt > after && failAt < before) {
+            LocalServer.respond(exchange, 500, "{\"message\":\"unavailable\"}");
+            return;
+        }
+        int start = Integer.parseInt(params.get("start"));
+        int size = Integer.parseInt(params.get("size"));
+        List<String> matching = new ArrayList<>();
+        for (int i = 0; i < WORKFLOWS; i++) {
+            long startTime = BASE + i * 10L;
+            if (startTime > after && startTime < before) {
+                matching.add("{\"workflowId\":\"wf-" + i + "\",\"workflowType\":\"export\"}");
+            }
+        }
+        List<String> page =
+                matching.subList(
+                        Math.min(start, matching.size()), Math.min(start + size, matching.size()));
+        LocalServer.respond(
+                exchange,
+                200,
+                "{\"totalHits\":" + matching.size() + ",\"results\":[" + String.join(",", page) + "]}");
+    }
+
+    private static Set<String> allWorkflowIds() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < WORKFLOWS; i++) {
+            ids.add("wf-" + i);
+        }
+        return ids;
+    }
+
+    private static Set<String> readWorkflowIds(Path output) throws IOException {
+        Set<String> ids = new HashSet<>();
+        try (BufferedReader reader =
+                new BufferedReader(
+                        new InputStreamReader(
+                                new GZIPInputStream(Files.newInputStream(output)),
+                                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = WORKFLOW_ID.matcher(line);
+                assertTrue(matcher.find(), line);
+                assertTrue(ids.add(matcher.group(1)), "duplicate " + line);
+            }
+        }
+        return ids;
+    }
+}
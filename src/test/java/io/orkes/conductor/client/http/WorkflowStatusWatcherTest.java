@@ -0,0 +1,199 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.model.WorkflowStatus;
+import io.orkes.conductor.client.util.LocalServer;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkflowStatusWatcherTest {
+
+    private static final Pattern STATUS_PATH = Pattern.compile("/api/workflow/([^/]+)/status");
+
+    private static final Pattern ID = Pattern.compile("\"([^\"]+)\"");
+
+    /** Number of lookups of a workflow before it completes */
+    private static final int POLLS_TO_COMPLETE = 3;
+
+    private LocalServer server;
+
+    private WorkflowStatusWatcher watcher;
+
+    private final Map<String, AtomicInteger> polls = new ConcurrentHashMap<>();
+
+    private final AtomicInteger singleRequests = new AtomicInteger();
+
+    private final AtomicInteger batchRequests = new AtomicInteger();
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = LocalServer.start().handle("/api/workflow/", this::handle);
+        ApiClient apiClient = new ApiClient(server.getBasePath());
+        watcher =
+                WorkflowStatusWatcher.builder(apiClient)
+                        .minInterval(Duration.ofMillis(20))
+                        .maxInterval(Duration.ofMillis(100))
+                        .batchSize(50)
+                        .build();
+    }
+
+    @AfterEach
+    public void stop() {
+        watcher.close();
+        server.close();
+    }
+
+    @Test
+    public void testCompletesWhenTerminal() throws Exception {
+        List<CompletableFuture<WorkflowStatus>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(watcher.watch("wf-" + i));
+        }
+        for (int i = 0; i < 20; i++) {
+            WorkflowStatus status = futures.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals("wf-" + i, status.getWorkflowId());
+            assertEquals(WorkflowStatus.StatusEnum.COMPLETED, status.getStatus());
+            assertEquals(POLLS_TO_COMPLETE, polls.get("wf-" + i).get());
+        }
+        assertEquals(0, watcher.getWatchedCount());
+    }
+
+    @Test
+    public void testSameWorkflowIsWatchedOnce() throws Exception {
+        CompletableFuture<WorkflowStatus> first = watcher.watch("wf-1");
+        CompletableFuture<WorkflowStatus> second = watcher.watch("wf-1");
+        assertNotSame(first, second);
+        assertEquals(1, watcher.getWatchedCount());
+        assertEquals(WorkflowStatus.StatusEnum.COMPLETED, first.get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals(WorkflowStatus.StatusEnum.COMPLETED, second.get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals(POLLS_TO_COMPLETE, polls.get("wf-1").get());
+    }
+
+    @Test
+    public void testCancellingOneCallerKeepsWatchingForTheOthers() throws Exception {
+        CompletableFuture<WorkflowStatus> first = watcher.watch("wf-1");
+        CompletableFuture<WorkflowStatus> second = watcher.watch("wf-1");
+        first.cancel(false);
+        assertEquals(1, watcher.getWatchedCount());
+        assertEquals(WorkflowStatus.StatusEnum.COMPLETED, second.get(10, TimeUnit.SECONDS).getStatus());
+    }
+
+    @Test
+    public void testCancellingEveryCallerStopsWatching() {
+        CompletableFuture<WorkflowStatus> first = watcher.watch("wf-1");
+        CompletableFuture<WorkflowStatus> second = watcher.watch("wf-1");
+        first.cancel(false);
+        second.cancel(false);
+        assertEquals(0, watcher.getWatchedCount());
+        assertFalse(watcher.watch("wf-1").isDone());
+    }
+
+    @Test
+    public void testCorrelatedWorkflowsAreLookedUpInBatches() throws Exception {
+        List<CompletableFuture<WorkflowStatus>> futures = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            futures.add(watcher.watch("wf-" + i, "order", "c-" + i));
+        }
+        for (CompletableFuture<WorkflowStatus> future : futures) {
+            assertEquals(WorkflowStatus.StatusEnum.COMPLETED, future.get(10, TimeUnit.SECONDS).getStatus());
+        }
+        assertEquals(0, singleRequests.get());
+        // a lookup per workflow and poll would take 360 requests
+        assertTrue(batchRequests.get() < 30, "batches " + batchRequests.get());
+    }
+
+    @Test
+    public void testUnknownWorkflowFails() {
+        CompletableFuture<WorkflowStatus> future = watcher.watch("missing");
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof ApiException);
+        assertEquals(404, ((ApiException) e.getCause()).getCode());
+    }
+
+    @Test
+    public void testWorkflowMissingFromBatchesIsLookedUpById() {
+        CompletableFuture<WorkflowStatus> future = watcher.watch("missing", "order", "c-missing");
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertEquals(404, ((ApiException) e.getCause()).getCode());
+        assertEquals(WorkflowStatusWatcher.MAX_BATCH_MISSES, batchRequests.get());
+        assertEquals(1, singleRequests.get());
+    }
+
+    @Test
+    public void testCancellingStopsWatching() {
+        watcher.watch("wf-1").cancel(false);
+        assertEquals(0, watcher.getWatchedCount());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        Matcher status = STATUS_PATH.matcher(path);
+        if (status.matches()) {
+            singleRequests.incrementAndGet();
+            String workflowId = status.group(1);
+            if (workflowId.equals("missing")) {
+                LocalServer.respond(exchange, 404, "{\"message\":\"not found\"}");
+                return;
+            }
+            LocalServer.respond(
+                    exchange, 200, "{\"workflowId\":\"" + workflowId + "\",\"status\":\"" + poll(workflowId) + "\"}");
+            return;
+        }
+        batchRequests.incrementAndGet();
+        StringBuilder body = new StringBuilder("{");
+        Matcher ids = ID.matcher(LocalServer.read(exchange));
+        while (ids.find()) {
+            String correlationId = ids.group(1);
+            if (correlationId.equals("c-missing")) {
+                continue;
+            }
+            String workflowId = "wf-" + correlationId.substring(2);
+            if (body.length() > 1) {
+                body.append(',');
+            }
+            body.append('"').append(correlationId).append("\":[")
+                    .append("{\"workflowId\":\"other\",\"correlationId\":\"").append(correlationId)
+                    .append("\",\"status\":\"COMPLETED\"},")
+                    .append("{\"workflowId\":\"").append(workflowId)
+                    .append("\",\"correlationId\":\"").append(correlationId)
+                    .append("\",\"status\":\"").append(poll(workflowId)).append("\"}]");
+        }
+        LocalServer.respond(exchange, 200, body.append('}').toString());
+    }
+
+    private String poll(String workflowId) {
+        int count = polls.computeIfAbsent(workflowId, id -> new AtomicInteger()).incrementAndGet();
+        return count >= POLLS_TO_COMPLETE ? "COMPLETED" : "RUNNING";
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenManagerTest {
+
+    @Test
+    public void testReadsExpiryFromJwt() {
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        assertEquals(exp * 1000, TokenManager.expiryOf(jwt(exp, "a")));
+        assertEquals(-1, TokenManager.expiryOf("not-a-jwt"));
+        assertEquals(-1, TokenManager.expiryOf("a.%%%.c"));
+    }
+
+    @Test
+    public void testFirstCallWaitsThenTokenIsCached() {
+        AtomicInteger fetches = new AtomicInteger();
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        TokenManager manager = new TokenManager(() -> jwt(exp, "t" + fetches.incrementAndGet()));
+        String token = manager.getToken();
+        assertEquals(token, manager.getToken());
+        assertEquals(1, fetches.get());
+        assertEquals(exp * 1000, manager.getExpiresAt());
+        manager.shutdown();
+    }
+
+    @Test
+    public void testServesCurrentTokenWhileRefreshing() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        // the first token is refreshed halfway through its few seconds of life
+        TokenManager manager =
+                new TokenManager(
+                        () -> {
+                            if (fetches.incrementAndGet() == 1) {
+                                return jwt(System.currentTimeMillis() / 1000 + 3, "first");
+                            }
+                            await(release);
+                            return jwt(System.currentTimeMillis() / 1000 + 3600, "second");
+                        });
+        String first = manager.getToken();
+        waitFor(() -> fetches.get() == 2);
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(first, manager.getToken());
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+        release.countDown();
+        waitFor(() -> !manager.getToken().equals(first));
+        assertEquals(2, fetches.get());
+        manager.shutdown();
+    }
+
+    @Test
+    public void testRefreshOfRejectedTokenIsSharedAndKeepsNewerToken() {
+        AtomicInteger fetches = new AtomicInteger();
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        TokenManager manager = new TokenManager(() -> jwt(exp, "t" + fetches.incrementAndGet()));
+        String rejected = manager.getToken();
+        String refreshed = manager.refresh(rejected);
+        assertNotEquals(rejected, refreshed);
+        // a late rejection of the old token does not refresh again
+        assertEquals(refreshed, manager.refresh(rejected));
+        assertEquals(2, fetches.get());
+        manager.shutdown();
+    }
+
+    @Test
+    public void testFailedRefreshKeepsCurrentToken() {
+        AtomicInteger fetches = new AtomicInteger();
+        TokenManager manager =
+                new TokenManager(
+                        () -> {
+                            if (fetches.incrementAndGet() > 1) {
+                                throw new IllegalStateException("token service down");
+                            }
+                            return jwt(System.currentTimeMillis() / 1000 + 3600, "t");
+                        });
+        String token = manager.getToken();
+        assertThrows(IllegalStateException.class, () -> manager.refresh(token));
+        assertEquals(token, manager.getToken());
+        manager.shutdown();
+    }
+
+    @Test
+    public void testFirstCallFailsWhenTokenServiceFails() {
+        TokenManager manager =
+                new TokenManager(
+                        () -> {
+                            throw new IllegalStateException("bad credentials");
+                        });
+        assertThrows(IllegalStateException.class, manager::getToken);
+    }
+
+    @Test
+    public void testShutdownStopsBackgroundRefresh() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        // refreshed 1.5 s after it is fetched
+        TokenManager manager =
+                new TokenManager(
+                        () -> jwt(System.currentTimeMillis() / 1000 + 3, "t" + fetches.incrementAndGet()));
+        manager.getToken();
+        manager.shutdown();
+        Thread.sleep(2000);
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void testSlowTokenServiceOnlyDelaysItsOwnManager() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        TokenManager slow =
+                new TokenManager(
+                        () -> {
+                            await(release);
+                            return jwt(exp, "slow");
+                        });
+        Thread waiting = new Thread(slow::getToken);
+        waiting.start();
+        try {
+            TokenManager fast = new TokenManager(() -> jwt(exp, "fast"));
+            long start = System.nanoTime();
+            assertNotNull(fast.getToken());
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+            fast.shutdown();
+        } finally {
+            release.countDown();
+            waiting.join(10_000);
+            slow.shutdown();
+        }
+    }
+
+    @Test
+    public void testListenersSeeNewTokens() {
+        AtomicInteger fetches = new AtomicInteger();
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        TokenManager manager = new TokenManager(() -> jwt(exp, "t" + fetches.incrementAndGet()));
+        AtomicInteger changes = new AtomicInteger();
+        manager.addListener(token -> changes.incrementAndGet());
+        String token = manager.getToken();
+        manager.refresh(token);
+        assertEquals(2, changes.get());
+        manager.shutdown();
+    }
+
+    private static String jwt(long exp, String subject) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        String payload =
+                encoder.encodeToString(
+                        ("{\"sub\":\"" + subject + "\",\"exp\":" + exp + "}")
+                                .getBytes(StandardCharsets.UTF_8));
+        return header + "." + payload + ".sig";
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2022 Orkes, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.orkes.conductor.client.http.transport;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.orkes.conductor.client.ApiClient;
+import io.orkes.conductor.client.http.ApiException;
+import io.orkes.conductor.client.http.CallOptions;
+import io.orkes.conductor.client.util.LocalServer;
+
+import com.google.gson.reflect.TypeToken;
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.Response;
+import com.sun.net.httpserver.HttpExchange;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JdkHttpTransportTest {
+
+    private static final Type MAP_TYPE = new TypeToken<Map<String, Object>>() {}.getType();
+
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    private static final long HTTP2_DELAY_MILLIS = 500;
+
+    private LocalServer server;
+
+    private ApiClient apiClient;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = LocalServer.start().handle("/api/echo", this::echo).handle("/api/slow", this::slow);
+        apiClient = new ApiClient(server.getBasePath());
+        apiClient.setHttpTransport(new JdkHttpTransport());
+    }
+
+    @AfterEach
+    public void stopServer() {
+        apiClient.shutdown();
+        server.close();
+    }
+
+    @Test
+    public void testRoundTrip() throws ApiException {
+        Map<String, String> body = new HashMap<>();
+        body.put("name", "workflow");
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        headers.put("X-Test", "value");
+        Call call =
+                apiClient.buildCall(
+                        "/echo", "POST", new ArrayList<>(), new ArrayList<>(), body, headers,
+                        Collections.emptyMap(), new String[0], null);
+
+        Map<String, Object> response = apiClient.<Map<String, Object>>execute(call, MAP_TYPE).getData();
+
+        assertEquals("POST", response.get("method"));
+        assertEquals("value", response.get("header"));
+        assertEquals("{\"name\":\"workflow\"}", response.get("body"));
+    }
+
+    @Test
+    public void testReadTimeoutOfTheClientApplies() {
+        apiClient.setReadTimeout(200);
+
+        long start = System.currentTimeMillis();
+        ApiException e = assertThrows(ApiException.class, () -> apiClient.execute(slowCall(apiClient)));
+
+        assertTrue(e.getCause() instanceof HttpTimeoutException, String.valueOf(e.getCause()));
+        assertTrue(System.currentTimeMillis() - start < 2000);
+    }
+
+    @Test
+    public void testReadTimeoutOfTheCallOptionsApplies() {
+        ApiClient client =
+                apiClient.withCallOptions(CallOptions.builder().readTimeout(Duration.ofMillis(200)).build());
+
+        ApiException e = assertThrows(ApiException.class, () -> client.execute(slowCall(client)));
+        assertTrue(e.getCause() instanceof HttpTimeoutException, String.valueOf(e.getCause()));
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneHttp2Connection() throws Exception {
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        Set<String> protocols = ConcurrentHashMap.newKeySet();
+        Server http2Server = startHttp2Server(clientPorts, protocols);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        ApiClient client =
+                new ApiClient(
+                        "http://localhost:" + ((ServerConnector) http2Server.getConnectors()[0]).getLocalPort() + "/api");
+        client.setHttpTransport(new JdkHttpTransport());
+        try {
+            // the first request upgrades the plain text connection to HTTP/2
+            get(client, "/ping").execute().body().close();
+            long start = System.currentTimeMillis();
+            List<Future<Response>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                responses.add(executor.submit(() -> get(client, "/delayed").execute()));
+            }
+            for (Future<Response> future : responses) {
+                Response response = future.get(10, TimeUnit.SECONDS);
+                assertEquals(Protocol.HTTP_2, response.protocol());
+                assertEquals(200, response.code());
+                response.body().close();
+            }
+            long elapsed = System.currentTimeMillis() - start;
+
+            assertEquals(Set.of("HTTP/2.0"), protocols);
+            assertEquals(1, clientPorts.size(), "connections " + clientPorts);
+            // requests queued behind each other on one connection would take 8 delays
+            assertTrue(elapsed < CONCURRENT_REQUESTS * HTTP2_DELAY_MILLIS / 2, "elapsed " + elapsed);
+        } finally {
+            executor.shutdownNow();
+            client.shutdown();
+            http2Server.stop();
+        }
+    }
+
+    private static Call slowCall(ApiClient client) throws ApiException {
+        return get(client, "/slow");
+    }
+
+    private static Call get(ApiClient client, String path) throws ApiException {
+        return client.buildCall(
+                path, "GET", new ArrayList<>(), new ArrayList<>(), null, new HashMap<>(),
+                Collections.emptyMap(), new String[0], null);
+    }
+
+    /**
+     * Jetty server accepting HTTP/1.1 and the h2c upgrade. It records the client port of every
+     * request and the protocol of the delayed requests.
+     */
+    private static Server startHttp2Server(Set<Integer> clientPorts, Set<String> protocols) throws Exception {
+        Server http2Server = new Server();
+        HttpConfiguration config = new HttpConfiguration();
+        ServerConnector connector =
+                new ServerConnector(
+                        http2Server, new HttpConnectionFactory(config), new HTTP2CServerConnectionFactory(config));
+        connector.setHost("localhost");
+        http2Server.addConnector(connector);
+        http2Server.setHandler(
+                new AbstractHandler() {
+                    @Override
+                    public void handle(
+                            String target,
+                            org.eclipse.jetty.server.Request baseRequest,
+                            HttpServletRequest request,
+                            HttpServletResponse response)
+                            throws IOException {
+                        clientPorts.add(request.getRemotePort());
+                        if (target.endsWith("/delayed")) {
+                            protocols.add(request.getProtocol());
+                            try {
+                                Thread.sleep(HTTP2_DELAY_MILLIS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        response.setContentType("application/json");
+                        response.getWriter().write("{}");
+                        baseRequest.setHandled(true);
+                    }
+                });
+        http2Server.start();
+        return http2Server;
+    }
+
+    private void echo(HttpExchange exchange) throws IOException {
+        String body = LocalServer.read(exchange).replace("\"", "\\\"");
+        LocalServer.respond(
+                exchange,
+                200,
+                "{\"method\":\"" + exchange.getRequestMethod() + "\",\"header\":\""
+                        + exchange.getRequestHeaders().getFirst("X-Test") + "\",\"body\":\"" + body + "\"}");
+    }
+
+    private void slow(HttpExchange exchange) throws IOException {
+        try {
+            Thread.sleep(3000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LocalServer.respond(exchange, 200, "{}");
+    }
+}